@@ -84,6 +84,20 @@ public class TQueueService {
      */
     public TQueueResponse queue(String _secret, String _queueName, TQueueMessage _message) throws org.apache.thrift.TException;
 
+    /**
+     * Puts a batch of messages to a queue.
+     * 
+     * @param _secret
+     * @param _queueName
+     * @param _messages
+     * @return {@code status == 200} if successful, {@code status == 404} if queue does not exist; {@code status == 500} means "exception/error on server"; {@code results} holds outcome of each message, in order
+     * 
+     * @param _secret
+     * @param _queueName
+     * @param _messages
+     */
+    public TQueueBatchResponse queueBatch(String _secret, String _queueName, List<TQueueMessage> _messages) throws org.apache.thrift.TException;
+
     /**
      * Re-queues a message.
      * 
@@ -126,41 +140,75 @@ public class TQueueService {
      */
     public TQueueResponse finish(String _secret, String _queueName, TQueueMessage _message) throws org.apache.thrift.TException;
 
+    /**
+     * Called when finish processing a batch of messages to cleanup ephemeral storage. Messages are identified by their queue ids.
+     * 
+     * @param _secret
+     * @param _queueName
+     * @param _queueIds
+     * @return {@code status == 200} if successful (number of finished messages is in {@code message}), {@code status == 404} if queue does not exist; {@code status == 500} means "exception/error on server"
+     * 
+     * @param _secret
+     * @param _queueName
+     * @param _queueIds
+     */
+    public TQueueResponse finishBatch(String _secret, String _queueName, List<Long> _queueIds) throws org.apache.thrift.TException;
+
     /**
      * Takes a message from a queue.
      * 
      * @param _secret
      * @param _queueName
+     * @param _waitMillis if queue is empty, wait up to this number of milliseconds for a message to arrive (long-polling), {@code 0} means "do not wait"
      * @return {@code status == 200} if successful, {@code status == 404} if queue does not exist; {@code status == 500} means "exception/error on server"
      * 
      * @param _secret
      * @param _queueName
+     * @param _waitMillis
+     */
+    public TQueueResponse take(String _secret, String _queueName, long _waitMillis) throws org.apache.thrift.TException;
+
+    /**
+     * Takes up to {@code _maxMessages} messages from a queue.
+     * 
+     * @param _secret
+     * @param _queueName
+     * @param _maxMessages
+     * @return {@code status == 200} if successful, {@code status == 404} if queue does not exist; {@code status == 500} means "exception/error on server"; taken messages are in {@code queueMessages}
+     * 
+     * @param _secret
+     * @param _queueName
+     * @param _maxMessages
      */
-    public TQueueResponse take(String _secret, String _queueName) throws org.apache.thrift.TException;
+    public TQueueBatchResponse takeBatch(String _secret, String _queueName, int _maxMessages) throws org.apache.thrift.TException;
 
     /**
      * Gets number of items currently in a queue.
      * 
      * @param _secret
      * @param _queueName
+     * @param _cached if {@code true}, return the server's cached approximate size instead of reading it from the backend; {@code stalenessMs} tells how long ago the cached size was last reconciled with the backend
      * @return {@code status == 200} if successful, {@code status == 404} if queue does not exist; {@code status == 500} means "exception/error on server"
      * 
      * @param _secret
      * @param _queueName
+     * @param _cached
      */
-    public TQueueSizeResponse queueSize(String _secret, String _queueName) throws org.apache.thrift.TException;
+    public TQueueSizeResponse queueSize(String _secret, String _queueName, boolean _cached) throws org.apache.thrift.TException;
 
     /**
      * Gets number of items currently in a queue's ephemeral storage.
      * 
      * @param _secret
      * @param _queueName
+     * @param _cached if {@code true}, return the server's cached approximate size instead of reading it from the backend; {@code stalenessMs} tells how long ago the cached size was last reconciled with the backend
      * @return {@code status == 200} if successful, {@code status == 404} if queue does not exist; {@code status == 500} means "exception/error on server"
      * 
      * @param _secret
      * @param _queueName
+     * @param _cached
      */
-    public TQueueSizeResponse ephemeralSize(String _secret, String _queueName) throws org.apache.thrift.TException;
+    public TQueueSizeResponse ephemeralSize(String _secret, String _queueName, boolean _cached) throws org.apache.thrift.TException;
 
   }
 
@@ -176,17 +224,23 @@ public class TQueueService {
 
     public void queue(String _secret, String _queueName, TQueueMessage _message, org.apache.thrift.async.AsyncMethodCallback resultHandler) throws org.apache.thrift.TException;
 
+    public void queueBatch(String _secret, String _queueName, List<TQueueMessage> _messages, org.apache.thrift.async.AsyncMethodCallback resultHandler) throws org.apache.thrift.TException;
+
     public void requeue(String _secret, String _queueName, TQueueMessage _message, org.apache.thrift.async.AsyncMethodCallback resultHandler) throws org.apache.thrift.TException;
 
     public void requeueSilent(String _secret, String _queueName, TQueueMessage _message, org.apache.thrift.async.AsyncMethodCallback resultHandler) throws org.apache.thrift.TException;
 
     public void finish(String _secret, String _queueName, TQueueMessage _message, org.apache.thrift.async.AsyncMethodCallback resultHandler) throws org.apache.thrift.TException;
 
-    public void take(String _secret, String _queueName, org.apache.thrift.async.AsyncMethodCallback resultHandler) throws org.apache.thrift.TException;
+    public void finishBatch(String _secret, String _queueName, List<Long> _queueIds, org.apache.thrift.async.AsyncMethodCallback resultHandler) throws org.apache.thrift.TException;
 
-    public void queueSize(String _secret, String _queueName, org.apache.thrift.async.AsyncMethodCallback resultHandler) throws org.apache.thrift.TException;
+    public void take(String _secret, String _queueName, long _waitMillis, org.apache.thrift.async.AsyncMethodCallback resultHandler) throws org.apache.thrift.TException;
 
-    public void ephemeralSize(String _secret, String _queueName, org.apache.thrift.async.AsyncMethodCallback resultHandler) throws org.apache.thrift.TException;
+    public void takeBatch(String _secret, String _queueName, int _maxMessages, org.apache.thrift.async.AsyncMethodCallback resultHandler) throws org.apache.thrift.TException;
+
+    public void queueSize(String _secret, String _queueName, boolean _cached, org.apache.thrift.async.AsyncMethodCallback resultHandler) throws org.apache.thrift.TException;
+
+    public void ephemeralSize(String _secret, String _queueName, boolean _cached, org.apache.thrift.async.AsyncMethodCallback resultHandler) throws org.apache.thrift.TException;
 
   }
 
@@ -316,6 +370,31 @@ public class TQueueService {
       throw new org.apache.thrift.TApplicationException(org.apache.thrift.TApplicationException.MISSING_RESULT, "queue failed: unknown result");
     }
 
+    public TQueueBatchResponse queueBatch(String _secret, String _queueName, List<TQueueMessage> _messages) throws org.apache.thrift.TException
+    {
+      send_queueBatch(_secret, _queueName, _messages);
+      return recv_queueBatch();
+    }
+
+    public void send_queueBatch(String _secret, String _queueName, List<TQueueMessage> _messages) throws org.apache.thrift.TException
+    {
+      queueBatch_args args = new queueBatch_args();
+      args.set_secret(_secret);
+      args.set_queueName(_queueName);
+      args.set_messages(_messages);
+      sendBase("queueBatch", args);
+    }
+
+    public TQueueBatchResponse recv_queueBatch() throws org.apache.thrift.TException
+    {
+      queueBatch_result result = new queueBatch_result();
+      receiveBase(result, "queueBatch");
+      if (result.isSetSuccess()) {
+        return result.success;
+      }
+      throw new org.apache.thrift.TApplicationException(org.apache.thrift.TApplicationException.MISSING_RESULT, "queueBatch failed: unknown result");
+    }
+
     public TQueueResponse requeue(String _secret, String _queueName, TQueueMessage _message) throws org.apache.thrift.TException
     {
       send_requeue(_secret, _queueName, _message);
@@ -391,17 +470,43 @@ public class TQueueService {
       throw new org.apache.thrift.TApplicationException(org.apache.thrift.TApplicationException.MISSING_RESULT, "finish failed: unknown result");
     }
 
-    public TQueueResponse take(String _secret, String _queueName) throws org.apache.thrift.TException
+    public TQueueResponse finishBatch(String _secret, String _queueName, List<Long> _queueIds) throws org.apache.thrift.TException
+    {
+      send_finishBatch(_secret, _queueName, _queueIds);
+      return recv_finishBatch();
+    }
+
+    public void send_finishBatch(String _secret, String _queueName, List<Long> _queueIds) throws org.apache.thrift.TException
+    {
+      finishBatch_args args = new finishBatch_args();
+      args.set_secret(_secret);
+      args.set_queueName(_queueName);
+      args.set_queueIds(_queueIds);
+      sendBase("finishBatch", args);
+    }
+
+    public TQueueResponse recv_finishBatch() throws org.apache.thrift.TException
+    {
+      finishBatch_result result = new finishBatch_result();
+      receiveBase(result, "finishBatch");
+      if (result.isSetSuccess()) {
+        return result.success;
+      }
+      throw new org.apache.thrift.TApplicationException(org.apache.thrift.TApplicationException.MISSING_RESULT, "finishBatch failed: unknown result");
+    }
+
+    public TQueueResponse take(String _secret, String _queueName, long _waitMillis) throws org.apache.thrift.TException
     {
-      send_take(_secret, _queueName);
+      send_take(_secret, _queueName, _waitMillis);
       return recv_take();
     }
 
-    public void send_take(String _secret, String _queueName) throws org.apache.thrift.TException
+    public void send_take(String _secret, String _queueName, long _waitMillis) throws org.apache.thrift.TException
     {
       take_args args = new take_args();
       args.set_secret(_secret);
       args.set_queueName(_queueName);
+      args.set_waitMillis(_waitMillis);
       sendBase("take", args);
     }
 
@@ -415,17 +520,43 @@ public class TQueueService {
       throw new org.apache.thrift.TApplicationException(org.apache.thrift.TApplicationException.MISSING_RESULT, "take failed: unknown result");
     }
 
-    public TQueueSizeResponse queueSize(String _secret, String _queueName) throws org.apache.thrift.TException
+    public TQueueBatchResponse takeBatch(String _secret, String _queueName, int _maxMessages) throws org.apache.thrift.TException
+    {
+      send_takeBatch(_secret, _queueName, _maxMessages);
+      return recv_takeBatch();
+    }
+
+    public void send_takeBatch(String _secret, String _queueName, int _maxMessages) throws org.apache.thrift.TException
+    {
+      takeBatch_args args = new takeBatch_args();
+      args.set_secret(_secret);
+      args.set_queueName(_queueName);
+      args.set_maxMessages(_maxMessages);
+      sendBase("takeBatch", args);
+    }
+
+    public TQueueBatchResponse recv_takeBatch() throws org.apache.thrift.TException
+    {
+      takeBatch_result result = new takeBatch_result();
+      receiveBase(result, "takeBatch");
+      if (result.isSetSuccess()) {
+        return result.success;
+      }
+      throw new org.apache.thrift.TApplicationException(org.apache.thrift.TApplicationException.MISSING_RESULT, "takeBatch failed: unknown result");
+    }
+
+    public TQueueSizeResponse queueSize(String _secret, String _queueName, boolean _cached) throws org.apache.thrift.TException
     {
-      send_queueSize(_secret, _queueName);
+      send_queueSize(_secret, _queueName, _cached);
       return recv_queueSize();
     }
 
-    public void send_queueSize(String _secret, String _queueName) throws org.apache.thrift.TException
+    public void send_queueSize(String _secret, String _queueName, boolean _cached) throws org.apache.thrift.TException
     {
       queueSize_args args = new queueSize_args();
       args.set_secret(_secret);
       args.set_queueName(_queueName);
+      args.set_cached(_cached);
       sendBase("queueSize", args);
     }
 
@@ -439,17 +570,18 @@ public class TQueueService {
       throw new org.apache.thrift.TApplicationException(org.apache.thrift.TApplicationException.MISSING_RESULT, "queueSize failed: unknown result");
     }
 
-    public TQueueSizeResponse ephemeralSize(String _secret, String _queueName) throws org.apache.thrift.TException
+    public TQueueSizeResponse ephemeralSize(String _secret, String _queueName, boolean _cached) throws org.apache.thrift.TException
     {
-      send_ephemeralSize(_secret, _queueName);
+      send_ephemeralSize(_secret, _queueName, _cached);
       return recv_ephemeralSize();
     }
 
-    public void send_ephemeralSize(String _secret, String _queueName) throws org.apache.thrift.TException
+    public void send_ephemeralSize(String _secret, String _queueName, boolean _cached) throws org.apache.thrift.TException
     {
       ephemeralSize_args args = new ephemeralSize_args();
       args.set_secret(_secret);
       args.set_queueName(_queueName);
+      args.set_cached(_cached);
       sendBase("ephemeralSize", args);
     }
 
@@ -646,6 +778,44 @@ public class TQueueService {
       }
     }
 
+    public void queueBatch(String _secret, String _queueName, List<TQueueMessage> _messages, org.apache.thrift.async.AsyncMethodCallback resultHandler) throws org.apache.thrift.TException {
+      checkReady();
+      queueBatch_call method_call = new queueBatch_call(_secret, _queueName, _messages, resultHandler, this, ___protocolFactory, ___transport);
+      this.___currentMethod = method_call;
+      ___manager.call(method_call);
+    }
+
+    public static class queueBatch_call extends org.apache.thrift.async.TAsyncMethodCall {
+      private String _secret;
+      private String _queueName;
+      private List<TQueueMessage> _messages;
+      public queueBatch_call(String _secret, String _queueName, List<TQueueMessage> _messages, org.apache.thrift.async.AsyncMethodCallback resultHandler, org.apache.thrift.async.TAsyncClient client, org.apache.thrift.protocol.TProtocolFactory protocolFactory, org.apache.thrift.transport.TNonblockingTransport transport) throws org.apache.thrift.TException {
+        super(client, protocolFactory, transport, resultHandler, false);
+        this._secret = _secret;
+        this._queueName = _queueName;
+        this._messages = _messages;
+      }
+
+      public void write_args(org.apache.thrift.protocol.TProtocol prot) throws org.apache.thrift.TException {
+        prot.writeMessageBegin(new org.apache.thrift.protocol.TMessage("queueBatch", org.apache.thrift.protocol.TMessageType.CALL, 0));
+        queueBatch_args args = new queueBatch_args();
+        args.set_secret(_secret);
+        args.set_queueName(_queueName);
+        args.set_messages(_messages);
+        args.write(prot);
+        prot.writeMessageEnd();
+      }
+
+      public TQueueBatchResponse getResult() throws org.apache.thrift.TException {
+        if (getState() != org.apache.thrift.async.TAsyncMethodCall.State.RESPONSE_READ) {
+          throw new IllegalStateException("Method call not finished!");
+        }
+        org.apache.thrift.transport.TMemoryInputTransport memoryTransport = new org.apache.thrift.transport.TMemoryInputTransport(getFrameBuffer().array());
+        org.apache.thrift.protocol.TProtocol prot = client.getProtocolFactory().getProtocol(memoryTransport);
+        return (new Client(prot)).recv_queueBatch();
+      }
+    }
+
     public void requeue(String _secret, String _queueName, TQueueMessage _message, org.apache.thrift.async.AsyncMethodCallback resultHandler) throws org.apache.thrift.TException {
       checkReady();
       requeue_call method_call = new requeue_call(_secret, _queueName, _message, resultHandler, this, ___protocolFactory, ___transport);
@@ -760,9 +930,47 @@ public class TQueueService {
       }
     }
 
-    public void take(String _secret, String _queueName, org.apache.thrift.async.AsyncMethodCallback resultHandler) throws org.apache.thrift.TException {
+    public void finishBatch(String _secret, String _queueName, List<Long> _queueIds, org.apache.thrift.async.AsyncMethodCallback resultHandler) throws org.apache.thrift.TException {
+      checkReady();
+      finishBatch_call method_call = new finishBatch_call(_secret, _queueName, _queueIds, resultHandler, this, ___protocolFactory, ___transport);
+      this.___currentMethod = method_call;
+      ___manager.call(method_call);
+    }
+
+    public static class finishBatch_call extends org.apache.thrift.async.TAsyncMethodCall {
+      private String _secret;
+      private String _queueName;
+      private List<Long> _queueIds;
+      public finishBatch_call(String _secret, String _queueName, List<Long> _queueIds, org.apache.thrift.async.AsyncMethodCallback resultHandler, org.apache.thrift.async.TAsyncClient client, org.apache.thrift.protocol.TProtocolFactory protocolFactory, org.apache.thrift.transport.TNonblockingTransport transport) throws org.apache.thrift.TException {
+        super(client, protocolFactory, transport, resultHandler, false);
+        this._secret = _secret;
+        this._queueName = _queueName;
+        this._queueIds = _queueIds;
+      }
+
+      public void write_args(org.apache.thrift.protocol.TProtocol prot) throws org.apache.thrift.TException {
+        prot.writeMessageBegin(new org.apache.thrift.protocol.TMessage("finishBatch", org.apache.thrift.protocol.TMessageType.CALL, 0));
+        finishBatch_args args = new finishBatch_args();
+        args.set_secret(_secret);
+        args.set_queueName(_queueName);
+        args.set_queueIds(_queueIds);
+        args.write(prot);
+        prot.writeMessageEnd();
+      }
+
+      public TQueueResponse getResult() throws org.apache.thrift.TException {
+        if (getState() != org.apache.thrift.async.TAsyncMethodCall.State.RESPONSE_READ) {
+          throw new IllegalStateException("Method call not finished!");
+        }
+        org.apache.thrift.transport.TMemoryInputTransport memoryTransport = new org.apache.thrift.transport.TMemoryInputTransport(getFrameBuffer().array());
+        org.apache.thrift.protocol.TProtocol prot = client.getProtocolFactory().getProtocol(memoryTransport);
+        return (new Client(prot)).recv_finishBatch();
+      }
+    }
+
+    public void take(String _secret, String _queueName, long _waitMillis, org.apache.thrift.async.AsyncMethodCallback resultHandler) throws org.apache.thrift.TException {
       checkReady();
-      take_call method_call = new take_call(_secret, _queueName, resultHandler, this, ___protocolFactory, ___transport);
+      take_call method_call = new take_call(_secret, _queueName, _waitMillis, resultHandler, this, ___protocolFactory, ___transport);
       this.___currentMethod = method_call;
       ___manager.call(method_call);
     }
@@ -770,10 +978,12 @@ public class TQueueService {
     public static class take_call extends org.apache.thrift.async.TAsyncMethodCall {
       private String _secret;
       private String _queueName;
-      public take_call(String _secret, String _queueName, org.apache.thrift.async.AsyncMethodCallback resultHandler, org.apache.thrift.async.TAsyncClient client, org.apache.thrift.protocol.TProtocolFactory protocolFactory, org.apache.thrift.transport.TNonblockingTransport transport) throws org.apache.thrift.TException {
+      private long _waitMillis;
+      public take_call(String _secret, String _queueName, long _waitMillis, org.apache.thrift.async.AsyncMethodCallback resultHandler, org.apache.thrift.async.TAsyncClient client, org.apache.thrift.protocol.TProtocolFactory protocolFactory, org.apache.thrift.transport.TNonblockingTransport transport) throws org.apache.thrift.TException {
         super(client, protocolFactory, transport, resultHandler, false);
         this._secret = _secret;
         this._queueName = _queueName;
+        this._waitMillis = _waitMillis;
       }
 
       public void write_args(org.apache.thrift.protocol.TProtocol prot) throws org.apache.thrift.TException {
@@ -781,6 +991,7 @@ public class TQueueService {
         take_args args = new take_args();
         args.set_secret(_secret);
         args.set_queueName(_queueName);
+        args.set_waitMillis(_waitMillis);
         args.write(prot);
         prot.writeMessageEnd();
       }
@@ -795,9 +1006,47 @@ public class TQueueService {
       }
     }
 
-    public void queueSize(String _secret, String _queueName, org.apache.thrift.async.AsyncMethodCallback resultHandler) throws org.apache.thrift.TException {
+    public void takeBatch(String _secret, String _queueName, int _maxMessages, org.apache.thrift.async.AsyncMethodCallback resultHandler) throws org.apache.thrift.TException {
+      checkReady();
+      takeBatch_call method_call = new takeBatch_call(_secret, _queueName, _maxMessages, resultHandler, this, ___protocolFactory, ___transport);
+      this.___currentMethod = method_call;
+      ___manager.call(method_call);
+    }
+
+    public static class takeBatch_call extends org.apache.thrift.async.TAsyncMethodCall {
+      private String _secret;
+      private String _queueName;
+      private int _maxMessages;
+      public takeBatch_call(String _secret, String _queueName, int _maxMessages, org.apache.thrift.async.AsyncMethodCallback resultHandler, org.apache.thrift.async.TAsyncClient client, org.apache.thrift.protocol.TProtocolFactory protocolFactory, org.apache.thrift.transport.TNonblockingTransport transport) throws org.apache.thrift.TException {
+        super(client, protocolFactory, transport, resultHandler, false);
+        this._secret = _secret;
+        this._queueName = _queueName;
+        this._maxMessages = _maxMessages;
+      }
+
+      public void write_args(org.apache.thrift.protocol.TProtocol prot) throws org.apache.thrift.TException {
+        prot.writeMessageBegin(new org.apache.thrift.protocol.TMessage("takeBatch", org.apache.thrift.protocol.TMessageType.CALL, 0));
+        takeBatch_args args = new takeBatch_args();
+        args.set_secret(_secret);
+        args.set_queueName(_queueName);
+        args.set_maxMessages(_maxMessages);
+        args.write(prot);
+        prot.writeMessageEnd();
+      }
+
+      public TQueueBatchResponse getResult() throws org.apache.thrift.TException {
+        if (getState() != org.apache.thrift.async.TAsyncMethodCall.State.RESPONSE_READ) {
+          throw new IllegalStateException("Method call not finished!");
+        }
+        org.apache.thrift.transport.TMemoryInputTransport memoryTransport = new org.apache.thrift.transport.TMemoryInputTransport(getFrameBuffer().array());
+        org.apache.thrift.protocol.TProtocol prot = client.getProtocolFactory().getProtocol(memoryTransport);
+        return (new Client(prot)).recv_takeBatch();
+      }
+    }
+
+    public void queueSize(String _secret, String _queueName, boolean _cached, org.apache.thrift.async.AsyncMethodCallback resultHandler) throws org.apache.thrift.TException {
       checkReady();
-      queueSize_call method_call = new queueSize_call(_secret, _queueName, resultHandler, this, ___protocolFactory, ___transport);
+      queueSize_call method_call = new queueSize_call(_secret, _queueName, _cached, resultHandler, this, ___protocolFactory, ___transport);
       this.___currentMethod = method_call;
       ___manager.call(method_call);
     }
@@ -805,10 +1054,12 @@ public class TQueueService {
     public static class queueSize_call extends org.apache.thrift.async.TAsyncMethodCall {
       private String _secret;
       private String _queueName;
-      public queueSize_call(String _secret, String _queueName, org.apache.thrift.async.AsyncMethodCallback resultHandler, org.apache.thrift.async.TAsyncClient client, org.apache.thrift.protocol.TProtocolFactory protocolFactory, org.apache.thrift.transport.TNonblockingTransport transport) throws org.apache.thrift.TException {
+      private boolean _cached;
+      public queueSize_call(String _secret, String _queueName, boolean _cached, org.apache.thrift.async.AsyncMethodCallback resultHandler, org.apache.thrift.async.TAsyncClient client, org.apache.thrift.protocol.TProtocolFactory protocolFactory, org.apache.thrift.transport.TNonblockingTransport transport) throws org.apache.thrift.TException {
         super(client, protocolFactory, transport, resultHandler, false);
         this._secret = _secret;
         this._queueName = _queueName;
+        this._cached = _cached;
       }
 
       public void write_args(org.apache.thrift.protocol.TProtocol prot) throws org.apache.thrift.TException {
@@ -816,6 +1067,7 @@ public class TQueueService {
         queueSize_args args = new queueSize_args();
         args.set_secret(_secret);
         args.set_queueName(_queueName);
+        args.set_cached(_cached);
         args.write(prot);
         prot.writeMessageEnd();
       }
@@ -830,9 +1082,9 @@ public class TQueueService {
       }
     }
 
-    public void ephemeralSize(String _secret, String _queueName, org.apache.thrift.async.AsyncMethodCallback resultHandler) throws org.apache.thrift.TException {
+    public void ephemeralSize(String _secret, String _queueName, boolean _cached, org.apache.thrift.async.AsyncMethodCallback resultHandler) throws org.apache.thrift.TException {
       checkReady();
-      ephemeralSize_call method_call = new ephemeralSize_call(_secret, _queueName, resultHandler, this, ___protocolFactory, ___transport);
+      ephemeralSize_call method_call = new ephemeralSize_call(_secret, _queueName, _cached, resultHandler, this, ___protocolFactory, ___transport);
       this.___currentMethod = method_call;
       ___manager.call(method_call);
     }
@@ -840,10 +1092,12 @@ public class TQueueService {
     public static class ephemeralSize_call extends org.apache.thrift.async.TAsyncMethodCall {
       private String _secret;
       private String _queueName;
-      public ephemeralSize_call(String _secret, String _queueName, org.apache.thrift.async.AsyncMethodCallback resultHandler, org.apache.thrift.async.TAsyncClient client, org.apache.thrift.protocol.TProtocolFactory protocolFactory, org.apache.thrift.transport.TNonblockingTransport transport) throws org.apache.thrift.TException {
+      private boolean _cached;
+      public ephemeralSize_call(String _secret, String _queueName, boolean _cached, org.apache.thrift.async.AsyncMethodCallback resultHandler, org.apache.thrift.async.TAsyncClient client, org.apache.thrift.protocol.TProtocolFactory protocolFactory, org.apache.thrift.transport.TNonblockingTransport transport) throws org.apache.thrift.TException {
         super(client, protocolFactory, transport, resultHandler, false);
         this._secret = _secret;
         this._queueName = _queueName;
+        this._cached = _cached;
       }
 
       public void write_args(org.apache.thrift.protocol.TProtocol prot) throws org.apache.thrift.TException {
@@ -851,6 +1105,7 @@ public class TQueueService {
         ephemeralSize_args args = new ephemeralSize_args();
         args.set_secret(_secret);
         args.set_queueName(_queueName);
+        args.set_cached(_cached);
         args.write(prot);
         prot.writeMessageEnd();
       }
@@ -883,10 +1138,13 @@ public class TQueueService {
       processMap.put("queueExists", new queueExists());
       processMap.put("initQueue", new initQueue());
       processMap.put("queue", new queue());
+      processMap.put("queueBatch", new queueBatch());
       processMap.put("requeue", new requeue());
       processMap.put("requeueSilent", new requeueSilent());
       processMap.put("finish", new finish());
+      processMap.put("finishBatch", new finishBatch());
       processMap.put("take", new take());
+      processMap.put("takeBatch", new takeBatch());
       processMap.put("queueSize", new queueSize());
       processMap.put("ephemeralSize", new ephemeralSize());
       return processMap;
@@ -992,6 +1250,26 @@ public class TQueueService {
       }
     }
 
+    public static class queueBatch<I extends Iface> extends org.apache.thrift.ProcessFunction<I, queueBatch_args> {
+      public queueBatch() {
+        super("queueBatch");
+      }
+
+      public queueBatch_args getEmptyArgsInstance() {
+        return new queueBatch_args();
+      }
+
+      protected boolean isOneway() {
+        return false;
+      }
+
+      public queueBatch_result getResult(I iface, queueBatch_args args) throws org.apache.thrift.TException {
+        queueBatch_result result = new queueBatch_result();
+        result.success = iface.queueBatch(args._secret, args._queueName, args._messages);
+        return result;
+      }
+    }
+
     public static class requeue<I extends Iface> extends org.apache.thrift.ProcessFunction<I, requeue_args> {
       public requeue() {
         super("requeue");
@@ -1052,6 +1330,26 @@ public class TQueueService {
       }
     }
 
+    public static class finishBatch<I extends Iface> extends org.apache.thrift.ProcessFunction<I, finishBatch_args> {
+      public finishBatch() {
+        super("finishBatch");
+      }
+
+      public finishBatch_args getEmptyArgsInstance() {
+        return new finishBatch_args();
+      }
+
+      protected boolean isOneway() {
+        return false;
+      }
+
+      public finishBatch_result getResult(I iface, finishBatch_args args) throws org.apache.thrift.TException {
+        finishBatch_result result = new finishBatch_result();
+        result.success = iface.finishBatch(args._secret, args._queueName, args._queueIds);
+        return result;
+      }
+    }
+
     public static class take<I extends Iface> extends org.apache.thrift.ProcessFunction<I, take_args> {
       public take() {
         super("take");
@@ -1067,7 +1365,27 @@ public class TQueueService {
 
       public take_result getResult(I iface, take_args args) throws org.apache.thrift.TException {
         take_result result = new take_result();
-        result.success = iface.take(args._secret, args._queueName);
+        result.success = iface.take(args._secret, args._queueName, args._waitMillis);
+        return result;
+      }
+    }
+
+    public static class takeBatch<I extends Iface> extends org.apache.thrift.ProcessFunction<I, takeBatch_args> {
+      public takeBatch() {
+        super("takeBatch");
+      }
+
+      public takeBatch_args getEmptyArgsInstance() {
+        return new takeBatch_args();
+      }
+
+      protected boolean isOneway() {
+        return false;
+      }
+
+      public takeBatch_result getResult(I iface, takeBatch_args args) throws org.apache.thrift.TException {
+        takeBatch_result result = new takeBatch_result();
+        result.success = iface.takeBatch(args._secret, args._queueName, args._maxMessages);
         return result;
       }
     }
@@ -1087,7 +1405,7 @@ public class TQueueService {
 
       public queueSize_result getResult(I iface, queueSize_args args) throws org.apache.thrift.TException {
         queueSize_result result = new queueSize_result();
-        result.success = iface.queueSize(args._secret, args._queueName);
+        result.success = iface.queueSize(args._secret, args._queueName, args._cached);
         return result;
       }
     }
@@ -1107,7 +1425,7 @@ public class TQueueService {
 
       public ephemeralSize_result getResult(I iface, ephemeralSize_args args) throws org.apache.thrift.TException {
         ephemeralSize_result result = new ephemeralSize_result();
-        result.success = iface.ephemeralSize(args._secret, args._queueName);
+        result.success = iface.ephemeralSize(args._secret, args._queueName, args._cached);
         return result;
       }
     }
@@ -1130,10 +1448,13 @@ public class TQueueService {
       processMap.put("queueExists", new queueExists());
       processMap.put("initQueue", new initQueue());
       processMap.put("queue", new queue());
+      processMap.put("queueBatch", new queueBatch());
       processMap.put("requeue", new requeue());
       processMap.put("requeueSilent", new requeueSilent());
       processMap.put("finish", new finish());
+      processMap.put("finishBatch", new finishBatch());
       processMap.put("take", new take());
+      processMap.put("takeBatch", new takeBatch());
       processMap.put("queueSize", new queueSize());
       processMap.put("ephemeralSize", new ephemeralSize());
       return processMap;
@@ -1372,6 +1693,57 @@ public class TQueueService {
       }
     }
 
+    public static class queueBatch<I extends AsyncIface> extends org.apache.thrift.AsyncProcessFunction<I, queueBatch_args, TQueueBatchResponse> {
+      public queueBatch() {
+        super("queueBatch");
+      }
+
+      public queueBatch_args getEmptyArgsInstance() {
+        return new queueBatch_args();
+      }
+
+      public AsyncMethodCallback<TQueueBatchResponse> getResultHandler(final AsyncFrameBuffer fb, final int seqid) {
+        final org.apache.thrift.AsyncProcessFunction fcall = this;
+        return new AsyncMethodCallback<TQueueBatchResponse>() { 
+          public void onComplete(TQueueBatchResponse o) {
+            queueBatch_result result = new queueBatch_result();
+            result.success = o;
+            try {
+              fcall.sendResponse(fb,result, org.apache.thrift.protocol.TMessageType.REPLY,seqid);
+              return;
+            } catch (Exception e) {
+              LOGGER.error("Exception writing to internal frame buffer", e);
+            }
+            fb.close();
+          }
+          public void onError(Exception e) {
+            byte msgType = org.apache.thrift.protocol.TMessageType.REPLY;
+            org.apache.thrift.TBase msg;
+            queueBatch_result result = new queueBatch_result();
+            {
+              msgType = org.apache.thrift.protocol.TMessageType.EXCEPTION;
+              msg = (org.apache.thrift.TBase)new org.apache.thrift.TApplicationException(org.apache.thrift.TApplicationException.INTERNAL_ERROR, e.getMessage());
+            }
+            try {
+              fcall.sendResponse(fb,msg,msgType,seqid);
+              return;
+            } catch (Exception ex) {
+              LOGGER.error("Exception writing to internal frame buffer", ex);
+            }
+            fb.close();
+          }
+        };
+      }
+
+      protected boolean isOneway() {
+        return false;
+      }
+
+      public void start(I iface, queueBatch_args args, org.apache.thrift.async.AsyncMethodCallback<TQueueBatchResponse> resultHandler) throws TException {
+        iface.queueBatch(args._secret, args._queueName, args._messages,resultHandler);
+      }
+    }
+
     public static class requeue<I extends AsyncIface> extends org.apache.thrift.AsyncProcessFunction<I, requeue_args, TQueueResponse> {
       public requeue() {
         super("requeue");
@@ -1525,20 +1897,20 @@ public class TQueueService {
       }
     }
 
-    public static class take<I extends AsyncIface> extends org.apache.thrift.AsyncProcessFunction<I, take_args, TQueueResponse> {
-      public take() {
-        super("take");
+    public static class finishBatch<I extends AsyncIface> extends org.apache.thrift.AsyncProcessFunction<I, finishBatch_args, TQueueResponse> {
+      public finishBatch() {
+        super("finishBatch");
       }
 
-      public take_args getEmptyArgsInstance() {
-        return new take_args();
+      public finishBatch_args getEmptyArgsInstance() {
+        return new finishBatch_args();
       }
 
       public AsyncMethodCallback<TQueueResponse> getResultHandler(final AsyncFrameBuffer fb, final int seqid) {
         final org.apache.thrift.AsyncProcessFunction fcall = this;
         return new AsyncMethodCallback<TQueueResponse>() { 
           public void onComplete(TQueueResponse o) {
-            take_result result = new take_result();
+            finishBatch_result result = new finishBatch_result();
             result.success = o;
             try {
               fcall.sendResponse(fb,result, org.apache.thrift.protocol.TMessageType.REPLY,seqid);
@@ -1551,7 +1923,7 @@ public class TQueueService {
           public void onError(Exception e) {
             byte msgType = org.apache.thrift.protocol.TMessageType.REPLY;
             org.apache.thrift.TBase msg;
-            take_result result = new take_result();
+            finishBatch_result result = new finishBatch_result();
             {
               msgType = org.apache.thrift.protocol.TMessageType.EXCEPTION;
               msg = (org.apache.thrift.TBase)new org.apache.thrift.TApplicationException(org.apache.thrift.TApplicationException.INTERNAL_ERROR, e.getMessage());
@@ -1571,25 +1943,25 @@ public class TQueueService {
         return false;
       }
 
-      public void start(I iface, take_args args, org.apache.thrift.async.AsyncMethodCallback<TQueueResponse> resultHandler) throws TException {
-        iface.take(args._secret, args._queueName,resultHandler);
+      public void start(I iface, finishBatch_args args, org.apache.thrift.async.AsyncMethodCallback<TQueueResponse> resultHandler) throws TException {
+        iface.finishBatch(args._secret, args._queueName, args._queueIds,resultHandler);
       }
     }
 
-    public static class queueSize<I extends AsyncIface> extends org.apache.thrift.AsyncProcessFunction<I, queueSize_args, TQueueSizeResponse> {
-      public queueSize() {
-        super("queueSize");
+    public static class take<I extends AsyncIface> extends org.apache.thrift.AsyncProcessFunction<I, take_args, TQueueResponse> {
+      public take() {
+        super("take");
       }
 
-      public queueSize_args getEmptyArgsInstance() {
-        return new queueSize_args();
+      public take_args getEmptyArgsInstance() {
+        return new take_args();
       }
 
-      public AsyncMethodCallback<TQueueSizeResponse> getResultHandler(final AsyncFrameBuffer fb, final int seqid) {
+      public AsyncMethodCallback<TQueueResponse> getResultHandler(final AsyncFrameBuffer fb, final int seqid) {
         final org.apache.thrift.AsyncProcessFunction fcall = this;
-        return new AsyncMethodCallback<TQueueSizeResponse>() { 
-          public void onComplete(TQueueSizeResponse o) {
-            queueSize_result result = new queueSize_result();
+        return new AsyncMethodCallback<TQueueResponse>() { 
+          public void onComplete(TQueueResponse o) {
+            take_result result = new take_result();
             result.success = o;
             try {
               fcall.sendResponse(fb,result, org.apache.thrift.protocol.TMessageType.REPLY,seqid);
@@ -1602,7 +1974,109 @@ public class TQueueService {
           public void onError(Exception e) {
             byte msgType = org.apache.thrift.protocol.TMessageType.REPLY;
             org.apache.thrift.TBase msg;
-            queueSize_result result = new queueSize_result();
+            take_result result = new take_result();
+            {
+              msgType = org.apache.thrift.protocol.TMessageType.EXCEPTION;
+              msg = (org.apache.thrift.TBase)new org.apache.thrift.TApplicationException(org.apache.thrift.TApplicationException.INTERNAL_ERROR, e.getMessage());
+            }
+            try {
+              fcall.sendResponse(fb,msg,msgType,seqid);
+              return;
+            } catch (Exception ex) {
+              LOGGER.error("Exception writing to internal frame buffer", ex);
+            }
+            fb.close();
+          }
+        };
+      }
+
+      protected boolean isOneway() {
+        return false;
+      }
+
+      public void start(I iface, take_args args, org.apache.thrift.async.AsyncMethodCallback<TQueueResponse> resultHandler) throws TException {
+        iface.take(args._secret, args._queueName, args._waitMillis,resultHandler);
+      }
+    }
+
+    public static class takeBatch<I extends AsyncIface> extends org.apache.thrift.AsyncProcessFunction<I, takeBatch_args, TQueueBatchResponse> {
+      public takeBatch() {
+        super("takeBatch");
+      }
+
+      public takeBatch_args getEmptyArgsInstance() {
+        return new takeBatch_args();
+      }
+
+      public AsyncMethodCallback<TQueueBatchResponse> getResultHandler(final AsyncFrameBuffer fb, final int seqid) {
+        final org.apache.thrift.AsyncProcessFunction fcall = this;
+        return new AsyncMethodCallback<TQueueBatchResponse>() { 
+          public void onComplete(TQueueBatchResponse o) {
+            takeBatch_result result = new takeBatch_result();
+            result.success = o;
+            try {
+              fcall.sendResponse(fb,result, org.apache.thrift.protocol.TMessageType.REPLY,seqid);
+              return;
+            } catch (Exception e) {
+              LOGGER.error("Exception writing to internal frame buffer", e);
+            }
+            fb.close();
+          }
+          public void onError(Exception e) {
+            byte msgType = org.apache.thrift.protocol.TMessageType.REPLY;
+            org.apache.thrift.TBase msg;
+            takeBatch_result result = new takeBatch_result();
+            {
+              msgType = org.apache.thrift.protocol.TMessageType.EXCEPTION;
+              msg = (org.apache.thrift.TBase)new org.apache.thrift.TApplicationException(org.apache.thrift.TApplicationException.INTERNAL_ERROR, e.getMessage());
+            }
+            try {
+              fcall.sendResponse(fb,msg,msgType,seqid);
+              return;
+            } catch (Exception ex) {
+              LOGGER.error("Exception writing to internal frame buffer", ex);
+            }
+            fb.close();
+          }
+        };
+      }
+
+      protected boolean isOneway() {
+        return false;
+      }
+
+      public void start(I iface, takeBatch_args args, org.apache.thrift.async.AsyncMethodCallback<TQueueBatchResponse> resultHandler) throws TException {
+        iface.takeBatch(args._secret, args._queueName, args._maxMessages,resultHandler);
+      }
+    }
+
+    public static class queueSize<I extends AsyncIface> extends org.apache.thrift.AsyncProcessFunction<I, queueSize_args, TQueueSizeResponse> {
+      public queueSize() {
+        super("queueSize");
+      }
+
+      public queueSize_args getEmptyArgsInstance() {
+        return new queueSize_args();
+      }
+
+      public AsyncMethodCallback<TQueueSizeResponse> getResultHandler(final AsyncFrameBuffer fb, final int seqid) {
+        final org.apache.thrift.AsyncProcessFunction fcall = this;
+        return new AsyncMethodCallback<TQueueSizeResponse>() { 
+          public void onComplete(TQueueSizeResponse o) {
+            queueSize_result result = new queueSize_result();
+            result.success = o;
+            try {
+              fcall.sendResponse(fb,result, org.apache.thrift.protocol.TMessageType.REPLY,seqid);
+              return;
+            } catch (Exception e) {
+              LOGGER.error("Exception writing to internal frame buffer", e);
+            }
+            fb.close();
+          }
+          public void onError(Exception e) {
+            byte msgType = org.apache.thrift.protocol.TMessageType.REPLY;
+            org.apache.thrift.TBase msg;
+            queueSize_result result = new queueSize_result();
             {
               msgType = org.apache.thrift.protocol.TMessageType.EXCEPTION;
               msg = (org.apache.thrift.TBase)new org.apache.thrift.TApplicationException(org.apache.thrift.TApplicationException.INTERNAL_ERROR, e.getMessage());
@@ -1623,7 +2097,7 @@ public class TQueueService {
       }
 
       public void start(I iface, queueSize_args args, org.apache.thrift.async.AsyncMethodCallback<TQueueSizeResponse> resultHandler) throws TException {
-        iface.queueSize(args._secret, args._queueName,resultHandler);
+        iface.queueSize(args._secret, args._queueName, args._cached,resultHandler);
       }
     }
 
@@ -1674,7 +2148,7 @@ public class TQueueService {
       }
 
       public void start(I iface, ephemeralSize_args args, org.apache.thrift.async.AsyncMethodCallback<TQueueSizeResponse> resultHandler) throws TException {
-        iface.ephemeralSize(args._secret, args._queueName,resultHandler);
+        iface.ephemeralSize(args._secret, args._queueName, args._cached,resultHandler);
       }
     }
 
@@ -5070,28 +5544,28 @@ public class TQueueService {
 
   }
 
-  public static class requeue_args implements org.apache.thrift.TBase<requeue_args, requeue_args._Fields>, java.io.Serializable, Cloneable, Comparable<requeue_args>   {
-    private static final org.apache.thrift.protocol.TStruct STRUCT_DESC = new org.apache.thrift.protocol.TStruct("requeue_args");
+  public static class queueBatch_args implements org.apache.thrift.TBase<queueBatch_args, queueBatch_args._Fields>, java.io.Serializable, Cloneable, Comparable<queueBatch_args>   {
+    private static final org.apache.thrift.protocol.TStruct STRUCT_DESC = new org.apache.thrift.protocol.TStruct("queueBatch_args");
 
     private static final org.apache.thrift.protocol.TField _SECRET_FIELD_DESC = new org.apache.thrift.protocol.TField("_secret", org.apache.thrift.protocol.TType.STRING, (short)1);
     private static final org.apache.thrift.protocol.TField _QUEUE_NAME_FIELD_DESC = new org.apache.thrift.protocol.TField("_queueName", org.apache.thrift.protocol.TType.STRING, (short)2);
-    private static final org.apache.thrift.protocol.TField _MESSAGE_FIELD_DESC = new org.apache.thrift.protocol.TField("_message", org.apache.thrift.protocol.TType.STRUCT, (short)3);
+    private static final org.apache.thrift.protocol.TField _MESSAGES_FIELD_DESC = new org.apache.thrift.protocol.TField("_messages", org.apache.thrift.protocol.TType.LIST, (short)3);
 
     private static final Map<Class<? extends IScheme>, SchemeFactory> schemes = new HashMap<Class<? extends IScheme>, SchemeFactory>();
     static {
-      schemes.put(StandardScheme.class, new requeue_argsStandardSchemeFactory());
-      schemes.put(TupleScheme.class, new requeue_argsTupleSchemeFactory());
+      schemes.put(StandardScheme.class, new queueBatch_argsStandardSchemeFactory());
+      schemes.put(TupleScheme.class, new queueBatch_argsTupleSchemeFactory());
     }
 
     public String _secret; // required
     public String _queueName; // required
-    public TQueueMessage _message; // required
+    public List<TQueueMessage> _messages; // required
 
     /** The set of fields this struct contains, along with convenience methods for finding and manipulating them. */
     public enum _Fields implements org.apache.thrift.TFieldIdEnum {
       _SECRET((short)1, "_secret"),
       _QUEUE_NAME((short)2, "_queueName"),
-      _MESSAGE((short)3, "_message");
+      _MESSAGES((short)3, "_messages");
 
       private static final Map<String, _Fields> byName = new HashMap<String, _Fields>();
 
@@ -5110,8 +5584,8 @@ public class TQueueService {
             return _SECRET;
           case 2: // _QUEUE_NAME
             return _QUEUE_NAME;
-          case 3: // _MESSAGE
-            return _MESSAGE;
+          case 3: // _MESSAGES
+            return _MESSAGES;
           default:
             return null;
         }
@@ -5159,57 +5633,62 @@ public class TQueueService {
           new org.apache.thrift.meta_data.FieldValueMetaData(org.apache.thrift.protocol.TType.STRING)));
       tmpMap.put(_Fields._QUEUE_NAME, new org.apache.thrift.meta_data.FieldMetaData("_queueName", org.apache.thrift.TFieldRequirementType.DEFAULT, 
           new org.apache.thrift.meta_data.FieldValueMetaData(org.apache.thrift.protocol.TType.STRING)));
-      tmpMap.put(_Fields._MESSAGE, new org.apache.thrift.meta_data.FieldMetaData("_message", org.apache.thrift.TFieldRequirementType.DEFAULT, 
-          new org.apache.thrift.meta_data.StructMetaData(org.apache.thrift.protocol.TType.STRUCT, TQueueMessage.class)));
+      tmpMap.put(_Fields._MESSAGES, new org.apache.thrift.meta_data.FieldMetaData("_messages", org.apache.thrift.TFieldRequirementType.DEFAULT, 
+          new org.apache.thrift.meta_data.ListMetaData(org.apache.thrift.protocol.TType.LIST, 
+              new org.apache.thrift.meta_data.StructMetaData(org.apache.thrift.protocol.TType.STRUCT, TQueueMessage.class))));
       metaDataMap = Collections.unmodifiableMap(tmpMap);
-      org.apache.thrift.meta_data.FieldMetaData.addStructMetaDataMap(requeue_args.class, metaDataMap);
+      org.apache.thrift.meta_data.FieldMetaData.addStructMetaDataMap(queueBatch_args.class, metaDataMap);
     }
 
-    public requeue_args() {
+    public queueBatch_args() {
     }
 
-    public requeue_args(
+    public queueBatch_args(
       String _secret,
       String _queueName,
-      TQueueMessage _message)
+      List<TQueueMessage> _messages)
     {
       this();
       this._secret = _secret;
       this._queueName = _queueName;
-      this._message = _message;
+      this._messages = _messages;
     }
 
     /**
      * Performs a deep copy on <i>other</i>.
      */
-    public requeue_args(requeue_args other) {
+    public queueBatch_args(queueBatch_args other) {
       if (other.isSet_secret()) {
         this._secret = other._secret;
       }
       if (other.isSet_queueName()) {
         this._queueName = other._queueName;
       }
-      if (other.isSet_message()) {
-        this._message = new TQueueMessage(other._message);
+      if (other.isSet_messages()) {
+        List<TQueueMessage> __this___messages = new ArrayList<TQueueMessage>(other._messages.size());
+        for (TQueueMessage other_element : other._messages) {
+          __this___messages.add(new TQueueMessage(other_element));
+        }
+        this._messages = __this___messages;
       }
     }
 
-    public requeue_args deepCopy() {
-      return new requeue_args(this);
+    public queueBatch_args deepCopy() {
+      return new queueBatch_args(this);
     }
 
     @Override
     public void clear() {
       this._secret = null;
       this._queueName = null;
-      this._message = null;
+      this._messages = null;
     }
 
     public String get_secret() {
       return this._secret;
     }
 
-    public requeue_args set_secret(String _secret) {
+    public queueBatch_args set_secret(String _secret) {
       this._secret = _secret;
       return this;
     }
@@ -5233,7 +5712,7 @@ public class TQueueService {
       return this._queueName;
     }
 
-    public requeue_args set_queueName(String _queueName) {
+    public queueBatch_args set_queueName(String _queueName) {
       this._queueName = _queueName;
       return this;
     }
@@ -5253,27 +5732,42 @@ public class TQueueService {
       }
     }
 
-    public TQueueMessage get_message() {
-      return this._message;
+    public int get_messagesSize() {
+      return (this._messages == null) ? 0 : this._messages.size();
     }
 
-    public requeue_args set_message(TQueueMessage _message) {
-      this._message = _message;
+    public java.util.Iterator<TQueueMessage> get_messagesIterator() {
+      return (this._messages == null) ? null : this._messages.iterator();
+    }
+
+    public void addTo_messages(TQueueMessage elem) {
+      if (this._messages == null) {
+        this._messages = new ArrayList<TQueueMessage>();
+      }
+      this._messages.add(elem);
+    }
+
+    public List<TQueueMessage> get_messages() {
+      return this._messages;
+    }
+
+    public queueBatch_args set_messages(List<TQueueMessage> _messages) {
+      this._messages = _messages;
       return this;
     }
 
-    public void unset_message() {
-      this._message = null;
+    public void unset_messages() {
+      this._messages = null;
     }
 
-    /** Returns true if field _message is set (has been assigned a value) and false otherwise */
-    public boolean isSet_message() {
-      return this._message != null;
+    /** Returns true if field _messages is set (has been assigned a value) and false otherwise */
+    public boolean isSet_messages() {
+      return this._messages != null;
     }
 
-    public void set_messageIsSet(boolean value) {
+    public void set_messagesIsSet(boolean value) {
       if (!value) {
-        this._message = null;
+        this._messages = null;
       }
     }
 
@@ -5295,11 +5789,11 @@ public class TQueueService {
         }
         break;
 
-      case _MESSAGE:
+      case _MESSAGES:
         if (value == null) {
-          unset_message();
+          unset_messages();
         } else {
-          set_message((TQueueMessage)value);
+          set_messages((List<TQueueMessage>)value);
         }
         break;
 
@@ -5314,8 +5808,8 @@ public class TQueueService {
       case _QUEUE_NAME:
         return get_queueName();
 
-      case _MESSAGE:
-        return get_message();
+      case _MESSAGES:
+        return get_messages();
 
       }
       throw new IllegalStateException();
@@ -5332,8 +5826,8 @@ public class TQueueService {
         return isSet_secret();
       case _QUEUE_NAME:
         return isSet_queueName();
-      case _MESSAGE:
-        return isSet_message();
+      case _MESSAGES:
+        return isSet_messages();
       }
       throw new IllegalStateException();
     }
@@ -5342,12 +5836,12 @@ public class TQueueService {
     public boolean equals(Object that) {
       if (that == null)
         return false;
-      if (that instanceof requeue_args)
-        return this.equals((requeue_args)that);
+      if (that instanceof queueBatch_args)
+        return this.equals((queueBatch_args)that);
       return false;
     }
 
-    public boolean equals(requeue_args that) {
+    public boolean equals(queueBatch_args that) {
       if (that == null)
         return false;
 
@@ -5369,12 +5863,12 @@ public class TQueueService {
           return false;
       }
 
-      boolean this_present__message = true && this.isSet_message();
-      boolean that_present__message = true && that.isSet_message();
-      if (this_present__message || that_present__message) {
-        if (!(this_present__message && that_present__message))
+      boolean this_present__messages = true && this.isSet_messages();
+      boolean that_present__messages = true && that.isSet_messages();
+      if (this_present__messages || that_present__messages) {
+        if (!(this_present__messages && that_present__messages))
           return false;
-        if (!this._message.equals(that._message))
+        if (!this._messages.equals(that._messages))
           return false;
       }
 
@@ -5387,7 +5881,7 @@ public class TQueueService {
     }
 
     @Override
-    public int compareTo(requeue_args other) {
+    public int compareTo(queueBatch_args other) {
       if (!getClass().equals(other.getClass())) {
         return getClass().getName().compareTo(other.getClass().getName());
       }
@@ -5414,12 +5908,12 @@ public class TQueueService {
           return lastComparison;
         }
       }
-      lastComparison = Boolean.valueOf(isSet_message()).compareTo(other.isSet_message());
+      lastComparison = Boolean.valueOf(isSet_messages()).compareTo(other.isSet_messages());
       if (lastComparison != 0) {
         return lastComparison;
       }
-      if (isSet_message()) {
-        lastComparison = org.apache.thrift.TBaseHelper.compareTo(this._message, other._message);
+      if (isSet_messages()) {
+        lastComparison = org.apache.thrift.TBaseHelper.compareTo(this._messages, other._messages);
         if (lastComparison != 0) {
           return lastComparison;
         }
@@ -5441,7 +5935,7 @@ public class TQueueService {
 
     @Override
     public String toString() {
-      StringBuilder sb = new StringBuilder("requeue_args(");
+      StringBuilder sb = new StringBuilder("queueBatch_args(");
       boolean first = true;
 
       sb.append("_secret:");
@@ -5460,11 +5954,11 @@ public class TQueueService {
       }
       first = false;
       if (!first) sb.append(", ");
-      sb.append("_message:");
-      if (this._message == null) {
+      sb.append("_messages:");
+      if (this._messages == null) {
         sb.append("null");
       } else {
-        sb.append(this._message);
+        sb.append(this._messages);
       }
       first = false;
       sb.append(")");
@@ -5474,9 +5968,6 @@ public class TQueueService {
     public void validate() throws org.apache.thrift.TException {
       // check for required fields
       // check for sub-struct validity
-      if (_message != null) {
-        _message.validate();
-      }
     }
 
     private void writeObject(java.io.ObjectOutputStream out) throws java.io.IOException {
@@ -5495,15 +5986,15 @@ public class TQueueService {
       }
     }
 
-    private static class requeue_argsStandardSchemeFactory implements SchemeFactory {
-      public requeue_argsStandardScheme getScheme() {
-        return new requeue_argsStandardScheme();
+    private static class queueBatch_argsStandardSchemeFactory implements SchemeFactory {
+      public queueBatch_argsStandardScheme getScheme() {
+        return new queueBatch_argsStandardScheme();
       }
     }
 
-    private static class requeue_argsStandardScheme extends StandardScheme<requeue_args> {
+    private static class queueBatch_argsStandardScheme extends StandardScheme<queueBatch_args> {
 
-      public void read(org.apache.thrift.protocol.TProtocol iprot, requeue_args struct) throws org.apache.thrift.TException {
+      public void read(org.apache.thrift.protocol.TProtocol iprot, queueBatch_args struct) throws org.apache.thrift.TException {
         org.apache.thrift.protocol.TField schemeField;
         iprot.readStructBegin();
         while (true)
@@ -5529,11 +6020,21 @@ public class TQueueService {
                 org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
               }
               break;
-            case 3: // _MESSAGE
-              if (schemeField.type == org.apache.thrift.protocol.TType.STRUCT) {
-                struct._message = new TQueueMessage();
-                struct._message.read(iprot);
-                struct.set_messageIsSet(true);
+            case 3: // _MESSAGES
+              if (schemeField.type == org.apache.thrift.protocol.TType.LIST) {
+                {
+                  org.apache.thrift.protocol.TList _list16 = iprot.readListBegin();
+                  struct._messages = new ArrayList<TQueueMessage>(_list16.size);
+                  for (int _i17 = 0; _i17 < _list16.size; ++_i17)
+                  {
+                    TQueueMessage _elem18;
+                    _elem18 = new TQueueMessage();
+                    _elem18.read(iprot);
+                    struct._messages.add(_elem18);
+                  }
+                  iprot.readListEnd();
+                }
+                struct.set_messagesIsSet(true);
               } else { 
                 org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
               }
@@ -5549,7 +6050,7 @@ public class TQueueService {
         struct.validate();
       }
 
-      public void write(org.apache.thrift.protocol.TProtocol oprot, requeue_args struct) throws org.apache.thrift.TException {
+      public void write(org.apache.thrift.protocol.TProtocol oprot, queueBatch_args struct) throws org.apache.thrift.TException {
         struct.validate();
 
         oprot.writeStructBegin(STRUCT_DESC);
@@ -5563,9 +6064,16 @@ public class TQueueService {
           oprot.writeString(struct._queueName);
           oprot.writeFieldEnd();
         }
-        if (struct._message != null) {
-          oprot.writeFieldBegin(_MESSAGE_FIELD_DESC);
-          struct._message.write(oprot);
+        if (struct._messages != null) {
+          oprot.writeFieldBegin(_MESSAGES_FIELD_DESC);
+          {
+            oprot.writeListBegin(new org.apache.thrift.protocol.TList(org.apache.thrift.protocol.TType.STRUCT, struct._messages.size()));
+            for (TQueueMessage _iter19 : struct._messages)
+            {
+              _iter19.write(oprot);
+            }
+            oprot.writeListEnd();
+          }
           oprot.writeFieldEnd();
         }
         oprot.writeFieldStop();
@@ -5574,16 +6082,16 @@ public class TQueueService {
 
     }
 
-    private static class requeue_argsTupleSchemeFactory implements SchemeFactory {
-      public requeue_argsTupleScheme getScheme() {
-        return new requeue_argsTupleScheme();
+    private static class queueBatch_argsTupleSchemeFactory implements SchemeFactory {
+      public queueBatch_argsTupleScheme getScheme() {
+        return new queueBatch_argsTupleScheme();
       }
     }
 
-    private static class requeue_argsTupleScheme extends TupleScheme<requeue_args> {
+    private static class queueBatch_argsTupleScheme extends TupleScheme<queueBatch_args> {
 
       @Override
-      public void write(org.apache.thrift.protocol.TProtocol prot, requeue_args struct) throws org.apache.thrift.TException {
+      public void write(org.apache.thrift.protocol.TProtocol prot, queueBatch_args struct) throws org.apache.thrift.TException {
         TTupleProtocol oprot = (TTupleProtocol) prot;
         BitSet optionals = new BitSet();
         if (struct.isSet_secret()) {
@@ -5592,7 +6100,7 @@ public class TQueueService {
         if (struct.isSet_queueName()) {
           optionals.set(1);
         }
-        if (struct.isSet_message()) {
+        if (struct.isSet_messages()) {
           optionals.set(2);
         }
         oprot.writeBitSet(optionals, 3);
@@ -5602,13 +6110,19 @@ public class TQueueService {
         if (struct.isSet_queueName()) {
           oprot.writeString(struct._queueName);
         }
-        if (struct.isSet_message()) {
-          struct._message.write(oprot);
+        if (struct.isSet_messages()) {
+          {
+            oprot.writeI32(struct._messages.size());
+            for (TQueueMessage _iter20 : struct._messages)
+            {
+              _iter20.write(oprot);
+            }
+          }
         }
       }
 
       @Override
-      public void read(org.apache.thrift.protocol.TProtocol prot, requeue_args struct) throws org.apache.thrift.TException {
+      public void read(org.apache.thrift.protocol.TProtocol prot, queueBatch_args struct) throws org.apache.thrift.TException {
         TTupleProtocol iprot = (TTupleProtocol) prot;
         BitSet incoming = iprot.readBitSet(3);
         if (incoming.get(0)) {
@@ -5620,27 +6134,36 @@ public class TQueueService {
           struct.set_queueNameIsSet(true);
         }
         if (incoming.get(2)) {
-          struct._message = new TQueueMessage();
-          struct._message.read(iprot);
-          struct.set_messageIsSet(true);
+          {
+            org.apache.thrift.protocol.TList _list21 = new org.apache.thrift.protocol.TList(org.apache.thrift.protocol.TType.STRUCT, iprot.readI32());
+            struct._messages = new ArrayList<TQueueMessage>(_list21.size);
+            for (int _i22 = 0; _i22 < _list21.size; ++_i22)
+            {
+              TQueueMessage _elem23;
+              _elem23 = new TQueueMessage();
+              _elem23.read(iprot);
+              struct._messages.add(_elem23);
+            }
+          }
+          struct.set_messagesIsSet(true);
         }
       }
     }
 
   }
 
-  public static class requeue_result implements org.apache.thrift.TBase<requeue_result, requeue_result._Fields>, java.io.Serializable, Cloneable, Comparable<requeue_result>   {
-    private static final org.apache.thrift.protocol.TStruct STRUCT_DESC = new org.apache.thrift.protocol.TStruct("requeue_result");
+  public static class queueBatch_result implements org.apache.thrift.TBase<queueBatch_result, queueBatch_result._Fields>, java.io.Serializable, Cloneable, Comparable<queueBatch_result>   {
+    private static final org.apache.thrift.protocol.TStruct STRUCT_DESC = new org.apache.thrift.protocol.TStruct("queueBatch_result");
 
     private static final org.apache.thrift.protocol.TField SUCCESS_FIELD_DESC = new org.apache.thrift.protocol.TField("success", org.apache.thrift.protocol.TType.STRUCT, (short)0);
 
     private static final Map<Class<? extends IScheme>, SchemeFactory> schemes = new HashMap<Class<? extends IScheme>, SchemeFactory>();
     static {
-      schemes.put(StandardScheme.class, new requeue_resultStandardSchemeFactory());
-      schemes.put(TupleScheme.class, new requeue_resultTupleSchemeFactory());
+      schemes.put(StandardScheme.class, new queueBatch_resultStandardSchemeFactory());
+      schemes.put(TupleScheme.class, new queueBatch_resultTupleSchemeFactory());
     }
 
-    public TQueueResponse success; // required
+    public TQueueBatchResponse success; // required
 
     /** The set of fields this struct contains, along with convenience methods for finding and manipulating them. */
     public enum _Fields implements org.apache.thrift.TFieldIdEnum {
@@ -5705,16 +6228,16 @@ public class TQueueService {
     static {
       Map<_Fields, org.apache.thrift.meta_data.FieldMetaData> tmpMap = new EnumMap<_Fields, org.apache.thrift.meta_data.FieldMetaData>(_Fields.class);
       tmpMap.put(_Fields.SUCCESS, new org.apache.thrift.meta_data.FieldMetaData("success", org.apache.thrift.TFieldRequirementType.DEFAULT, 
-          new org.apache.thrift.meta_data.StructMetaData(org.apache.thrift.protocol.TType.STRUCT, TQueueResponse.class)));
+          new org.apache.thrift.meta_data.StructMetaData(org.apache.thrift.protocol.TType.STRUCT, TQueueBatchResponse.class)));
       metaDataMap = Collections.unmodifiableMap(tmpMap);
-      org.apache.thrift.meta_data.FieldMetaData.addStructMetaDataMap(requeue_result.class, metaDataMap);
+      org.apache.thrift.meta_data.FieldMetaData.addStructMetaDataMap(queueBatch_result.class, metaDataMap);
     }
 
-    public requeue_result() {
+    public queueBatch_result() {
     }
 
-    public requeue_result(
-      TQueueResponse success)
+    public queueBatch_result(
+      TQueueBatchResponse success)
     {
       this();
       this.success = success;
@@ -5723,14 +6246,14 @@ public class TQueueService {
     /**
      * Performs a deep copy on <i>other</i>.
      */
-    public requeue_result(requeue_result other) {
+    public queueBatch_result(queueBatch_result other) {
       if (other.isSetSuccess()) {
-        this.success = new TQueueResponse(other.success);
+        this.success = new TQueueBatchResponse(other.success);
       }
     }
 
-    public requeue_result deepCopy() {
-      return new requeue_result(this);
+    public queueBatch_result deepCopy() {
+      return new queueBatch_result(this);
     }
 
     @Override
@@ -5738,11 +6261,11 @@ public class TQueueService {
       this.success = null;
     }
 
-    public TQueueResponse getSuccess() {
+    public TQueueBatchResponse getSuccess() {
       return this.success;
     }
 
-    public requeue_result setSuccess(TQueueResponse success) {
+    public queueBatch_result setSuccess(TQueueBatchResponse success) {
       this.success = success;
       return this;
     }
@@ -5768,7 +6291,7 @@ public class TQueueService {
         if (value == null) {
           unsetSuccess();
         } else {
-          setSuccess((TQueueResponse)value);
+          setSuccess((TQueueBatchResponse)value);
         }
         break;
 
@@ -5801,12 +6324,12 @@ public class TQueueService {
     public boolean equals(Object that) {
       if (that == null)
         return false;
-      if (that instanceof requeue_result)
-        return this.equals((requeue_result)that);
+      if (that instanceof queueBatch_result)
+        return this.equals((queueBatch_result)that);
       return false;
     }
 
-    public boolean equals(requeue_result that) {
+    public boolean equals(queueBatch_result that) {
       if (that == null)
         return false;
 
@@ -5828,7 +6351,7 @@ public class TQueueService {
     }
 
     @Override
-    public int compareTo(requeue_result other) {
+    public int compareTo(queueBatch_result other) {
       if (!getClass().equals(other.getClass())) {
         return getClass().getName().compareTo(other.getClass().getName());
       }
@@ -5862,7 +6385,7 @@ public class TQueueService {
 
     @Override
     public String toString() {
-      StringBuilder sb = new StringBuilder("requeue_result(");
+      StringBuilder sb = new StringBuilder("queueBatch_result(");
       boolean first = true;
 
       sb.append("success:");
@@ -5900,15 +6423,15 @@ public class TQueueService {
       }
     }
 
-    private static class requeue_resultStandardSchemeFactory implements SchemeFactory {
-      public requeue_resultStandardScheme getScheme() {
-        return new requeue_resultStandardScheme();
+    private static class queueBatch_resultStandardSchemeFactory implements SchemeFactory {
+      public queueBatch_resultStandardScheme getScheme() {
+        return new queueBatch_resultStandardScheme();
       }
     }
 
-    private static class requeue_resultStandardScheme extends StandardScheme<requeue_result> {
+    private static class queueBatch_resultStandardScheme extends StandardScheme<queueBatch_result> {
 
-      public void read(org.apache.thrift.protocol.TProtocol iprot, requeue_result struct) throws org.apache.thrift.TException {
+      public void read(org.apache.thrift.protocol.TProtocol iprot, queueBatch_result struct) throws org.apache.thrift.TException {
         org.apache.thrift.protocol.TField schemeField;
         iprot.readStructBegin();
         while (true)
@@ -5920,7 +6443,7 @@ public class TQueueService {
           switch (schemeField.id) {
             case 0: // SUCCESS
               if (schemeField.type == org.apache.thrift.protocol.TType.STRUCT) {
-                struct.success = new TQueueResponse();
+                struct.success = new TQueueBatchResponse();
                 struct.success.read(iprot);
                 struct.setSuccessIsSet(true);
               } else { 
@@ -5938,7 +6461,7 @@ public class TQueueService {
         struct.validate();
       }
 
-      public void write(org.apache.thrift.protocol.TProtocol oprot, requeue_result struct) throws org.apache.thrift.TException {
+      public void write(org.apache.thrift.protocol.TProtocol oprot, queueBatch_result struct) throws org.apache.thrift.TException {
         struct.validate();
 
         oprot.writeStructBegin(STRUCT_DESC);
@@ -5953,16 +6476,16 @@ public class TQueueService {
 
     }
 
-    private static class requeue_resultTupleSchemeFactory implements SchemeFactory {
-      public requeue_resultTupleScheme getScheme() {
-        return new requeue_resultTupleScheme();
+    private static class queueBatch_resultTupleSchemeFactory implements SchemeFactory {
+      public queueBatch_resultTupleScheme getScheme() {
+        return new queueBatch_resultTupleScheme();
       }
     }
 
-    private static class requeue_resultTupleScheme extends TupleScheme<requeue_result> {
+    private static class queueBatch_resultTupleScheme extends TupleScheme<queueBatch_result> {
 
       @Override
-      public void write(org.apache.thrift.protocol.TProtocol prot, requeue_result struct) throws org.apache.thrift.TException {
+      public void write(org.apache.thrift.protocol.TProtocol prot, queueBatch_result struct) throws org.apache.thrift.TException {
         TTupleProtocol oprot = (TTupleProtocol) prot;
         BitSet optionals = new BitSet();
         if (struct.isSetSuccess()) {
@@ -5975,11 +6498,11 @@ public class TQueueService {
       }
 
       @Override
-      public void read(org.apache.thrift.protocol.TProtocol prot, requeue_result struct) throws org.apache.thrift.TException {
+      public void read(org.apache.thrift.protocol.TProtocol prot, queueBatch_result struct) throws org.apache.thrift.TException {
         TTupleProtocol iprot = (TTupleProtocol) prot;
         BitSet incoming = iprot.readBitSet(1);
         if (incoming.get(0)) {
-          struct.success = new TQueueResponse();
+          struct.success = new TQueueBatchResponse();
           struct.success.read(iprot);
           struct.setSuccessIsSet(true);
         }
@@ -5988,8 +6511,8 @@ public class TQueueService {
 
   }
 
-  public static class requeueSilent_args implements org.apache.thrift.TBase<requeueSilent_args, requeueSilent_args._Fields>, java.io.Serializable, Cloneable, Comparable<requeueSilent_args>   {
-    private static final org.apache.thrift.protocol.TStruct STRUCT_DESC = new org.apache.thrift.protocol.TStruct("requeueSilent_args");
+  public static class requeue_args implements org.apache.thrift.TBase<requeue_args, requeue_args._Fields>, java.io.Serializable, Cloneable, Comparable<requeue_args>   {
+    private static final org.apache.thrift.protocol.TStruct STRUCT_DESC = new org.apache.thrift.protocol.TStruct("requeue_args");
 
     private static final org.apache.thrift.protocol.TField _SECRET_FIELD_DESC = new org.apache.thrift.protocol.TField("_secret", org.apache.thrift.protocol.TType.STRING, (short)1);
     private static final org.apache.thrift.protocol.TField _QUEUE_NAME_FIELD_DESC = new org.apache.thrift.protocol.TField("_queueName", org.apache.thrift.protocol.TType.STRING, (short)2);
@@ -5997,8 +6520,8 @@ public class TQueueService {
 
     private static final Map<Class<? extends IScheme>, SchemeFactory> schemes = new HashMap<Class<? extends IScheme>, SchemeFactory>();
     static {
-      schemes.put(StandardScheme.class, new requeueSilent_argsStandardSchemeFactory());
-      schemes.put(TupleScheme.class, new requeueSilent_argsTupleSchemeFactory());
+      schemes.put(StandardScheme.class, new requeue_argsStandardSchemeFactory());
+      schemes.put(TupleScheme.class, new requeue_argsTupleSchemeFactory());
     }
 
     public String _secret; // required
@@ -6080,13 +6603,13 @@ public class TQueueService {
       tmpMap.put(_Fields._MESSAGE, new org.apache.thrift.meta_data.FieldMetaData("_message", org.apache.thrift.TFieldRequirementType.DEFAULT, 
           new org.apache.thrift.meta_data.StructMetaData(org.apache.thrift.protocol.TType.STRUCT, TQueueMessage.class)));
       metaDataMap = Collections.unmodifiableMap(tmpMap);
-      org.apache.thrift.meta_data.FieldMetaData.addStructMetaDataMap(requeueSilent_args.class, metaDataMap);
+      org.apache.thrift.meta_data.FieldMetaData.addStructMetaDataMap(requeue_args.class, metaDataMap);
     }
 
-    public requeueSilent_args() {
+    public requeue_args() {
     }
 
-    public requeueSilent_args(
+    public requeue_args(
       String _secret,
       String _queueName,
       TQueueMessage _message)
@@ -6100,7 +6623,7 @@ public class TQueueService {
     /**
      * Performs a deep copy on <i>other</i>.
      */
-    public requeueSilent_args(requeueSilent_args other) {
+    public requeue_args(requeue_args other) {
       if (other.isSet_secret()) {
         this._secret = other._secret;
       }
@@ -6112,8 +6635,8 @@ public class TQueueService {
       }
     }
 
-    public requeueSilent_args deepCopy() {
-      return new requeueSilent_args(this);
+    public requeue_args deepCopy() {
+      return new requeue_args(this);
     }
 
     @Override
@@ -6127,7 +6650,7 @@ public class TQueueService {
       return this._secret;
     }
 
-    public requeueSilent_args set_secret(String _secret) {
+    public requeue_args set_secret(String _secret) {
       this._secret = _secret;
       return this;
     }
@@ -6151,7 +6674,7 @@ public class TQueueService {
       return this._queueName;
     }
 
-    public requeueSilent_args set_queueName(String _queueName) {
+    public requeue_args set_queueName(String _queueName) {
       this._queueName = _queueName;
       return this;
     }
@@ -6175,7 +6698,7 @@ public class TQueueService {
       return this._message;
     }
 
-    public requeueSilent_args set_message(TQueueMessage _message) {
+    public requeue_args set_message(TQueueMessage _message) {
       this._message = _message;
       return this;
     }
@@ -6260,12 +6783,12 @@ public class TQueueService {
     public boolean equals(Object that) {
       if (that == null)
         return false;
-      if (that instanceof requeueSilent_args)
-        return this.equals((requeueSilent_args)that);
+      if (that instanceof requeue_args)
+        return this.equals((requeue_args)that);
       return false;
     }
 
-    public boolean equals(requeueSilent_args that) {
+    public boolean equals(requeue_args that) {
       if (that == null)
         return false;
 
@@ -6305,7 +6828,7 @@ public class TQueueService {
     }
 
     @Override
-    public int compareTo(requeueSilent_args other) {
+    public int compareTo(requeue_args other) {
       if (!getClass().equals(other.getClass())) {
         return getClass().getName().compareTo(other.getClass().getName());
       }
@@ -6359,7 +6882,7 @@ public class TQueueService {
 
     @Override
     public String toString() {
-      StringBuilder sb = new StringBuilder("requeueSilent_args(");
+      StringBuilder sb = new StringBuilder("requeue_args(");
       boolean first = true;
 
       sb.append("_secret:");
@@ -6413,15 +6936,15 @@ public class TQueueService {
       }
     }
 
-    private static class requeueSilent_argsStandardSchemeFactory implements SchemeFactory {
-      public requeueSilent_argsStandardScheme getScheme() {
-        return new requeueSilent_argsStandardScheme();
+    private static class requeue_argsStandardSchemeFactory implements SchemeFactory {
+      public requeue_argsStandardScheme getScheme() {
+        return new requeue_argsStandardScheme();
       }
     }
 
-    private static class requeueSilent_argsStandardScheme extends StandardScheme<requeueSilent_args> {
+    private static class requeue_argsStandardScheme extends StandardScheme<requeue_args> {
 
-      public void read(org.apache.thrift.protocol.TProtocol iprot, requeueSilent_args struct) throws org.apache.thrift.TException {
+      public void read(org.apache.thrift.protocol.TProtocol iprot, requeue_args struct) throws org.apache.thrift.TException {
         org.apache.thrift.protocol.TField schemeField;
         iprot.readStructBegin();
         while (true)
@@ -6467,7 +6990,7 @@ public class TQueueService {
         struct.validate();
       }
 
-      public void write(org.apache.thrift.protocol.TProtocol oprot, requeueSilent_args struct) throws org.apache.thrift.TException {
+      public void write(org.apache.thrift.protocol.TProtocol oprot, requeue_args struct) throws org.apache.thrift.TException {
         struct.validate();
 
         oprot.writeStructBegin(STRUCT_DESC);
@@ -6492,16 +7015,16 @@ public class TQueueService {
 
     }
 
-    private static class requeueSilent_argsTupleSchemeFactory implements SchemeFactory {
-      public requeueSilent_argsTupleScheme getScheme() {
-        return new requeueSilent_argsTupleScheme();
+    private static class requeue_argsTupleSchemeFactory implements SchemeFactory {
+      public requeue_argsTupleScheme getScheme() {
+        return new requeue_argsTupleScheme();
       }
     }
 
-    private static class requeueSilent_argsTupleScheme extends TupleScheme<requeueSilent_args> {
+    private static class requeue_argsTupleScheme extends TupleScheme<requeue_args> {
 
       @Override
-      public void write(org.apache.thrift.protocol.TProtocol prot, requeueSilent_args struct) throws org.apache.thrift.TException {
+      public void write(org.apache.thrift.protocol.TProtocol prot, requeue_args struct) throws org.apache.thrift.TException {
         TTupleProtocol oprot = (TTupleProtocol) prot;
         BitSet optionals = new BitSet();
         if (struct.isSet_secret()) {
@@ -6526,7 +7049,7 @@ public class TQueueService {
       }
 
       @Override
-      public void read(org.apache.thrift.protocol.TProtocol prot, requeueSilent_args struct) throws org.apache.thrift.TException {
+      public void read(org.apache.thrift.protocol.TProtocol prot, requeue_args struct) throws org.apache.thrift.TException {
         TTupleProtocol iprot = (TTupleProtocol) prot;
         BitSet incoming = iprot.readBitSet(3);
         if (incoming.get(0)) {
@@ -6547,15 +7070,15 @@ public class TQueueService {
 
   }
 
-  public static class requeueSilent_result implements org.apache.thrift.TBase<requeueSilent_result, requeueSilent_result._Fields>, java.io.Serializable, Cloneable, Comparable<requeueSilent_result>   {
-    private static final org.apache.thrift.protocol.TStruct STRUCT_DESC = new org.apache.thrift.protocol.TStruct("requeueSilent_result");
+  public static class requeue_result implements org.apache.thrift.TBase<requeue_result, requeue_result._Fields>, java.io.Serializable, Cloneable, Comparable<requeue_result>   {
+    private static final org.apache.thrift.protocol.TStruct STRUCT_DESC = new org.apache.thrift.protocol.TStruct("requeue_result");
 
     private static final org.apache.thrift.protocol.TField SUCCESS_FIELD_DESC = new org.apache.thrift.protocol.TField("success", org.apache.thrift.protocol.TType.STRUCT, (short)0);
 
     private static final Map<Class<? extends IScheme>, SchemeFactory> schemes = new HashMap<Class<? extends IScheme>, SchemeFactory>();
     static {
-      schemes.put(StandardScheme.class, new requeueSilent_resultStandardSchemeFactory());
-      schemes.put(TupleScheme.class, new requeueSilent_resultTupleSchemeFactory());
+      schemes.put(StandardScheme.class, new requeue_resultStandardSchemeFactory());
+      schemes.put(TupleScheme.class, new requeue_resultTupleSchemeFactory());
     }
 
     public TQueueResponse success; // required
@@ -6625,13 +7148,13 @@ public class TQueueService {
       tmpMap.put(_Fields.SUCCESS, new org.apache.thrift.meta_data.FieldMetaData("success", org.apache.thrift.TFieldRequirementType.DEFAULT, 
           new org.apache.thrift.meta_data.StructMetaData(org.apache.thrift.protocol.TType.STRUCT, TQueueResponse.class)));
       metaDataMap = Collections.unmodifiableMap(tmpMap);
-      org.apache.thrift.meta_data.FieldMetaData.addStructMetaDataMap(requeueSilent_result.class, metaDataMap);
+      org.apache.thrift.meta_data.FieldMetaData.addStructMetaDataMap(requeue_result.class, metaDataMap);
     }
 
-    public requeueSilent_result() {
+    public requeue_result() {
     }
 
-    public requeueSilent_result(
+    public requeue_result(
       TQueueResponse success)
     {
       this();
@@ -6641,14 +7164,14 @@ public class TQueueService {
     /**
      * Performs a deep copy on <i>other</i>.
      */
-    public requeueSilent_result(requeueSilent_result other) {
+    public requeue_result(requeue_result other) {
       if (other.isSetSuccess()) {
         this.success = new TQueueResponse(other.success);
       }
     }
 
-    public requeueSilent_result deepCopy() {
-      return new requeueSilent_result(this);
+    public requeue_result deepCopy() {
+      return new requeue_result(this);
     }
 
     @Override
@@ -6660,7 +7183,7 @@ public class TQueueService {
       return this.success;
     }
 
-    public requeueSilent_result setSuccess(TQueueResponse success) {
+    public requeue_result setSuccess(TQueueResponse success) {
       this.success = success;
       return this;
     }
@@ -6719,12 +7242,12 @@ public class TQueueService {
     public boolean equals(Object that) {
       if (that == null)
         return false;
-      if (that instanceof requeueSilent_result)
-        return this.equals((requeueSilent_result)that);
+      if (that instanceof requeue_result)
+        return this.equals((requeue_result)that);
       return false;
     }
 
-    public boolean equals(requeueSilent_result that) {
+    public boolean equals(requeue_result that) {
       if (that == null)
         return false;
 
@@ -6746,7 +7269,7 @@ public class TQueueService {
     }
 
     @Override
-    public int compareTo(requeueSilent_result other) {
+    public int compareTo(requeue_result other) {
       if (!getClass().equals(other.getClass())) {
         return getClass().getName().compareTo(other.getClass().getName());
       }
@@ -6780,7 +7303,7 @@ public class TQueueService {
 
     @Override
     public String toString() {
-      StringBuilder sb = new StringBuilder("requeueSilent_result(");
+      StringBuilder sb = new StringBuilder("requeue_result(");
       boolean first = true;
 
       sb.append("success:");
@@ -6818,15 +7341,15 @@ public class TQueueService {
       }
     }
 
-    private static class requeueSilent_resultStandardSchemeFactory implements SchemeFactory {
-      public requeueSilent_resultStandardScheme getScheme() {
-        return new requeueSilent_resultStandardScheme();
+    private static class requeue_resultStandardSchemeFactory implements SchemeFactory {
+      public requeue_resultStandardScheme getScheme() {
+        return new requeue_resultStandardScheme();
       }
     }
 
-    private static class requeueSilent_resultStandardScheme extends StandardScheme<requeueSilent_result> {
+    private static class requeue_resultStandardScheme extends StandardScheme<requeue_result> {
 
-      public void read(org.apache.thrift.protocol.TProtocol iprot, requeueSilent_result struct) throws org.apache.thrift.TException {
+      public void read(org.apache.thrift.protocol.TProtocol iprot, requeue_result struct) throws org.apache.thrift.TException {
         org.apache.thrift.protocol.TField schemeField;
         iprot.readStructBegin();
         while (true)
@@ -6856,7 +7379,7 @@ public class TQueueService {
         struct.validate();
       }
 
-      public void write(org.apache.thrift.protocol.TProtocol oprot, requeueSilent_result struct) throws org.apache.thrift.TException {
+      public void write(org.apache.thrift.protocol.TProtocol oprot, requeue_result struct) throws org.apache.thrift.TException {
         struct.validate();
 
         oprot.writeStructBegin(STRUCT_DESC);
@@ -6871,16 +7394,16 @@ public class TQueueService {
 
     }
 
-    private static class requeueSilent_resultTupleSchemeFactory implements SchemeFactory {
-      public requeueSilent_resultTupleScheme getScheme() {
-        return new requeueSilent_resultTupleScheme();
+    private static class requeue_resultTupleSchemeFactory implements SchemeFactory {
+      public requeue_resultTupleScheme getScheme() {
+        return new requeue_resultTupleScheme();
       }
     }
 
-    private static class requeueSilent_resultTupleScheme extends TupleScheme<requeueSilent_result> {
+    private static class requeue_resultTupleScheme extends TupleScheme<requeue_result> {
 
       @Override
-      public void write(org.apache.thrift.protocol.TProtocol prot, requeueSilent_result struct) throws org.apache.thrift.TException {
+      public void write(org.apache.thrift.protocol.TProtocol prot, requeue_result struct) throws org.apache.thrift.TException {
         TTupleProtocol oprot = (TTupleProtocol) prot;
         BitSet optionals = new BitSet();
         if (struct.isSetSuccess()) {
@@ -6893,7 +7416,7 @@ public class TQueueService {
       }
 
       @Override
-      public void read(org.apache.thrift.protocol.TProtocol prot, requeueSilent_result struct) throws org.apache.thrift.TException {
+      public void read(org.apache.thrift.protocol.TProtocol prot, requeue_result struct) throws org.apache.thrift.TException {
         TTupleProtocol iprot = (TTupleProtocol) prot;
         BitSet incoming = iprot.readBitSet(1);
         if (incoming.get(0)) {
@@ -6906,8 +7429,8 @@ public class TQueueService {
 
   }
 
-  public static class finish_args implements org.apache.thrift.TBase<finish_args, finish_args._Fields>, java.io.Serializable, Cloneable, Comparable<finish_args>   {
-    private static final org.apache.thrift.protocol.TStruct STRUCT_DESC = new org.apache.thrift.protocol.TStruct("finish_args");
+  public static class requeueSilent_args implements org.apache.thrift.TBase<requeueSilent_args, requeueSilent_args._Fields>, java.io.Serializable, Cloneable, Comparable<requeueSilent_args>   {
+    private static final org.apache.thrift.protocol.TStruct STRUCT_DESC = new org.apache.thrift.protocol.TStruct("requeueSilent_args");
 
     private static final org.apache.thrift.protocol.TField _SECRET_FIELD_DESC = new org.apache.thrift.protocol.TField("_secret", org.apache.thrift.protocol.TType.STRING, (short)1);
     private static final org.apache.thrift.protocol.TField _QUEUE_NAME_FIELD_DESC = new org.apache.thrift.protocol.TField("_queueName", org.apache.thrift.protocol.TType.STRING, (short)2);
@@ -6915,8 +7438,8 @@ public class TQueueService {
 
     private static final Map<Class<? extends IScheme>, SchemeFactory> schemes = new HashMap<Class<? extends IScheme>, SchemeFactory>();
     static {
-      schemes.put(StandardScheme.class, new finish_argsStandardSchemeFactory());
-      schemes.put(TupleScheme.class, new finish_argsTupleSchemeFactory());
+      schemes.put(StandardScheme.class, new requeueSilent_argsStandardSchemeFactory());
+      schemes.put(TupleScheme.class, new requeueSilent_argsTupleSchemeFactory());
     }
 
     public String _secret; // required
@@ -6998,13 +7521,13 @@ public class TQueueService {
       tmpMap.put(_Fields._MESSAGE, new org.apache.thrift.meta_data.FieldMetaData("_message", org.apache.thrift.TFieldRequirementType.DEFAULT, 
           new org.apache.thrift.meta_data.StructMetaData(org.apache.thrift.protocol.TType.STRUCT, TQueueMessage.class)));
       metaDataMap = Collections.unmodifiableMap(tmpMap);
-      org.apache.thrift.meta_data.FieldMetaData.addStructMetaDataMap(finish_args.class, metaDataMap);
+      org.apache.thrift.meta_data.FieldMetaData.addStructMetaDataMap(requeueSilent_args.class, metaDataMap);
     }
 
-    public finish_args() {
+    public requeueSilent_args() {
     }
 
-    public finish_args(
+    public requeueSilent_args(
       String _secret,
       String _queueName,
       TQueueMessage _message)
@@ -7018,7 +7541,7 @@ public class TQueueService {
     /**
      * Performs a deep copy on <i>other</i>.
      */
-    public finish_args(finish_args other) {
+    public requeueSilent_args(requeueSilent_args other) {
       if (other.isSet_secret()) {
         this._secret = other._secret;
       }
@@ -7030,8 +7553,8 @@ public class TQueueService {
       }
     }
 
-    public finish_args deepCopy() {
-      return new finish_args(this);
+    public requeueSilent_args deepCopy() {
+      return new requeueSilent_args(this);
     }
 
     @Override
@@ -7045,7 +7568,7 @@ public class TQueueService {
       return this._secret;
     }
 
-    public finish_args set_secret(String _secret) {
+    public requeueSilent_args set_secret(String _secret) {
       this._secret = _secret;
       return this;
     }
@@ -7069,7 +7592,7 @@ public class TQueueService {
       return this._queueName;
     }
 
-    public finish_args set_queueName(String _queueName) {
+    public requeueSilent_args set_queueName(String _queueName) {
       this._queueName = _queueName;
       return this;
     }
@@ -7093,7 +7616,7 @@ public class TQueueService {
       return this._message;
     }
 
-    public finish_args set_message(TQueueMessage _message) {
+    public requeueSilent_args set_message(TQueueMessage _message) {
       this._message = _message;
       return this;
     }
@@ -7178,12 +7701,12 @@ public class TQueueService {
     public boolean equals(Object that) {
       if (that == null)
         return false;
-      if (that instanceof finish_args)
-        return this.equals((finish_args)that);
+      if (that instanceof requeueSilent_args)
+        return this.equals((requeueSilent_args)that);
       return false;
     }
 
-    public boolean equals(finish_args that) {
+    public boolean equals(requeueSilent_args that) {
       if (that == null)
         return false;
 
@@ -7223,7 +7746,7 @@ public class TQueueService {
     }
 
     @Override
-    public int compareTo(finish_args other) {
+    public int compareTo(requeueSilent_args other) {
       if (!getClass().equals(other.getClass())) {
         return getClass().getName().compareTo(other.getClass().getName());
       }
@@ -7277,7 +7800,7 @@ public class TQueueService {
 
     @Override
     public String toString() {
-      StringBuilder sb = new StringBuilder("finish_args(");
+      StringBuilder sb = new StringBuilder("requeueSilent_args(");
       boolean first = true;
 
       sb.append("_secret:");
@@ -7331,15 +7854,15 @@ public class TQueueService {
       }
     }
 
-    private static class finish_argsStandardSchemeFactory implements SchemeFactory {
-      public finish_argsStandardScheme getScheme() {
-        return new finish_argsStandardScheme();
+    private static class requeueSilent_argsStandardSchemeFactory implements SchemeFactory {
+      public requeueSilent_argsStandardScheme getScheme() {
+        return new requeueSilent_argsStandardScheme();
       }
     }
 
-    private static class finish_argsStandardScheme extends StandardScheme<finish_args> {
+    private static class requeueSilent_argsStandardScheme extends StandardScheme<requeueSilent_args> {
 
-      public void read(org.apache.thrift.protocol.TProtocol iprot, finish_args struct) throws org.apache.thrift.TException {
+      public void read(org.apache.thrift.protocol.TProtocol iprot, requeueSilent_args struct) throws org.apache.thrift.TException {
         org.apache.thrift.protocol.TField schemeField;
         iprot.readStructBegin();
         while (true)
@@ -7385,7 +7908,7 @@ public class TQueueService {
         struct.validate();
       }
 
-      public void write(org.apache.thrift.protocol.TProtocol oprot, finish_args struct) throws org.apache.thrift.TException {
+      public void write(org.apache.thrift.protocol.TProtocol oprot, requeueSilent_args struct) throws org.apache.thrift.TException {
         struct.validate();
 
         oprot.writeStructBegin(STRUCT_DESC);
@@ -7410,16 +7933,16 @@ public class TQueueService {
 
     }
 
-    private static class finish_argsTupleSchemeFactory implements SchemeFactory {
-      public finish_argsTupleScheme getScheme() {
-        return new finish_argsTupleScheme();
+    private static class requeueSilent_argsTupleSchemeFactory implements SchemeFactory {
+      public requeueSilent_argsTupleScheme getScheme() {
+        return new requeueSilent_argsTupleScheme();
       }
     }
 
-    private static class finish_argsTupleScheme extends TupleScheme<finish_args> {
+    private static class requeueSilent_argsTupleScheme extends TupleScheme<requeueSilent_args> {
 
       @Override
-      public void write(org.apache.thrift.protocol.TProtocol prot, finish_args struct) throws org.apache.thrift.TException {
+      public void write(org.apache.thrift.protocol.TProtocol prot, requeueSilent_args struct) throws org.apache.thrift.TException {
         TTupleProtocol oprot = (TTupleProtocol) prot;
         BitSet optionals = new BitSet();
         if (struct.isSet_secret()) {
@@ -7444,7 +7967,7 @@ public class TQueueService {
       }
 
       @Override
-      public void read(org.apache.thrift.protocol.TProtocol prot, finish_args struct) throws org.apache.thrift.TException {
+      public void read(org.apache.thrift.protocol.TProtocol prot, requeueSilent_args struct) throws org.apache.thrift.TException {
         TTupleProtocol iprot = (TTupleProtocol) prot;
         BitSet incoming = iprot.readBitSet(3);
         if (incoming.get(0)) {
@@ -7465,15 +7988,15 @@ public class TQueueService {
 
   }
 
-  public static class finish_result implements org.apache.thrift.TBase<finish_result, finish_result._Fields>, java.io.Serializable, Cloneable, Comparable<finish_result>   {
-    private static final org.apache.thrift.protocol.TStruct STRUCT_DESC = new org.apache.thrift.protocol.TStruct("finish_result");
+  public static class requeueSilent_result implements org.apache.thrift.TBase<requeueSilent_result, requeueSilent_result._Fields>, java.io.Serializable, Cloneable, Comparable<requeueSilent_result>   {
+    private static final org.apache.thrift.protocol.TStruct STRUCT_DESC = new org.apache.thrift.protocol.TStruct("requeueSilent_result");
 
     private static final org.apache.thrift.protocol.TField SUCCESS_FIELD_DESC = new org.apache.thrift.protocol.TField("success", org.apache.thrift.protocol.TType.STRUCT, (short)0);
 
     private static final Map<Class<? extends IScheme>, SchemeFactory> schemes = new HashMap<Class<? extends IScheme>, SchemeFactory>();
     static {
-      schemes.put(StandardScheme.class, new finish_resultStandardSchemeFactory());
-      schemes.put(TupleScheme.class, new finish_resultTupleSchemeFactory());
+      schemes.put(StandardScheme.class, new requeueSilent_resultStandardSchemeFactory());
+      schemes.put(TupleScheme.class, new requeueSilent_resultTupleSchemeFactory());
     }
 
     public TQueueResponse success; // required
@@ -7543,13 +8066,13 @@ public class TQueueService {
       tmpMap.put(_Fields.SUCCESS, new org.apache.thrift.meta_data.FieldMetaData("success", org.apache.thrift.TFieldRequirementType.DEFAULT, 
           new org.apache.thrift.meta_data.StructMetaData(org.apache.thrift.protocol.TType.STRUCT, TQueueResponse.class)));
       metaDataMap = Collections.unmodifiableMap(tmpMap);
-      org.apache.thrift.meta_data.FieldMetaData.addStructMetaDataMap(finish_result.class, metaDataMap);
+      org.apache.thrift.meta_data.FieldMetaData.addStructMetaDataMap(requeueSilent_result.class, metaDataMap);
     }
 
-    public finish_result() {
+    public requeueSilent_result() {
     }
 
-    public finish_result(
+    public requeueSilent_result(
       TQueueResponse success)
     {
       this();
@@ -7559,14 +8082,14 @@ public class TQueueService {
     /**
      * Performs a deep copy on <i>other</i>.
      */
-    public finish_result(finish_result other) {
+    public requeueSilent_result(requeueSilent_result other) {
       if (other.isSetSuccess()) {
         this.success = new TQueueResponse(other.success);
       }
     }
 
-    public finish_result deepCopy() {
-      return new finish_result(this);
+    public requeueSilent_result deepCopy() {
+      return new requeueSilent_result(this);
     }
 
     @Override
@@ -7578,7 +8101,7 @@ public class TQueueService {
       return this.success;
     }
 
-    public finish_result setSuccess(TQueueResponse success) {
+    public requeueSilent_result setSuccess(TQueueResponse success) {
       this.success = success;
       return this;
     }
@@ -7637,12 +8160,2805 @@ public class TQueueService {
     public boolean equals(Object that) {
       if (that == null)
         return false;
-      if (that instanceof finish_result)
-        return this.equals((finish_result)that);
+      if (that instanceof requeueSilent_result)
+        return this.equals((requeueSilent_result)that);
+      return false;
+    }
+
+    public boolean equals(requeueSilent_result that) {
+      if (that == null)
+        return false;
+
+      boolean this_present_success = true && this.isSetSuccess();
+      boolean that_present_success = true && that.isSetSuccess();
+      if (this_present_success || that_present_success) {
+        if (!(this_present_success && that_present_success))
+          return false;
+        if (!this.success.equals(that.success))
+          return false;
+      }
+
+      return true;
+    }
+
+    @Override
+    public int hashCode() {
+      return 0;
+    }
+
+    @Override
+    public int compareTo(requeueSilent_result other) {
+      if (!getClass().equals(other.getClass())) {
+        return getClass().getName().compareTo(other.getClass().getName());
+      }
+
+      int lastComparison = 0;
+
+      lastComparison = Boolean.valueOf(isSetSuccess()).compareTo(other.isSetSuccess());
+      if (lastComparison != 0) {
+        return lastComparison;
+      }
+      if (isSetSuccess()) {
+        lastComparison = org.apache.thrift.TBaseHelper.compareTo(this.success, other.success);
+        if (lastComparison != 0) {
+          return lastComparison;
+        }
+      }
+      return 0;
+    }
+
+    public _Fields fieldForId(int fieldId) {
+      return _Fields.findByThriftId(fieldId);
+    }
+
+    public void read(org.apache.thrift.protocol.TProtocol iprot) throws org.apache.thrift.TException {
+      schemes.get(iprot.getScheme()).getScheme().read(iprot, this);
+    }
+
+    public void write(org.apache.thrift.protocol.TProtocol oprot) throws org.apache.thrift.TException {
+      schemes.get(oprot.getScheme()).getScheme().write(oprot, this);
+      }
+
+    @Override
+    public String toString() {
+      StringBuilder sb = new StringBuilder("requeueSilent_result(");
+      boolean first = true;
+
+      sb.append("success:");
+      if (this.success == null) {
+        sb.append("null");
+      } else {
+        sb.append(this.success);
+      }
+      first = false;
+      sb.append(")");
+      return sb.toString();
+    }
+
+    public void validate() throws org.apache.thrift.TException {
+      // check for required fields
+      // check for sub-struct validity
+      if (success != null) {
+        success.validate();
+      }
+    }
+
+    private void writeObject(java.io.ObjectOutputStream out) throws java.io.IOException {
+      try {
+        write(new org.apache.thrift.protocol.TCompactProtocol(new org.apache.thrift.transport.TIOStreamTransport(out)));
+      } catch (org.apache.thrift.TException te) {
+        throw new java.io.IOException(te);
+      }
+    }
+
+    private void readObject(java.io.ObjectInputStream in) throws java.io.IOException, ClassNotFoundException {
+      try {
+        read(new org.apache.thrift.protocol.TCompactProtocol(new org.apache.thrift.transport.TIOStreamTransport(in)));
+      } catch (org.apache.thrift.TException te) {
+        throw new java.io.IOException(te);
+      }
+    }
+
+    private static class requeueSilent_resultStandardSchemeFactory implements SchemeFactory {
+      public requeueSilent_resultStandardScheme getScheme() {
+        return new requeueSilent_resultStandardScheme();
+      }
+    }
+
+    private static class requeueSilent_resultStandardScheme extends StandardScheme<requeueSilent_result> {
+
+      public void read(org.apache.thrift.protocol.TProtocol iprot, requeueSilent_result struct) throws org.apache.thrift.TException {
+        org.apache.thrift.protocol.TField schemeField;
+        iprot.readStructBegin();
+        while (true)
+        {
+          schemeField = iprot.readFieldBegin();
+          if (schemeField.type == org.apache.thrift.protocol.TType.STOP) { 
+            break;
+          }
+          switch (schemeField.id) {
+            case 0: // SUCCESS
+              if (schemeField.type == org.apache.thrift.protocol.TType.STRUCT) {
+                struct.success = new TQueueResponse();
+                struct.success.read(iprot);
+                struct.setSuccessIsSet(true);
+              } else { 
+                org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
+              }
+              break;
+            default:
+              org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
+          }
+          iprot.readFieldEnd();
+        }
+        iprot.readStructEnd();
+
+        // check for required fields of primitive type, which can't be checked in the validate method
+        struct.validate();
+      }
+
+      public void write(org.apache.thrift.protocol.TProtocol oprot, requeueSilent_result struct) throws org.apache.thrift.TException {
+        struct.validate();
+
+        oprot.writeStructBegin(STRUCT_DESC);
+        if (struct.success != null) {
+          oprot.writeFieldBegin(SUCCESS_FIELD_DESC);
+          struct.success.write(oprot);
+          oprot.writeFieldEnd();
+        }
+        oprot.writeFieldStop();
+        oprot.writeStructEnd();
+      }
+
+    }
+
+    private static class requeueSilent_resultTupleSchemeFactory implements SchemeFactory {
+      public requeueSilent_resultTupleScheme getScheme() {
+        return new requeueSilent_resultTupleScheme();
+      }
+    }
+
+    private static class requeueSilent_resultTupleScheme extends TupleScheme<requeueSilent_result> {
+
+      @Override
+      public void write(org.apache.thrift.protocol.TProtocol prot, requeueSilent_result struct) throws org.apache.thrift.TException {
+        TTupleProtocol oprot = (TTupleProtocol) prot;
+        BitSet optionals = new BitSet();
+        if (struct.isSetSuccess()) {
+          optionals.set(0);
+        }
+        oprot.writeBitSet(optionals, 1);
+        if (struct.isSetSuccess()) {
+          struct.success.write(oprot);
+        }
+      }
+
+      @Override
+      public void read(org.apache.thrift.protocol.TProtocol prot, requeueSilent_result struct) throws org.apache.thrift.TException {
+        TTupleProtocol iprot = (TTupleProtocol) prot;
+        BitSet incoming = iprot.readBitSet(1);
+        if (incoming.get(0)) {
+          struct.success = new TQueueResponse();
+          struct.success.read(iprot);
+          struct.setSuccessIsSet(true);
+        }
+      }
+    }
+
+  }
+
+  public static class finish_args implements org.apache.thrift.TBase<finish_args, finish_args._Fields>, java.io.Serializable, Cloneable, Comparable<finish_args>   {
+    private static final org.apache.thrift.protocol.TStruct STRUCT_DESC = new org.apache.thrift.protocol.TStruct("finish_args");
+
+    private static final org.apache.thrift.protocol.TField _SECRET_FIELD_DESC = new org.apache.thrift.protocol.TField("_secret", org.apache.thrift.protocol.TType.STRING, (short)1);
+    private static final org.apache.thrift.protocol.TField _QUEUE_NAME_FIELD_DESC = new org.apache.thrift.protocol.TField("_queueName", org.apache.thrift.protocol.TType.STRING, (short)2);
+    private static final org.apache.thrift.protocol.TField _MESSAGE_FIELD_DESC = new org.apache.thrift.protocol.TField("_message", org.apache.thrift.protocol.TType.STRUCT, (short)3);
+
+    private static final Map<Class<? extends IScheme>, SchemeFactory> schemes = new HashMap<Class<? extends IScheme>, SchemeFactory>();
+    static {
+      schemes.put(StandardScheme.class, new finish_argsStandardSchemeFactory());
+      schemes.put(TupleScheme.class, new finish_argsTupleSchemeFactory());
+    }
+
+    public String _secret; // required
+    public String _queueName; // required
+    public TQueueMessage _message; // required
+
+    /** The set of fields this struct contains, along with convenience methods for finding and manipulating them. */
+    public enum _Fields implements org.apache.thrift.TFieldIdEnum {
+      _SECRET((short)1, "_secret"),
+      _QUEUE_NAME((short)2, "_queueName"),
+      _MESSAGE((short)3, "_message");
+
+      private static final Map<String, _Fields> byName = new HashMap<String, _Fields>();
+
+      static {
+        for (_Fields field : EnumSet.allOf(_Fields.class)) {
+          byName.put(field.getFieldName(), field);
+        }
+      }
+
+      /**
+       * Find the _Fields constant that matches fieldId, or null if its not found.
+       */
+      public static _Fields findByThriftId(int fieldId) {
+        switch(fieldId) {
+          case 1: // _SECRET
+            return _SECRET;
+          case 2: // _QUEUE_NAME
+            return _QUEUE_NAME;
+          case 3: // _MESSAGE
+            return _MESSAGE;
+          default:
+            return null;
+        }
+      }
+
+      /**
+       * Find the _Fields constant that matches fieldId, throwing an exception
+       * if it is not found.
+       */
+      public static _Fields findByThriftIdOrThrow(int fieldId) {
+        _Fields fields = findByThriftId(fieldId);
+        if (fields == null) throw new IllegalArgumentException("Field " + fieldId + " doesn't exist!");
+        return fields;
+      }
+
+      /**
+       * Find the _Fields constant that matches name, or null if its not found.
+       */
+      public static _Fields findByName(String name) {
+        return byName.get(name);
+      }
+
+      private final short _thriftId;
+      private final String _fieldName;
+
+      _Fields(short thriftId, String fieldName) {
+        _thriftId = thriftId;
+        _fieldName = fieldName;
+      }
+
+      public short getThriftFieldId() {
+        return _thriftId;
+      }
+
+      public String getFieldName() {
+        return _fieldName;
+      }
+    }
+
+    // isset id assignments
+    public static final Map<_Fields, org.apache.thrift.meta_data.FieldMetaData> metaDataMap;
+    static {
+      Map<_Fields, org.apache.thrift.meta_data.FieldMetaData> tmpMap = new EnumMap<_Fields, org.apache.thrift.meta_data.FieldMetaData>(_Fields.class);
+      tmpMap.put(_Fields._SECRET, new org.apache.thrift.meta_data.FieldMetaData("_secret", org.apache.thrift.TFieldRequirementType.DEFAULT, 
+          new org.apache.thrift.meta_data.FieldValueMetaData(org.apache.thrift.protocol.TType.STRING)));
+      tmpMap.put(_Fields._QUEUE_NAME, new org.apache.thrift.meta_data.FieldMetaData("_queueName", org.apache.thrift.TFieldRequirementType.DEFAULT, 
+          new org.apache.thrift.meta_data.FieldValueMetaData(org.apache.thrift.protocol.TType.STRING)));
+      tmpMap.put(_Fields._MESSAGE, new org.apache.thrift.meta_data.FieldMetaData("_message", org.apache.thrift.TFieldRequirementType.DEFAULT, 
+          new org.apache.thrift.meta_data.StructMetaData(org.apache.thrift.protocol.TType.STRUCT, TQueueMessage.class)));
+      metaDataMap = Collections.unmodifiableMap(tmpMap);
+      org.apache.thrift.meta_data.FieldMetaData.addStructMetaDataMap(finish_args.class, metaDataMap);
+    }
+
+    public finish_args() {
+    }
+
+    public finish_args(
+      String _secret,
+      String _queueName,
+      TQueueMessage _message)
+    {
+      this();
+      this._secret = _secret;
+      this._queueName = _queueName;
+      this._message = _message;
+    }
+
+    /**
+     * Performs a deep copy on <i>other</i>.
+     */
+    public finish_args(finish_args other) {
+      if (other.isSet_secret()) {
+        this._secret = other._secret;
+      }
+      if (other.isSet_queueName()) {
+        this._queueName = other._queueName;
+      }
+      if (other.isSet_message()) {
+        this._message = new TQueueMessage(other._message);
+      }
+    }
+
+    public finish_args deepCopy() {
+      return new finish_args(this);
+    }
+
+    @Override
+    public void clear() {
+      this._secret = null;
+      this._queueName = null;
+      this._message = null;
+    }
+
+    public String get_secret() {
+      return this._secret;
+    }
+
+    public finish_args set_secret(String _secret) {
+      this._secret = _secret;
+      return this;
+    }
+
+    public void unset_secret() {
+      this._secret = null;
+    }
+
+    /** Returns true if field _secret is set (has been assigned a value) and false otherwise */
+    public boolean isSet_secret() {
+      return this._secret != null;
+    }
+
+    public void set_secretIsSet(boolean value) {
+      if (!value) {
+        this._secret = null;
+      }
+    }
+
+    public String get_queueName() {
+      return this._queueName;
+    }
+
+    public finish_args set_queueName(String _queueName) {
+      this._queueName = _queueName;
+      return this;
+    }
+
+    public void unset_queueName() {
+      this._queueName = null;
+    }
+
+    /** Returns true if field _queueName is set (has been assigned a value) and false otherwise */
+    public boolean isSet_queueName() {
+      return this._queueName != null;
+    }
+
+    public void set_queueNameIsSet(boolean value) {
+      if (!value) {
+        this._queueName = null;
+      }
+    }
+
+    public TQueueMessage get_message() {
+      return this._message;
+    }
+
+    public finish_args set_message(TQueueMessage _message) {
+      this._message = _message;
+      return this;
+    }
+
+    public void unset_message() {
+      this._message = null;
+    }
+
+    /** Returns true if field _message is set (has been assigned a value) and false otherwise */
+    public boolean isSet_message() {
+      return this._message != null;
+    }
+
+    public void set_messageIsSet(boolean value) {
+      if (!value) {
+        this._message = null;
+      }
+    }
+
+    public void setFieldValue(_Fields field, Object value) {
+      switch (field) {
+      case _SECRET:
+        if (value == null) {
+          unset_secret();
+        } else {
+          set_secret((String)value);
+        }
+        break;
+
+      case _QUEUE_NAME:
+        if (value == null) {
+          unset_queueName();
+        } else {
+          set_queueName((String)value);
+        }
+        break;
+
+      case _MESSAGE:
+        if (value == null) {
+          unset_message();
+        } else {
+          set_message((TQueueMessage)value);
+        }
+        break;
+
+      }
+    }
+
+    public Object getFieldValue(_Fields field) {
+      switch (field) {
+      case _SECRET:
+        return get_secret();
+
+      case _QUEUE_NAME:
+        return get_queueName();
+
+      case _MESSAGE:
+        return get_message();
+
+      }
+      throw new IllegalStateException();
+    }
+
+    /** Returns true if field corresponding to fieldID is set (has been assigned a value) and false otherwise */
+    public boolean isSet(_Fields field) {
+      if (field == null) {
+        throw new IllegalArgumentException();
+      }
+
+      switch (field) {
+      case _SECRET:
+        return isSet_secret();
+      case _QUEUE_NAME:
+        return isSet_queueName();
+      case _MESSAGE:
+        return isSet_message();
+      }
+      throw new IllegalStateException();
+    }
+
+    @Override
+    public boolean equals(Object that) {
+      if (that == null)
+        return false;
+      if (that instanceof finish_args)
+        return this.equals((finish_args)that);
+      return false;
+    }
+
+    public boolean equals(finish_args that) {
+      if (that == null)
+        return false;
+
+      boolean this_present__secret = true && this.isSet_secret();
+      boolean that_present__secret = true && that.isSet_secret();
+      if (this_present__secret || that_present__secret) {
+        if (!(this_present__secret && that_present__secret))
+          return false;
+        if (!this._secret.equals(that._secret))
+          return false;
+      }
+
+      boolean this_present__queueName = true && this.isSet_queueName();
+      boolean that_present__queueName = true && that.isSet_queueName();
+      if (this_present__queueName || that_present__queueName) {
+        if (!(this_present__queueName && that_present__queueName))
+          return false;
+        if (!this._queueName.equals(that._queueName))
+          return false;
+      }
+
+      boolean this_present__message = true && this.isSet_message();
+      boolean that_present__message = true && that.isSet_message();
+      if (this_present__message || that_present__message) {
+        if (!(this_present__message && that_present__message))
+          return false;
+        if (!this._message.equals(that._message))
+          return false;
+      }
+
+      return true;
+    }
+
+    @Override
+    public int hashCode() {
+      return 0;
+    }
+
+    @Override
+    public int compareTo(finish_args other) {
+      if (!getClass().equals(other.getClass())) {
+        return getClass().getName().compareTo(other.getClass().getName());
+      }
+
+      int lastComparison = 0;
+
+      lastComparison = Boolean.valueOf(isSet_secret()).compareTo(other.isSet_secret());
+      if (lastComparison != 0) {
+        return lastComparison;
+      }
+      if (isSet_secret()) {
+        lastComparison = org.apache.thrift.TBaseHelper.compareTo(this._secret, other._secret);
+        if (lastComparison != 0) {
+          return lastComparison;
+        }
+      }
+      lastComparison = Boolean.valueOf(isSet_queueName()).compareTo(other.isSet_queueName());
+      if (lastComparison != 0) {
+        return lastComparison;
+      }
+      if (isSet_queueName()) {
+        lastComparison = org.apache.thrift.TBaseHelper.compareTo(this._queueName, other._queueName);
+        if (lastComparison != 0) {
+          return lastComparison;
+        }
+      }
+      lastComparison = Boolean.valueOf(isSet_message()).compareTo(other.isSet_message());
+      if (lastComparison != 0) {
+        return lastComparison;
+      }
+      if (isSet_message()) {
+        lastComparison = org.apache.thrift.TBaseHelper.compareTo(this._message, other._message);
+        if (lastComparison != 0) {
+          return lastComparison;
+        }
+      }
+      return 0;
+    }
+
+    public _Fields fieldForId(int fieldId) {
+      return _Fields.findByThriftId(fieldId);
+    }
+
+    public void read(org.apache.thrift.protocol.TProtocol iprot) throws org.apache.thrift.TException {
+      schemes.get(iprot.getScheme()).getScheme().read(iprot, this);
+    }
+
+    public void write(org.apache.thrift.protocol.TProtocol oprot) throws org.apache.thrift.TException {
+      schemes.get(oprot.getScheme()).getScheme().write(oprot, this);
+    }
+
+    @Override
+    public String toString() {
+      StringBuilder sb = new StringBuilder("finish_args(");
+      boolean first = true;
+
+      sb.append("_secret:");
+      if (this._secret == null) {
+        sb.append("null");
+      } else {
+        sb.append(this._secret);
+      }
+      first = false;
+      if (!first) sb.append(", ");
+      sb.append("_queueName:");
+      if (this._queueName == null) {
+        sb.append("null");
+      } else {
+        sb.append(this._queueName);
+      }
+      first = false;
+      if (!first) sb.append(", ");
+      sb.append("_message:");
+      if (this._message == null) {
+        sb.append("null");
+      } else {
+        sb.append(this._message);
+      }
+      first = false;
+      sb.append(")");
+      return sb.toString();
+    }
+
+    public void validate() throws org.apache.thrift.TException {
+      // check for required fields
+      // check for sub-struct validity
+      if (_message != null) {
+        _message.validate();
+      }
+    }
+
+    private void writeObject(java.io.ObjectOutputStream out) throws java.io.IOException {
+      try {
+        write(new org.apache.thrift.protocol.TCompactProtocol(new org.apache.thrift.transport.TIOStreamTransport(out)));
+      } catch (org.apache.thrift.TException te) {
+        throw new java.io.IOException(te);
+      }
+    }
+
+    private void readObject(java.io.ObjectInputStream in) throws java.io.IOException, ClassNotFoundException {
+      try {
+        read(new org.apache.thrift.protocol.TCompactProtocol(new org.apache.thrift.transport.TIOStreamTransport(in)));
+      } catch (org.apache.thrift.TException te) {
+        throw new java.io.IOException(te);
+      }
+    }
+
+    private static class finish_argsStandardSchemeFactory implements SchemeFactory {
+      public finish_argsStandardScheme getScheme() {
+        return new finish_argsStandardScheme();
+      }
+    }
+
+    private static class finish_argsStandardScheme extends StandardScheme<finish_args> {
+
+      public void read(org.apache.thrift.protocol.TProtocol iprot, finish_args struct) throws org.apache.thrift.TException {
+        org.apache.thrift.protocol.TField schemeField;
+        iprot.readStructBegin();
+        while (true)
+        {
+          schemeField = iprot.readFieldBegin();
+          if (schemeField.type == org.apache.thrift.protocol.TType.STOP) { 
+            break;
+          }
+          switch (schemeField.id) {
+            case 1: // _SECRET
+              if (schemeField.type == org.apache.thrift.protocol.TType.STRING) {
+                struct._secret = iprot.readString();
+                struct.set_secretIsSet(true);
+              } else { 
+                org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
+              }
+              break;
+            case 2: // _QUEUE_NAME
+              if (schemeField.type == org.apache.thrift.protocol.TType.STRING) {
+                struct._queueName = iprot.readString();
+                struct.set_queueNameIsSet(true);
+              } else { 
+                org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
+              }
+              break;
+            case 3: // _MESSAGE
+              if (schemeField.type == org.apache.thrift.protocol.TType.STRUCT) {
+                struct._message = new TQueueMessage();
+                struct._message.read(iprot);
+                struct.set_messageIsSet(true);
+              } else { 
+                org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
+              }
+              break;
+            default:
+              org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
+          }
+          iprot.readFieldEnd();
+        }
+        iprot.readStructEnd();
+
+        // check for required fields of primitive type, which can't be checked in the validate method
+        struct.validate();
+      }
+
+      public void write(org.apache.thrift.protocol.TProtocol oprot, finish_args struct) throws org.apache.thrift.TException {
+        struct.validate();
+
+        oprot.writeStructBegin(STRUCT_DESC);
+        if (struct._secret != null) {
+          oprot.writeFieldBegin(_SECRET_FIELD_DESC);
+          oprot.writeString(struct._secret);
+          oprot.writeFieldEnd();
+        }
+        if (struct._queueName != null) {
+          oprot.writeFieldBegin(_QUEUE_NAME_FIELD_DESC);
+          oprot.writeString(struct._queueName);
+          oprot.writeFieldEnd();
+        }
+        if (struct._message != null) {
+          oprot.writeFieldBegin(_MESSAGE_FIELD_DESC);
+          struct._message.write(oprot);
+          oprot.writeFieldEnd();
+        }
+        oprot.writeFieldStop();
+        oprot.writeStructEnd();
+      }
+
+    }
+
+    private static class finish_argsTupleSchemeFactory implements SchemeFactory {
+      public finish_argsTupleScheme getScheme() {
+        return new finish_argsTupleScheme();
+      }
+    }
+
+    private static class finish_argsTupleScheme extends TupleScheme<finish_args> {
+
+      @Override
+      public void write(org.apache.thrift.protocol.TProtocol prot, finish_args struct) throws org.apache.thrift.TException {
+        TTupleProtocol oprot = (TTupleProtocol) prot;
+        BitSet optionals = new BitSet();
+        if (struct.isSet_secret()) {
+          optionals.set(0);
+        }
+        if (struct.isSet_queueName()) {
+          optionals.set(1);
+        }
+        if (struct.isSet_message()) {
+          optionals.set(2);
+        }
+        oprot.writeBitSet(optionals, 3);
+        if (struct.isSet_secret()) {
+          oprot.writeString(struct._secret);
+        }
+        if (struct.isSet_queueName()) {
+          oprot.writeString(struct._queueName);
+        }
+        if (struct.isSet_message()) {
+          struct._message.write(oprot);
+        }
+      }
+
+      @Override
+      public void read(org.apache.thrift.protocol.TProtocol prot, finish_args struct) throws org.apache.thrift.TException {
+        TTupleProtocol iprot = (TTupleProtocol) prot;
+        BitSet incoming = iprot.readBitSet(3);
+        if (incoming.get(0)) {
+          struct._secret = iprot.readString();
+          struct.set_secretIsSet(true);
+        }
+        if (incoming.get(1)) {
+          struct._queueName = iprot.readString();
+          struct.set_queueNameIsSet(true);
+        }
+        if (incoming.get(2)) {
+          struct._message = new TQueueMessage();
+          struct._message.read(iprot);
+          struct.set_messageIsSet(true);
+        }
+      }
+    }
+
+  }
+
+  public static class finish_result implements org.apache.thrift.TBase<finish_result, finish_result._Fields>, java.io.Serializable, Cloneable, Comparable<finish_result>   {
+    private static final org.apache.thrift.protocol.TStruct STRUCT_DESC = new org.apache.thrift.protocol.TStruct("finish_result");
+
+    private static final org.apache.thrift.protocol.TField SUCCESS_FIELD_DESC = new org.apache.thrift.protocol.TField("success", org.apache.thrift.protocol.TType.STRUCT, (short)0);
+
+    private static final Map<Class<? extends IScheme>, SchemeFactory> schemes = new HashMap<Class<? extends IScheme>, SchemeFactory>();
+    static {
+      schemes.put(StandardScheme.class, new finish_resultStandardSchemeFactory());
+      schemes.put(TupleScheme.class, new finish_resultTupleSchemeFactory());
+    }
+
+    public TQueueResponse success; // required
+
+    /** The set of fields this struct contains, along with convenience methods for finding and manipulating them. */
+    public enum _Fields implements org.apache.thrift.TFieldIdEnum {
+      SUCCESS((short)0, "success");
+
+      private static final Map<String, _Fields> byName = new HashMap<String, _Fields>();
+
+      static {
+        for (_Fields field : EnumSet.allOf(_Fields.class)) {
+          byName.put(field.getFieldName(), field);
+        }
+      }
+
+      /**
+       * Find the _Fields constant that matches fieldId, or null if its not found.
+       */
+      public static _Fields findByThriftId(int fieldId) {
+        switch(fieldId) {
+          case 0: // SUCCESS
+            return SUCCESS;
+          default:
+            return null;
+        }
+      }
+
+      /**
+       * Find the _Fields constant that matches fieldId, throwing an exception
+       * if it is not found.
+       */
+      public static _Fields findByThriftIdOrThrow(int fieldId) {
+        _Fields fields = findByThriftId(fieldId);
+        if (fields == null) throw new IllegalArgumentException("Field " + fieldId + " doesn't exist!");
+        return fields;
+      }
+
+      /**
+       * Find the _Fields constant that matches name, or null if its not found.
+       */
+      public static _Fields findByName(String name) {
+        return byName.get(name);
+      }
+
+      private final short _thriftId;
+      private final String _fieldName;
+
+      _Fields(short thriftId, String fieldName) {
+        _thriftId = thriftId;
+        _fieldName = fieldName;
+      }
+
+      public short getThriftFieldId() {
+        return _thriftId;
+      }
+
+      public String getFieldName() {
+        return _fieldName;
+      }
+    }
+
+    // isset id assignments
+    public static final Map<_Fields, org.apache.thrift.meta_data.FieldMetaData> metaDataMap;
+    static {
+      Map<_Fields, org.apache.thrift.meta_data.FieldMetaData> tmpMap = new EnumMap<_Fields, org.apache.thrift.meta_data.FieldMetaData>(_Fields.class);
+      tmpMap.put(_Fields.SUCCESS, new org.apache.thrift.meta_data.FieldMetaData("success", org.apache.thrift.TFieldRequirementType.DEFAULT, 
+          new org.apache.thrift.meta_data.StructMetaData(org.apache.thrift.protocol.TType.STRUCT, TQueueResponse.class)));
+      metaDataMap = Collections.unmodifiableMap(tmpMap);
+      org.apache.thrift.meta_data.FieldMetaData.addStructMetaDataMap(finish_result.class, metaDataMap);
+    }
+
+    public finish_result() {
+    }
+
+    public finish_result(
+      TQueueResponse success)
+    {
+      this();
+      this.success = success;
+    }
+
+    /**
+     * Performs a deep copy on <i>other</i>.
+     */
+    public finish_result(finish_result other) {
+      if (other.isSetSuccess()) {
+        this.success = new TQueueResponse(other.success);
+      }
+    }
+
+    public finish_result deepCopy() {
+      return new finish_result(this);
+    }
+
+    @Override
+    public void clear() {
+      this.success = null;
+    }
+
+    public TQueueResponse getSuccess() {
+      return this.success;
+    }
+
+    public finish_result setSuccess(TQueueResponse success) {
+      this.success = success;
+      return this;
+    }
+
+    public void unsetSuccess() {
+      this.success = null;
+    }
+
+    /** Returns true if field success is set (has been assigned a value) and false otherwise */
+    public boolean isSetSuccess() {
+      return this.success != null;
+    }
+
+    public void setSuccessIsSet(boolean value) {
+      if (!value) {
+        this.success = null;
+      }
+    }
+
+    public void setFieldValue(_Fields field, Object value) {
+      switch (field) {
+      case SUCCESS:
+        if (value == null) {
+          unsetSuccess();
+        } else {
+          setSuccess((TQueueResponse)value);
+        }
+        break;
+
+      }
+    }
+
+    public Object getFieldValue(_Fields field) {
+      switch (field) {
+      case SUCCESS:
+        return getSuccess();
+
+      }
+      throw new IllegalStateException();
+    }
+
+    /** Returns true if field corresponding to fieldID is set (has been assigned a value) and false otherwise */
+    public boolean isSet(_Fields field) {
+      if (field == null) {
+        throw new IllegalArgumentException();
+      }
+
+      switch (field) {
+      case SUCCESS:
+        return isSetSuccess();
+      }
+      throw new IllegalStateException();
+    }
+
+    @Override
+    public boolean equals(Object that) {
+      if (that == null)
+        return false;
+      if (that instanceof finish_result)
+        return this.equals((finish_result)that);
+      return false;
+    }
+
+    public boolean equals(finish_result that) {
+      if (that == null)
+        return false;
+
+      boolean this_present_success = true && this.isSetSuccess();
+      boolean that_present_success = true && that.isSetSuccess();
+      if (this_present_success || that_present_success) {
+        if (!(this_present_success && that_present_success))
+          return false;
+        if (!this.success.equals(that.success))
+          return false;
+      }
+
+      return true;
+    }
+
+    @Override
+    public int hashCode() {
+      return 0;
+    }
+
+    @Override
+    public int compareTo(finish_result other) {
+      if (!getClass().equals(other.getClass())) {
+        return getClass().getName().compareTo(other.getClass().getName());
+      }
+
+      int lastComparison = 0;
+
+      lastComparison = Boolean.valueOf(isSetSuccess()).compareTo(other.isSetSuccess());
+      if (lastComparison != 0) {
+        return lastComparison;
+      }
+      if (isSetSuccess()) {
+        lastComparison = org.apache.thrift.TBaseHelper.compareTo(this.success, other.success);
+        if (lastComparison != 0) {
+          return lastComparison;
+        }
+      }
+      return 0;
+    }
+
+    public _Fields fieldForId(int fieldId) {
+      return _Fields.findByThriftId(fieldId);
+    }
+
+    public void read(org.apache.thrift.protocol.TProtocol iprot) throws org.apache.thrift.TException {
+      schemes.get(iprot.getScheme()).getScheme().read(iprot, this);
+    }
+
+    public void write(org.apache.thrift.protocol.TProtocol oprot) throws org.apache.thrift.TException {
+      schemes.get(oprot.getScheme()).getScheme().write(oprot, this);
+      }
+
+    @Override
+    public String toString() {
+      StringBuilder sb = new StringBuilder("finish_result(");
+      boolean first = true;
+
+      sb.append("success:");
+      if (this.success == null) {
+        sb.append("null");
+      } else {
+        sb.append(this.success);
+      }
+      first = false;
+      sb.append(")");
+      return sb.toString();
+    }
+
+    public void validate() throws org.apache.thrift.TException {
+      // check for required fields
+      // check for sub-struct validity
+      if (success != null) {
+        success.validate();
+      }
+    }
+
+    private void writeObject(java.io.ObjectOutputStream out) throws java.io.IOException {
+      try {
+        write(new org.apache.thrift.protocol.TCompactProtocol(new org.apache.thrift.transport.TIOStreamTransport(out)));
+      } catch (org.apache.thrift.TException te) {
+        throw new java.io.IOException(te);
+      }
+    }
+
+    private void readObject(java.io.ObjectInputStream in) throws java.io.IOException, ClassNotFoundException {
+      try {
+        read(new org.apache.thrift.protocol.TCompactProtocol(new org.apache.thrift.transport.TIOStreamTransport(in)));
+      } catch (org.apache.thrift.TException te) {
+        throw new java.io.IOException(te);
+      }
+    }
+
+    private static class finish_resultStandardSchemeFactory implements SchemeFactory {
+      public finish_resultStandardScheme getScheme() {
+        return new finish_resultStandardScheme();
+      }
+    }
+
+    private static class finish_resultStandardScheme extends StandardScheme<finish_result> {
+
+      public void read(org.apache.thrift.protocol.TProtocol iprot, finish_result struct) throws org.apache.thrift.TException {
+        org.apache.thrift.protocol.TField schemeField;
+        iprot.readStructBegin();
+        while (true)
+        {
+          schemeField = iprot.readFieldBegin();
+          if (schemeField.type == org.apache.thrift.protocol.TType.STOP) { 
+            break;
+          }
+          switch (schemeField.id) {
+            case 0: // SUCCESS
+              if (schemeField.type == org.apache.thrift.protocol.TType.STRUCT) {
+                struct.success = new TQueueResponse();
+                struct.success.read(iprot);
+                struct.setSuccessIsSet(true);
+              } else { 
+                org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
+              }
+              break;
+            default:
+              org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
+          }
+          iprot.readFieldEnd();
+        }
+        iprot.readStructEnd();
+
+        // check for required fields of primitive type, which can't be checked in the validate method
+        struct.validate();
+      }
+
+      public void write(org.apache.thrift.protocol.TProtocol oprot, finish_result struct) throws org.apache.thrift.TException {
+        struct.validate();
+
+        oprot.writeStructBegin(STRUCT_DESC);
+        if (struct.success != null) {
+          oprot.writeFieldBegin(SUCCESS_FIELD_DESC);
+          struct.success.write(oprot);
+          oprot.writeFieldEnd();
+        }
+        oprot.writeFieldStop();
+        oprot.writeStructEnd();
+      }
+
+    }
+
+    private static class finish_resultTupleSchemeFactory implements SchemeFactory {
+      public finish_resultTupleScheme getScheme() {
+        return new finish_resultTupleScheme();
+      }
+    }
+
+    private static class finish_resultTupleScheme extends TupleScheme<finish_result> {
+
+      @Override
+      public void write(org.apache.thrift.protocol.TProtocol prot, finish_result struct) throws org.apache.thrift.TException {
+        TTupleProtocol oprot = (TTupleProtocol) prot;
+        BitSet optionals = new BitSet();
+        if (struct.isSetSuccess()) {
+          optionals.set(0);
+        }
+        oprot.writeBitSet(optionals, 1);
+        if (struct.isSetSuccess()) {
+          struct.success.write(oprot);
+        }
+      }
+
+      @Override
+      public void read(org.apache.thrift.protocol.TProtocol prot, finish_result struct) throws org.apache.thrift.TException {
+        TTupleProtocol iprot = (TTupleProtocol) prot;
+        BitSet incoming = iprot.readBitSet(1);
+        if (incoming.get(0)) {
+          struct.success = new TQueueResponse();
+          struct.success.read(iprot);
+          struct.setSuccessIsSet(true);
+        }
+      }
+    }
+
+  }
+
+  public static class finishBatch_args implements org.apache.thrift.TBase<finishBatch_args, finishBatch_args._Fields>, java.io.Serializable, Cloneable, Comparable<finishBatch_args>   {
+    private static final org.apache.thrift.protocol.TStruct STRUCT_DESC = new org.apache.thrift.protocol.TStruct("finishBatch_args");
+
+    private static final org.apache.thrift.protocol.TField _SECRET_FIELD_DESC = new org.apache.thrift.protocol.TField("_secret", org.apache.thrift.protocol.TType.STRING, (short)1);
+    private static final org.apache.thrift.protocol.TField _QUEUE_NAME_FIELD_DESC = new org.apache.thrift.protocol.TField("_queueName", org.apache.thrift.protocol.TType.STRING, (short)2);
+    private static final org.apache.thrift.protocol.TField _QUEUE_IDS_FIELD_DESC = new org.apache.thrift.protocol.TField("_queueIds", org.apache.thrift.protocol.TType.LIST, (short)3);
+
+    private static final Map<Class<? extends IScheme>, SchemeFactory> schemes = new HashMap<Class<? extends IScheme>, SchemeFactory>();
+    static {
+      schemes.put(StandardScheme.class, new finishBatch_argsStandardSchemeFactory());
+      schemes.put(TupleScheme.class, new finishBatch_argsTupleSchemeFactory());
+    }
+
+    public String _secret; // required
+    public String _queueName; // required
+    public List<Long> _queueIds; // required
+
+    /** The set of fields this struct contains, along with convenience methods for finding and manipulating them. */
+    public enum _Fields implements org.apache.thrift.TFieldIdEnum {
+      _SECRET((short)1, "_secret"),
+      _QUEUE_NAME((short)2, "_queueName"),
+      _QUEUE_IDS((short)3, "_queueIds");
+
+      private static final Map<String, _Fields> byName = new HashMap<String, _Fields>();
+
+      static {
+        for (_Fields field : EnumSet.allOf(_Fields.class)) {
+          byName.put(field.getFieldName(), field);
+        }
+      }
+
+      /**
+       * Find the _Fields constant that matches fieldId, or null if its not found.
+       */
+      public static _Fields findByThriftId(int fieldId) {
+        switch(fieldId) {
+          case 1: // _SECRET
+            return _SECRET;
+          case 2: // _QUEUE_NAME
+            return _QUEUE_NAME;
+          case 3: // _QUEUE_IDS
+            return _QUEUE_IDS;
+          default:
+            return null;
+        }
+      }
+
+      /**
+       * Find the _Fields constant that matches fieldId, throwing an exception
+       * if it is not found.
+       */
+      public static _Fields findByThriftIdOrThrow(int fieldId) {
+        _Fields fields = findByThriftId(fieldId);
+        if (fields == null) throw new IllegalArgumentException("Field " + fieldId + " doesn't exist!");
+        return fields;
+      }
+
+      /**
+       * Find the _Fields constant that matches name, or null if its not found.
+       */
+      public static _Fields findByName(String name) {
+        return byName.get(name);
+      }
+
+      private final short _thriftId;
+      private final String _fieldName;
+
+      _Fields(short thriftId, String fieldName) {
+        _thriftId = thriftId;
+        _fieldName = fieldName;
+      }
+
+      public short getThriftFieldId() {
+        return _thriftId;
+      }
+
+      public String getFieldName() {
+        return _fieldName;
+      }
+    }
+
+    // isset id assignments
+    public static final Map<_Fields, org.apache.thrift.meta_data.FieldMetaData> metaDataMap;
+    static {
+      Map<_Fields, org.apache.thrift.meta_data.FieldMetaData> tmpMap = new EnumMap<_Fields, org.apache.thrift.meta_data.FieldMetaData>(_Fields.class);
+      tmpMap.put(_Fields._SECRET, new org.apache.thrift.meta_data.FieldMetaData("_secret", org.apache.thrift.TFieldRequirementType.DEFAULT, 
+          new org.apache.thrift.meta_data.FieldValueMetaData(org.apache.thrift.protocol.TType.STRING)));
+      tmpMap.put(_Fields._QUEUE_NAME, new org.apache.thrift.meta_data.FieldMetaData("_queueName", org.apache.thrift.TFieldRequirementType.DEFAULT, 
+          new org.apache.thrift.meta_data.FieldValueMetaData(org.apache.thrift.protocol.TType.STRING)));
+      tmpMap.put(_Fields._QUEUE_IDS, new org.apache.thrift.meta_data.FieldMetaData("_queueIds", org.apache.thrift.TFieldRequirementType.DEFAULT, 
+          new org.apache.thrift.meta_data.ListMetaData(org.apache.thrift.protocol.TType.LIST, 
+              new org.apache.thrift.meta_data.FieldValueMetaData(org.apache.thrift.protocol.TType.I64))));
+      metaDataMap = Collections.unmodifiableMap(tmpMap);
+      org.apache.thrift.meta_data.FieldMetaData.addStructMetaDataMap(finishBatch_args.class, metaDataMap);
+    }
+
+    public finishBatch_args() {
+    }
+
+    public finishBatch_args(
+      String _secret,
+      String _queueName,
+      List<Long> _queueIds)
+    {
+      this();
+      this._secret = _secret;
+      this._queueName = _queueName;
+      this._queueIds = _queueIds;
+    }
+
+    /**
+     * Performs a deep copy on <i>other</i>.
+     */
+    public finishBatch_args(finishBatch_args other) {
+      if (other.isSet_secret()) {
+        this._secret = other._secret;
+      }
+      if (other.isSet_queueName()) {
+        this._queueName = other._queueName;
+      }
+      if (other.isSet_queueIds()) {
+        List<Long> __this___queueIds = new ArrayList<Long>(other._queueIds);
+        this._queueIds = __this___queueIds;
+      }
+    }
+
+    public finishBatch_args deepCopy() {
+      return new finishBatch_args(this);
+    }
+
+    @Override
+    public void clear() {
+      this._secret = null;
+      this._queueName = null;
+      this._queueIds = null;
+    }
+
+    public String get_secret() {
+      return this._secret;
+    }
+
+    public finishBatch_args set_secret(String _secret) {
+      this._secret = _secret;
+      return this;
+    }
+
+    public void unset_secret() {
+      this._secret = null;
+    }
+
+    /** Returns true if field _secret is set (has been assigned a value) and false otherwise */
+    public boolean isSet_secret() {
+      return this._secret != null;
+    }
+
+    public void set_secretIsSet(boolean value) {
+      if (!value) {
+        this._secret = null;
+      }
+    }
+
+    public String get_queueName() {
+      return this._queueName;
+    }
+
+    public finishBatch_args set_queueName(String _queueName) {
+      this._queueName = _queueName;
+      return this;
+    }
+
+    public void unset_queueName() {
+      this._queueName = null;
+    }
+
+    /** Returns true if field _queueName is set (has been assigned a value) and false otherwise */
+    public boolean isSet_queueName() {
+      return this._queueName != null;
+    }
+
+    public void set_queueNameIsSet(boolean value) {
+      if (!value) {
+        this._queueName = null;
+      }
+    }
+
+    public int get_queueIdsSize() {
+      return (this._queueIds == null) ? 0 : this._queueIds.size();
+    }
+
+    public java.util.Iterator<Long> get_queueIdsIterator() {
+      return (this._queueIds == null) ? null : this._queueIds.iterator();
+    }
+
+    public void addTo_queueIds(long elem) {
+      if (this._queueIds == null) {
+        this._queueIds = new ArrayList<Long>();
+      }
+      this._queueIds.add(elem);
+    }
+
+    public List<Long> get_queueIds() {
+      return this._queueIds;
+    }
+
+    public finishBatch_args set_queueIds(List<Long> _queueIds) {
+      this._queueIds = _queueIds;
+      return this;
+    }
+
+    public void unset_queueIds() {
+      this._queueIds = null;
+    }
+
+    /** Returns true if field _queueIds is set (has been assigned a value) and false otherwise */
+    public boolean isSet_queueIds() {
+      return this._queueIds != null;
+    }
+
+    public void set_queueIdsIsSet(boolean value) {
+      if (!value) {
+        this._queueIds = null;
+      }
+    }
+
+    public void setFieldValue(_Fields field, Object value) {
+      switch (field) {
+      case _SECRET:
+        if (value == null) {
+          unset_secret();
+        } else {
+          set_secret((String)value);
+        }
+        break;
+
+      case _QUEUE_NAME:
+        if (value == null) {
+          unset_queueName();
+        } else {
+          set_queueName((String)value);
+        }
+        break;
+
+      case _QUEUE_IDS:
+        if (value == null) {
+          unset_queueIds();
+        } else {
+          set_queueIds((List<Long>)value);
+        }
+        break;
+
+      }
+    }
+
+    public Object getFieldValue(_Fields field) {
+      switch (field) {
+      case _SECRET:
+        return get_secret();
+
+      case _QUEUE_NAME:
+        return get_queueName();
+
+      case _QUEUE_IDS:
+        return get_queueIds();
+
+      }
+      throw new IllegalStateException();
+    }
+
+    /** Returns true if field corresponding to fieldID is set (has been assigned a value) and false otherwise */
+    public boolean isSet(_Fields field) {
+      if (field == null) {
+        throw new IllegalArgumentException();
+      }
+
+      switch (field) {
+      case _SECRET:
+        return isSet_secret();
+      case _QUEUE_NAME:
+        return isSet_queueName();
+      case _QUEUE_IDS:
+        return isSet_queueIds();
+      }
+      throw new IllegalStateException();
+    }
+
+    @Override
+    public boolean equals(Object that) {
+      if (that == null)
+        return false;
+      if (that instanceof finishBatch_args)
+        return this.equals((finishBatch_args)that);
+      return false;
+    }
+
+    public boolean equals(finishBatch_args that) {
+      if (that == null)
+        return false;
+
+      boolean this_present__secret = true && this.isSet_secret();
+      boolean that_present__secret = true && that.isSet_secret();
+      if (this_present__secret || that_present__secret) {
+        if (!(this_present__secret && that_present__secret))
+          return false;
+        if (!this._secret.equals(that._secret))
+          return false;
+      }
+
+      boolean this_present__queueName = true && this.isSet_queueName();
+      boolean that_present__queueName = true && that.isSet_queueName();
+      if (this_present__queueName || that_present__queueName) {
+        if (!(this_present__queueName && that_present__queueName))
+          return false;
+        if (!this._queueName.equals(that._queueName))
+          return false;
+      }
+
+      boolean this_present__queueIds = true && this.isSet_queueIds();
+      boolean that_present__queueIds = true && that.isSet_queueIds();
+      if (this_present__queueIds || that_present__queueIds) {
+        if (!(this_present__queueIds && that_present__queueIds))
+          return false;
+        if (!this._queueIds.equals(that._queueIds))
+          return false;
+      }
+
+      return true;
+    }
+
+    @Override
+    public int hashCode() {
+      return 0;
+    }
+
+    @Override
+    public int compareTo(finishBatch_args other) {
+      if (!getClass().equals(other.getClass())) {
+        return getClass().getName().compareTo(other.getClass().getName());
+      }
+
+      int lastComparison = 0;
+
+      lastComparison = Boolean.valueOf(isSet_secret()).compareTo(other.isSet_secret());
+      if (lastComparison != 0) {
+        return lastComparison;
+      }
+      if (isSet_secret()) {
+        lastComparison = org.apache.thrift.TBaseHelper.compareTo(this._secret, other._secret);
+        if (lastComparison != 0) {
+          return lastComparison;
+        }
+      }
+      lastComparison = Boolean.valueOf(isSet_queueName()).compareTo(other.isSet_queueName());
+      if (lastComparison != 0) {
+        return lastComparison;
+      }
+      if (isSet_queueName()) {
+        lastComparison = org.apache.thrift.TBaseHelper.compareTo(this._queueName, other._queueName);
+        if (lastComparison != 0) {
+          return lastComparison;
+        }
+      }
+      lastComparison = Boolean.valueOf(isSet_queueIds()).compareTo(other.isSet_queueIds());
+      if (lastComparison != 0) {
+        return lastComparison;
+      }
+      if (isSet_queueIds()) {
+        lastComparison = org.apache.thrift.TBaseHelper.compareTo(this._queueIds, other._queueIds);
+        if (lastComparison != 0) {
+          return lastComparison;
+        }
+      }
+      return 0;
+    }
+
+    public _Fields fieldForId(int fieldId) {
+      return _Fields.findByThriftId(fieldId);
+    }
+
+    public void read(org.apache.thrift.protocol.TProtocol iprot) throws org.apache.thrift.TException {
+      schemes.get(iprot.getScheme()).getScheme().read(iprot, this);
+    }
+
+    public void write(org.apache.thrift.protocol.TProtocol oprot) throws org.apache.thrift.TException {
+      schemes.get(oprot.getScheme()).getScheme().write(oprot, this);
+    }
+
+    @Override
+    public String toString() {
+      StringBuilder sb = new StringBuilder("finishBatch_args(");
+      boolean first = true;
+
+      sb.append("_secret:");
+      if (this._secret == null) {
+        sb.append("null");
+      } else {
+        sb.append(this._secret);
+      }
+      first = false;
+      if (!first) sb.append(", ");
+      sb.append("_queueName:");
+      if (this._queueName == null) {
+        sb.append("null");
+      } else {
+        sb.append(this._queueName);
+      }
+      first = false;
+      if (!first) sb.append(", ");
+      sb.append("_queueIds:");
+      if (this._queueIds == null) {
+        sb.append("null");
+      } else {
+        sb.append(this._queueIds);
+      }
+      first = false;
+      sb.append(")");
+      return sb.toString();
+    }
+
+    public void validate() throws org.apache.thrift.TException {
+      // check for required fields
+      // check for sub-struct validity
+    }
+
+    private void writeObject(java.io.ObjectOutputStream out) throws java.io.IOException {
+      try {
+        write(new org.apache.thrift.protocol.TCompactProtocol(new org.apache.thrift.transport.TIOStreamTransport(out)));
+      } catch (org.apache.thrift.TException te) {
+        throw new java.io.IOException(te);
+      }
+    }
+
+    private void readObject(java.io.ObjectInputStream in) throws java.io.IOException, ClassNotFoundException {
+      try {
+        read(new org.apache.thrift.protocol.TCompactProtocol(new org.apache.thrift.transport.TIOStreamTransport(in)));
+      } catch (org.apache.thrift.TException te) {
+        throw new java.io.IOException(te);
+      }
+    }
+
+    private static class finishBatch_argsStandardSchemeFactory implements SchemeFactory {
+      public finishBatch_argsStandardScheme getScheme() {
+        return new finishBatch_argsStandardScheme();
+      }
+    }
+
+    private static class finishBatch_argsStandardScheme extends StandardScheme<finishBatch_args> {
+
+      public void read(org.apache.thrift.protocol.TProtocol iprot, finishBatch_args struct) throws org.apache.thrift.TException {
+        org.apache.thrift.protocol.TField schemeField;
+        iprot.readStructBegin();
+        while (true)
+        {
+          schemeField = iprot.readFieldBegin();
+          if (schemeField.type == org.apache.thrift.protocol.TType.STOP) { 
+            break;
+          }
+          switch (schemeField.id) {
+            case 1: // _SECRET
+              if (schemeField.type == org.apache.thrift.protocol.TType.STRING) {
+                struct._secret = iprot.readString();
+                struct.set_secretIsSet(true);
+              } else { 
+                org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
+              }
+              break;
+            case 2: // _QUEUE_NAME
+              if (schemeField.type == org.apache.thrift.protocol.TType.STRING) {
+                struct._queueName = iprot.readString();
+                struct.set_queueNameIsSet(true);
+              } else { 
+                org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
+              }
+              break;
+            case 3: // _QUEUE_IDS
+              if (schemeField.type == org.apache.thrift.protocol.TType.LIST) {
+                {
+                  org.apache.thrift.protocol.TList _list24 = iprot.readListBegin();
+                  struct._queueIds = new ArrayList<Long>(_list24.size);
+                  for (int _i25 = 0; _i25 < _list24.size; ++_i25)
+                  {
+                    long _elem26;
+                    _elem26 = iprot.readI64();
+                    struct._queueIds.add(_elem26);
+                  }
+                  iprot.readListEnd();
+                }
+                struct.set_queueIdsIsSet(true);
+              } else { 
+                org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
+              }
+              break;
+            default:
+              org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
+          }
+          iprot.readFieldEnd();
+        }
+        iprot.readStructEnd();
+
+        // check for required fields of primitive type, which can't be checked in the validate method
+        struct.validate();
+      }
+
+      public void write(org.apache.thrift.protocol.TProtocol oprot, finishBatch_args struct) throws org.apache.thrift.TException {
+        struct.validate();
+
+        oprot.writeStructBegin(STRUCT_DESC);
+        if (struct._secret != null) {
+          oprot.writeFieldBegin(_SECRET_FIELD_DESC);
+          oprot.writeString(struct._secret);
+          oprot.writeFieldEnd();
+        }
+        if (struct._queueName != null) {
+          oprot.writeFieldBegin(_QUEUE_NAME_FIELD_DESC);
+          oprot.writeString(struct._queueName);
+          oprot.writeFieldEnd();
+        }
+        if (struct._queueIds != null) {
+          oprot.writeFieldBegin(_QUEUE_IDS_FIELD_DESC);
+          {
+            oprot.writeListBegin(new org.apache.thrift.protocol.TList(org.apache.thrift.protocol.TType.I64, struct._queueIds.size()));
+            for (long _iter27 : struct._queueIds)
+            {
+              oprot.writeI64(_iter27);
+            }
+            oprot.writeListEnd();
+          }
+          oprot.writeFieldEnd();
+        }
+        oprot.writeFieldStop();
+        oprot.writeStructEnd();
+      }
+
+    }
+
+    private static class finishBatch_argsTupleSchemeFactory implements SchemeFactory {
+      public finishBatch_argsTupleScheme getScheme() {
+        return new finishBatch_argsTupleScheme();
+      }
+    }
+
+    private static class finishBatch_argsTupleScheme extends TupleScheme<finishBatch_args> {
+
+      @Override
+      public void write(org.apache.thrift.protocol.TProtocol prot, finishBatch_args struct) throws org.apache.thrift.TException {
+        TTupleProtocol oprot = (TTupleProtocol) prot;
+        BitSet optionals = new BitSet();
+        if (struct.isSet_secret()) {
+          optionals.set(0);
+        }
+        if (struct.isSet_queueName()) {
+          optionals.set(1);
+        }
+        if (struct.isSet_queueIds()) {
+          optionals.set(2);
+        }
+        oprot.writeBitSet(optionals, 3);
+        if (struct.isSet_secret()) {
+          oprot.writeString(struct._secret);
+        }
+        if (struct.isSet_queueName()) {
+          oprot.writeString(struct._queueName);
+        }
+        if (struct.isSet_queueIds()) {
+          {
+            oprot.writeI32(struct._queueIds.size());
+            for (long _iter28 : struct._queueIds)
+            {
+              oprot.writeI64(_iter28);
+            }
+          }
+        }
+      }
+
+      @Override
+      public void read(org.apache.thrift.protocol.TProtocol prot, finishBatch_args struct) throws org.apache.thrift.TException {
+        TTupleProtocol iprot = (TTupleProtocol) prot;
+        BitSet incoming = iprot.readBitSet(3);
+        if (incoming.get(0)) {
+          struct._secret = iprot.readString();
+          struct.set_secretIsSet(true);
+        }
+        if (incoming.get(1)) {
+          struct._queueName = iprot.readString();
+          struct.set_queueNameIsSet(true);
+        }
+        if (incoming.get(2)) {
+          {
+            org.apache.thrift.protocol.TList _list29 = new org.apache.thrift.protocol.TList(org.apache.thrift.protocol.TType.I64, iprot.readI32());
+            struct._queueIds = new ArrayList<Long>(_list29.size);
+            for (int _i30 = 0; _i30 < _list29.size; ++_i30)
+            {
+              long _elem31;
+              _elem31 = iprot.readI64();
+              struct._queueIds.add(_elem31);
+            }
+          }
+          struct.set_queueIdsIsSet(true);
+        }
+      }
+    }
+
+  }
+
+  public static class finishBatch_result implements org.apache.thrift.TBase<finishBatch_result, finishBatch_result._Fields>, java.io.Serializable, Cloneable, Comparable<finishBatch_result>   {
+    private static final org.apache.thrift.protocol.TStruct STRUCT_DESC = new org.apache.thrift.protocol.TStruct("finishBatch_result");
+
+    private static final org.apache.thrift.protocol.TField SUCCESS_FIELD_DESC = new org.apache.thrift.protocol.TField("success", org.apache.thrift.protocol.TType.STRUCT, (short)0);
+
+    private static final Map<Class<? extends IScheme>, SchemeFactory> schemes = new HashMap<Class<? extends IScheme>, SchemeFactory>();
+    static {
+      schemes.put(StandardScheme.class, new finishBatch_resultStandardSchemeFactory());
+      schemes.put(TupleScheme.class, new finishBatch_resultTupleSchemeFactory());
+    }
+
+    public TQueueResponse success; // required
+
+    /** The set of fields this struct contains, along with convenience methods for finding and manipulating them. */
+    public enum _Fields implements org.apache.thrift.TFieldIdEnum {
+      SUCCESS((short)0, "success");
+
+      private static final Map<String, _Fields> byName = new HashMap<String, _Fields>();
+
+      static {
+        for (_Fields field : EnumSet.allOf(_Fields.class)) {
+          byName.put(field.getFieldName(), field);
+        }
+      }
+
+      /**
+       * Find the _Fields constant that matches fieldId, or null if its not found.
+       */
+      public static _Fields findByThriftId(int fieldId) {
+        switch(fieldId) {
+          case 0: // SUCCESS
+            return SUCCESS;
+          default:
+            return null;
+        }
+      }
+
+      /**
+       * Find the _Fields constant that matches fieldId, throwing an exception
+       * if it is not found.
+       */
+      public static _Fields findByThriftIdOrThrow(int fieldId) {
+        _Fields fields = findByThriftId(fieldId);
+        if (fields == null) throw new IllegalArgumentException("Field " + fieldId + " doesn't exist!");
+        return fields;
+      }
+
+      /**
+       * Find the _Fields constant that matches name, or null if its not found.
+       */
+      public static _Fields findByName(String name) {
+        return byName.get(name);
+      }
+
+      private final short _thriftId;
+      private final String _fieldName;
+
+      _Fields(short thriftId, String fieldName) {
+        _thriftId = thriftId;
+        _fieldName = fieldName;
+      }
+
+      public short getThriftFieldId() {
+        return _thriftId;
+      }
+
+      public String getFieldName() {
+        return _fieldName;
+      }
+    }
+
+    // isset id assignments
+    public static final Map<_Fields, org.apache.thrift.meta_data.FieldMetaData> metaDataMap;
+    static {
+      Map<_Fields, org.apache.thrift.meta_data.FieldMetaData> tmpMap = new EnumMap<_Fields, org.apache.thrift.meta_data.FieldMetaData>(_Fields.class);
+      tmpMap.put(_Fields.SUCCESS, new org.apache.thrift.meta_data.FieldMetaData("success", org.apache.thrift.TFieldRequirementType.DEFAULT, 
+          new org.apache.thrift.meta_data.StructMetaData(org.apache.thrift.protocol.TType.STRUCT, TQueueResponse.class)));
+      metaDataMap = Collections.unmodifiableMap(tmpMap);
+      org.apache.thrift.meta_data.FieldMetaData.addStructMetaDataMap(finishBatch_result.class, metaDataMap);
+    }
+
+    public finishBatch_result() {
+    }
+
+    public finishBatch_result(
+      TQueueResponse success)
+    {
+      this();
+      this.success = success;
+    }
+
+    /**
+     * Performs a deep copy on <i>other</i>.
+     */
+    public finishBatch_result(finishBatch_result other) {
+      if (other.isSetSuccess()) {
+        this.success = new TQueueResponse(other.success);
+      }
+    }
+
+    public finishBatch_result deepCopy() {
+      return new finishBatch_result(this);
+    }
+
+    @Override
+    public void clear() {
+      this.success = null;
+    }
+
+    public TQueueResponse getSuccess() {
+      return this.success;
+    }
+
+    public finishBatch_result setSuccess(TQueueResponse success) {
+      this.success = success;
+      return this;
+    }
+
+    public void unsetSuccess() {
+      this.success = null;
+    }
+
+    /** Returns true if field success is set (has been assigned a value) and false otherwise */
+    public boolean isSetSuccess() {
+      return this.success != null;
+    }
+
+    public void setSuccessIsSet(boolean value) {
+      if (!value) {
+        this.success = null;
+      }
+    }
+
+    public void setFieldValue(_Fields field, Object value) {
+      switch (field) {
+      case SUCCESS:
+        if (value == null) {
+          unsetSuccess();
+        } else {
+          setSuccess((TQueueResponse)value);
+        }
+        break;
+
+      }
+    }
+
+    public Object getFieldValue(_Fields field) {
+      switch (field) {
+      case SUCCESS:
+        return getSuccess();
+
+      }
+      throw new IllegalStateException();
+    }
+
+    /** Returns true if field corresponding to fieldID is set (has been assigned a value) and false otherwise */
+    public boolean isSet(_Fields field) {
+      if (field == null) {
+        throw new IllegalArgumentException();
+      }
+
+      switch (field) {
+      case SUCCESS:
+        return isSetSuccess();
+      }
+      throw new IllegalStateException();
+    }
+
+    @Override
+    public boolean equals(Object that) {
+      if (that == null)
+        return false;
+      if (that instanceof finishBatch_result)
+        return this.equals((finishBatch_result)that);
+      return false;
+    }
+
+    public boolean equals(finishBatch_result that) {
+      if (that == null)
+        return false;
+
+      boolean this_present_success = true && this.isSetSuccess();
+      boolean that_present_success = true && that.isSetSuccess();
+      if (this_present_success || that_present_success) {
+        if (!(this_present_success && that_present_success))
+          return false;
+        if (!this.success.equals(that.success))
+          return false;
+      }
+
+      return true;
+    }
+
+    @Override
+    public int hashCode() {
+      return 0;
+    }
+
+    @Override
+    public int compareTo(finishBatch_result other) {
+      if (!getClass().equals(other.getClass())) {
+        return getClass().getName().compareTo(other.getClass().getName());
+      }
+
+      int lastComparison = 0;
+
+      lastComparison = Boolean.valueOf(isSetSuccess()).compareTo(other.isSetSuccess());
+      if (lastComparison != 0) {
+        return lastComparison;
+      }
+      if (isSetSuccess()) {
+        lastComparison = org.apache.thrift.TBaseHelper.compareTo(this.success, other.success);
+        if (lastComparison != 0) {
+          return lastComparison;
+        }
+      }
+      return 0;
+    }
+
+    public _Fields fieldForId(int fieldId) {
+      return _Fields.findByThriftId(fieldId);
+    }
+
+    public void read(org.apache.thrift.protocol.TProtocol iprot) throws org.apache.thrift.TException {
+      schemes.get(iprot.getScheme()).getScheme().read(iprot, this);
+    }
+
+    public void write(org.apache.thrift.protocol.TProtocol oprot) throws org.apache.thrift.TException {
+      schemes.get(oprot.getScheme()).getScheme().write(oprot, this);
+      }
+
+    @Override
+    public String toString() {
+      StringBuilder sb = new StringBuilder("finishBatch_result(");
+      boolean first = true;
+
+      sb.append("success:");
+      if (this.success == null) {
+        sb.append("null");
+      } else {
+        sb.append(this.success);
+      }
+      first = false;
+      sb.append(")");
+      return sb.toString();
+    }
+
+    public void validate() throws org.apache.thrift.TException {
+      // check for required fields
+      // check for sub-struct validity
+      if (success != null) {
+        success.validate();
+      }
+    }
+
+    private void writeObject(java.io.ObjectOutputStream out) throws java.io.IOException {
+      try {
+        write(new org.apache.thrift.protocol.TCompactProtocol(new org.apache.thrift.transport.TIOStreamTransport(out)));
+      } catch (org.apache.thrift.TException te) {
+        throw new java.io.IOException(te);
+      }
+    }
+
+    private void readObject(java.io.ObjectInputStream in) throws java.io.IOException, ClassNotFoundException {
+      try {
+        read(new org.apache.thrift.protocol.TCompactProtocol(new org.apache.thrift.transport.TIOStreamTransport(in)));
+      } catch (org.apache.thrift.TException te) {
+        throw new java.io.IOException(te);
+      }
+    }
+
+    private static class finishBatch_resultStandardSchemeFactory implements SchemeFactory {
+      public finishBatch_resultStandardScheme getScheme() {
+        return new finishBatch_resultStandardScheme();
+      }
+    }
+
+    private static class finishBatch_resultStandardScheme extends StandardScheme<finishBatch_result> {
+
+      public void read(org.apache.thrift.protocol.TProtocol iprot, finishBatch_result struct) throws org.apache.thrift.TException {
+        org.apache.thrift.protocol.TField schemeField;
+        iprot.readStructBegin();
+        while (true)
+        {
+          schemeField = iprot.readFieldBegin();
+          if (schemeField.type == org.apache.thrift.protocol.TType.STOP) { 
+            break;
+          }
+          switch (schemeField.id) {
+            case 0: // SUCCESS
+              if (schemeField.type == org.apache.thrift.protocol.TType.STRUCT) {
+                struct.success = new TQueueResponse();
+                struct.success.read(iprot);
+                struct.setSuccessIsSet(true);
+              } else { 
+                org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
+              }
+              break;
+            default:
+              org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
+          }
+          iprot.readFieldEnd();
+        }
+        iprot.readStructEnd();
+
+        // check for required fields of primitive type, which can't be checked in the validate method
+        struct.validate();
+      }
+
+      public void write(org.apache.thrift.protocol.TProtocol oprot, finishBatch_result struct) throws org.apache.thrift.TException {
+        struct.validate();
+
+        oprot.writeStructBegin(STRUCT_DESC);
+        if (struct.success != null) {
+          oprot.writeFieldBegin(SUCCESS_FIELD_DESC);
+          struct.success.write(oprot);
+          oprot.writeFieldEnd();
+        }
+        oprot.writeFieldStop();
+        oprot.writeStructEnd();
+      }
+
+    }
+
+    private static class finishBatch_resultTupleSchemeFactory implements SchemeFactory {
+      public finishBatch_resultTupleScheme getScheme() {
+        return new finishBatch_resultTupleScheme();
+      }
+    }
+
+    private static class finishBatch_resultTupleScheme extends TupleScheme<finishBatch_result> {
+
+      @Override
+      public void write(org.apache.thrift.protocol.TProtocol prot, finishBatch_result struct) throws org.apache.thrift.TException {
+        TTupleProtocol oprot = (TTupleProtocol) prot;
+        BitSet optionals = new BitSet();
+        if (struct.isSetSuccess()) {
+          optionals.set(0);
+        }
+        oprot.writeBitSet(optionals, 1);
+        if (struct.isSetSuccess()) {
+          struct.success.write(oprot);
+        }
+      }
+
+      @Override
+      public void read(org.apache.thrift.protocol.TProtocol prot, finishBatch_result struct) throws org.apache.thrift.TException {
+        TTupleProtocol iprot = (TTupleProtocol) prot;
+        BitSet incoming = iprot.readBitSet(1);
+        if (incoming.get(0)) {
+          struct.success = new TQueueResponse();
+          struct.success.read(iprot);
+          struct.setSuccessIsSet(true);
+        }
+      }
+    }
+
+  }
+
+  public static class take_args implements org.apache.thrift.TBase<take_args, take_args._Fields>, java.io.Serializable, Cloneable, Comparable<take_args>   {
+    private static final org.apache.thrift.protocol.TStruct STRUCT_DESC = new org.apache.thrift.protocol.TStruct("take_args");
+
+    private static final org.apache.thrift.protocol.TField _SECRET_FIELD_DESC = new org.apache.thrift.protocol.TField("_secret", org.apache.thrift.protocol.TType.STRING, (short)1);
+    private static final org.apache.thrift.protocol.TField _QUEUE_NAME_FIELD_DESC = new org.apache.thrift.protocol.TField("_queueName", org.apache.thrift.protocol.TType.STRING, (short)2);
+    private static final org.apache.thrift.protocol.TField _WAIT_MILLIS_FIELD_DESC = new org.apache.thrift.protocol.TField("_waitMillis", org.apache.thrift.protocol.TType.I64, (short)3);
+
+    private static final Map<Class<? extends IScheme>, SchemeFactory> schemes = new HashMap<Class<? extends IScheme>, SchemeFactory>();
+    static {
+      schemes.put(StandardScheme.class, new take_argsStandardSchemeFactory());
+      schemes.put(TupleScheme.class, new take_argsTupleSchemeFactory());
+    }
+
+    public String _secret; // required
+    public String _queueName; // required
+    public long _waitMillis; // required
+
+    /** The set of fields this struct contains, along with convenience methods for finding and manipulating them. */
+    public enum _Fields implements org.apache.thrift.TFieldIdEnum {
+      _SECRET((short)1, "_secret"),
+      _QUEUE_NAME((short)2, "_queueName"),
+      _WAIT_MILLIS((short)3, "_waitMillis");
+
+      private static final Map<String, _Fields> byName = new HashMap<String, _Fields>();
+
+      static {
+        for (_Fields field : EnumSet.allOf(_Fields.class)) {
+          byName.put(field.getFieldName(), field);
+        }
+      }
+
+      /**
+       * Find the _Fields constant that matches fieldId, or null if its not found.
+       */
+      public static _Fields findByThriftId(int fieldId) {
+        switch(fieldId) {
+          case 1: // _SECRET
+            return _SECRET;
+          case 2: // _QUEUE_NAME
+            return _QUEUE_NAME;
+          case 3: // _WAIT_MILLIS
+            return _WAIT_MILLIS;
+          default:
+            return null;
+        }
+      }
+
+      /**
+       * Find the _Fields constant that matches fieldId, throwing an exception
+       * if it is not found.
+       */
+      public static _Fields findByThriftIdOrThrow(int fieldId) {
+        _Fields fields = findByThriftId(fieldId);
+        if (fields == null) throw new IllegalArgumentException("Field " + fieldId + " doesn't exist!");
+        return fields;
+      }
+
+      /**
+       * Find the _Fields constant that matches name, or null if its not found.
+       */
+      public static _Fields findByName(String name) {
+        return byName.get(name);
+      }
+
+      private final short _thriftId;
+      private final String _fieldName;
+
+      _Fields(short thriftId, String fieldName) {
+        _thriftId = thriftId;
+        _fieldName = fieldName;
+      }
+
+      public short getThriftFieldId() {
+        return _thriftId;
+      }
+
+      public String getFieldName() {
+        return _fieldName;
+      }
+    }
+
+    // isset id assignments
+    private static final int ___WAITMILLIS_ISSET_ID = 0;
+    private byte __isset_bitfield = 0;
+    public static final Map<_Fields, org.apache.thrift.meta_data.FieldMetaData> metaDataMap;
+    static {
+      Map<_Fields, org.apache.thrift.meta_data.FieldMetaData> tmpMap = new EnumMap<_Fields, org.apache.thrift.meta_data.FieldMetaData>(_Fields.class);
+      tmpMap.put(_Fields._SECRET, new org.apache.thrift.meta_data.FieldMetaData("_secret", org.apache.thrift.TFieldRequirementType.DEFAULT, 
+          new org.apache.thrift.meta_data.FieldValueMetaData(org.apache.thrift.protocol.TType.STRING)));
+      tmpMap.put(_Fields._QUEUE_NAME, new org.apache.thrift.meta_data.FieldMetaData("_queueName", org.apache.thrift.TFieldRequirementType.DEFAULT, 
+          new org.apache.thrift.meta_data.FieldValueMetaData(org.apache.thrift.protocol.TType.STRING)));
+      tmpMap.put(_Fields._WAIT_MILLIS, new org.apache.thrift.meta_data.FieldMetaData("_waitMillis", org.apache.thrift.TFieldRequirementType.DEFAULT, 
+          new org.apache.thrift.meta_data.FieldValueMetaData(org.apache.thrift.protocol.TType.I64)));
+      metaDataMap = Collections.unmodifiableMap(tmpMap);
+      org.apache.thrift.meta_data.FieldMetaData.addStructMetaDataMap(take_args.class, metaDataMap);
+    }
+
+    public take_args() {
+      this._waitMillis = 0L;
+
+    }
+
+    public take_args(
+      String _secret,
+      String _queueName,
+      long _waitMillis)
+    {
+      this();
+      this._secret = _secret;
+      this._queueName = _queueName;
+      this._waitMillis = _waitMillis;
+      set_waitMillisIsSet(true);
+    }
+
+    /**
+     * Performs a deep copy on <i>other</i>.
+     */
+    public take_args(take_args other) {
+      __isset_bitfield = other.__isset_bitfield;
+      if (other.isSet_secret()) {
+        this._secret = other._secret;
+      }
+      if (other.isSet_queueName()) {
+        this._queueName = other._queueName;
+      }
+      this._waitMillis = other._waitMillis;
+    }
+
+    public take_args deepCopy() {
+      return new take_args(this);
+    }
+
+    @Override
+    public void clear() {
+      this._secret = null;
+      this._queueName = null;
+      this._waitMillis = 0L;
+
+    }
+
+    public String get_secret() {
+      return this._secret;
+    }
+
+    public take_args set_secret(String _secret) {
+      this._secret = _secret;
+      return this;
+    }
+
+    public void unset_secret() {
+      this._secret = null;
+    }
+
+    /** Returns true if field _secret is set (has been assigned a value) and false otherwise */
+    public boolean isSet_secret() {
+      return this._secret != null;
+    }
+
+    public void set_secretIsSet(boolean value) {
+      if (!value) {
+        this._secret = null;
+      }
+    }
+
+    public String get_queueName() {
+      return this._queueName;
+    }
+
+    public take_args set_queueName(String _queueName) {
+      this._queueName = _queueName;
+      return this;
+    }
+
+    public void unset_queueName() {
+      this._queueName = null;
+    }
+
+    /** Returns true if field _queueName is set (has been assigned a value) and false otherwise */
+    public boolean isSet_queueName() {
+      return this._queueName != null;
+    }
+
+    public void set_queueNameIsSet(boolean value) {
+      if (!value) {
+        this._queueName = null;
+      }
+    }
+
+    public long get_waitMillis() {
+      return this._waitMillis;
+    }
+
+    public take_args set_waitMillis(long _waitMillis) {
+      this._waitMillis = _waitMillis;
+      set_waitMillisIsSet(true);
+      return this;
+    }
+
+    public void unset_waitMillis() {
+      __isset_bitfield = EncodingUtils.clearBit(__isset_bitfield, ___WAITMILLIS_ISSET_ID);
+    }
+
+    /** Returns true if field _waitMillis is set (has been assigned a value) and false otherwise */
+    public boolean isSet_waitMillis() {
+      return EncodingUtils.testBit(__isset_bitfield, ___WAITMILLIS_ISSET_ID);
+    }
+
+    public void set_waitMillisIsSet(boolean value) {
+      __isset_bitfield = EncodingUtils.setBit(__isset_bitfield, ___WAITMILLIS_ISSET_ID, value);
+    }
+
+    public void setFieldValue(_Fields field, Object value) {
+      switch (field) {
+      case _SECRET:
+        if (value == null) {
+          unset_secret();
+        } else {
+          set_secret((String)value);
+        }
+        break;
+
+      case _QUEUE_NAME:
+        if (value == null) {
+          unset_queueName();
+        } else {
+          set_queueName((String)value);
+        }
+        break;
+
+      case _WAIT_MILLIS:
+        if (value == null) {
+          unset_waitMillis();
+        } else {
+          set_waitMillis((Long)value);
+        }
+        break;
+
+      }
+    }
+
+    public Object getFieldValue(_Fields field) {
+      switch (field) {
+      case _SECRET:
+        return get_secret();
+
+      case _QUEUE_NAME:
+        return get_queueName();
+
+      case _WAIT_MILLIS:
+        return Long.valueOf(get_waitMillis());
+
+      }
+      throw new IllegalStateException();
+    }
+
+    /** Returns true if field corresponding to fieldID is set (has been assigned a value) and false otherwise */
+    public boolean isSet(_Fields field) {
+      if (field == null) {
+        throw new IllegalArgumentException();
+      }
+
+      switch (field) {
+      case _SECRET:
+        return isSet_secret();
+      case _QUEUE_NAME:
+        return isSet_queueName();
+      case _WAIT_MILLIS:
+        return isSet_waitMillis();
+      }
+      throw new IllegalStateException();
+    }
+
+    @Override
+    public boolean equals(Object that) {
+      if (that == null)
+        return false;
+      if (that instanceof take_args)
+        return this.equals((take_args)that);
+      return false;
+    }
+
+    public boolean equals(take_args that) {
+      if (that == null)
+        return false;
+
+      boolean this_present__secret = true && this.isSet_secret();
+      boolean that_present__secret = true && that.isSet_secret();
+      if (this_present__secret || that_present__secret) {
+        if (!(this_present__secret && that_present__secret))
+          return false;
+        if (!this._secret.equals(that._secret))
+          return false;
+      }
+
+      boolean this_present__queueName = true && this.isSet_queueName();
+      boolean that_present__queueName = true && that.isSet_queueName();
+      if (this_present__queueName || that_present__queueName) {
+        if (!(this_present__queueName && that_present__queueName))
+          return false;
+        if (!this._queueName.equals(that._queueName))
+          return false;
+      }
+
+      boolean this_present__waitMillis = true;
+      boolean that_present__waitMillis = true;
+      if (this_present__waitMillis || that_present__waitMillis) {
+        if (!(this_present__waitMillis && that_present__waitMillis))
+          return false;
+        if (this._waitMillis != that._waitMillis)
+          return false;
+      }
+
+      return true;
+    }
+
+    @Override
+    public int hashCode() {
+      return 0;
+    }
+
+    @Override
+    public int compareTo(take_args other) {
+      if (!getClass().equals(other.getClass())) {
+        return getClass().getName().compareTo(other.getClass().getName());
+      }
+
+      int lastComparison = 0;
+
+      lastComparison = Boolean.valueOf(isSet_secret()).compareTo(other.isSet_secret());
+      if (lastComparison != 0) {
+        return lastComparison;
+      }
+      if (isSet_secret()) {
+        lastComparison = org.apache.thrift.TBaseHelper.compareTo(this._secret, other._secret);
+        if (lastComparison != 0) {
+          return lastComparison;
+        }
+      }
+      lastComparison = Boolean.valueOf(isSet_queueName()).compareTo(other.isSet_queueName());
+      if (lastComparison != 0) {
+        return lastComparison;
+      }
+      if (isSet_queueName()) {
+        lastComparison = org.apache.thrift.TBaseHelper.compareTo(this._queueName, other._queueName);
+        if (lastComparison != 0) {
+          return lastComparison;
+        }
+      }
+      lastComparison = Boolean.valueOf(isSet_waitMillis()).compareTo(other.isSet_waitMillis());
+      if (lastComparison != 0) {
+        return lastComparison;
+      }
+      if (isSet_waitMillis()) {
+        lastComparison = org.apache.thrift.TBaseHelper.compareTo(this._waitMillis, other._waitMillis);
+        if (lastComparison != 0) {
+          return lastComparison;
+        }
+      }
+      return 0;
+    }
+
+    public _Fields fieldForId(int fieldId) {
+      return _Fields.findByThriftId(fieldId);
+    }
+
+    public void read(org.apache.thrift.protocol.TProtocol iprot) throws org.apache.thrift.TException {
+      schemes.get(iprot.getScheme()).getScheme().read(iprot, this);
+    }
+
+    public void write(org.apache.thrift.protocol.TProtocol oprot) throws org.apache.thrift.TException {
+      schemes.get(oprot.getScheme()).getScheme().write(oprot, this);
+    }
+
+    @Override
+    public String toString() {
+      StringBuilder sb = new StringBuilder("take_args(");
+      boolean first = true;
+
+      sb.append("_secret:");
+      if (this._secret == null) {
+        sb.append("null");
+      } else {
+        sb.append(this._secret);
+      }
+      first = false;
+      if (!first) sb.append(", ");
+      sb.append("_queueName:");
+      if (this._queueName == null) {
+        sb.append("null");
+      } else {
+        sb.append(this._queueName);
+      }
+      first = false;
+      if (!first) sb.append(", ");
+      sb.append("_waitMillis:");
+      sb.append(this._waitMillis);
+      first = false;
+      sb.append(")");
+      return sb.toString();
+    }
+
+    public void validate() throws org.apache.thrift.TException {
+      // check for required fields
+      // check for sub-struct validity
+    }
+
+    private void writeObject(java.io.ObjectOutputStream out) throws java.io.IOException {
+      try {
+        write(new org.apache.thrift.protocol.TCompactProtocol(new org.apache.thrift.transport.TIOStreamTransport(out)));
+      } catch (org.apache.thrift.TException te) {
+        throw new java.io.IOException(te);
+      }
+    }
+
+    private void readObject(java.io.ObjectInputStream in) throws java.io.IOException, ClassNotFoundException {
+      try {
+        // it doesn't seem like you should have to do this, but java serialization is wacky, and doesn't call the default constructor.
+        __isset_bitfield = 0;
+        read(new org.apache.thrift.protocol.TCompactProtocol(new org.apache.thrift.transport.TIOStreamTransport(in)));
+      } catch (org.apache.thrift.TException te) {
+        throw new java.io.IOException(te);
+      }
+    }
+
+    private static class take_argsStandardSchemeFactory implements SchemeFactory {
+      public take_argsStandardScheme getScheme() {
+        return new take_argsStandardScheme();
+      }
+    }
+
+    private static class take_argsStandardScheme extends StandardScheme<take_args> {
+
+      public void read(org.apache.thrift.protocol.TProtocol iprot, take_args struct) throws org.apache.thrift.TException {
+        org.apache.thrift.protocol.TField schemeField;
+        iprot.readStructBegin();
+        while (true)
+        {
+          schemeField = iprot.readFieldBegin();
+          if (schemeField.type == org.apache.thrift.protocol.TType.STOP) { 
+            break;
+          }
+          switch (schemeField.id) {
+            case 1: // _SECRET
+              if (schemeField.type == org.apache.thrift.protocol.TType.STRING) {
+                struct._secret = iprot.readString();
+                struct.set_secretIsSet(true);
+              } else { 
+                org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
+              }
+              break;
+            case 2: // _QUEUE_NAME
+              if (schemeField.type == org.apache.thrift.protocol.TType.STRING) {
+                struct._queueName = iprot.readString();
+                struct.set_queueNameIsSet(true);
+              } else { 
+                org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
+              }
+              break;
+            case 3: // _WAIT_MILLIS
+              if (schemeField.type == org.apache.thrift.protocol.TType.I64) {
+                struct._waitMillis = iprot.readI64();
+                struct.set_waitMillisIsSet(true);
+              } else { 
+                org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
+              }
+              break;
+            default:
+              org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
+          }
+          iprot.readFieldEnd();
+        }
+        iprot.readStructEnd();
+
+        // check for required fields of primitive type, which can't be checked in the validate method
+        struct.validate();
+      }
+
+      public void write(org.apache.thrift.protocol.TProtocol oprot, take_args struct) throws org.apache.thrift.TException {
+        struct.validate();
+
+        oprot.writeStructBegin(STRUCT_DESC);
+        if (struct._secret != null) {
+          oprot.writeFieldBegin(_SECRET_FIELD_DESC);
+          oprot.writeString(struct._secret);
+          oprot.writeFieldEnd();
+        }
+        if (struct._queueName != null) {
+          oprot.writeFieldBegin(_QUEUE_NAME_FIELD_DESC);
+          oprot.writeString(struct._queueName);
+          oprot.writeFieldEnd();
+        }
+        oprot.writeFieldBegin(_WAIT_MILLIS_FIELD_DESC);
+        oprot.writeI64(struct._waitMillis);
+        oprot.writeFieldEnd();
+        oprot.writeFieldStop();
+        oprot.writeStructEnd();
+      }
+
+    }
+
+    private static class take_argsTupleSchemeFactory implements SchemeFactory {
+      public take_argsTupleScheme getScheme() {
+        return new take_argsTupleScheme();
+      }
+    }
+
+    private static class take_argsTupleScheme extends TupleScheme<take_args> {
+
+      @Override
+      public void write(org.apache.thrift.protocol.TProtocol prot, take_args struct) throws org.apache.thrift.TException {
+        TTupleProtocol oprot = (TTupleProtocol) prot;
+        BitSet optionals = new BitSet();
+        if (struct.isSet_secret()) {
+          optionals.set(0);
+        }
+        if (struct.isSet_queueName()) {
+          optionals.set(1);
+        }
+        if (struct.isSet_waitMillis()) {
+          optionals.set(2);
+        }
+        oprot.writeBitSet(optionals, 3);
+        if (struct.isSet_secret()) {
+          oprot.writeString(struct._secret);
+        }
+        if (struct.isSet_queueName()) {
+          oprot.writeString(struct._queueName);
+        }
+        if (struct.isSet_waitMillis()) {
+          oprot.writeI64(struct._waitMillis);
+        }
+      }
+
+      @Override
+      public void read(org.apache.thrift.protocol.TProtocol prot, take_args struct) throws org.apache.thrift.TException {
+        TTupleProtocol iprot = (TTupleProtocol) prot;
+        BitSet incoming = iprot.readBitSet(3);
+        if (incoming.get(0)) {
+          struct._secret = iprot.readString();
+          struct.set_secretIsSet(true);
+        }
+        if (incoming.get(1)) {
+          struct._queueName = iprot.readString();
+          struct.set_queueNameIsSet(true);
+        }
+        if (incoming.get(2)) {
+          struct._waitMillis = iprot.readI64();
+          struct.set_waitMillisIsSet(true);
+        }
+      }
+    }
+
+  }
+
+  public static class take_result implements org.apache.thrift.TBase<take_result, take_result._Fields>, java.io.Serializable, Cloneable, Comparable<take_result>   {
+    private static final org.apache.thrift.protocol.TStruct STRUCT_DESC = new org.apache.thrift.protocol.TStruct("take_result");
+
+    private static final org.apache.thrift.protocol.TField SUCCESS_FIELD_DESC = new org.apache.thrift.protocol.TField("success", org.apache.thrift.protocol.TType.STRUCT, (short)0);
+
+    private static final Map<Class<? extends IScheme>, SchemeFactory> schemes = new HashMap<Class<? extends IScheme>, SchemeFactory>();
+    static {
+      schemes.put(StandardScheme.class, new take_resultStandardSchemeFactory());
+      schemes.put(TupleScheme.class, new take_resultTupleSchemeFactory());
+    }
+
+    public TQueueResponse success; // required
+
+    /** The set of fields this struct contains, along with convenience methods for finding and manipulating them. */
+    public enum _Fields implements org.apache.thrift.TFieldIdEnum {
+      SUCCESS((short)0, "success");
+
+      private static final Map<String, _Fields> byName = new HashMap<String, _Fields>();
+
+      static {
+        for (_Fields field : EnumSet.allOf(_Fields.class)) {
+          byName.put(field.getFieldName(), field);
+        }
+      }
+
+      /**
+       * Find the _Fields constant that matches fieldId, or null if its not found.
+       */
+      public static _Fields findByThriftId(int fieldId) {
+        switch(fieldId) {
+          case 0: // SUCCESS
+            return SUCCESS;
+          default:
+            return null;
+        }
+      }
+
+      /**
+       * Find the _Fields constant that matches fieldId, throwing an exception
+       * if it is not found.
+       */
+      public static _Fields findByThriftIdOrThrow(int fieldId) {
+        _Fields fields = findByThriftId(fieldId);
+        if (fields == null) throw new IllegalArgumentException("Field " + fieldId + " doesn't exist!");
+        return fields;
+      }
+
+      /**
+       * Find the _Fields constant that matches name, or null if its not found.
+       */
+      public static _Fields findByName(String name) {
+        return byName.get(name);
+      }
+
+      private final short _thriftId;
+      private final String _fieldName;
+
+      _Fields(short thriftId, String fieldName) {
+        _thriftId = thriftId;
+        _fieldName = fieldName;
+      }
+
+      public short getThriftFieldId() {
+        return _thriftId;
+      }
+
+      public String getFieldName() {
+        return _fieldName;
+      }
+    }
+
+    // isset id assignments
+    public static final Map<_Fields, org.apache.thrift.meta_data.FieldMetaData> metaDataMap;
+    static {
+      Map<_Fields, org.apache.thrift.meta_data.FieldMetaData> tmpMap = new EnumMap<_Fields, org.apache.thrift.meta_data.FieldMetaData>(_Fields.class);
+      tmpMap.put(_Fields.SUCCESS, new org.apache.thrift.meta_data.FieldMetaData("success", org.apache.thrift.TFieldRequirementType.DEFAULT, 
+          new org.apache.thrift.meta_data.StructMetaData(org.apache.thrift.protocol.TType.STRUCT, TQueueResponse.class)));
+      metaDataMap = Collections.unmodifiableMap(tmpMap);
+      org.apache.thrift.meta_data.FieldMetaData.addStructMetaDataMap(take_result.class, metaDataMap);
+    }
+
+    public take_result() {
+    }
+
+    public take_result(
+      TQueueResponse success)
+    {
+      this();
+      this.success = success;
+    }
+
+    /**
+     * Performs a deep copy on <i>other</i>.
+     */
+    public take_result(take_result other) {
+      if (other.isSetSuccess()) {
+        this.success = new TQueueResponse(other.success);
+      }
+    }
+
+    public take_result deepCopy() {
+      return new take_result(this);
+    }
+
+    @Override
+    public void clear() {
+      this.success = null;
+    }
+
+    public TQueueResponse getSuccess() {
+      return this.success;
+    }
+
+    public take_result setSuccess(TQueueResponse success) {
+      this.success = success;
+      return this;
+    }
+
+    public void unsetSuccess() {
+      this.success = null;
+    }
+
+    /** Returns true if field success is set (has been assigned a value) and false otherwise */
+    public boolean isSetSuccess() {
+      return this.success != null;
+    }
+
+    public void setSuccessIsSet(boolean value) {
+      if (!value) {
+        this.success = null;
+      }
+    }
+
+    public void setFieldValue(_Fields field, Object value) {
+      switch (field) {
+      case SUCCESS:
+        if (value == null) {
+          unsetSuccess();
+        } else {
+          setSuccess((TQueueResponse)value);
+        }
+        break;
+
+      }
+    }
+
+    public Object getFieldValue(_Fields field) {
+      switch (field) {
+      case SUCCESS:
+        return getSuccess();
+
+      }
+      throw new IllegalStateException();
+    }
+
+    /** Returns true if field corresponding to fieldID is set (has been assigned a value) and false otherwise */
+    public boolean isSet(_Fields field) {
+      if (field == null) {
+        throw new IllegalArgumentException();
+      }
+
+      switch (field) {
+      case SUCCESS:
+        return isSetSuccess();
+      }
+      throw new IllegalStateException();
+    }
+
+    @Override
+    public boolean equals(Object that) {
+      if (that == null)
+        return false;
+      if (that instanceof take_result)
+        return this.equals((take_result)that);
       return false;
     }
 
-    public boolean equals(finish_result that) {
+    public boolean equals(take_result that) {
       if (that == null)
         return false;
 
@@ -7664,7 +10980,7 @@ public class TQueueService {
     }
 
     @Override
-    public int compareTo(finish_result other) {
+    public int compareTo(take_result other) {
       if (!getClass().equals(other.getClass())) {
         return getClass().getName().compareTo(other.getClass().getName());
       }
@@ -7698,7 +11014,7 @@ public class TQueueService {
 
     @Override
     public String toString() {
-      StringBuilder sb = new StringBuilder("finish_result(");
+      StringBuilder sb = new StringBuilder("take_result(");
       boolean first = true;
 
       sb.append("success:");
@@ -7736,15 +11052,15 @@ public class TQueueService {
       }
     }
 
-    private static class finish_resultStandardSchemeFactory implements SchemeFactory {
-      public finish_resultStandardScheme getScheme() {
-        return new finish_resultStandardScheme();
+    private static class take_resultStandardSchemeFactory implements SchemeFactory {
+      public take_resultStandardScheme getScheme() {
+        return new take_resultStandardScheme();
       }
     }
 
-    private static class finish_resultStandardScheme extends StandardScheme<finish_result> {
+    private static class take_resultStandardScheme extends StandardScheme<take_result> {
 
-      public void read(org.apache.thrift.protocol.TProtocol iprot, finish_result struct) throws org.apache.thrift.TException {
+      public void read(org.apache.thrift.protocol.TProtocol iprot, take_result struct) throws org.apache.thrift.TException {
         org.apache.thrift.protocol.TField schemeField;
         iprot.readStructBegin();
         while (true)
@@ -7774,7 +11090,7 @@ public class TQueueService {
         struct.validate();
       }
 
-      public void write(org.apache.thrift.protocol.TProtocol oprot, finish_result struct) throws org.apache.thrift.TException {
+      public void write(org.apache.thrift.protocol.TProtocol oprot, take_result struct) throws org.apache.thrift.TException {
         struct.validate();
 
         oprot.writeStructBegin(STRUCT_DESC);
@@ -7789,16 +11105,16 @@ public class TQueueService {
 
     }
 
-    private static class finish_resultTupleSchemeFactory implements SchemeFactory {
-      public finish_resultTupleScheme getScheme() {
-        return new finish_resultTupleScheme();
+    private static class take_resultTupleSchemeFactory implements SchemeFactory {
+      public take_resultTupleScheme getScheme() {
+        return new take_resultTupleScheme();
       }
     }
 
-    private static class finish_resultTupleScheme extends TupleScheme<finish_result> {
+    private static class take_resultTupleScheme extends TupleScheme<take_result> {
 
       @Override
-      public void write(org.apache.thrift.protocol.TProtocol prot, finish_result struct) throws org.apache.thrift.TException {
+      public void write(org.apache.thrift.protocol.TProtocol prot, take_result struct) throws org.apache.thrift.TException {
         TTupleProtocol oprot = (TTupleProtocol) prot;
         BitSet optionals = new BitSet();
         if (struct.isSetSuccess()) {
@@ -7811,7 +11127,7 @@ public class TQueueService {
       }
 
       @Override
-      public void read(org.apache.thrift.protocol.TProtocol prot, finish_result struct) throws org.apache.thrift.TException {
+      public void read(org.apache.thrift.protocol.TProtocol prot, take_result struct) throws org.apache.thrift.TException {
         TTupleProtocol iprot = (TTupleProtocol) prot;
         BitSet incoming = iprot.readBitSet(1);
         if (incoming.get(0)) {
@@ -7824,25 +11140,28 @@ public class TQueueService {
 
   }
 
-  public static class take_args implements org.apache.thrift.TBase<take_args, take_args._Fields>, java.io.Serializable, Cloneable, Comparable<take_args>   {
-    private static final org.apache.thrift.protocol.TStruct STRUCT_DESC = new org.apache.thrift.protocol.TStruct("take_args");
+  public static class takeBatch_args implements org.apache.thrift.TBase<takeBatch_args, takeBatch_args._Fields>, java.io.Serializable, Cloneable, Comparable<takeBatch_args>   {
+    private static final org.apache.thrift.protocol.TStruct STRUCT_DESC = new org.apache.thrift.protocol.TStruct("takeBatch_args");
 
     private static final org.apache.thrift.protocol.TField _SECRET_FIELD_DESC = new org.apache.thrift.protocol.TField("_secret", org.apache.thrift.protocol.TType.STRING, (short)1);
     private static final org.apache.thrift.protocol.TField _QUEUE_NAME_FIELD_DESC = new org.apache.thrift.protocol.TField("_queueName", org.apache.thrift.protocol.TType.STRING, (short)2);
+    private static final org.apache.thrift.protocol.TField _MAX_MESSAGES_FIELD_DESC = new org.apache.thrift.protocol.TField("_maxMessages", org.apache.thrift.protocol.TType.I32, (short)3);
 
     private static final Map<Class<? extends IScheme>, SchemeFactory> schemes = new HashMap<Class<? extends IScheme>, SchemeFactory>();
     static {
-      schemes.put(StandardScheme.class, new take_argsStandardSchemeFactory());
-      schemes.put(TupleScheme.class, new take_argsTupleSchemeFactory());
+      schemes.put(StandardScheme.class, new takeBatch_argsStandardSchemeFactory());
+      schemes.put(TupleScheme.class, new takeBatch_argsTupleSchemeFactory());
     }
 
     public String _secret; // required
     public String _queueName; // required
+    public int _maxMessages; // required
 
     /** The set of fields this struct contains, along with convenience methods for finding and manipulating them. */
     public enum _Fields implements org.apache.thrift.TFieldIdEnum {
       _SECRET((short)1, "_secret"),
-      _QUEUE_NAME((short)2, "_queueName");
+      _QUEUE_NAME((short)2, "_queueName"),
+      _MAX_MESSAGES((short)3, "_maxMessages");
 
       private static final Map<String, _Fields> byName = new HashMap<String, _Fields>();
 
@@ -7861,6 +11180,8 @@ public class TQueueService {
             return _SECRET;
           case 2: // _QUEUE_NAME
             return _QUEUE_NAME;
+          case 3: // _MAX_MESSAGES
+            return _MAX_MESSAGES;
           default:
             return null;
         }
@@ -7901,6 +11222,8 @@ public class TQueueService {
     }
 
     // isset id assignments
+    private static final int ___MAXMESSAGES_ISSET_ID = 0;
+    private byte __isset_bitfield = 0;
     public static final Map<_Fields, org.apache.thrift.meta_data.FieldMetaData> metaDataMap;
     static {
       Map<_Fields, org.apache.thrift.meta_data.FieldMetaData> tmpMap = new EnumMap<_Fields, org.apache.thrift.meta_data.FieldMetaData>(_Fields.class);
@@ -7908,49 +11231,58 @@ public class TQueueService {
           new org.apache.thrift.meta_data.FieldValueMetaData(org.apache.thrift.protocol.TType.STRING)));
       tmpMap.put(_Fields._QUEUE_NAME, new org.apache.thrift.meta_data.FieldMetaData("_queueName", org.apache.thrift.TFieldRequirementType.DEFAULT, 
           new org.apache.thrift.meta_data.FieldValueMetaData(org.apache.thrift.protocol.TType.STRING)));
+      tmpMap.put(_Fields._MAX_MESSAGES, new org.apache.thrift.meta_data.FieldMetaData("_maxMessages", org.apache.thrift.TFieldRequirementType.DEFAULT, 
+          new org.apache.thrift.meta_data.FieldValueMetaData(org.apache.thrift.protocol.TType.I32)));
       metaDataMap = Collections.unmodifiableMap(tmpMap);
-      org.apache.thrift.meta_data.FieldMetaData.addStructMetaDataMap(take_args.class, metaDataMap);
+      org.apache.thrift.meta_data.FieldMetaData.addStructMetaDataMap(takeBatch_args.class, metaDataMap);
     }
 
-    public take_args() {
+    public takeBatch_args() {
     }
 
-    public take_args(
+    public takeBatch_args(
       String _secret,
-      String _queueName)
+      String _queueName,
+      int _maxMessages)
     {
       this();
       this._secret = _secret;
       this._queueName = _queueName;
+      this._maxMessages = _maxMessages;
+      set_maxMessagesIsSet(true);
     }
 
     /**
      * Performs a deep copy on <i>other</i>.
      */
-    public take_args(take_args other) {
+    public takeBatch_args(takeBatch_args other) {
+      __isset_bitfield = other.__isset_bitfield;
       if (other.isSet_secret()) {
         this._secret = other._secret;
       }
       if (other.isSet_queueName()) {
         this._queueName = other._queueName;
       }
+      this._maxMessages = other._maxMessages;
     }
 
-    public take_args deepCopy() {
-      return new take_args(this);
+    public takeBatch_args deepCopy() {
+      return new takeBatch_args(this);
     }
 
     @Override
     public void clear() {
       this._secret = null;
       this._queueName = null;
+      set_maxMessagesIsSet(false);
+      this._maxMessages = 0;
     }
 
     public String get_secret() {
       return this._secret;
     }
 
-    public take_args set_secret(String _secret) {
+    public takeBatch_args set_secret(String _secret) {
       this._secret = _secret;
       return this;
     }
@@ -7974,7 +11306,7 @@ public class TQueueService {
       return this._queueName;
     }
 
-    public take_args set_queueName(String _queueName) {
+    public takeBatch_args set_queueName(String _queueName) {
       this._queueName = _queueName;
       return this;
     }
@@ -7994,6 +11326,29 @@ public class TQueueService {
       }
     }
 
+    public int get_maxMessages() {
+      return this._maxMessages;
+    }
+
+    public takeBatch_args set_maxMessages(int _maxMessages) {
+      this._maxMessages = _maxMessages;
+      set_maxMessagesIsSet(true);
+      return this;
+    }
+
+    public void unset_maxMessages() {
+      __isset_bitfield = EncodingUtils.clearBit(__isset_bitfield, ___MAXMESSAGES_ISSET_ID);
+    }
+
+    /** Returns true if field _maxMessages is set (has been assigned a value) and false otherwise */
+    public boolean isSet_maxMessages() {
+      return EncodingUtils.testBit(__isset_bitfield, ___MAXMESSAGES_ISSET_ID);
+    }
+
+    public void set_maxMessagesIsSet(boolean value) {
+      __isset_bitfield = EncodingUtils.setBit(__isset_bitfield, ___MAXMESSAGES_ISSET_ID, value);
+    }
+
     public void setFieldValue(_Fields field, Object value) {
       switch (field) {
       case _SECRET:
@@ -8012,6 +11367,14 @@ public class TQueueService {
         }
         break;
 
+      case _MAX_MESSAGES:
+        if (value == null) {
+          unset_maxMessages();
+        } else {
+          set_maxMessages((Integer)value);
+        }
+        break;
+
       }
     }
 
@@ -8023,6 +11386,9 @@ public class TQueueService {
       case _QUEUE_NAME:
         return get_queueName();
 
+      case _MAX_MESSAGES:
+        return Integer.valueOf(get_maxMessages());
+
       }
       throw new IllegalStateException();
     }
@@ -8038,6 +11404,8 @@ public class TQueueService {
         return isSet_secret();
       case _QUEUE_NAME:
         return isSet_queueName();
+      case _MAX_MESSAGES:
+        return isSet_maxMessages();
       }
       throw new IllegalStateException();
     }
@@ -8046,12 +11414,12 @@ public class TQueueService {
     public boolean equals(Object that) {
       if (that == null)
         return false;
-      if (that instanceof take_args)
-        return this.equals((take_args)that);
+      if (that instanceof takeBatch_args)
+        return this.equals((takeBatch_args)that);
       return false;
     }
 
-    public boolean equals(take_args that) {
+    public boolean equals(takeBatch_args that) {
       if (that == null)
         return false;
 
@@ -8073,6 +11441,15 @@ public class TQueueService {
           return false;
       }
 
+      boolean this_present__maxMessages = true;
+      boolean that_present__maxMessages = true;
+      if (this_present__maxMessages || that_present__maxMessages) {
+        if (!(this_present__maxMessages && that_present__maxMessages))
+          return false;
+        if (this._maxMessages != that._maxMessages)
+          return false;
+      }
+
       return true;
     }
 
@@ -8082,7 +11459,7 @@ public class TQueueService {
     }
 
     @Override
-    public int compareTo(take_args other) {
+    public int compareTo(takeBatch_args other) {
       if (!getClass().equals(other.getClass())) {
         return getClass().getName().compareTo(other.getClass().getName());
       }
@@ -8109,6 +11486,16 @@ public class TQueueService {
           return lastComparison;
         }
       }
+      lastComparison = Boolean.valueOf(isSet_maxMessages()).compareTo(other.isSet_maxMessages());
+      if (lastComparison != 0) {
+        return lastComparison;
+      }
+      if (isSet_maxMessages()) {
+        lastComparison = org.apache.thrift.TBaseHelper.compareTo(this._maxMessages, other._maxMessages);
+        if (lastComparison != 0) {
+          return lastComparison;
+        }
+      }
       return 0;
     }
 
@@ -8126,7 +11513,7 @@ public class TQueueService {
 
     @Override
     public String toString() {
-      StringBuilder sb = new StringBuilder("take_args(");
+      StringBuilder sb = new StringBuilder("takeBatch_args(");
       boolean first = true;
 
       sb.append("_secret:");
@@ -8144,6 +11531,10 @@ public class TQueueService {
         sb.append(this._queueName);
       }
       first = false;
+      if (!first) sb.append(", ");
+      sb.append("_maxMessages:");
+      sb.append(this._maxMessages);
+      first = false;
       sb.append(")");
       return sb.toString();
     }
@@ -8163,21 +11554,23 @@ public class TQueueService {
 
     private void readObject(java.io.ObjectInputStream in) throws java.io.IOException, ClassNotFoundException {
       try {
+        // it doesn't seem like you should have to do this, but java serialization is wacky, and doesn't call the default constructor.
+        __isset_bitfield = 0;
         read(new org.apache.thrift.protocol.TCompactProtocol(new org.apache.thrift.transport.TIOStreamTransport(in)));
       } catch (org.apache.thrift.TException te) {
         throw new java.io.IOException(te);
       }
     }
 
-    private static class take_argsStandardSchemeFactory implements SchemeFactory {
-      public take_argsStandardScheme getScheme() {
-        return new take_argsStandardScheme();
+    private static class takeBatch_argsStandardSchemeFactory implements SchemeFactory {
+      public takeBatch_argsStandardScheme getScheme() {
+        return new takeBatch_argsStandardScheme();
       }
     }
 
-    private static class take_argsStandardScheme extends StandardScheme<take_args> {
+    private static class takeBatch_argsStandardScheme extends StandardScheme<takeBatch_args> {
 
-      public void read(org.apache.thrift.protocol.TProtocol iprot, take_args struct) throws org.apache.thrift.TException {
+      public void read(org.apache.thrift.protocol.TProtocol iprot, takeBatch_args struct) throws org.apache.thrift.TException {
         org.apache.thrift.protocol.TField schemeField;
         iprot.readStructBegin();
         while (true)
@@ -8203,6 +11596,14 @@ public class TQueueService {
                 org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
               }
               break;
+            case 3: // _MAX_MESSAGES
+              if (schemeField.type == org.apache.thrift.protocol.TType.I32) {
+                struct._maxMessages = iprot.readI32();
+                struct.set_maxMessagesIsSet(true);
+              } else { 
+                org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
+              }
+              break;
             default:
               org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
           }
@@ -8214,7 +11615,7 @@ public class TQueueService {
         struct.validate();
       }
 
-      public void write(org.apache.thrift.protocol.TProtocol oprot, take_args struct) throws org.apache.thrift.TException {
+      public void write(org.apache.thrift.protocol.TProtocol oprot, takeBatch_args struct) throws org.apache.thrift.TException {
         struct.validate();
 
         oprot.writeStructBegin(STRUCT_DESC);
@@ -8228,22 +11629,25 @@ public class TQueueService {
           oprot.writeString(struct._queueName);
           oprot.writeFieldEnd();
         }
+        oprot.writeFieldBegin(_MAX_MESSAGES_FIELD_DESC);
+        oprot.writeI32(struct._maxMessages);
+        oprot.writeFieldEnd();
         oprot.writeFieldStop();
         oprot.writeStructEnd();
       }
 
     }
 
-    private static class take_argsTupleSchemeFactory implements SchemeFactory {
-      public take_argsTupleScheme getScheme() {
-        return new take_argsTupleScheme();
+    private static class takeBatch_argsTupleSchemeFactory implements SchemeFactory {
+      public takeBatch_argsTupleScheme getScheme() {
+        return new takeBatch_argsTupleScheme();
       }
     }
 
-    private static class take_argsTupleScheme extends TupleScheme<take_args> {
+    private static class takeBatch_argsTupleScheme extends TupleScheme<takeBatch_args> {
 
       @Override
-      public void write(org.apache.thrift.protocol.TProtocol prot, take_args struct) throws org.apache.thrift.TException {
+      public void write(org.apache.thrift.protocol.TProtocol prot, takeBatch_args struct) throws org.apache.thrift.TException {
         TTupleProtocol oprot = (TTupleProtocol) prot;
         BitSet optionals = new BitSet();
         if (struct.isSet_secret()) {
@@ -8252,19 +11656,25 @@ public class TQueueService {
         if (struct.isSet_queueName()) {
           optionals.set(1);
         }
-        oprot.writeBitSet(optionals, 2);
+        if (struct.isSet_maxMessages()) {
+          optionals.set(2);
+        }
+        oprot.writeBitSet(optionals, 3);
         if (struct.isSet_secret()) {
           oprot.writeString(struct._secret);
         }
         if (struct.isSet_queueName()) {
           oprot.writeString(struct._queueName);
         }
+        if (struct.isSet_maxMessages()) {
+          oprot.writeI32(struct._maxMessages);
+        }
       }
 
       @Override
-      public void read(org.apache.thrift.protocol.TProtocol prot, take_args struct) throws org.apache.thrift.TException {
+      public void read(org.apache.thrift.protocol.TProtocol prot, takeBatch_args struct) throws org.apache.thrift.TException {
         TTupleProtocol iprot = (TTupleProtocol) prot;
-        BitSet incoming = iprot.readBitSet(2);
+        BitSet incoming = iprot.readBitSet(3);
         if (incoming.get(0)) {
           struct._secret = iprot.readString();
           struct.set_secretIsSet(true);
@@ -8273,23 +11683,27 @@ public class TQueueService {
           struct._queueName = iprot.readString();
           struct.set_queueNameIsSet(true);
         }
+        if (incoming.get(2)) {
+          struct._maxMessages = iprot.readI32();
+          struct.set_maxMessagesIsSet(true);
+        }
       }
     }
 
   }
 
-  public static class take_result implements org.apache.thrift.TBase<take_result, take_result._Fields>, java.io.Serializable, Cloneable, Comparable<take_result>   {
-    private static final org.apache.thrift.protocol.TStruct STRUCT_DESC = new org.apache.thrift.protocol.TStruct("take_result");
+  public static class takeBatch_result implements org.apache.thrift.TBase<takeBatch_result, takeBatch_result._Fields>, java.io.Serializable, Cloneable, Comparable<takeBatch_result>   {
+    private static final org.apache.thrift.protocol.TStruct STRUCT_DESC = new org.apache.thrift.protocol.TStruct("takeBatch_result");
 
     private static final org.apache.thrift.protocol.TField SUCCESS_FIELD_DESC = new org.apache.thrift.protocol.TField("success", org.apache.thrift.protocol.TType.STRUCT, (short)0);
 
     private static final Map<Class<? extends IScheme>, SchemeFactory> schemes = new HashMap<Class<? extends IScheme>, SchemeFactory>();
     static {
-      schemes.put(StandardScheme.class, new take_resultStandardSchemeFactory());
-      schemes.put(TupleScheme.class, new take_resultTupleSchemeFactory());
+      schemes.put(StandardScheme.class, new takeBatch_resultStandardSchemeFactory());
+      schemes.put(TupleScheme.class, new takeBatch_resultTupleSchemeFactory());
     }
 
-    public TQueueResponse success; // required
+    public TQueueBatchResponse success; // required
 
     /** The set of fields this struct contains, along with convenience methods for finding and manipulating them. */
     public enum _Fields implements org.apache.thrift.TFieldIdEnum {
@@ -8354,16 +11768,16 @@ public class TQueueService {
     static {
       Map<_Fields, org.apache.thrift.meta_data.FieldMetaData> tmpMap = new EnumMap<_Fields, org.apache.thrift.meta_data.FieldMetaData>(_Fields.class);
       tmpMap.put(_Fields.SUCCESS, new org.apache.thrift.meta_data.FieldMetaData("success", org.apache.thrift.TFieldRequirementType.DEFAULT, 
-          new org.apache.thrift.meta_data.StructMetaData(org.apache.thrift.protocol.TType.STRUCT, TQueueResponse.class)));
+          new org.apache.thrift.meta_data.StructMetaData(org.apache.thrift.protocol.TType.STRUCT, TQueueBatchResponse.class)));
       metaDataMap = Collections.unmodifiableMap(tmpMap);
-      org.apache.thrift.meta_data.FieldMetaData.addStructMetaDataMap(take_result.class, metaDataMap);
+      org.apache.thrift.meta_data.FieldMetaData.addStructMetaDataMap(takeBatch_result.class, metaDataMap);
     }
 
-    public take_result() {
+    public takeBatch_result() {
     }
 
-    public take_result(
-      TQueueResponse success)
+    public takeBatch_result(
+      TQueueBatchResponse success)
     {
       this();
       this.success = success;
@@ -8372,14 +11786,14 @@ public class TQueueService {
     /**
      * Performs a deep copy on <i>other</i>.
      */
-    public take_result(take_result other) {
+    public takeBatch_result(takeBatch_result other) {
       if (other.isSetSuccess()) {
-        this.success = new TQueueResponse(other.success);
+        this.success = new TQueueBatchResponse(other.success);
       }
     }
 
-    public take_result deepCopy() {
-      return new take_result(this);
+    public takeBatch_result deepCopy() {
+      return new takeBatch_result(this);
     }
 
     @Override
@@ -8387,11 +11801,11 @@ public class TQueueService {
       this.success = null;
     }
 
-    public TQueueResponse getSuccess() {
+    public TQueueBatchResponse getSuccess() {
       return this.success;
     }
 
-    public take_result setSuccess(TQueueResponse success) {
+    public takeBatch_result setSuccess(TQueueBatchResponse success) {
       this.success = success;
       return this;
     }
@@ -8417,7 +11831,7 @@ public class TQueueService {
         if (value == null) {
           unsetSuccess();
         } else {
-          setSuccess((TQueueResponse)value);
+          setSuccess((TQueueBatchResponse)value);
         }
         break;
 
@@ -8450,12 +11864,12 @@ public class TQueueService {
     public boolean equals(Object that) {
       if (that == null)
         return false;
-      if (that instanceof take_result)
-        return this.equals((take_result)that);
+      if (that instanceof takeBatch_result)
+        return this.equals((takeBatch_result)that);
       return false;
     }
 
-    public boolean equals(take_result that) {
+    public boolean equals(takeBatch_result that) {
       if (that == null)
         return false;
 
@@ -8477,7 +11891,7 @@ public class TQueueService {
     }
 
     @Override
-    public int compareTo(take_result other) {
+    public int compareTo(takeBatch_result other) {
       if (!getClass().equals(other.getClass())) {
         return getClass().getName().compareTo(other.getClass().getName());
       }
@@ -8511,7 +11925,7 @@ public class TQueueService {
 
     @Override
     public String toString() {
-      StringBuilder sb = new StringBuilder("take_result(");
+      StringBuilder sb = new StringBuilder("takeBatch_result(");
       boolean first = true;
 
       sb.append("success:");
@@ -8549,15 +11963,15 @@ public class TQueueService {
       }
     }
 
-    private static class take_resultStandardSchemeFactory implements SchemeFactory {
-      public take_resultStandardScheme getScheme() {
-        return new take_resultStandardScheme();
+    private static class takeBatch_resultStandardSchemeFactory implements SchemeFactory {
+      public takeBatch_resultStandardScheme getScheme() {
+        return new takeBatch_resultStandardScheme();
       }
     }
 
-    private static class take_resultStandardScheme extends StandardScheme<take_result> {
+    private static class takeBatch_resultStandardScheme extends StandardScheme<takeBatch_result> {
 
-      public void read(org.apache.thrift.protocol.TProtocol iprot, take_result struct) throws org.apache.thrift.TException {
+      public void read(org.apache.thrift.protocol.TProtocol iprot, takeBatch_result struct) throws org.apache.thrift.TException {
         org.apache.thrift.protocol.TField schemeField;
         iprot.readStructBegin();
         while (true)
@@ -8569,7 +11983,7 @@ public class TQueueService {
           switch (schemeField.id) {
             case 0: // SUCCESS
               if (schemeField.type == org.apache.thrift.protocol.TType.STRUCT) {
-                struct.success = new TQueueResponse();
+                struct.success = new TQueueBatchResponse();
                 struct.success.read(iprot);
                 struct.setSuccessIsSet(true);
               } else { 
@@ -8587,7 +12001,7 @@ public class TQueueService {
         struct.validate();
       }
 
-      public void write(org.apache.thrift.protocol.TProtocol oprot, take_result struct) throws org.apache.thrift.TException {
+      public void write(org.apache.thrift.protocol.TProtocol oprot, takeBatch_result struct) throws org.apache.thrift.TException {
         struct.validate();
 
         oprot.writeStructBegin(STRUCT_DESC);
@@ -8602,16 +12016,16 @@ public class TQueueService {
 
     }
 
-    private static class take_resultTupleSchemeFactory implements SchemeFactory {
-      public take_resultTupleScheme getScheme() {
-        return new take_resultTupleScheme();
+    private static class takeBatch_resultTupleSchemeFactory implements SchemeFactory {
+      public takeBatch_resultTupleScheme getScheme() {
+        return new takeBatch_resultTupleScheme();
       }
     }
 
-    private static class take_resultTupleScheme extends TupleScheme<take_result> {
+    private static class takeBatch_resultTupleScheme extends TupleScheme<takeBatch_result> {
 
       @Override
-      public void write(org.apache.thrift.protocol.TProtocol prot, take_result struct) throws org.apache.thrift.TException {
+      public void write(org.apache.thrift.protocol.TProtocol prot, takeBatch_result struct) throws org.apache.thrift.TException {
         TTupleProtocol oprot = (TTupleProtocol) prot;
         BitSet optionals = new BitSet();
         if (struct.isSetSuccess()) {
@@ -8624,11 +12038,11 @@ public class TQueueService {
       }
 
       @Override
-      public void read(org.apache.thrift.protocol.TProtocol prot, take_result struct) throws org.apache.thrift.TException {
+      public void read(org.apache.thrift.protocol.TProtocol prot, takeBatch_result struct) throws org.apache.thrift.TException {
         TTupleProtocol iprot = (TTupleProtocol) prot;
         BitSet incoming = iprot.readBitSet(1);
         if (incoming.get(0)) {
-          struct.success = new TQueueResponse();
+          struct.success = new TQueueBatchResponse();
           struct.success.read(iprot);
           struct.setSuccessIsSet(true);
         }
@@ -8642,6 +12056,7 @@ public class TQueueService {
 
     private static final org.apache.thrift.protocol.TField _SECRET_FIELD_DESC = new org.apache.thrift.protocol.TField("_secret", org.apache.thrift.protocol.TType.STRING, (short)1);
     private static final org.apache.thrift.protocol.TField _QUEUE_NAME_FIELD_DESC = new org.apache.thrift.protocol.TField("_queueName", org.apache.thrift.protocol.TType.STRING, (short)2);
+    private static final org.apache.thrift.protocol.TField _CACHED_FIELD_DESC = new org.apache.thrift.protocol.TField("_cached", org.apache.thrift.protocol.TType.BOOL, (short)3);
 
     private static final Map<Class<? extends IScheme>, SchemeFactory> schemes = new HashMap<Class<? extends IScheme>, SchemeFactory>();
     static {
@@ -8651,11 +12066,13 @@ public class TQueueService {
 
     public String _secret; // required
     public String _queueName; // required
+    public boolean _cached; // required
 
     /** The set of fields this struct contains, along with convenience methods for finding and manipulating them. */
     public enum _Fields implements org.apache.thrift.TFieldIdEnum {
       _SECRET((short)1, "_secret"),
-      _QUEUE_NAME((short)2, "_queueName");
+      _QUEUE_NAME((short)2, "_queueName"),
+      _CACHED((short)3, "_cached");
 
       private static final Map<String, _Fields> byName = new HashMap<String, _Fields>();
 
@@ -8674,6 +12091,8 @@ public class TQueueService {
             return _SECRET;
           case 2: // _QUEUE_NAME
             return _QUEUE_NAME;
+          case 3: // _CACHED
+            return _CACHED;
           default:
             return null;
         }
@@ -8714,6 +12133,8 @@ public class TQueueService {
     }
 
     // isset id assignments
+    private static final int ___CACHED_ISSET_ID = 0;
+    private byte __isset_bitfield = 0;
     public static final Map<_Fields, org.apache.thrift.meta_data.FieldMetaData> metaDataMap;
     static {
       Map<_Fields, org.apache.thrift.meta_data.FieldMetaData> tmpMap = new EnumMap<_Fields, org.apache.thrift.meta_data.FieldMetaData>(_Fields.class);
@@ -8721,32 +12142,41 @@ public class TQueueService {
           new org.apache.thrift.meta_data.FieldValueMetaData(org.apache.thrift.protocol.TType.STRING)));
       tmpMap.put(_Fields._QUEUE_NAME, new org.apache.thrift.meta_data.FieldMetaData("_queueName", org.apache.thrift.TFieldRequirementType.DEFAULT, 
           new org.apache.thrift.meta_data.FieldValueMetaData(org.apache.thrift.protocol.TType.STRING)));
+      tmpMap.put(_Fields._CACHED, new org.apache.thrift.meta_data.FieldMetaData("_cached", org.apache.thrift.TFieldRequirementType.DEFAULT, 
+          new org.apache.thrift.meta_data.FieldValueMetaData(org.apache.thrift.protocol.TType.BOOL)));
       metaDataMap = Collections.unmodifiableMap(tmpMap);
       org.apache.thrift.meta_data.FieldMetaData.addStructMetaDataMap(queueSize_args.class, metaDataMap);
     }
 
     public queueSize_args() {
+      this._cached = false;
+
     }
 
     public queueSize_args(
       String _secret,
-      String _queueName)
+      String _queueName,
+      boolean _cached)
     {
       this();
       this._secret = _secret;
       this._queueName = _queueName;
+      this._cached = _cached;
+      set_cachedIsSet(true);
     }
 
     /**
      * Performs a deep copy on <i>other</i>.
      */
     public queueSize_args(queueSize_args other) {
+      __isset_bitfield = other.__isset_bitfield;
       if (other.isSet_secret()) {
         this._secret = other._secret;
       }
       if (other.isSet_queueName()) {
         this._queueName = other._queueName;
       }
+      this._cached = other._cached;
     }
 
     public queueSize_args deepCopy() {
@@ -8757,6 +12187,8 @@ public class TQueueService {
     public void clear() {
       this._secret = null;
       this._queueName = null;
+      this._cached = false;
+
     }
 
     public String get_secret() {
@@ -8807,6 +12239,29 @@ public class TQueueService {
       }
     }
 
+    public boolean is_cached() {
+      return this._cached;
+    }
+
+    public queueSize_args set_cached(boolean _cached) {
+      this._cached = _cached;
+      set_cachedIsSet(true);
+      return this;
+    }
+
+    public void unset_cached() {
+      __isset_bitfield = EncodingUtils.clearBit(__isset_bitfield, ___CACHED_ISSET_ID);
+    }
+
+    /** Returns true if field _cached is set (has been assigned a value) and false otherwise */
+    public boolean isSet_cached() {
+      return EncodingUtils.testBit(__isset_bitfield, ___CACHED_ISSET_ID);
+    }
+
+    public void set_cachedIsSet(boolean value) {
+      __isset_bitfield = EncodingUtils.setBit(__isset_bitfield, ___CACHED_ISSET_ID, value);
+    }
+
     public void setFieldValue(_Fields field, Object value) {
       switch (field) {
       case _SECRET:
@@ -8825,6 +12280,14 @@ public class TQueueService {
         }
         break;
 
+      case _CACHED:
+        if (value == null) {
+          unset_cached();
+        } else {
+          set_cached((Boolean)value);
+        }
+        break;
+
       }
     }
 
@@ -8836,6 +12299,9 @@ public class TQueueService {
       case _QUEUE_NAME:
         return get_queueName();
 
+      case _CACHED:
+        return Boolean.valueOf(is_cached());
+
       }
       throw new IllegalStateException();
     }
@@ -8851,6 +12317,8 @@ public class TQueueService {
         return isSet_secret();
       case _QUEUE_NAME:
         return isSet_queueName();
+      case _CACHED:
+        return isSet_cached();
       }
       throw new IllegalStateException();
     }
@@ -8886,6 +12354,15 @@ public class TQueueService {
           return false;
       }
 
+      boolean this_present__cached = true;
+      boolean that_present__cached = true;
+      if (this_present__cached || that_present__cached) {
+        if (!(this_present__cached && that_present__cached))
+          return false;
+        if (this._cached != that._cached)
+          return false;
+      }
+
       return true;
     }
 
@@ -8922,6 +12399,16 @@ public class TQueueService {
           return lastComparison;
         }
       }
+      lastComparison = Boolean.valueOf(isSet_cached()).compareTo(other.isSet_cached());
+      if (lastComparison != 0) {
+        return lastComparison;
+      }
+      if (isSet_cached()) {
+        lastComparison = org.apache.thrift.TBaseHelper.compareTo(this._cached, other._cached);
+        if (lastComparison != 0) {
+          return lastComparison;
+        }
+      }
       return 0;
     }
 
@@ -8957,6 +12444,10 @@ public class TQueueService {
         sb.append(this._queueName);
       }
       first = false;
+      if (!first) sb.append(", ");
+      sb.append("_cached:");
+      sb.append(this._cached);
+      first = false;
       sb.append(")");
       return sb.toString();
     }
@@ -8976,6 +12467,8 @@ public class TQueueService {
 
     private void readObject(java.io.ObjectInputStream in) throws java.io.IOException, ClassNotFoundException {
       try {
+        // it doesn't seem like you should have to do this, but java serialization is wacky, and doesn't call the default constructor.
+        __isset_bitfield = 0;
         read(new org.apache.thrift.protocol.TCompactProtocol(new org.apache.thrift.transport.TIOStreamTransport(in)));
       } catch (org.apache.thrift.TException te) {
         throw new java.io.IOException(te);
@@ -9016,6 +12509,14 @@ public class TQueueService {
                 org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
               }
               break;
+            case 3: // _CACHED
+              if (schemeField.type == org.apache.thrift.protocol.TType.BOOL) {
+                struct._cached = iprot.readBool();
+                struct.set_cachedIsSet(true);
+              } else { 
+                org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
+              }
+              break;
             default:
               org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
           }
@@ -9041,6 +12542,9 @@ public class TQueueService {
           oprot.writeString(struct._queueName);
           oprot.writeFieldEnd();
         }
+        oprot.writeFieldBegin(_CACHED_FIELD_DESC);
+        oprot.writeBool(struct._cached);
+        oprot.writeFieldEnd();
         oprot.writeFieldStop();
         oprot.writeStructEnd();
       }
@@ -9065,19 +12569,25 @@ public class TQueueService {
         if (struct.isSet_queueName()) {
           optionals.set(1);
         }
-        oprot.writeBitSet(optionals, 2);
+        if (struct.isSet_cached()) {
+          optionals.set(2);
+        }
+        oprot.writeBitSet(optionals, 3);
         if (struct.isSet_secret()) {
           oprot.writeString(struct._secret);
         }
         if (struct.isSet_queueName()) {
           oprot.writeString(struct._queueName);
         }
+        if (struct.isSet_cached()) {
+          oprot.writeBool(struct._cached);
+        }
       }
 
       @Override
       public void read(org.apache.thrift.protocol.TProtocol prot, queueSize_args struct) throws org.apache.thrift.TException {
         TTupleProtocol iprot = (TTupleProtocol) prot;
-        BitSet incoming = iprot.readBitSet(2);
+        BitSet incoming = iprot.readBitSet(3);
         if (incoming.get(0)) {
           struct._secret = iprot.readString();
           struct.set_secretIsSet(true);
@@ -9086,6 +12596,10 @@ public class TQueueService {
           struct._queueName = iprot.readString();
           struct.set_queueNameIsSet(true);
         }
+        if (incoming.get(2)) {
+          struct._cached = iprot.readBool();
+          struct.set_cachedIsSet(true);
+        }
       }
     }
 
@@ -9455,6 +12969,7 @@ public class TQueueService {
 
     private static final org.apache.thrift.protocol.TField _SECRET_FIELD_DESC = new org.apache.thrift.protocol.TField("_secret", org.apache.thrift.protocol.TType.STRING, (short)1);
     private static final org.apache.thrift.protocol.TField _QUEUE_NAME_FIELD_DESC = new org.apache.thrift.protocol.TField("_queueName", org.apache.thrift.protocol.TType.STRING, (short)2);
+    private static final org.apache.thrift.protocol.TField _CACHED_FIELD_DESC = new org.apache.thrift.protocol.TField("_cached", org.apache.thrift.protocol.TType.BOOL, (short)3);
 
     private static final Map<Class<? extends IScheme>, SchemeFactory> schemes = new HashMap<Class<? extends IScheme>, SchemeFactory>();
     static {
@@ -9464,11 +12979,13 @@ public class TQueueService {
 
     public String _secret; // required
     public String _queueName; // required
+    public boolean _cached; // required
 
     /** The set of fields this struct contains, along with convenience methods for finding and manipulating them. */
     public enum _Fields implements org.apache.thrift.TFieldIdEnum {
       _SECRET((short)1, "_secret"),
-      _QUEUE_NAME((short)2, "_queueName");
+      _QUEUE_NAME((short)2, "_queueName"),
+      _CACHED((short)3, "_cached");
 
       private static final Map<String, _Fields> byName = new HashMap<String, _Fields>();
 
@@ -9487,6 +13004,8 @@ public class TQueueService {
             return _SECRET;
           case 2: // _QUEUE_NAME
             return _QUEUE_NAME;
+          case 3: // _CACHED
+            return _CACHED;
           default:
             return null;
         }
@@ -9527,6 +13046,8 @@ public class TQueueService {
     }
 
     // isset id assignments
+    private static final int ___CACHED_ISSET_ID = 0;
+    private byte __isset_bitfield = 0;
     public static final Map<_Fields, org.apache.thrift.meta_data.FieldMetaData> metaDataMap;
     static {
       Map<_Fields, org.apache.thrift.meta_data.FieldMetaData> tmpMap = new EnumMap<_Fields, org.apache.thrift.meta_data.FieldMetaData>(_Fields.class);
@@ -9534,32 +13055,41 @@ public class TQueueService {
           new org.apache.thrift.meta_data.FieldValueMetaData(org.apache.thrift.protocol.TType.STRING)));
       tmpMap.put(_Fields._QUEUE_NAME, new org.apache.thrift.meta_data.FieldMetaData("_queueName", org.apache.thrift.TFieldRequirementType.DEFAULT, 
           new org.apache.thrift.meta_data.FieldValueMetaData(org.apache.thrift.protocol.TType.STRING)));
+      tmpMap.put(_Fields._CACHED, new org.apache.thrift.meta_data.FieldMetaData("_cached", org.apache.thrift.TFieldRequirementType.DEFAULT, 
+          new org.apache.thrift.meta_data.FieldValueMetaData(org.apache.thrift.protocol.TType.BOOL)));
       metaDataMap = Collections.unmodifiableMap(tmpMap);
       org.apache.thrift.meta_data.FieldMetaData.addStructMetaDataMap(ephemeralSize_args.class, metaDataMap);
     }
 
     public ephemeralSize_args() {
+      this._cached = false;
+
     }
 
     public ephemeralSize_args(
       String _secret,
-      String _queueName)
+      String _queueName,
+      boolean _cached)
     {
       this();
       this._secret = _secret;
       this._queueName = _queueName;
+      this._cached = _cached;
+      set_cachedIsSet(true);
     }
 
     /**
      * Performs a deep copy on <i>other</i>.
      */
     public ephemeralSize_args(ephemeralSize_args other) {
+      __isset_bitfield = other.__isset_bitfield;
       if (other.isSet_secret()) {
         this._secret = other._secret;
       }
       if (other.isSet_queueName()) {
         this._queueName = other._queueName;
       }
+      this._cached = other._cached;
     }
 
     public ephemeralSize_args deepCopy() {
@@ -9570,6 +13100,8 @@ public class TQueueService {
     public void clear() {
       this._secret = null;
       this._queueName = null;
+      this._cached = false;
+
     }
 
     public String get_secret() {
@@ -9620,6 +13152,29 @@ public class TQueueService {
       }
     }
 
+    public boolean is_cached() {
+      return this._cached;
+    }
+
+    public ephemeralSize_args set_cached(boolean _cached) {
+      this._cached = _cached;
+      set_cachedIsSet(true);
+      return this;
+    }
+
+    public void unset_cached() {
+      __isset_bitfield = EncodingUtils.clearBit(__isset_bitfield, ___CACHED_ISSET_ID);
+    }
+
+    /** Returns true if field _cached is set (has been assigned a value) and false otherwise */
+    public boolean isSet_cached() {
+      return EncodingUtils.testBit(__isset_bitfield, ___CACHED_ISSET_ID);
+    }
+
+    public void set_cachedIsSet(boolean value) {
+      __isset_bitfield = EncodingUtils.setBit(__isset_bitfield, ___CACHED_ISSET_ID, value);
+    }
+
     public void setFieldValue(_Fields field, Object value) {
       switch (field) {
       case _SECRET:
@@ -9638,6 +13193,14 @@ public class TQueueService {
         }
         break;
 
+      case _CACHED:
+        if (value == null) {
+          unset_cached();
+        } else {
+          set_cached((Boolean)value);
+        }
+        break;
+
       }
     }
 
@@ -9649,6 +13212,9 @@ public class TQueueService {
       case _QUEUE_NAME:
         return get_queueName();
 
+      case _CACHED:
+        return Boolean.valueOf(is_cached());
+
       }
       throw new IllegalStateException();
     }
@@ -9664,6 +13230,8 @@ public class TQueueService {
         return isSet_secret();
       case _QUEUE_NAME:
         return isSet_queueName();
+      case _CACHED:
+        return isSet_cached();
       }
       throw new IllegalStateException();
     }
@@ -9699,6 +13267,15 @@ public class TQueueService {
           return false;
       }
 
+      boolean this_present__cached = true;
+      boolean that_present__cached = true;
+      if (this_present__cached || that_present__cached) {
+        if (!(this_present__cached && that_present__cached))
+          return false;
+        if (this._cached != that._cached)
+          return false;
+      }
+
       return true;
     }
 
@@ -9735,6 +13312,16 @@ public class TQueueService {
           return lastComparison;
         }
       }
+      lastComparison = Boolean.valueOf(isSet_cached()).compareTo(other.isSet_cached());
+      if (lastComparison != 0) {
+        return lastComparison;
+      }
+      if (isSet_cached()) {
+        lastComparison = org.apache.thrift.TBaseHelper.compareTo(this._cached, other._cached);
+        if (lastComparison != 0) {
+          return lastComparison;
+        }
+      }
       return 0;
     }
 
@@ -9770,6 +13357,10 @@ public class TQueueService {
         sb.append(this._queueName);
       }
       first = false;
+      if (!first) sb.append(", ");
+      sb.append("_cached:");
+      sb.append(this._cached);
+      first = false;
       sb.append(")");
       return sb.toString();
     }
@@ -9789,6 +13380,8 @@ public class TQueueService {
 
     private void readObject(java.io.ObjectInputStream in) throws java.io.IOException, ClassNotFoundException {
       try {
+        // it doesn't seem like you should have to do this, but java serialization is wacky, and doesn't call the default constructor.
+        __isset_bitfield = 0;
         read(new org.apache.thrift.protocol.TCompactProtocol(new org.apache.thrift.transport.TIOStreamTransport(in)));
       } catch (org.apache.thrift.TException te) {
         throw new java.io.IOException(te);
@@ -9829,6 +13422,14 @@ public class TQueueService {
                 org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
               }
               break;
+            case 3: // _CACHED
+              if (schemeField.type == org.apache.thrift.protocol.TType.BOOL) {
+                struct._cached = iprot.readBool();
+                struct.set_cachedIsSet(true);
+              } else { 
+                org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
+              }
+              break;
             default:
               org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
           }
@@ -9854,6 +13455,9 @@ public class TQueueService {
           oprot.writeString(struct._queueName);
           oprot.writeFieldEnd();
         }
+        oprot.writeFieldBegin(_CACHED_FIELD_DESC);
+        oprot.writeBool(struct._cached);
+        oprot.writeFieldEnd();
         oprot.writeFieldStop();
         oprot.writeStructEnd();
       }
@@ -9878,19 +13482,25 @@ public class TQueueService {
         if (struct.isSet_queueName()) {
           optionals.set(1);
         }
-        oprot.writeBitSet(optionals, 2);
+        if (struct.isSet_cached()) {
+          optionals.set(2);
+        }
+        oprot.writeBitSet(optionals, 3);
         if (struct.isSet_secret()) {
           oprot.writeString(struct._secret);
         }
         if (struct.isSet_queueName()) {
           oprot.writeString(struct._queueName);
         }
+        if (struct.isSet_cached()) {
+          oprot.writeBool(struct._cached);
+        }
       }
 
       @Override
       public void read(org.apache.thrift.protocol.TProtocol prot, ephemeralSize_args struct) throws org.apache.thrift.TException {
         TTupleProtocol iprot = (TTupleProtocol) prot;
-        BitSet incoming = iprot.readBitSet(2);
+        BitSet incoming = iprot.readBitSet(3);
         if (incoming.get(0)) {
           struct._secret = iprot.readString();
           struct.set_secretIsSet(true);
@@ -9899,6 +13509,10 @@ public class TQueueService {
           struct._queueName = iprot.readString();
           struct.set_queueNameIsSet(true);
         }
+        if (incoming.get(2)) {
+          struct._cached = iprot.readBool();
+          struct.set_cachedIsSet(true);
+        }
       }
     }
 
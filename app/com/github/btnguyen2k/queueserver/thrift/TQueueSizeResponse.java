@@ -38,6 +38,7 @@ public class TQueueSizeResponse implements org.apache.thrift.TBase<TQueueSizeRes
   private static final org.apache.thrift.protocol.TField STATUS_FIELD_DESC = new org.apache.thrift.protocol.TField("status", org.apache.thrift.protocol.TType.I32, (short)1);
   private static final org.apache.thrift.protocol.TField MESSAGE_FIELD_DESC = new org.apache.thrift.protocol.TField("message", org.apache.thrift.protocol.TType.STRING, (short)2);
   private static final org.apache.thrift.protocol.TField SIZE_FIELD_DESC = new org.apache.thrift.protocol.TField("size", org.apache.thrift.protocol.TType.I64, (short)3);
+  private static final org.apache.thrift.protocol.TField STALENESS_MS_FIELD_DESC = new org.apache.thrift.protocol.TField("stalenessMs", org.apache.thrift.protocol.TType.I64, (short)4);
 
   private static final Map<Class<? extends IScheme>, SchemeFactory> schemes = new HashMap<Class<? extends IScheme>, SchemeFactory>();
   static {
@@ -48,12 +49,14 @@ public class TQueueSizeResponse implements org.apache.thrift.TBase<TQueueSizeRes
   public int status; // required
   public String message; // required
   public long size; // required
+  public long stalenessMs; // required
 
   /** The set of fields this struct contains, along with convenience methods for finding and manipulating them. */
   public enum _Fields implements org.apache.thrift.TFieldIdEnum {
     STATUS((short)1, "status"),
     MESSAGE((short)2, "message"),
-    SIZE((short)3, "size");
+    SIZE((short)3, "size"),
+    STALENESS_MS((short)4, "stalenessMs");
 
     private static final Map<String, _Fields> byName = new HashMap<String, _Fields>();
 
@@ -74,6 +77,8 @@ public class TQueueSizeResponse implements org.apache.thrift.TBase<TQueueSizeRes
           return MESSAGE;
         case 3: // SIZE
           return SIZE;
+        case 4: // STALENESS_MS
+          return STALENESS_MS;
         default:
           return null;
       }
@@ -116,6 +121,7 @@ public class TQueueSizeResponse implements org.apache.thrift.TBase<TQueueSizeRes
   // isset id assignments
   private static final int __STATUS_ISSET_ID = 0;
   private static final int __SIZE_ISSET_ID = 1;
+  private static final int __STALENESSMS_ISSET_ID = 2;
   private byte __isset_bitfield = 0;
   public static final Map<_Fields, org.apache.thrift.meta_data.FieldMetaData> metaDataMap;
   static {
@@ -126,17 +132,22 @@ public class TQueueSizeResponse implements org.apache.thrift.TBase<TQueueSizeRes
         new org.apache.thrift.meta_data.FieldValueMetaData(org.apache.thrift.protocol.TType.STRING)));
     tmpMap.put(_Fields.SIZE, new org.apache.thrift.meta_data.FieldMetaData("size", org.apache.thrift.TFieldRequirementType.DEFAULT, 
         new org.apache.thrift.meta_data.FieldValueMetaData(org.apache.thrift.protocol.TType.I64)));
+    tmpMap.put(_Fields.STALENESS_MS, new org.apache.thrift.meta_data.FieldMetaData("stalenessMs", org.apache.thrift.TFieldRequirementType.DEFAULT, 
+        new org.apache.thrift.meta_data.FieldValueMetaData(org.apache.thrift.protocol.TType.I64)));
     metaDataMap = Collections.unmodifiableMap(tmpMap);
     org.apache.thrift.meta_data.FieldMetaData.addStructMetaDataMap(TQueueSizeResponse.class, metaDataMap);
   }
 
   public TQueueSizeResponse() {
+    this.stalenessMs = 0L;
+
   }
 
   public TQueueSizeResponse(
     int status,
     String message,
-    long size)
+    long size,
+    long stalenessMs)
   {
     this();
     this.status = status;
@@ -144,6 +155,8 @@ public class TQueueSizeResponse implements org.apache.thrift.TBase<TQueueSizeRes
     this.message = message;
     this.size = size;
     setSizeIsSet(true);
+    this.stalenessMs = stalenessMs;
+    setStalenessMsIsSet(true);
   }
 
   /**
@@ -156,6 +169,7 @@ public class TQueueSizeResponse implements org.apache.thrift.TBase<TQueueSizeRes
       this.message = other.message;
     }
     this.size = other.size;
+    this.stalenessMs = other.stalenessMs;
   }
 
   public TQueueSizeResponse deepCopy() {
@@ -169,6 +183,8 @@ public class TQueueSizeResponse implements org.apache.thrift.TBase<TQueueSizeRes
     this.message = null;
     setSizeIsSet(false);
     this.size = 0;
+    this.stalenessMs = 0L;
+
   }
 
   public int getStatus() {
@@ -241,6 +257,29 @@ public class TQueueSizeResponse implements org.apache.thrift.TBase<TQueueSizeRes
     __isset_bitfield = EncodingUtils.setBit(__isset_bitfield, __SIZE_ISSET_ID, value);
   }
 
+  public long getStalenessMs() {
+    return this.stalenessMs;
+  }
+
+  public TQueueSizeResponse setStalenessMs(long stalenessMs) {
+    this.stalenessMs = stalenessMs;
+    setStalenessMsIsSet(true);
+    return this;
+  }
+
+  public void unsetStalenessMs() {
+    __isset_bitfield = EncodingUtils.clearBit(__isset_bitfield, __STALENESSMS_ISSET_ID);
+  }
+
+  /** Returns true if field stalenessMs is set (has been assigned a value) and false otherwise */
+  public boolean isSetStalenessMs() {
+    return EncodingUtils.testBit(__isset_bitfield, __STALENESSMS_ISSET_ID);
+  }
+
+  public void setStalenessMsIsSet(boolean value) {
+    __isset_bitfield = EncodingUtils.setBit(__isset_bitfield, __STALENESSMS_ISSET_ID, value);
+  }
+
   public void setFieldValue(_Fields field, Object value) {
     switch (field) {
     case STATUS:
@@ -267,6 +306,14 @@ public class TQueueSizeResponse implements org.apache.thrift.TBase<TQueueSizeRes
       }
       break;
 
+    case STALENESS_MS:
+      if (value == null) {
+        unsetStalenessMs();
+      } else {
+        setStalenessMs((Long)value);
+      }
+      break;
+
     }
   }
 
@@ -281,6 +328,9 @@ public class TQueueSizeResponse implements org.apache.thrift.TBase<TQueueSizeRes
     case SIZE:
       return Long.valueOf(getSize());
 
+    case STALENESS_MS:
+      return Long.valueOf(getStalenessMs());
+
     }
     throw new IllegalStateException();
   }
@@ -298,6 +348,8 @@ public class TQueueSizeResponse implements org.apache.thrift.TBase<TQueueSizeRes
       return isSetMessage();
     case SIZE:
       return isSetSize();
+    case STALENESS_MS:
+      return isSetStalenessMs();
     }
     throw new IllegalStateException();
   }
@@ -342,6 +394,15 @@ public class TQueueSizeResponse implements org.apache.thrift.TBase<TQueueSizeRes
         return false;
     }
 
+    boolean this_present_stalenessMs = true;
+    boolean that_present_stalenessMs = true;
+    if (this_present_stalenessMs || that_present_stalenessMs) {
+      if (!(this_present_stalenessMs && that_present_stalenessMs))
+        return false;
+      if (this.stalenessMs != that.stalenessMs)
+        return false;
+    }
+
     return true;
   }
 
@@ -388,6 +449,16 @@ public class TQueueSizeResponse implements org.apache.thrift.TBase<TQueueSizeRes
         return lastComparison;
       }
     }
+    lastComparison = Boolean.valueOf(isSetStalenessMs()).compareTo(other.isSetStalenessMs());
+    if (lastComparison != 0) {
+      return lastComparison;
+    }
+    if (isSetStalenessMs()) {
+      lastComparison = org.apache.thrift.TBaseHelper.compareTo(this.stalenessMs, other.stalenessMs);
+      if (lastComparison != 0) {
+        return lastComparison;
+      }
+    }
     return 0;
   }
 
@@ -423,6 +494,10 @@ public class TQueueSizeResponse implements org.apache.thrift.TBase<TQueueSizeRes
     sb.append("size:");
     sb.append(this.size);
     first = false;
+    if (!first) sb.append(", ");
+    sb.append("stalenessMs:");
+    sb.append(this.stalenessMs);
+    first = false;
     sb.append(")");
     return sb.toString();
   }
@@ -492,6 +567,14 @@ public class TQueueSizeResponse implements org.apache.thrift.TBase<TQueueSizeRes
               org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
             }
             break;
+          case 4: // STALENESS_MS
+            if (schemeField.type == org.apache.thrift.protocol.TType.I64) {
+              struct.stalenessMs = iprot.readI64();
+              struct.setStalenessMsIsSet(true);
+            } else { 
+              org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
+            }
+            break;
           default:
             org.apache.thrift.protocol.TProtocolUtil.skip(iprot, schemeField.type);
         }
@@ -518,6 +601,9 @@ public class TQueueSizeResponse implements org.apache.thrift.TBase<TQueueSizeRes
       oprot.writeFieldBegin(SIZE_FIELD_DESC);
       oprot.writeI64(struct.size);
       oprot.writeFieldEnd();
+      oprot.writeFieldBegin(STALENESS_MS_FIELD_DESC);
+      oprot.writeI64(struct.stalenessMs);
+      oprot.writeFieldEnd();
       oprot.writeFieldStop();
       oprot.writeStructEnd();
     }
@@ -545,7 +631,10 @@ public class TQueueSizeResponse implements org.apache.thrift.TBase<TQueueSizeRes
       if (struct.isSetSize()) {
         optionals.set(2);
       }
-      oprot.writeBitSet(optionals, 3);
+      if (struct.isSetStalenessMs()) {
+        optionals.set(3);
+      }
+      oprot.writeBitSet(optionals, 4);
       if (struct.isSetStatus()) {
         oprot.writeI32(struct.status);
       }
@@ -555,12 +644,15 @@ public class TQueueSizeResponse implements org.apache.thrift.TBase<TQueueSizeRes
       if (struct.isSetSize()) {
         oprot.writeI64(struct.size);
       }
+      if (struct.isSetStalenessMs()) {
+        oprot.writeI64(struct.stalenessMs);
+      }
     }
 
     @Override
     public void read(org.apache.thrift.protocol.TProtocol prot, TQueueSizeResponse struct) throws org.apache.thrift.TException {
       TTupleProtocol iprot = (TTupleProtocol) prot;
-      BitSet incoming = iprot.readBitSet(3);
+      BitSet incoming = iprot.readBitSet(4);
       if (incoming.get(0)) {
         struct.status = iprot.readI32();
         struct.setStatusIsSet(true);
@@ -573,6 +665,10 @@ public class TQueueSizeResponse implements org.apache.thrift.TBase<TQueueSizeRes
         struct.size = iprot.readI64();
         struct.setSizeIsSet(true);
       }
+      if (incoming.get(3)) {
+        struct.stalenessMs = iprot.readI64();
+        struct.setStalenessMsIsSet(true);
+      }
     }
   }
 
@@ -2,16 +2,28 @@ package controllers;
 
 import globals.Registry;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import play.Logger;
 import play.api.templates.Html;
+import play.libs.F.Promise;
+import play.libs.Json;
+import play.mvc.BodyParser;
+import play.mvc.Http;
 import play.mvc.Http.RawBuffer;
 import play.mvc.Http.RequestBody;
 import play.mvc.Result;
+import queue.ITakeCallback;
 import queue.QueueApi;
+import queue.ShardedRedisQueueApi;
+import queue.TieredQueueApi;
+import queue.internal.LatencySnapshot;
 import queue.internal.QueueMessage;
+import queue.internal.QueueSizeSnapshot;
 import util.Constants;
 import util.QueueServerUtils;
 
@@ -21,6 +33,7 @@ import com.github.ddth.commons.utils.SerializationUtils;
 import com.github.ddth.tsc.DataPoint;
 import com.github.ddth.tsc.ICounter;
 import com.github.ddth.tsc.ICounterFactory;
+import com.google.common.cache.CacheStats;
 
 public class Application extends BaseController {
 
@@ -43,7 +56,8 @@ public class Application extends BaseController {
         String requestContent = null;
         JsonNode jsonNode = requestBody.asJson();
         if (jsonNode != null) {
-            requestContent = jsonNode.toString();
+            // already parsed, convert the tree directly
+            return Json.fromJson(jsonNode, Map.class);
         } else {
             RawBuffer rawBuffer = requestBody.asRaw();
             if (rawBuffer != null) {
@@ -55,6 +69,175 @@ public class Application extends BaseController {
         return SerializationUtils.fromJsonString(requestContent, Map.class);
     }
 
+    /*----------------------------------------------------------------------*/
+    // Raw-body (binary content) REST APIs
+
+    /**
+     * Max size of a raw message body.
+     * 
+     * @since 0.4.0
+     */
+    public final static int MAX_RAW_CONTENT_LENGTH = 16 * 1024 * 1024;
+
+    public final static String HEADER_SECRET = "X-Queue-Secret";
+    public final static String HEADER_QUEUE_ID = "X-Queue-Id";
+    public final static String HEADER_ORG_TIMESTAMP = "X-Queue-Org-Timestamp";
+    public final static String HEADER_TIMESTAMP = "X-Queue-Timestamp";
+    public final static String HEADER_NUM_REQUEUES = "X-Queue-Num-Requeues";
+
+    /*
+     * Raw-body APIs carry the status in the HTTP status code: errors are
+     * returned as non-2xx responses with the usual JSON body.
+     */
+    private static Result doRawErrorResponse(int status, String message) {
+        Map<String, Object> responseData = new HashMap<String, Object>();
+        responseData.put(Constants.RESPONSE_FIELD_STATUS, status);
+        responseData.put(Constants.RESPONSE_FIELD_MESSAGE, message);
+        responseData.put(Constants.RESPONSE_FIELD_RESULT, false);
+        response().setHeader(CONTENT_TYPE, "application/json");
+        Registry.updateCounters(status);
+        return status(status, SerializationUtils.toJsonString(responseData));
+    }
+
+    /*
+     * Message content is the response body as-is, metadata is in headers;
+     * "204 No Content" if there is no message.
+     */
+    private static Result doRawResponse(QueueMessage msg) {
+        Registry.updateCounters(200);
+        if (msg == null) {
+            return noContent();
+        }
+        response().setHeader(HEADER_QUEUE_ID, String.valueOf(msg.queueId()));
+        if (msg.qOriginalTimestamp() != null) {
+            response().setHeader(HEADER_ORG_TIMESTAMP,
+                    String.valueOf(msg.qOriginalTimestamp().getTime()));
+        }
+        if (msg.qTimestamp() != null) {
+            response().setHeader(HEADER_TIMESTAMP, String.valueOf(msg.qTimestamp().getTime()));
+        }
+        response().setHeader(HEADER_NUM_REQUEUES, String.valueOf(msg.qNumRequeues()));
+        response().setHeader(CONTENT_TYPE, "application/octet-stream");
+        byte[] content = msg.content();
+        return ok(content != null ? content : Constants.EMPTY);
+    }
+
+    private static String getRawRequestSecret() {
+        String secret = request().getHeader(HEADER_SECRET);
+        return secret != null ? secret : request().getQueryString("secret");
+    }
+
+    /*
+     * Handles PUT:/queues/:queueName/messages
+     */
+    @BodyParser.Of(value = BodyParser.Raw.class, maxLength = MAX_RAW_CONTENT_LENGTH)
+    public static Result queueRaw(String queueName) {
+        String secret = getRawRequestSecret();
+
+        QueueApi queueApi = Registry.getQueueApi();
+        try {
+            if (!queueApi.isValidQueueName(queueName)) {
+                return doRawErrorResponse(400, "Invalid queue name [" + queueName + "]!");
+            }
+            if (!queueApi.authorize(secret, queueName)) {
+                return doRawErrorResponse(403, "Unauthorized!");
+            }
+            RawBuffer rawBuffer = request().body().asRaw();
+            /*
+             * asBytes() returns null for bodies spilled to disk, read them with
+             * an explicit limit (body size is already capped by the parser).
+             */
+            byte[] content = rawBuffer != null ? rawBuffer.asBytes(MAX_RAW_CONTENT_LENGTH) : null;
+            if (content == null) {
+                return doRawErrorResponse(400, "Invalid input!");
+            }
+            QueueMessage queueMessage = QueueMessage.newInstance();
+            queueMessage.content(content);
+            boolean result = queueApi.queue(queueName, queueMessage);
+            return doResponse(200, String.valueOf(result), result, null);
+        } catch (Exception e) {
+            final String logMsg = "Exception [" + e.getClass() + "]: " + e.getMessage();
+            Logger.error(logMsg, e);
+            return doRawErrorResponse(500, logMsg);
+        }
+    }
+
+    /*
+     * Handles POST:/queues/:queueName/take
+     */
+    public static Promise<Result> takeRaw(String queueName) {
+        String secret = getRawRequestSecret();
+        String waitMillis = request().getQueryString("wait_millis");
+
+        QueueApi queueApi = Registry.getQueueApi();
+        try {
+            if (!queueApi.isValidQueueName(queueName)) {
+                return Promise.pure(doRawErrorResponse(400, "Invalid queue name [" + queueName
+                        + "]!"));
+            }
+            if (!queueApi.authorize(secret, queueName)) {
+                return Promise.pure(doRawErrorResponse(403, "Unauthorized!"));
+            }
+            long wait = 0;
+            try {
+                wait = waitMillis != null ? Long.parseLong(waitMillis) : 0;
+            } catch (NumberFormatException e) {
+                return Promise.pure(doRawErrorResponse(400, "Invalid input!"));
+            }
+            return doTake(queueApi, queueName, wait, true);
+        } catch (Exception e) {
+            final String logMsg = "Exception [" + e.getClass() + "]: " + e.getMessage();
+            Logger.error(logMsg, e);
+            return Promise.pure(doRawErrorResponse(500, logMsg));
+        }
+    }
+
+    private static Result doTakeResponse(QueueMessage msg, boolean raw) {
+        if (raw) {
+            return doRawResponse(msg);
+        }
+        Map<String, Object> result = QueueServerUtils.queueMessageToResponseParams(msg);
+        return doResponse(200, "", result != null, result);
+    }
+
+    /*
+     * Takes a message, long-polling if waitMillis > 0.
+     */
+    private static Promise<Result> doTake(QueueApi queueApi, String queueName,
+            long waitMillis, final boolean raw) {
+        if (waitMillis <= 0) {
+            QueueMessage msg = queueApi.take(queueName);
+            return Promise.pure(doTakeResponse(msg, raw));
+        }
+
+        /*
+         * Long-polling: the request is parked (no thread is held) until a
+         * message is taken or the wait time elapses; the response is then
+         * completed from the queue API's thread.
+         */
+        final Http.Context ctx = Http.Context.current();
+        final scala.concurrent.Promise<Result> promise = scala.concurrent.Promise$.MODULE$
+                .<Result> apply();
+        queueApi.take(queueName, waitMillis, new ITakeCallback() {
+            @Override
+            public void onTake(QueueMessage msg) {
+                Http.Context prevCtx = Http.Context.current.get();
+                Http.Context.current.set(ctx);
+                try {
+                    promise.trySuccess(doTakeResponse(msg, raw));
+                } catch (Exception e) {
+                    final String logMsg = "Exception [" + e.getClass() + "]: " + e.getMessage();
+                    Logger.error(logMsg, e);
+                    promise.trySuccess(raw ? doRawErrorResponse(500, logMsg) : doResponse(500,
+                            logMsg, false, null));
+                } finally {
+                    Http.Context.current.set(prevCtx);
+                }
+            }
+        });
+        return Promise.wrap(promise.future());
+    }
+
     /*
      * Handles POST:/queueExists
      */
@@ -130,6 +313,50 @@ public class Application extends BaseController {
         }
     }
 
+    /*
+     * Handles POST:/queueBatch
+     */
+    @SuppressWarnings("unchecked")
+    public static Result queueBatch() {
+        Map<String, Object> params = parseRequest();
+        String queueName = DPathUtils.getValue(params, "queue_name", String.class);
+        String secret = DPathUtils.getValue(params, "secret", String.class);
+        List<Object> messages = DPathUtils.getValue(params, "messages", List.class);
+
+        QueueApi queueApi = Registry.getQueueApi();
+        try {
+            if (!queueApi.isValidQueueName(queueName)) {
+                return doResponse(400, "Invalid queue name [" + queueName + "]!", false, null);
+            }
+            if (messages == null) {
+                return doResponse(400, "Invalid input!", false, null);
+            }
+            if (!queueApi.authorize(secret, queueName)) {
+                return doResponse(403, "Unauthorized!", false, null);
+            }
+            List<QueueMessage> queueMessages = new ArrayList<QueueMessage>(messages.size());
+            for (Object message : messages) {
+                String contentBase64 = DPathUtils.getValue(message, "content", String.class);
+                QueueMessage queueMessage = QueueMessage.newInstance();
+                queueMessage.content(QueueServerUtils.base64Decode(contentBase64));
+                queueMessages.add(queueMessage);
+            }
+            boolean[] result = queueApi.queueBatch(queueName, queueMessages);
+            if (result == null) {
+                return doResponse(404, "Queue [" + queueName + "] does not exist!", false, null);
+            }
+            int numQueued = 0;
+            for (boolean r : result) {
+                numQueued += r ? 1 : 0;
+            }
+            return doResponse(200, String.valueOf(numQueued), numQueued == result.length, result);
+        } catch (Exception e) {
+            final String logMsg = "Exception [" + e.getClass() + "]: " + e.getMessage();
+            Logger.error(logMsg, e);
+            return doResponse(500, logMsg, false, null);
+        }
+    }
+
     /*
      * Handles POST:/requeue
      */
@@ -208,25 +435,102 @@ public class Application extends BaseController {
         }
     }
 
+    /*
+     * Handles POST:/finishBatch
+     */
+    @SuppressWarnings("unchecked")
+    public static Result finishBatch() {
+        Map<String, Object> params = parseRequest();
+        String queueName = DPathUtils.getValue(params, "queue_name", String.class);
+        String secret = DPathUtils.getValue(params, "secret", String.class);
+        List<Object> queueIds = DPathUtils.getValue(params, "queue_ids", List.class);
+
+        QueueApi queueApi = Registry.getQueueApi();
+        try {
+            if (!queueApi.isValidQueueName(queueName)) {
+                return doResponse(400, "Invalid queue name [" + queueName + "]!", false, null);
+            }
+            if (queueIds == null) {
+                return doResponse(400, "Invalid input!", false, null);
+            }
+            if (!queueApi.authorize(secret, queueName)) {
+                return doResponse(403, "Unauthorized!", false, null);
+            }
+            List<Long> ids = new ArrayList<Long>(queueIds.size());
+            for (Object queueId : queueIds) {
+                if (!(queueId instanceof Number)) {
+                    return doResponse(400, "Invalid input!", false, null);
+                }
+                ids.add(((Number) queueId).longValue());
+            }
+            int result = queueApi.finishBatch(queueName, ids);
+            if (result < 0) {
+                return doResponse(404, "Queue [" + queueName + "] does not exist!", false, null);
+            }
+            return doResponse(200, String.valueOf(result), true, result);
+        } catch (Exception e) {
+            final String logMsg = "Exception [" + e.getClass() + "]: " + e.getMessage();
+            Logger.error(logMsg, e);
+            return doResponse(500, logMsg, false, null);
+        }
+    }
+
     /*
      * Handles POST:/take
      */
-    public static Result take() {
+    public static Promise<Result> take() {
+        Map<String, Object> params = parseRequest();
+        String queueName = DPathUtils.getValue(params, "queue_name", String.class);
+        String secret = DPathUtils.getValue(params, "secret", String.class);
+        Long waitMillis = DPathUtils.getValue(params, "wait_millis", Long.class);
+
+        QueueApi queueApi = Registry.getQueueApi();
+        try {
+            if (!queueApi.isValidQueueName(queueName)) {
+                return Promise.pure(doResponse(400, "Invalid queue name [" + queueName + "]!",
+                        false, null));
+            }
+            if (!queueApi.authorize(secret, queueName)) {
+                return Promise.pure(doResponse(403, "Unauthorized!", false, null));
+            }
+            return doTake(queueApi, queueName, waitMillis != null ? waitMillis.longValue() : 0,
+                    false);
+        } catch (Exception e) {
+            final String logMsg = "Exception [" + e.getClass() + "]: " + e.getMessage();
+            Logger.error(logMsg, e);
+            return Promise.pure(doResponse(500, logMsg, false, null));
+        }
+    }
+
+    /*
+     * Handles POST:/takeBatch
+     */
+    public static Result takeBatch() {
         Map<String, Object> params = parseRequest();
         String queueName = DPathUtils.getValue(params, "queue_name", String.class);
         String secret = DPathUtils.getValue(params, "secret", String.class);
+        Integer maxMessages = DPathUtils.getValue(params, "max_messages", Integer.class);
 
         QueueApi queueApi = Registry.getQueueApi();
         try {
             if (!queueApi.isValidQueueName(queueName)) {
                 return doResponse(400, "Invalid queue name [" + queueName + "]!", false, null);
             }
+            if (maxMessages == null || maxMessages.intValue() < 1) {
+                return doResponse(400, "Invalid input!", false, null);
+            }
             if (!queueApi.authorize(secret, queueName)) {
                 return doResponse(403, "Unauthorized!", false, null);
             }
-            QueueMessage msg = queueApi.take(queueName);
-            Map<String, Object> result = QueueServerUtils.queueMessageToResponseParams(msg);
-            return doResponse(200, "", result != null, result);
+            List<QueueMessage> msgs = queueApi.takeBatch(queueName, maxMessages.intValue());
+            if (msgs == null) {
+                return doResponse(404, "Queue [" + queueName + "] does not exist!", false, null);
+            }
+            List<Map<String, Object>> result = new ArrayList<Map<String, Object>>(msgs.size());
+            for (QueueMessage msg : msgs) {
+                result.add(QueueServerUtils.queueMessageToResponseParams(msg));
+            }
+            return doResponse(200, String.valueOf(result.size()), result.size() > 0, result);
         } catch (Exception e) {
             final String logMsg = "Exception [" + e.getClass() + "]: " + e.getMessage();
             Logger.error(logMsg, e);
@@ -241,6 +545,7 @@ public class Application extends BaseController {
         Map<String, Object> params = parseRequest();
         String queueName = DPathUtils.getValue(params, "queue_name", String.class);
         String secret = DPathUtils.getValue(params, "secret", String.class);
+        Boolean cached = DPathUtils.getValue(params, "cached", Boolean.class);
 
         QueueApi queueApi = Registry.getQueueApi();
         try {
@@ -250,6 +555,13 @@ public class Application extends BaseController {
             if (!queueApi.authorize(secret, queueName)) {
                 return doResponse(403, "Unauthorized!", false, null);
             }
+            if (cached != null && cached.booleanValue()) {
+                // cached size, staleness (in ms) is returned as message
+                QueueSizeSnapshot snapshot = queueApi.getQueueSizeSnapshot(queueName);
+                return snapshot != null ? doResponse(200,
+                        String.valueOf(snapshot.getStalenessMs()), true, snapshot.getQueueSize())
+                        : doResponse(200, "", false, -1);
+            }
             int result = queueApi.queueSize(queueName);
             return doResponse(200, "", result >= 0, result);
         } catch (Exception e) {
@@ -266,6 +578,7 @@ public class Application extends BaseController {
         Map<String, Object> params = parseRequest();
         String queueName = DPathUtils.getValue(params, "queue_name", String.class);
         String secret = DPathUtils.getValue(params, "secret", String.class);
+        Boolean cached = DPathUtils.getValue(params, "cached", Boolean.class);
 
         QueueApi queueApi = Registry.getQueueApi();
         try {
@@ -275,6 +588,13 @@ public class Application extends BaseController {
             if (!queueApi.authorize(secret, queueName)) {
                 return doResponse(403, "Unauthorized!", false, null);
             }
+            if (cached != null && cached.booleanValue()) {
+                // cached size, staleness (in ms) is returned as message
+                QueueSizeSnapshot snapshot = queueApi.getQueueSizeSnapshot(queueName);
+                return snapshot != null ? doResponse(200,
+                        String.valueOf(snapshot.getStalenessMs()), true, snapshot.getEphemeralSize())
+                        : doResponse(200, "", false, -1);
+            }
             int result = queueApi.ephemeralSize(queueName);
             return doResponse(200, "", result >= 0, result);
         } catch (Exception e) {
@@ -311,6 +631,175 @@ public class Application extends BaseController {
         return result;
     }
 
+    private static void appendMetricHeader(StringBuilder sb, String name, String type,
+            String help) {
+        sb.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        sb.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    private static void appendMetric(StringBuilder sb, String name, String labels, Object value) {
+        sb.append(name);
+        if (labels != null) {
+            sb.append('{').append(labels).append('}');
+        }
+        sb.append(' ').append(value).append('\n');
+    }
+
+    /*
+     * Handle: GET:/metrics
+     * 
+     * Prometheus text exposition format. Built from in-memory counters and
+     * cached snapshots only: no backend call is made.
+     */
+    public static Result metrics() {
+        StringBuilder sb = new StringBuilder();
+
+        ICounterFactory localCounterFactory = Registry.getLocalCounterFactory();
+        String[] counterNames = new String[] { Registry.COUNTER_200, Registry.COUNTER_400,
+                Registry.COUNTER_403, Registry.COUNTER_404, Registry.COUNTER_500 };
+        String[] statuses = new String[] { "200", "400", "403", "404", "500" };
+        appendMetricHeader(sb, "queueserver_requests_total", "counter",
+                "Number of API requests, by response status.");
+        for (int i = 0; i < counterNames.length; i++) {
+            ICounter counter = localCounterFactory != null ? localCounterFactory
+                    .getCounter(counterNames[i]) : null;
+            DataPoint dp = counter != null ? counter.get(0) : null;
+            appendMetric(sb, "queueserver_requests_total", "status=\"" + statuses[i] + "\"",
+                    dp != null ? dp.value() : 0);
+        }
+
+        appendMetricHeader(sb, "queueserver_concurrency", "gauge",
+                "Number of requests being processed.");
+        appendMetric(sb, "queueserver_concurrency", null, Registry.getConcurrency()[0]);
+
+        QueueApi queueApi = Registry.getQueueApi();
+        long now = System.currentTimeMillis();
+        Collection<QueueSizeSnapshot> queueSizes = queueApi.getQueueSizeSnapshots();
+        appendMetricHeader(sb, "queueserver_queue_size", "gauge",
+                "Number of messages in queue storage.");
+        for (QueueSizeSnapshot size : queueSizes) {
+            appendMetric(sb, "queueserver_queue_size", "queue=\"" + size.getQueueName() + "\"",
+                    size.getQueueSize());
+        }
+        appendMetricHeader(sb, "queueserver_ephemeral_size", "gauge",
+                "Number of messages in ephemeral storage.");
+        for (QueueSizeSnapshot size : queueSizes) {
+            appendMetric(sb, "queueserver_ephemeral_size",
+                    "queue=\"" + size.getQueueName() + "\"", size.getEphemeralSize());
+        }
+        appendMetricHeader(sb, "queueserver_queue_size_age_seconds", "gauge",
+                "Age of the queue size values.");
+        for (QueueSizeSnapshot size : queueSizes) {
+            appendMetric(sb, "queueserver_queue_size_age_seconds",
+                    "queue=\"" + size.getQueueName() + "\"",
+                    (now - size.getTimestamp()) / 1000.0);
+        }
+
+        List<LatencySnapshot> latencyStats = queueApi.getLatencyStats();
+        appendMetricHeader(sb, "queueserver_operation_latency_microseconds", "gauge",
+                "Latency quantiles of queue operations over the last stats window.");
+        for (LatencySnapshot stats : latencyStats) {
+            String labels = "queue=\"" + stats.getQueueName() + "\",operation=\""
+                    + stats.getOperation() + "\",quantile=";
+            appendMetric(sb, "queueserver_operation_latency_microseconds", labels + "\"0.5\"",
+                    stats.getP50());
+            appendMetric(sb, "queueserver_operation_latency_microseconds", labels + "\"0.99\"",
+                    stats.getP99());
+            appendMetric(sb, "queueserver_operation_latency_microseconds",
+                    labels + "\"0.999\"", stats.getP999());
+            appendMetric(sb, "queueserver_operation_latency_microseconds", labels + "\"1\"",
+                    stats.getMax());
+        }
+        appendMetricHeader(sb, "queueserver_operation_throughput", "gauge",
+                "Operations per second over the last stats window.");
+        for (LatencySnapshot stats : latencyStats) {
+            appendMetric(sb, "queueserver_operation_throughput",
+                    "queue=\"" + stats.getQueueName() + "\",operation=\""
+                            + stats.getOperation() + "\"", stats.getThroughput());
+        }
+
+        CacheStats queueCacheStats = queueApi.getQueueCacheStats();
+        appendMetricHeader(sb, "queueserver_queue_cache_size", "gauge",
+                "Number of queue instances in cache.");
+        appendMetric(sb, "queueserver_queue_cache_size", null, queueApi.getQueueCacheSize());
+        appendMetricHeader(sb, "queueserver_queue_cache_hits_total", "counter",
+                "Queue cache hits.");
+        appendMetric(sb, "queueserver_queue_cache_hits_total", null, queueCacheStats.hitCount());
+        appendMetricHeader(sb, "queueserver_queue_cache_misses_total", "counter",
+                "Queue cache misses.");
+        appendMetric(sb, "queueserver_queue_cache_misses_total", null,
+                queueCacheStats.missCount());
+        appendMetricHeader(sb, "queueserver_queue_cache_evictions_total", "counter",
+                "Queue cache evictions.");
+        appendMetric(sb, "queueserver_queue_cache_evictions_total", null,
+                queueCacheStats.evictionCount());
+
+        if (queueApi instanceof ShardedRedisQueueApi) {
+            appendMetricHeader(sb, "queueserver_redis_shard_up", "gauge",
+                    "Redis shard health as of the last check (1 = up).");
+            for (Map.Entry<String, Boolean> e : ((ShardedRedisQueueApi) queueApi)
+                    .getShardHealth().entrySet()) {
+                appendMetric(sb, "queueserver_redis_shard_up", "shard=\"" + e.getKey() + "\"",
+                        e.getValue().booleanValue() ? 1 : 0);
+            }
+        }
+
+        if (queueApi instanceof TieredQueueApi) {
+            TieredQueueApi tieredQueueApi = (TieredQueueApi) queueApi;
+            Map<String, long[]> tierSizes = tieredQueueApi.getTierSizes();
+            appendMetricHeader(sb, "queueserver_tier_queue_size", "gauge",
+                    "Number of messages in queue storage, by tier.");
+            for (Map.Entry<String, long[]> e : tierSizes.entrySet()) {
+                String labels = "queue=\"" + e.getKey() + "\",tier=";
+                appendMetric(sb, "queueserver_tier_queue_size", labels + "\"memory\"",
+                        e.getValue()[0]);
+                if (e.getValue()[2] >= 0) {
+                    appendMetric(sb, "queueserver_tier_queue_size", labels + "\"storage\"",
+                            e.getValue()[2]);
+                }
+            }
+            appendMetricHeader(sb, "queueserver_tier_ephemeral_size", "gauge",
+                    "Number of messages in ephemeral storage, by tier.");
+            for (Map.Entry<String, long[]> e : tierSizes.entrySet()) {
+                String labels = "queue=\"" + e.getKey() + "\",tier=";
+                appendMetric(sb, "queueserver_tier_ephemeral_size", labels + "\"memory\"",
+                        e.getValue()[1]);
+                if (e.getValue()[3] >= 0) {
+                    appendMetric(sb, "queueserver_tier_ephemeral_size", labels
+                            + "\"storage\"", e.getValue()[3]);
+                }
+            }
+            appendMetricHeader(sb, "queueserver_tier_drained_total", "counter",
+                    "Number of messages moved from memory tiers to the storage tier.");
+            appendMetric(sb, "queueserver_tier_drained_total", null,
+                    tieredQueueApi.getDrainedMessages());
+        }
+
+        response().setHeader(CONTENT_TYPE, "text/plain; version=0.0.4; charset=utf-8");
+        return ok(sb.toString());
+    }
+
+    /*
+     * Handle: GET:/stats/latency
+     */
+    public static Result latencyStats() {
+        QueueApi queueApi = Registry.getQueueApi();
+        List<Map<String, Object>> result = new ArrayList<Map<String, Object>>();
+        for (LatencySnapshot stats : queueApi.getLatencyStats()) {
+            Map<String, Object> item = new HashMap<String, Object>();
+            item.put("queue_name", stats.getQueueName());
+            item.put("operation", stats.getOperation());
+            item.put("count", stats.getCount());
+            item.put("throughput", stats.getThroughput());
+            item.put("p50_us", stats.getP50());
+            item.put("p99_us", stats.getP99());
+            item.put("p999_us", stats.getP999());
+            item.put("max_us", stats.getMax());
+            result.add(item);
+        }
+        return doResponse(200, "", true, result);
+    }
+
     /*
      * Handle: GET:/index
      */
@@ -356,8 +845,13 @@ public class Application extends BaseController {
 
         long[] concurrency = Registry.getConcurrency();
 
+        QueueApi queueApi = Registry.getQueueApi();
+        CacheStats queueCacheStats = queueApi.getQueueCacheStats();
+        long queueCacheSize = queueApi.getQueueCacheSize();
+
         Html html = render("index", concurrency, countersLocal, statsLocal, countersGlobal,
-                statsGlobal);
+                statsGlobal, queueCacheSize, queueCacheStats, queueApi.getLatencyStats(),
+                queueApi.getLatencyStatsWindowMs());
         return ok(html);
     }
 
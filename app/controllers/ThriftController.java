@@ -1,48 +1,109 @@
 package controllers;
 
+import java.io.BufferedInputStream;
 import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
+import java.io.FileInputStream;
+import java.io.IOException;
 import java.io.InputStream;
 
 import org.apache.thrift.TProcessor;
+import org.apache.thrift.protocol.TBinaryProtocol;
 import org.apache.thrift.protocol.TCompactProtocol;
 import org.apache.thrift.protocol.TProtocol;
 import org.apache.thrift.protocol.TProtocolFactory;
 import org.apache.thrift.transport.TIOStreamTransport;
 import org.apache.thrift.transport.TTransport;
 
+import play.mvc.BodyParser;
 import play.mvc.Controller;
 import play.mvc.Http.RawBuffer;
-import play.mvc.Http.RequestBody;
 import play.mvc.Result;
 import thrift.TQueueServiceImpl;
-import util.Constants;
+import util.ByteArrayOutputStreamPool;
+import util.ByteArrayOutputStreamPool.PooledByteArrayOutputStream;
+import util.ThriftServerUtils;
 
 import com.github.btnguyen2k.queueserver.thrift.TQueueService;
 
 public class ThriftController extends Controller {
 
-    static TProtocolFactory protocolFactory = new TCompactProtocol.Factory();
+    /**
+     * Max size of a Thrift-over-HTTP request. Larger requests are rejected by
+     * the body parser ("413 Request Entity Too Large") before being read.
+     * 
+     * @since 0.4.0
+     */
+    public final static int MAX_REQUEST_SIZE = ThriftServerUtils.DEFAULT_TOTAL_MAX_READ_BUFFERSIZE;
+
+    /*
+     * A string/binary field or a container can not be longer than the request
+     * itself: limits make the protocol reject bogus lengths before allocating
+     * memory for them.
+     */
+    static TProtocolFactory protocolFactory = new TCompactProtocol.Factory(MAX_REQUEST_SIZE,
+            MAX_REQUEST_SIZE);
+    static TProtocolFactory binaryProtocolFactory = new TBinaryProtocol.Factory(false, true,
+            MAX_REQUEST_SIZE, MAX_REQUEST_SIZE);
+
+    /*
+     * First byte of a binary-protocol message: high byte of the (strict)
+     * version; compact-protocol messages start with 0x82.
+     */
+    private final static int BINARY_PROTOCOL_VERSION_1 = 0x80;
     static TProcessor processor = new TQueueService.Processor<TQueueService.Iface>(
             TQueueServiceImpl.instance);
 
+    private final static ByteArrayOutputStreamPool outputBufferPool = new ByteArrayOutputStreamPool(
+            64, 4 * 1024, 256 * 1024);
+
+    /*
+     * Small bodies are kept in memory by the body parser, larger ones are
+     * spilled to a temp file and streamed from there.
+     */
+    private static InputStream openRequestStream(RawBuffer rawBuffer) throws IOException {
+        byte[] requestContent = rawBuffer.asBytes();
+        return requestContent != null ? new ByteArrayInputStream(requestContent)
+                : new BufferedInputStream(new FileInputStream(rawBuffer.asFile()));
+    }
+
+    /*
+     * Detects the request's protocol from its first byte, the stream is left
+     * unchanged.
+     */
+    private static TProtocolFactory detectProtocol(InputStream in) throws IOException {
+        in.mark(1);
+        int firstByte = in.read();
+        in.reset();
+        if (firstByte == BINARY_PROTOCOL_VERSION_1) {
+            return binaryProtocolFactory;
+        }
+        return protocolFactory;
+    }
+
+    @BodyParser.Of(value = BodyParser.Raw.class, maxLength = MAX_REQUEST_SIZE)
     public static Result doPost() throws Exception {
-        RequestBody requestBody = request().body();
-        byte[] requestContent = null;
-        RawBuffer rawBuffer = requestBody.asRaw();
-        if (rawBuffer != null) {
-            requestContent = rawBuffer.asBytes();
-        } else {
-            requestContent = requestBody.asText().getBytes(Constants.UTF8);
+        RawBuffer rawBuffer = request().body().asRaw();
+        if (rawBuffer == null) {
+            return badRequest("Empty request!");
+        }
+        Long size = rawBuffer.size();
+        if (size != null && size.longValue() > MAX_REQUEST_SIZE) {
+            return status(413, "Request too large!");
         }
 
-        InputStream in = new ByteArrayInputStream(requestContent);
-        ByteArrayOutputStream out = new ByteArrayOutputStream();
-        TTransport transport = new TIOStreamTransport(in, out);
-        TProtocol inProtocol = protocolFactory.getProtocol(transport);
-        TProtocol outProtocol = protocolFactory.getProtocol(transport);
-        processor.process(inProtocol, outProtocol);
-        response().setHeader(CONTENT_TYPE, "application/x-thrift");
-        return ok(out.toByteArray());
+        InputStream in = openRequestStream(rawBuffer);
+        PooledByteArrayOutputStream out = outputBufferPool.borrow();
+        try {
+            TTransport transport = new TIOStreamTransport(in, out);
+            TProtocolFactory requestProtocolFactory = detectProtocol(in);
+            TProtocol inProtocol = requestProtocolFactory.getProtocol(transport);
+            TProtocol outProtocol = requestProtocolFactory.getProtocol(transport);
+            processor.process(inProtocol, outProtocol);
+            response().setHeader(CONTENT_TYPE, "application/x-thrift");
+            return ok(out.toByteArray());
+        } finally {
+            in.close();
+            outputBufferPool.release(out);
+        }
     }
 }
@@ -1,6 +1,7 @@
 package globals;
 
 import org.apache.thrift.TProcessorFactory;
+import org.apache.thrift.protocol.TBinaryProtocol;
 import org.apache.thrift.protocol.TCompactProtocol;
 import org.apache.thrift.protocol.TProtocolFactory;
 import org.apache.thrift.server.TServer;
@@ -9,6 +10,7 @@ import play.Application;
 import play.GlobalSettings;
 import play.Logger;
 import play.Play;
+import thrift.TQueueServiceAsyncImpl;
 import thrift.TQueueServiceImpl;
 import util.ThriftServerUtils;
 
@@ -16,6 +18,8 @@ import com.github.btnguyen2k.queueserver.thrift.TQueueService;
 
 public class Bootstrap extends GlobalSettings {
 
+    private TQueueServiceAsyncImpl thriftAsyncService;
+
     public void onStart(Application app) {
         super.onStart(app);
         Registry.init();
@@ -26,6 +30,10 @@ public class Bootstrap extends GlobalSettings {
     @Override
     public void onStop(Application app) {
         Registry.destroy();
+        if (thriftAsyncService != null) {
+            thriftAsyncService.destroy();
+            thriftAsyncService = null;
+        }
         super.onStop(app);
     }
 
@@ -40,8 +48,14 @@ public class Bootstrap extends GlobalSettings {
                 thriftPort = 0;
             }
         }
+        int thriftBinaryPort = 0;
+        try {
+            thriftBinaryPort = Integer.parseInt(System.getProperty("thrift.binaryPort"));
+        } catch (Exception e) {
+            thriftBinaryPort = 0;
+        }
 
-        if (thriftPort > 0) {
+        if (thriftPort > 0 || thriftBinaryPort > 0) {
             int clientTimeoutMillisecs = 0;
             try {
                 clientTimeoutMillisecs = Integer.parseInt(System
@@ -79,19 +93,87 @@ public class Bootstrap extends GlobalSettings {
                 numWorkerThreads = 0;
             }
 
-            TServer thriftServer = null;
+            int acceptQueueSizePerThread = 0;
             try {
-                TProcessorFactory processorFactory = new TProcessorFactory(
-                        new TQueueService.Processor<TQueueService.Iface>(TQueueServiceImpl.instance));
-                TProtocolFactory protocolFactory = new TCompactProtocol.Factory();
-                thriftServer = ThriftServerUtils.createThreadedSelectorServer(processorFactory,
-                        protocolFactory, thriftPort, clientTimeoutMillisecs, maxFrameSize,
-                        maxReadBufferSize, numSelectorThreads, numWorkerThreads);
+                acceptQueueSizePerThread = Integer.parseInt(System
+                        .getProperty("thrift.acceptQueueSizePerThread"));
             } catch (Exception e) {
-                thriftServer = null;
+                acceptQueueSizePerThread = 0;
+            }
+
+            String serverType = System.getProperty("thrift.serverType",
+                    ThriftServerUtils.DEFAULT_SERVER_TYPE);
+
+            boolean asyncProcessor = true;
+            if (System.getProperty("thrift.async") != null) {
+                asyncProcessor = Boolean.parseBoolean(System.getProperty("thrift.async"));
+            }
+            if (asyncProcessor && !ThriftServerUtils.isNonblockingServerType(serverType)) {
+                // blocking servers can not drive asynchronous processors
+                Logger.info("Thrift server type [" + serverType
+                        + "] does not support asynchronous processor, using synchronous one.");
+                asyncProcessor = false;
+            }
+
+            int numIoThreads = 0;
+            try {
+                numIoThreads = Integer.parseInt(System.getProperty("thrift.ioThreads"));
+            } catch (Exception e) {
+                numIoThreads = 0;
+            }
+
+            int ioQueueSize = 0;
+            try {
+                ioQueueSize = Integer.parseInt(System.getProperty("thrift.ioQueueSize"));
+            } catch (Exception e) {
+                ioQueueSize = 0;
+            }
+
+            TProcessorFactory processorFactory;
+            if (asyncProcessor) {
+                thriftAsyncService = new TQueueServiceAsyncImpl(TQueueServiceImpl.instance);
+                if (numIoThreads > 0) {
+                    thriftAsyncService.setNumIoThreads(numIoThreads);
+                }
+                if (ioQueueSize > 0) {
+                    thriftAsyncService.setIoQueueSize(ioQueueSize);
+                }
+                thriftAsyncService.init();
+                processorFactory = new TProcessorFactory(
+                        new TQueueService.AsyncProcessor<TQueueService.AsyncIface>(
+                                thriftAsyncService));
+            } else {
+                processorFactory = new TProcessorFactory(
+                        new TQueueService.Processor<TQueueService.Iface>(
+                                TQueueServiceImpl.instance));
+            }
+
+            /*
+             * Compact protocol on the main port, binary protocol (cheaper to
+             * encode/decode large binary payloads) on an optional second port.
+             */
+            int[] ports = { thriftPort, thriftBinaryPort };
+            TProtocolFactory[] protocolFactories = { new TCompactProtocol.Factory(),
+                    new TBinaryProtocol.Factory() };
+            String[] protocolNames = { "compact", "binary" };
+            for (int i = 0; i < ports.length; i++) {
+                if (ports[i] <= 0) {
+                    continue;
+                }
+                TServer thriftServer = null;
+                try {
+                    thriftServer = ThriftServerUtils.createServer(serverType, processorFactory,
+                            protocolFactories[i], ports[i], clientTimeoutMillisecs,
+                            maxFrameSize, maxReadBufferSize, numSelectorThreads,
+                            numWorkerThreads, acceptQueueSizePerThread);
+                } catch (Exception e) {
+                    Logger.error(e.getMessage(), e);
+                    thriftServer = null;
+                }
+                Logger.info("Starting Thrift API server [" + serverType + "/"
+                        + protocolNames[i] + "] on port " + ports[i] + "...");
+                Registry.startThriftServer(thriftServer);
             }
-            Logger.info("Starting Thrift API server on port " + thriftPort + "...");
-            Registry.startThriftServer(thriftServer);
         }
     }
 }
@@ -1,6 +1,12 @@
 package globals;
 
 import java.io.File;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.commons.lang3.StringUtils;
 import org.apache.thrift.server.TServer;
@@ -12,6 +18,7 @@ import org.springframework.context.support.FileSystemXmlApplicationContext;
 import play.Logger;
 import play.Play;
 import queue.QueueApi;
+import util.StripedCounter;
 
 import com.github.ddth.tsc.DataPoint;
 import com.github.ddth.tsc.ICounter;
@@ -25,10 +32,13 @@ public class Registry {
         localCounterFactory = getBean("TSC_LOCAL", ICounterFactory.class);
         globalCounterFactory = getBean("TSC_GLOBAL", ICounterFactory.class);
         queueApi = getBean(QueueApi.class);
+
+        startCountersFlusher();
     }
 
     public static void destroy() {
         stopThriftServer();
+        stopCountersFlusher();
 
         destroyApplicationContext();
     }
@@ -51,107 +61,157 @@ public class Registry {
 
     public final static String COUNTER_CONCURENCY = "BLOOMSERVER_CONCURENCY";
 
-    public static void incConcurrency() {
-        ICounter counter;
-
-        counter = localCounterFactory != null ? localCounterFactory.getCounter(COUNTER_CONCURENCY)
-                : null;
-        if (counter != null) {
-            counter.add(1000, 1);
+    /*
+     * Request counters are aggregated in-memory with lock-free striped
+     * counters and flushed to the counter factories every second, so that no
+     * counter write (e.g. to the Redis-backed TSC_GLOBAL) is done on the
+     * request's critical path.
+     */
+    private final static long COUNTERS_FLUSH_INTERVAL_MS = 1000;
+    private final static String[] TSC_NAMES = { TSC_TOTAL, TSC_200, TSC_400, TSC_403, TSC_404,
+            TSC_500 };
+    private final static String[] COUNTER_NAMES = { COUNTER_TOTAL, COUNTER_200, COUNTER_400,
+            COUNTER_403, COUNTER_404, COUNTER_500 };
+    private final static int IDX_TOTAL = 0, IDX_200 = 1, IDX_400 = 2, IDX_403 = 3,
+            IDX_404 = 4, IDX_500 = 5;
+    private final static StripedCounter[] pendingCounters = new StripedCounter[TSC_NAMES.length];
+    static {
+        for (int i = 0; i < pendingCounters.length; i++) {
+            pendingCounters[i] = new StripedCounter();
         }
+    }
+    private final static StripedCounter concurrency = new StripedCounter();
+    private final static StripedCounter pendingConcurrency = new StripedCounter();
+    private static ScheduledExecutorService countersFlusher;
+
+    private static void startCountersFlusher() {
+        countersFlusher = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable r) {
+                Thread t = new Thread(r, "Request counters flusher");
+                t.setDaemon(true);
+                return t;
+            }
+        });
+        countersFlusher.scheduleWithFixedDelay(new Runnable() {
+            @Override
+            public void run() {
+                flushCounters();
+            }
+        }, COUNTERS_FLUSH_INTERVAL_MS, COUNTERS_FLUSH_INTERVAL_MS, TimeUnit.MILLISECONDS);
+    }
 
-        counter = globalCounterFactory != null ? globalCounterFactory
-                .getCounter(COUNTER_CONCURENCY) : null;
-        if (counter != null) {
-            counter.add(1000, 1);
+    private static void stopCountersFlusher() {
+        if (countersFlusher != null) {
+            countersFlusher.shutdown();
+            try {
+                countersFlusher.awaitTermination(COUNTERS_FLUSH_INTERVAL_MS,
+                        TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+            }
+            countersFlusher = null;
         }
+        flushCounters();
     }
 
-    public static void decConcurrency() {
-        ICounter counter;
-
-        counter = localCounterFactory != null ? localCounterFactory.getCounter(COUNTER_CONCURENCY)
-                : null;
-        if (counter != null) {
-            counter.add(1000, -1);
+    private static void flushCounters() {
+        try {
+            for (int i = 0; i < pendingCounters.length; i++) {
+                long value = pendingCounters[i].sumThenReset();
+                if (value != 0) {
+                    _updateTscCounters(TSC_NAMES[i], value);
+                    _updateCounters(COUNTER_NAMES[i], value);
+                }
+            }
+            long value = pendingConcurrency.sumThenReset();
+            if (value != 0) {
+                _updateCounters(COUNTER_CONCURENCY, 1000, value);
+            }
+        } catch (Exception e) {
+            Logger.warn(e.getMessage(), e);
         }
+    }
 
-        counter = globalCounterFactory != null ? globalCounterFactory
-                .getCounter(COUNTER_CONCURENCY) : null;
-        if (counter != null) {
-            counter.add(1000, -1);
-        }
+    public static void incConcurrency() {
+        concurrency.increment();
+        pendingConcurrency.increment();
+    }
+
+    public static void decConcurrency() {
+        concurrency.decrement();
+        pendingConcurrency.decrement();
     }
 
     public static long[] getConcurrency() {
-        ICounter counter;
-        DataPoint dp;
         long[] result = new long[2];
 
-        counter = localCounterFactory != null ? localCounterFactory.getCounter(COUNTER_CONCURENCY)
-                : null;
-        dp = counter != null ? counter.get(1000) : null;
-        result[0] = dp != null ? dp.value() : 0;
+        // local value is read directly, global value lags by up to one flush
+        result[0] = concurrency.sum();
 
-        counter = globalCounterFactory != null ? globalCounterFactory
+        ICounter counter = globalCounterFactory != null ? globalCounterFactory
                 .getCounter(COUNTER_CONCURENCY) : null;
-        dp = counter != null ? counter.get(1000) : null;
+        DataPoint dp = counter != null ? counter.get(1000) : null;
         result[1] = dp != null ? dp.value() : 0;
 
         return result;
     }
 
-    private static void _updateTscCounters(final String name) {
+    private static void _updateTscCounters(final String name, final long value) {
         ICounter counterLocal = localCounterFactory != null ? localCounterFactory.getCounter(name)
                 : null;
         if (counterLocal != null) {
-            counterLocal.add(1);
+            counterLocal.add(value);
         }
 
         ICounter counterGlobal = globalCounterFactory != null ? globalCounterFactory
                 .getCounter(name) : null;
         if (counterGlobal != null) {
-            counterGlobal.add(1);
+            counterGlobal.add(value);
         }
     }
 
-    private static void _updateCounters(final String name) {
+    private static void _updateCounters(final String name, final long value) {
+        _updateCounters(name, 0, value);
+    }
+
+    private static void _updateCounters(final String name, final long timestamp,
+            final long value) {
         ICounter counterLocal = localCounterFactory != null ? localCounterFactory.getCounter(name)
                 : null;
         if (counterLocal != null) {
-            counterLocal.add(0, 1);
+            counterLocal.add(timestamp, value);
         }
 
         ICounter counterGlobal = globalCounterFactory != null ? globalCounterFactory
                 .getCounter(name) : null;
         if (counterGlobal != null) {
-            counterGlobal.add(0, 1);
+            counterGlobal.add(timestamp, value);
         }
     }
 
+    /**
+     * Records a request's response status. Counters are updated in-memory
+     * only, and flushed to counter factories asynchronously.
+     * 
+     * @param status
+     */
     public static void updateCounters(final int status) {
-        _updateTscCounters(TSC_TOTAL);
-        _updateCounters(COUNTER_TOTAL);
+        pendingCounters[IDX_TOTAL].increment();
         switch (status) {
         case 200:
-            _updateTscCounters(TSC_200);
-            _updateCounters(COUNTER_200);
+            pendingCounters[IDX_200].increment();
             break;
         case 400:
-            _updateTscCounters(TSC_400);
-            _updateCounters(COUNTER_400);
+            pendingCounters[IDX_400].increment();
             break;
         case 403:
-            _updateTscCounters(TSC_403);
-            _updateCounters(COUNTER_403);
+            pendingCounters[IDX_403].increment();
             break;
         case 404:
-            _updateTscCounters(TSC_404);
-            _updateCounters(COUNTER_404);
+            pendingCounters[IDX_404].increment();
             break;
         case 500:
-            _updateTscCounters(TSC_500);
-            _updateCounters(COUNTER_500);
+            pendingCounters[IDX_500].increment();
             break;
         }
     }
@@ -172,10 +232,13 @@ public class Registry {
     }
 
     /*----------------------------------------------------------------------*/
-    private static TServer thriftServer = null;
+    private static List<TServer> thriftServers = new CopyOnWriteArrayList<TServer>();
 
     public static void startThriftServer(final TServer thriftServer) {
-        Registry.thriftServer = thriftServer;
+        if (thriftServer == null) {
+            return;
+        }
+        thriftServers.add(thriftServer);
         Thread t = new Thread("Thrift Server") {
             public void run() {
                 thriftServer.serve();
@@ -185,15 +248,14 @@ public class Registry {
     }
 
     public static void stopThriftServer() {
-        if (thriftServer != null) {
+        for (TServer thriftServer : thriftServers) {
             try {
                 thriftServer.stop();
             } catch (Exception e) {
                 Logger.warn(e.getMessage(), e);
-            } finally {
-                thriftServer = null;
             }
         }
+        thriftServers.clear();
     }
 
     /*----------------------------------------------------------------------*/
@@ -1,5 +1,8 @@
 package queue;
 
+import java.util.Collection;
+import java.util.List;
+
 import queue.internal.QueueMessage;
 
 import com.github.ddth.queue.IQueue;
@@ -14,6 +17,59 @@ public interface IQsQueue extends IQueue {
     @Override
     public QueueMessage take();
 
+    /**
+     * Puts a batch of messages to queue storage in one backend operation.
+     * 
+     * @param msgs
+     * @return outcome of each message, in the same order as {@code msgs}
+     * @since 0.4.0
+     */
+    public boolean[] queueBatch(List<QueueMessage> msgs);
+
+    /**
+     * Takes up to {@code maxMessages} messages from queue storage (and moves
+     * them to ephemeral storage) in one backend operation.
+     * 
+     * @param maxMessages
+     * @return taken messages, empty list if queue is empty
+     * @since 0.4.0
+     */
+    public List<QueueMessage> takeBatch(int maxMessages);
+
+    /**
+     * Removes a batch of messages, identified by their queue ids, from
+     * ephemeral storage in one backend operation.
+     * 
+     * @param queueIds
+     * @return number of messages removed
+     * @since 0.4.0
+     */
+    public int finishBatch(Collection<Long> queueIds);
+
+    /**
+     * Removes up to {@code maxMessages} orphan messages (messages in ephemeral
+     * storage older than {@code thresholdTimestampMs}) in one backend
+     * operation.
+     * 
+     * @param thresholdTimestampMs
+     * @param maxMessages
+     * @return number of messages removed
+     * @since 0.4.0
+     */
+    public int discardOrphanMessages(long thresholdTimestampMs, int maxMessages);
+
+    /**
+     * Moves up to {@code maxMessages} orphan messages (messages in ephemeral
+     * storage older than {@code thresholdTimestampMs}) back to queue storage
+     * in one backend operation.
+     * 
+     * @param thresholdTimestampMs
+     * @param maxMessages
+     * @return number of messages moved
+     * @since 0.4.0
+     */
+    public int requeueOrphanMessages(long thresholdTimestampMs, int maxMessages);
+
     public IQsQueue init();
 
     public void destroy();
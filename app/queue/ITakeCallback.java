@@ -0,0 +1,22 @@
+package queue;
+
+import queue.internal.QueueMessage;
+
+/**
+ * Callback to receive the result of a long-polling take, see
+ * {@link QueueApi#take(String, long, ITakeCallback)}.
+ * 
+ * @author Thanh Nguyen <btnguyen2k@gmail.com>
+ * @since 0.4.0
+ */
+public interface ITakeCallback {
+    /**
+     * Called exactly once, when a message has been taken or when the wait
+     * time has elapsed.
+     * 
+     * @param msg
+     *            the taken message, {@code null} if the queue was still
+     *            empty when the wait time elapsed
+     */
+    public void onTake(QueueMessage msg);
+}
@@ -0,0 +1,172 @@
+package queue;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import queue.impl.QsInMemoryQueue;
+import queue.internal.OffHeapStore;
+
+/**
+ * Non-durable, in-memory implementation of {@link QueueApi} (e.g. for tests
+ * or transient workloads): queues are lost on restart and are not shared
+ * between queue-server instances.
+ * 
+ * <p>
+ * Message contents are stored off-heap (see {@link QsInMemoryQueue}). Queues
+ * live until {@link #destroy()} (evicting a queue from the cache does not
+ * drop its messages).
+ * </p>
+ * 
+ * @author Thanh Nguyen <btnguyen2k@gmail.com>
+ * @since 0.4.0
+ */
+public class InMemoryQueueApi extends QueueApi {
+
+    private int queueCapacity = 65536;
+    private int slabSize = 4 * 1024 * 1024;
+    private long maxOffHeapSize = 0;
+
+    private OffHeapStore store;
+    private ConcurrentMap<String, QsInMemoryQueue> queues = new ConcurrentHashMap<String, QsInMemoryQueue>();
+
+    /**
+     * Max number of messages in a queue's storage (rounded up to a power of
+     * 2). Default {@code 65536}.
+     * 
+     * @return
+     */
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public InMemoryQueueApi setQueueCapacity(int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+        return this;
+    }
+
+    /**
+     * Size of an off-heap slab, in bytes. Default 4MB.
+     * 
+     * @return
+     */
+    public int getSlabSize() {
+        return slabSize;
+    }
+
+    public InMemoryQueueApi setSlabSize(int slabSize) {
+        this.slabSize = slabSize;
+        return this;
+    }
+
+    /**
+     * Max off-heap memory used by messages, in bytes ({@code 0}: unlimited,
+     * bound by {@code -XX:MaxDirectMemorySize}). Default {@code 0}.
+     * 
+     * @return
+     */
+    public long getMaxOffHeapSize() {
+        return maxOffHeapSize;
+    }
+
+    public InMemoryQueueApi setMaxOffHeapSize(long maxOffHeapSize) {
+        this.maxOffHeapSize = maxOffHeapSize;
+        return this;
+    }
+
+    /**
+     * Off-heap memory currently reserved, in bytes.
+     * 
+     * @return
+     */
+    public long getOffHeapReservedBytes() {
+        return store != null ? store.getReservedBytes() : 0;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public InMemoryQueueApi init() {
+        store = new OffHeapStore(slabSize, maxOffHeapSize);
+        super.init();
+        return this;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void destroy() {
+        super.destroy();
+        for (QsInMemoryQueue queue : queues.values()) {
+            try {
+                queue.destroy();
+            } catch (Exception e) {
+            }
+        }
+        queues.clear();
+        if (store != null) {
+            store.destroy();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected boolean initQueueMetadata(String queueName) {
+        if (!isValidQueueName(queueName)) {
+            return false;
+        }
+        String normalizedQueueName = normalizeQueueName(queueName);
+        if (queues.containsKey(normalizedQueueName)) {
+            return false;
+        }
+        QsInMemoryQueue queue = new QsInMemoryQueue();
+        queue.setStore(store).setCapacity(queueCapacity).init();
+        return queues.putIfAbsent(normalizedQueueName, queue) == null;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected Collection<String> getAllQueueNames() {
+        return new ArrayList<String>(queues.keySet());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void invalidateQueue(IQsQueue queue) {
+        // EMPTY: queues are dropped by destroy()
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected IQsQueue createNewQueueInstance(String normalizedQueueName) {
+        return queues.get(normalizedQueueName);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean queueExists(String queueName) {
+        return isValidQueueName(queueName) && queues.containsKey(normalizeQueueName(queueName));
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean initQueue(String queueName) {
+        return initQueueMetadata(queueName);
+    }
+
+}
@@ -3,11 +3,15 @@ package queue;
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.text.MessageFormat;
+import java.sql.Statement;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import javax.sql.DataSource;
 
@@ -18,6 +22,7 @@ import org.springframework.jdbc.datasource.SingleConnectionDataSource;
 
 import play.Logger;
 import queue.impl.QsJdbcQueue;
+import queue.impl.QsSharedTableJdbcQueue;
 
 import com.github.ddth.commons.utils.DPathUtils;
 
@@ -33,6 +38,21 @@ public abstract class JdbcQueueApi extends QueueApi {
 
     private DataSource dataSource;
 
+    /**
+     * If {@code true} all queues share the table {@link #tableMessages}
+     * (see {@code dbschema/shared_schema.*.sql}) instead of two tables per
+     * queue.
+     */
+    private boolean sharedTable = false;
+    private String tableMessages = "queue_messages";
+
+    /**
+     * In-memory index of existing queues (normalized names), built from the
+     * metadata table and kept up to date by {@link #initQueue(String)}.
+     */
+    private Set<String> queueExistenceIndex = Collections
+            .newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+
     public String getTableMetadata() {
         return tableMetadata;
     }
@@ -46,6 +66,24 @@ public abstract class JdbcQueueApi extends QueueApi {
         return dataSource;
     }
 
+    public boolean isSharedTable() {
+        return sharedTable;
+    }
+
+    public JdbcQueueApi setSharedTable(boolean sharedTable) {
+        this.sharedTable = sharedTable;
+        return this;
+    }
+
+    public String getTableMessages() {
+        return tableMessages;
+    }
+
+    public JdbcQueueApi setTableMessages(String tableMessages) {
+        this.tableMessages = tableMessages;
+        return this;
+    }
+
     public void setDataSource(DataSource dataSource) {
         this.dataSource = dataSource;
     }
@@ -89,9 +127,10 @@ public abstract class JdbcQueueApi extends QueueApi {
                 final String SQL = "INSERT INTO {0} (queue_name, queue_timestamp_create) VALUES (?, ?)";
                 jdbcTemplate.update(MessageFormat.format(SQL, getTableMetadata()),
                         normalizedQueueName, new Date());
+                queueExistenceIndex.add(normalizedQueueName);
                 return true;
             } catch (DuplicateKeyException dke) {
-                // EMPTY
+                queueExistenceIndex.add(normalizedQueueName);
             } finally {
                 conn.close();
             }
@@ -101,6 +140,13 @@ public abstract class JdbcQueueApi extends QueueApi {
         return false;
     }
 
+    /**
+     * {@inheritDoc}
+     * 
+     * <p>
+     * Also adds the names to the queue-existence index.
+     * </p>
+     */
     protected Collection<String> getAllQueueNames() {
         Collection<String> allQueueNames = new HashSet<String>();
         try {
@@ -126,15 +172,44 @@ public abstract class JdbcQueueApi extends QueueApi {
         } catch (SQLException e) {
             Logger.error(e.getMessage(), e);
         }
+        queueExistenceIndex.addAll(allQueueNames);
         return allQueueNames;
     }
 
-    /*----------------------------------------------------------------------*/
     /**
-     * {@inheritDoc}
+     * Looks up a queue's metadata record.
+     * 
+     * @param normalizedQueueName
+     * @return
      */
-    @Override
-    public boolean queueExists(String queueName) {
+    protected boolean queueMetadataExists(String normalizedQueueName) {
+        try {
+            Connection conn = connection();
+            try {
+                conn.setAutoCommit(true);
+                JdbcTemplate jdbcTemplate = jdbcTemplate(conn);
+
+                final String SQL = "SELECT queue_name FROM {0} WHERE queue_name=?";
+                List<Map<String, Object>> dbRows = jdbcTemplate.queryForList(
+                        MessageFormat.format(SQL, getTableMetadata()), normalizedQueueName);
+                return dbRows != null && dbRows.size() > 0;
+            } finally {
+                conn.close();
+            }
+        } catch (SQLException e) {
+            Logger.error(e.getMessage(), e);
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Tests if a queue's storage tables (queue & ephemeral) exist. In
+     * shared-table mode, tests if the shared table exists.
+     * 
+     * @param queueName
+     * @return
+     */
+    protected boolean queueStorageExists(String queueName) {
         if (!isValidQueueName(queueName)) {
             return false;
         }
@@ -144,20 +219,17 @@ public abstract class JdbcQueueApi extends QueueApi {
             Connection conn = connection();
             try {
                 conn.setAutoCommit(true);
+                final String SQL = "SELECT 1 FROM {0} WHERE 1=0";
                 String table1 = "queue_" + normalizeQueueName(queueName);
-                try {
-                    conn.createStatement().execute(
-                            MessageFormat.format("SELECT 0 FROM {0}", table1));
-                } catch (SQLException e) {
-                    result = false;
-                }
-
                 String table2 = "queue_" + normalizeQueueName(queueName) + "_ephemeral";
-                try {
-                    conn.createStatement().execute(
-                            MessageFormat.format("SELECT 0 FROM {0}", table2));
-                } catch (SQLException e) {
-                    result = false;
+                String[] tables = sharedTable ? new String[] { tableMessages } : new String[] {
+                        table1, table2 };
+                for (String table : tables) {
+                    try (Statement stm = conn.createStatement()) {
+                        stm.execute(MessageFormat.format(SQL, table));
+                    } catch (SQLException e) {
+                        result = false;
+                    }
                 }
             } finally {
                 conn.close();
@@ -170,6 +242,42 @@ public abstract class JdbcQueueApi extends QueueApi {
         }
     }
 
+    /*----------------------------------------------------------------------*/
+    /**
+     * {@inheritDoc}
+     * 
+     * <p>
+     * Existing queues are served from the in-memory index, without DB access.
+     * On a miss the queue's metadata record is looked up (queue may have been
+     * created by another queue-server instance) and the index is updated.
+     * Queues whose tables exist but have no metadata record (e.g. tables
+     * created by hand from {@code dbschema/sample_schema.*.sql}) are found by
+     * probing the tables, and their metadata record is backfilled.
+     * </p>
+     */
+    @Override
+    public boolean queueExists(String queueName) {
+        if (!isValidQueueName(queueName)) {
+            return false;
+        }
+
+        String normalizedQueueName = normalizeQueueName(queueName);
+        if (queueExistenceIndex.contains(normalizedQueueName)) {
+            return true;
+        }
+        if (queueMetadataExists(normalizedQueueName)) {
+            queueExistenceIndex.add(normalizedQueueName);
+            return true;
+        }
+        // in shared-table mode the table exists for any queue name
+        if (!sharedTable && queueStorageExists(normalizedQueueName)) {
+            initQueueMetadata(normalizedQueueName);
+            queueExistenceIndex.add(normalizedQueueName);
+            return true;
+        }
+        return false;
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -183,6 +291,13 @@ public abstract class JdbcQueueApi extends QueueApi {
      */
     @Override
     protected IQsQueue createNewQueueInstance(String normalizedQueueName) {
+        if (sharedTable) {
+            QsSharedTableJdbcQueue sharedQueue = newSharedTableQueue();
+            sharedQueue.setDataSource(dataSource).setTableName(tableMessages)
+                    .setQueueName(normalizedQueueName);
+            sharedQueue.init();
+            return sharedQueue;
+        }
         QsJdbcQueue jdbcQueue = new QsJdbcQueue();
         jdbcQueue.setTableName("queue_" + normalizedQueueName)
                 .setTableNameEphemeral("queue_" + normalizedQueueName + "_ephemeral")
@@ -190,4 +305,13 @@ public abstract class JdbcQueueApi extends QueueApi {
         jdbcQueue.init();
         return jdbcQueue;
     }
+
+    /**
+     * Creates a database-specific shared-table queue (used when
+     * {@link #isSharedTable()} is {@code true}).
+     * 
+     * @return
+     * @since 0.4.0
+     */
+    protected abstract QsSharedTableJdbcQueue newSharedTableQueue();
 }
@@ -0,0 +1,180 @@
+package queue;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import queue.impl.QsLogQueue;
+
+/**
+ * Local, self-contained implementation of {@link QueueApi}: each queue is a
+ * directory of memory-mapped, append-only segment files under
+ * {@link #getDataDir()} (see {@link QsLogQueue}). No external server is
+ * needed, but a queue can be served by one queue-server instance only.
+ * 
+ * <p>
+ * Opened queues hold a lock on their directory and in-memory state of taken
+ * messages, they stay open until {@link #destroy()} (evicting a queue from
+ * the cache does not close it).
+ * </p>
+ * 
+ * @author Thanh Nguyen <btnguyen2k@gmail.com>
+ * @since 0.4.0
+ */
+public class LogQueueApi extends QueueApi {
+
+    private String dataDir = "./data/queues";
+    private int segmentSize = 64 * 1024 * 1024;
+    private boolean fsync = true;
+
+    private ConcurrentMap<String, QsLogQueue> openedQueues = new ConcurrentHashMap<String, QsLogQueue>();
+
+    /**
+     * Root directory of queues' files. Default {@code ./data/queues}.
+     * 
+     * @return
+     */
+    public String getDataDir() {
+        return dataDir;
+    }
+
+    public LogQueueApi setDataDir(String dataDir) {
+        this.dataDir = dataDir;
+        return this;
+    }
+
+    /**
+     * Size of a segment file, in bytes. Also the max size of a message.
+     * Default 64MB.
+     * 
+     * @return
+     */
+    public int getSegmentSize() {
+        return segmentSize;
+    }
+
+    public LogQueueApi setSegmentSize(int segmentSize) {
+        this.segmentSize = segmentSize;
+        return this;
+    }
+
+    /**
+     * If {@code true} (default), {@code queue} returns only after the message
+     * has been forced to disk (group commit: concurrent writers share one
+     * {@code fsync}).
+     * 
+     * @return
+     */
+    public boolean isFsync() {
+        return fsync;
+    }
+
+    public LogQueueApi setFsync(boolean fsync) {
+        this.fsync = fsync;
+        return this;
+    }
+
+    private File queueDir(String normalizedQueueName) {
+        return new File(dataDir, normalizedQueueName);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public LogQueueApi init() {
+        new File(dataDir).mkdirs();
+        super.init();
+        return this;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void destroy() {
+        super.destroy();
+        for (QsLogQueue queue : openedQueues.values()) {
+            try {
+                queue.destroy();
+            } catch (Exception e) {
+            }
+        }
+        openedQueues.clear();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected boolean initQueueMetadata(String queueName) {
+        if (!isValidQueueName(queueName)) {
+            return false;
+        }
+        return queueDir(normalizeQueueName(queueName)).mkdirs();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected Collection<String> getAllQueueNames() {
+        List<String> result = new ArrayList<String>();
+        File[] dirs = new File(dataDir).listFiles();
+        if (dirs != null) {
+            for (File dir : dirs) {
+                if (dir.isDirectory() && isValidQueueName(dir.getName())) {
+                    result.add(dir.getName());
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void invalidateQueue(IQsQueue queue) {
+        // EMPTY: queues are closed by destroy()
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected IQsQueue createNewQueueInstance(String normalizedQueueName) {
+        synchronized (openedQueues) {
+            QsLogQueue logQueue = openedQueues.get(normalizedQueueName);
+            if (logQueue == null) {
+                logQueue = new QsLogQueue();
+                logQueue.setDirectory(queueDir(normalizedQueueName)).setSegmentSize(segmentSize)
+                        .setFsync(fsync);
+                logQueue.init();
+                openedQueues.put(normalizedQueueName, logQueue);
+            }
+            return logQueue;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean queueExists(String queueName) {
+        return isValidQueueName(queueName)
+                && queueDir(normalizeQueueName(queueName)).isDirectory();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean initQueue(String queueName) {
+        return initQueueMetadata(queueName);
+    }
+
+}
@@ -8,6 +8,8 @@ import org.springframework.jdbc.BadSqlGrammarException;
 import org.springframework.jdbc.core.JdbcTemplate;
 
 import play.Logger;
+import queue.impl.QsMySQLSharedTableQueue;
+import queue.impl.QsSharedTableJdbcQueue;
 
 /**
  * MySQL-Specific {@link JdbcQueueApi}.
@@ -36,6 +38,11 @@ import play.Logger;
  * ) ENGINE=InnoDB DEFAULT CHARACTER SET utf8 COLLATE utf8_unicode_ci;
  * </pre>
  * 
+ * <p>
+ * In shared-table mode (see {@link #setSharedTable(boolean)}) all queues are
+ * stored in one table, created from {@code dbschema/shared_schema.mysql.sql}.
+ * </p>
+ * 
  * @author Thanh Nguyen <btnguyen2k@gmail.com>
  * @since 0.1.0
  */
@@ -50,6 +57,11 @@ public class MySQLQueueApi extends JdbcQueueApi {
             return false;
         }
 
+        if (isSharedTable()) {
+            // shared table is created from dbschema/shared_schema.mysql.sql
+            return queueStorageExists(queueName) && initQueueMetadata(queueName);
+        }
+
         String normalizedQueueName = normalizeQueueName(queueName);
         try {
             Connection conn = connection();
@@ -84,7 +96,7 @@ public class MySQLQueueApi extends JdbcQueueApi {
                 } catch (Exception e) {
                     Logger.warn(e.getMessage(), e);
                 }
-                return queueExists(queueName) && initQueueMetadata(queueName);
+                return queueStorageExists(queueName) && initQueueMetadata(queueName);
             } finally {
                 conn.close();
             }
@@ -94,4 +106,12 @@ public class MySQLQueueApi extends JdbcQueueApi {
         return false;
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected QsSharedTableJdbcQueue newSharedTableQueue() {
+        return new QsMySQLSharedTableQueue();
+    }
+
 }
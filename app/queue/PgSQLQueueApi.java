@@ -2,12 +2,22 @@ package queue;
 
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.text.MessageFormat;
+import java.util.List;
 
+import javax.sql.DataSource;
+
+import org.apache.commons.lang3.StringUtils;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
 import org.springframework.jdbc.BadSqlGrammarException;
 import org.springframework.jdbc.core.JdbcTemplate;
 
 import play.Logger;
+import queue.impl.QsPgSQLSharedTableQueue;
+import queue.impl.QsSharedTableJdbcQueue;
+import queue.internal.NotificationCoalescer;
 
 /**
  * PostgreSQL-Specific {@link JdbcQueueApi}.
@@ -36,11 +46,243 @@ import play.Logger;
  * CREATE INDEX queue_ephemeral_msg_timestamp ON queue_ephemeral(msg_timestamp);
  * </pre>
  * 
+ * <p>
+ * In shared-table mode (see {@link #setSharedTable(boolean)}) all queues are
+ * stored in one table, created from {@code dbschema/shared_schema.pgsql.sql}.
+ * </p>
+ * 
  * @author Thanh Nguyen <btnguyen2k@gmail.com>
  * @since 0.2.0
  */
 public class PgSQLQueueApi extends JdbcQueueApi {
 
+    private String takeNotificationChannel = "queue_notify";
+    private long takeNotificationPollIntervalMs = 250;
+    private DataSource takeNotificationDataSource;
+    private volatile boolean takeNotificationRunning = false;
+    private Thread takeNotificationThread;
+    private NotificationCoalescer takeNotificationPublisher = new NotificationCoalescer(
+            "PgSQL queue notification publisher") {
+        @Override
+        protected void publish(List<String> normalizedQueueNames) {
+            publishTakeNotifications(normalizedQueueNames);
+        }
+    };
+
+    /**
+     * PostgreSQL {@code LISTEN/NOTIFY} channel used to notify all queue-server
+     * instances that messages have been put to a queue (payload is the queue's
+     * name). Empty value disables notifications (parked takers then rely on
+     * periodic polling).
+     * 
+     * @return
+     * @since 0.4.0
+     */
+    public String getTakeNotificationChannel() {
+        return takeNotificationChannel;
+    }
+
+    /**
+     * @param takeNotificationChannel
+     * @return
+     * @since 0.4.0
+     */
+    public PgSQLQueueApi setTakeNotificationChannel(String takeNotificationChannel) {
+        this.takeNotificationChannel = takeNotificationChannel;
+        return this;
+    }
+
+    /**
+     * How often (in ms) the listener connection is checked for notifications.
+     * 
+     * @return
+     * @since 0.4.0
+     */
+    public long getTakeNotificationPollIntervalMs() {
+        return takeNotificationPollIntervalMs;
+    }
+
+    /**
+     * @param takeNotificationPollIntervalMs
+     * @return
+     * @since 0.4.0
+     */
+    public PgSQLQueueApi setTakeNotificationPollIntervalMs(long takeNotificationPollIntervalMs) {
+        this.takeNotificationPollIntervalMs = takeNotificationPollIntervalMs;
+        return this;
+    }
+
+    /**
+     * Non-pooled data source the {@code LISTEN} connection is opened from
+     * (e.g. a {@code DriverManagerDataSource} pointing to the same database).
+     * The listener keeps its connection open for the lifetime of the API, so
+     * it should not be borrowed from {@link #getDataSource()}'s pool. If not
+     * set, the pool is used (and one pooled connection is pinned).
+     * 
+     * @return
+     * @since 0.4.0
+     */
+    public DataSource getTakeNotificationDataSource() {
+        return takeNotificationDataSource;
+    }
+
+    /**
+     * @param takeNotificationDataSource
+     * @return
+     * @since 0.4.0
+     */
+    public PgSQLQueueApi setTakeNotificationDataSource(DataSource takeNotificationDataSource) {
+        this.takeNotificationDataSource = takeNotificationDataSource;
+        return this;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public PgSQLQueueApi init() {
+        if (!StringUtils.isBlank(takeNotificationChannel)) {
+            takeNotificationPublisher.init();
+        }
+
+        super.init();
+
+        if (StringUtils.isBlank(takeNotificationChannel)) {
+            return this;
+        }
+        if (takeNotificationDataSource == null) {
+            Logger.warn("No [takeNotificationDataSource] configured, the notification listener will hold one pooled connection.");
+        }
+        takeNotificationRunning = true;
+        takeNotificationThread = new Thread("PgSQL queue notification listener") {
+            public void run() {
+                while (takeNotificationRunning) {
+                    try {
+                        listenForNotifications();
+                    } catch (Exception e) {
+                        if (takeNotificationRunning) {
+                            Logger.warn(e.getMessage(), e);
+                        }
+                    }
+                    sleepQuietly(1000);
+                }
+            }
+        };
+        takeNotificationThread.setDaemon(true);
+        takeNotificationThread.start();
+
+        return this;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void destroy() {
+        takeNotificationRunning = false;
+        takeNotificationPublisher.destroy();
+        if (takeNotificationThread != null) {
+            takeNotificationThread.interrupt();
+        }
+
+        super.destroy();
+    }
+
+    private static void sleepQuietly(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+        }
+    }
+
+    private Connection takeNotificationConnection() throws SQLException {
+        return takeNotificationDataSource != null ? takeNotificationDataSource.getConnection()
+                : connection();
+    }
+
+    /**
+     * Listens for queue notifications on a dedicated connection, waking up
+     * parked takers, until the API is destroyed or the connection fails.
+     * 
+     * <p>
+     * The connection is closed (never reused) when listening stops, which
+     * also ends the {@code LISTEN} session.
+     * </p>
+     * 
+     * @throws SQLException
+     */
+    private void listenForNotifications() throws SQLException {
+        try (Connection conn = takeNotificationConnection()) {
+            conn.setAutoCommit(true);
+            PGConnection pgConn = conn.unwrap(PGConnection.class);
+            try (Statement stm = conn.createStatement()) {
+                stm.execute("LISTEN " + takeNotificationChannel);
+                try {
+                    while (takeNotificationRunning) {
+                        // a dummy query is needed to receive pending notifications
+                        stm.execute("SELECT 1");
+                        PGNotification[] notifications = pgConn.getNotifications();
+                        if (notifications != null) {
+                            for (PGNotification notification : notifications) {
+                                wakeTakeWaiters(notification.getParameter());
+                            }
+                        }
+                        sleepQuietly(takeNotificationPollIntervalMs);
+                    }
+                } finally {
+                    try {
+                        stm.execute("UNLISTEN *");
+                    } catch (SQLException e) {
+                        // connection is broken, closing it drops the LISTEN
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * 
+     * <p>
+     * Also sends a {@code NOTIFY} with the queue's name as payload. The
+     * notification is sent in background and coalesced per queue, it never
+     * adds a database round-trip (or connection) to the caller.
+     * </p>
+     */
+    @Override
+    protected void notifyMessagesQueued(String normalizedQueueName) {
+        super.notifyMessagesQueued(normalizedQueueName);
+        takeNotificationPublisher.add(normalizedQueueName);
+    }
+
+    /**
+     * Sends one {@code NOTIFY} per queue name, in one statement.
+     * 
+     * @param normalizedQueueNames
+     */
+    private void publishTakeNotifications(List<String> normalizedQueueNames) {
+        StringBuilder sql = new StringBuilder("SELECT pg_notify(?, n) FROM (VALUES ");
+        Object[] params = new Object[normalizedQueueNames.size() + 1];
+        params[0] = takeNotificationChannel;
+        for (int i = 0, n = normalizedQueueNames.size(); i < n; i++) {
+            sql.append(i > 0 ? ",(?)" : "(?)");
+            params[i + 1] = normalizedQueueNames.get(i);
+        }
+        sql.append(") AS t(n)");
+        try {
+            Connection conn = connection();
+            try {
+                conn.setAutoCommit(true);
+                JdbcTemplate jdbcTemplate = jdbcTemplate(conn);
+                jdbcTemplate.queryForList(sql.toString(), params);
+            } finally {
+                conn.close();
+            }
+        } catch (Exception e) {
+            Logger.warn(e.getMessage(), e);
+        }
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -50,6 +292,11 @@ public class PgSQLQueueApi extends JdbcQueueApi {
             return false;
         }
 
+        if (isSharedTable()) {
+            // shared table is created from dbschema/shared_schema.pgsql.sql
+            return queueStorageExists(queueName) && initQueueMetadata(queueName);
+        }
+
         String normalizedQueueName = normalizeQueueName(queueName);
         try {
             Connection conn = connection();
@@ -95,7 +342,7 @@ public class PgSQLQueueApi extends JdbcQueueApi {
                     Logger.warn(e.getMessage(), e);
                 }
 
-                return queueExists(queueName) && initQueueMetadata(queueName);
+                return queueStorageExists(queueName) && initQueueMetadata(queueName);
             } finally {
                 conn.close();
             }
@@ -105,4 +352,12 @@ public class PgSQLQueueApi extends JdbcQueueApi {
         return false;
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected QsSharedTableJdbcQueue newSharedTableQueue() {
+        return new QsPgSQLSharedTableQueue();
+    }
+
 }
@@ -1,21 +1,46 @@
 package queue;
 
 import java.text.MessageFormat;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.apache.commons.lang3.StringUtils;
 
 import play.Logger;
+import queue.internal.LatencySnapshot;
+import queue.internal.LatencyTracker;
 import queue.internal.QueueMessage;
+import queue.internal.QueueSizeSnapshot;
+import queue.internal.QueueSizeTracker;
+import queue.internal.TakeWaiter;
 
 import com.github.ddth.queue.IQueue;
 import com.github.ddth.queue.IQueueMessage;
+import com.github.ddth.tsc.ICounter;
+import com.github.ddth.tsc.ICounterFactory;
 import com.google.common.cache.CacheBuilder;
 import com.google.common.cache.CacheLoader;
+import com.google.common.cache.CacheStats;
 import com.google.common.cache.LoadingCache;
 import com.google.common.cache.RemovalListener;
 import com.google.common.cache.RemovalNotification;
@@ -36,22 +61,110 @@ public abstract class QueueApi {
 
     /*----------------------------------------------------------------------*/
 
-    private LoadingCache<String, IQsQueue> cache = CacheBuilder.newBuilder()
-            .removalListener(new RemovalListener<String, IQsQueue>() {
-                @Override
-                public void onRemoval(RemovalNotification<String, IQsQueue> entry) {
-                    invalidateQueue(entry.getValue());
-                }
-            }).build(new CacheLoader<String, IQsQueue>() {
-                @Override
-                public IQsQueue load(String queueName) throws Exception {
-                    return createNewQueueInstance(queueName);
+    private LoadingCache<String, IQsQueue> cache;
+    private long queueCacheMaxSize = 10000;
+    private long queueCacheExpireAfterAccessMs = 3600000; // default 1 hour
+
+    /**
+     * Max number of queue instances kept in cache.
+     * 
+     * @return
+     * @since 0.4.0
+     */
+    public long getQueueCacheMaxSize() {
+        return queueCacheMaxSize;
+    }
+
+    /**
+     * Sets max number of queue instances kept in cache. Must be set before
+     * {@link #init()}.
+     * 
+     * @param queueCacheMaxSize
+     * @return
+     * @since 0.4.0
+     */
+    public QueueApi setQueueCacheMaxSize(long queueCacheMaxSize) {
+        this.queueCacheMaxSize = queueCacheMaxSize;
+        return this;
+    }
+
+    /**
+     * Queue instances not accessed for this number of milliseconds are
+     * evicted from cache.
+     * 
+     * @return
+     * @since 0.4.0
+     */
+    public long getQueueCacheExpireAfterAccessMs() {
+        return queueCacheExpireAfterAccessMs;
+    }
+
+    /**
+     * Sets number of milliseconds after which idle queue instances are evicted
+     * from cache. Must be set before {@link #init()}.
+     * 
+     * @param queueCacheExpireAfterAccessMs
+     * @return
+     * @since 0.4.0
+     */
+    public QueueApi setQueueCacheExpireAfterAccessMs(long queueCacheExpireAfterAccessMs) {
+        this.queueCacheExpireAfterAccessMs = queueCacheExpireAfterAccessMs;
+        return this;
+    }
+
+    /**
+     * Gets queue-instance cache's stats (hits, misses, evictions...).
+     * 
+     * @return
+     * @since 0.4.0
+     */
+    public CacheStats getQueueCacheStats() {
+        return cache != null ? cache.stats() : new CacheStats(0, 0, 0, 0, 0, 0);
+    }
+
+    /**
+     * Gets current number of queue instances in cache.
+     * 
+     * @return
+     * @since 0.4.0
+     */
+    public long getQueueCacheSize() {
+        return cache != null ? cache.size() : 0;
+    }
+
+    private void initQueueCache() {
+        CacheBuilder<Object, Object> cacheBuilder = CacheBuilder.newBuilder().recordStats();
+        if (queueCacheMaxSize > 0) {
+            cacheBuilder.maximumSize(queueCacheMaxSize);
+        }
+        if (queueCacheExpireAfterAccessMs > 0) {
+            cacheBuilder.expireAfterAccess(queueCacheExpireAfterAccessMs, TimeUnit.MILLISECONDS);
+        }
+        cache = cacheBuilder.removalListener(new RemovalListener<String, IQsQueue>() {
+            @Override
+            public void onRemoval(RemovalNotification<String, IQsQueue> entry) {
+                // removal listener runs on the caller's thread: never let it
+                // fail the request that triggered the eviction
+                try {
+                    IQsQueue queue = entry.getValue();
+                    if (queue != null) {
+                        invalidateQueue(queue);
+                    }
+                } catch (Exception e) {
+                    Logger.warn("Error while destroying queue [" + entry.getKey() + "]: "
+                            + e.getMessage(), e);
                 }
-            });
+            }
+        }).build(new CacheLoader<String, IQsQueue>() {
+            @Override
+            public IQsQueue load(String queueName) throws Exception {
+                return createNewQueueInstance(queueName);
+            }
+        });
+    }
 
     private ConcurrentSkipListSet<String> check = new ConcurrentSkipListSet<String>();
     private CheckThread checkThread;
-    private ExecutorService executorService = Executors.newCachedThreadPool();
 
     private class CheckThread extends Thread {
         private boolean running = true;
@@ -62,46 +175,34 @@ public abstract class QueueApi {
 
         public void run() {
             while (running && !interrupted()) {
+                List<String> deferred = new ArrayList<String>();
                 String queueName = check.pollFirst();
                 while (queueName != null) {
                     final String normalizedQueueName = normalizeQueueName(queueName);
-                    if (Logger.isDebugEnabled()) {
-                        Logger.debug("Checking orphan messages for [" + normalizedQueueName
-                                + "]...");
-                    }
-                    executorService.execute(new Runnable() {
-                        @Override
-                        public void run() {
-                            IQsQueue queue = getQueue(normalizedQueueName);
-                            if (queue != null) {
-                                long threshold = System.currentTimeMillis()
-                                        - getOrphanMessageThresholdMs();
-                                Collection<IQueueMessage> orphanMsgs = queue
-                                        .getOrphanMessages(threshold);
-                                if (orphanMsgs != null) {
-                                    for (IQueueMessage msg : orphanMsgs) {
-                                        if (orphanMessagePolicy == ORPHAN_MESSAGE_POLICY_DISCARD) {
-                                            Logger.info(MessageFormat
-                                                    .format("Discarding orphan message [{0}] from queue [{1}]...",
-                                                            String.valueOf(msg.qId()),
-                                                            normalizedQueueName));
-                                            queue.finish(msg);
-                                        } else {
-                                            Logger.info(MessageFormat
-                                                    .format("Requeueing orphan message [{0}] from queue [{1}]...",
-                                                            msg.qId(), normalizedQueueName));
-                                            queue.moveFromEphemeralToQueueStorage(msg);
-                                        }
-                                    }
-                                }
-                                if (queue.ephemeralSize() > 0) {
-                                    check.add(normalizedQueueName);
+                    // never sweep one queue twice at the same time
+                    if (sweepingQueues.add(normalizedQueueName)) {
+                        if (Logger.isDebugEnabled()) {
+                            Logger.debug("Checking orphan messages for [" + normalizedQueueName
+                                    + "]...");
+                        }
+                        try {
+                            orphanSweeper.execute(new Runnable() {
+                                @Override
+                                public void run() {
+                                    doSweepOrphanMessages(normalizedQueueName);
                                 }
-                            }
+                            });
+                        } catch (RejectedExecutionException e) {
+                            // sweeper is saturated, retry next round
+                            sweepingQueues.remove(normalizedQueueName);
+                            deferred.add(normalizedQueueName);
                         }
-                    });
+                    }
                     queueName = check.pollFirst();
                 }
+                check.addAll(deferred);
+                setCounterValue(COUNTER_ORPHAN_SWEEP_BACKLOG, orphanSweeper.getQueue().size()
+                        + check.size());
 
                 try {
                     long duration = Math.min(10000, getOrphanMessageThresholdMs()) / 2;
@@ -117,11 +218,243 @@ public abstract class QueueApi {
         }
     }
 
+    private void doSweepOrphanMessages(String normalizedQueueName) {
+        long startTime = System.currentTimeMillis();
+        try {
+            IQsQueue queue = getQueue(normalizedQueueName);
+            if (queue != null) {
+                int numMsgs = sweepOrphanMessages(queue, normalizedQueueName);
+                addCounterValue(TSC_ORPHAN_RECOVERED, numMsgs);
+                if (queue.ephemeralSize() > 0) {
+                    check.add(normalizedQueueName);
+                }
+            }
+        } catch (Exception e) {
+            Logger.warn(e.getMessage(), e);
+        } finally {
+            sweepingQueues.remove(normalizedQueueName);
+            addCounterValue(TSC_ORPHAN_SWEEPS, 1);
+            addCounterValue(TSC_ORPHAN_SWEEP_DURATION, System.currentTimeMillis() - startTime);
+        }
+    }
+
+    /**
+     * Discards or requeues (depends on orphan message policy) orphan messages
+     * of a queue, in chunks of {@link #getOrphanSweepChunkSize()} messages.
+     * 
+     * @param queue
+     * @param normalizedQueueName
+     * @return number of orphan messages processed
+     * @since 0.4.0
+     */
+    protected int sweepOrphanMessages(IQsQueue queue, String normalizedQueueName) {
+        long startTime = System.currentTimeMillis();
+        long threshold = startTime - getOrphanMessageThresholdMs();
+        boolean requeue = orphanMessagePolicy != ORPHAN_MESSAGE_POLICY_DISCARD;
+        int chunkSize = Math.max(1, orphanSweepChunkSize);
+        int result = 0, numMsgs;
+        do {
+            numMsgs = requeue ? queue.requeueOrphanMessages(threshold, chunkSize) : queue
+                    .discardOrphanMessages(threshold, chunkSize);
+            result += numMsgs;
+            adjustQueueSize(normalizedQueueName, requeue ? numMsgs : 0, -numMsgs);
+        } while (numMsgs >= chunkSize);
+
+        if (result > 0) {
+            Logger.info(MessageFormat.format(
+                    "{0} {1} orphan message(s) from queue [{2}] in {3} ms.",
+                    requeue ? "Requeued" : "Discarded", String.valueOf(result),
+                    normalizedQueueName, String.valueOf(System.currentTimeMillis() - startTime)));
+            if (requeue) {
+                notifyMessagesQueued(normalizedQueueName);
+            }
+        }
+        return result;
+    }
+
+    /*----------------------------------------------------------------------*/
+    // Orphan-message sweeper
+
+    /**
+     * Number of orphan sweeps done (time series).
+     * 
+     * @since 0.4.0
+     */
+    public final static String TSC_ORPHAN_SWEEPS = "BLOOMSERVER_TSC_ORPHAN_SWEEPS";
+
+    /**
+     * Total sweep duration in milliseconds (time series), divide by
+     * {@link #TSC_ORPHAN_SWEEPS} for average sweep latency.
+     * 
+     * @since 0.4.0
+     */
+    public final static String TSC_ORPHAN_SWEEP_DURATION = "BLOOMSERVER_TSC_ORPHAN_SWEEP_DURATION";
+
+    /**
+     * Number of orphan messages discarded/requeued (time series).
+     * 
+     * @since 0.4.0
+     */
+    public final static String TSC_ORPHAN_RECOVERED = "BLOOMSERVER_TSC_ORPHAN_RECOVERED";
+
+    /**
+     * Number of queues waiting to be swept (gauge).
+     * 
+     * @since 0.4.0
+     */
+    public final static String COUNTER_ORPHAN_SWEEP_BACKLOG = "BLOOMSERVER_ORPHAN_SWEEP_BACKLOG";
+
+    private ThreadPoolExecutor orphanSweeper;
+    private Set<String> sweepingQueues = Collections
+            .newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+    private int orphanSweeperThreads = 4;
+    private int orphanSweeperQueueSize = 1000;
+    private int orphanSweepChunkSize = 1000;
+    private ICounterFactory counterFactory;
+
+    /**
+     * Max number of queues swept for orphan messages in parallel.
+     * 
+     * @return
+     * @since 0.4.0
+     */
+    public int getOrphanSweeperThreads() {
+        return orphanSweeperThreads;
+    }
+
+    /**
+     * Sets max number of queues swept for orphan messages in parallel. Must be
+     * set before {@link #init()}.
+     * 
+     * @param orphanSweeperThreads
+     * @return
+     * @since 0.4.0
+     */
+    public QueueApi setOrphanSweeperThreads(int orphanSweeperThreads) {
+        this.orphanSweeperThreads = orphanSweeperThreads;
+        return this;
+    }
+
+    /**
+     * Max number of queues waiting for the orphan sweeper. Queues that do not
+     * fit are retried in the next round.
+     * 
+     * @return
+     * @since 0.4.0
+     */
+    public int getOrphanSweeperQueueSize() {
+        return orphanSweeperQueueSize;
+    }
+
+    /**
+     * Sets max number of queues waiting for the orphan sweeper. Must be set
+     * before {@link #init()}.
+     * 
+     * @param orphanSweeperQueueSize
+     * @return
+     * @since 0.4.0
+     */
+    public QueueApi setOrphanSweeperQueueSize(int orphanSweeperQueueSize) {
+        this.orphanSweeperQueueSize = orphanSweeperQueueSize;
+        return this;
+    }
+
+    /**
+     * Max number of orphan messages recovered in one backend operation.
+     * 
+     * @return
+     * @since 0.4.0
+     */
+    public int getOrphanSweepChunkSize() {
+        return orphanSweepChunkSize;
+    }
+
+    /**
+     * Sets max number of orphan messages recovered in one backend operation.
+     * 
+     * @param orphanSweepChunkSize
+     * @return
+     * @since 0.4.0
+     */
+    public QueueApi setOrphanSweepChunkSize(int orphanSweepChunkSize) {
+        this.orphanSweepChunkSize = orphanSweepChunkSize;
+        return this;
+    }
+
+    /**
+     * Counter factory to record orphan sweeper's stats.
+     * 
+     * @return
+     * @since 0.4.0
+     */
+    public ICounterFactory getCounterFactory() {
+        return counterFactory;
+    }
+
+    /**
+     * Sets counter factory to record orphan sweeper's stats.
+     * 
+     * @param counterFactory
+     * @return
+     * @since 0.4.0
+     */
+    public QueueApi setCounterFactory(ICounterFactory counterFactory) {
+        this.counterFactory = counterFactory;
+        return this;
+    }
+
+    private void addCounterValue(String name, long value) {
+        ICounter counter = counterFactory != null ? counterFactory.getCounter(name) : null;
+        if (counter != null) {
+            counter.add(value);
+        }
+    }
+
+    private void setCounterValue(String name, long value) {
+        ICounter counter = counterFactory != null ? counterFactory.getCounter(name) : null;
+        if (counter != null) {
+            counter.set(1000, value);
+        }
+    }
+
     public QueueApi init() {
+        initQueueCache();
+        latencyTracker.init();
+
+        if (queueSizeRefreshIntervalMs > 0) {
+            queueSizeRefresher = Executors.newSingleThreadScheduledExecutor();
+            queueSizeRefresher.scheduleWithFixedDelay(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        refreshQueueSizes();
+                    } catch (Exception e) {
+                        Logger.warn(e.getMessage(), e);
+                    }
+                }
+            }, queueSizeRefreshIntervalMs, queueSizeRefreshIntervalMs, TimeUnit.MILLISECONDS);
+        }
+
+        orphanSweeper = new ThreadPoolExecutor(orphanSweeperThreads, orphanSweeperThreads, 60,
+                TimeUnit.SECONDS, new ArrayBlockingQueue<Runnable>(orphanSweeperQueueSize));
+        orphanSweeper.allowCoreThreadTimeOut(true);
+
         checkThread = new CheckThread();
         checkThread.setDaemon(true);
         checkThread.start();
 
+        takeWaitScheduler = Executors.newSingleThreadScheduledExecutor();
+        takeWaitDispatcher = Executors.newFixedThreadPool(takeWaitDispatcherThreads);
+        takeWaitScheduler.scheduleWithFixedDelay(new Runnable() {
+            @Override
+            public void run() {
+                // fallback for messages put by other queue-server instances
+                for (String normalizedQueueName : takeWaiters.keySet()) {
+                    wakeTakeWaiters(normalizedQueueName);
+                }
+            }
+        }, takeWaitPollIntervalMs, takeWaitPollIntervalMs, TimeUnit.MILLISECONDS);
+
         Collection<String> allQueueNames = getAllQueueNames();
         if (allQueueNames != null) {
             Logger.info("Startup: Queue(s) to check for orphan messages: " + allQueueNames);
@@ -133,6 +466,34 @@ public abstract class QueueApi {
 
     public void destroy() {
         checkThread.stopWork();
+        if (orphanSweeper != null) {
+            orphanSweeper.shutdown();
+        }
+
+        if (takeWaitScheduler != null) {
+            takeWaitScheduler.shutdownNow();
+        }
+        if (takeWaitDispatcher != null) {
+            takeWaitDispatcher.shutdownNow();
+        }
+        for (ConcurrentLinkedQueue<TakeWaiter> waiters : takeWaiters.values()) {
+            for (TakeWaiter waiter : waiters) {
+                if (waiter.claim()) {
+                    waiter.complete(null);
+                }
+            }
+        }
+        takeWaiters.clear();
+
+        if (cache != null) {
+            cache.invalidateAll();
+        }
+
+        latencyTracker.destroy();
+
+        if (queueSizeRefresher != null) {
+            queueSizeRefresher.shutdownNow();
+        }
     }
 
     /**
@@ -192,6 +553,313 @@ public abstract class QueueApi {
         return this;
     }
 
+    /*----------------------------------------------------------------------*/
+    // Long-polling take
+
+    private ConcurrentMap<String, ConcurrentLinkedQueue<TakeWaiter>> takeWaiters = new ConcurrentHashMap<String, ConcurrentLinkedQueue<TakeWaiter>>();
+    private ScheduledExecutorService takeWaitScheduler;
+    private ExecutorService takeWaitDispatcher;
+    private long maxTakeWaitMs = 30000; // default 30 seconds
+    private long takeWaitPollIntervalMs = 1000; // default 1 second
+    private int takeWaitDispatcherThreads = 4;
+
+    /**
+     * Max number of milliseconds a long-polling take can wait.
+     * 
+     * @return
+     * @since 0.4.0
+     */
+    public long getMaxTakeWaitMs() {
+        return maxTakeWaitMs;
+    }
+
+    /**
+     * Sets max number of milliseconds a long-polling take can wait.
+     * 
+     * @param maxTakeWaitMs
+     * @return
+     * @since 0.4.0
+     */
+    public QueueApi setMaxTakeWaitMs(long maxTakeWaitMs) {
+        this.maxTakeWaitMs = maxTakeWaitMs;
+        return this;
+    }
+
+    /**
+     * Interval (in milliseconds) to re-check queues that have parked takers.
+     * This is the fallback for backends without a notification channel (e.g.
+     * MySQL).
+     * 
+     * @return
+     * @since 0.4.0
+     */
+    public long getTakeWaitPollIntervalMs() {
+        return takeWaitPollIntervalMs;
+    }
+
+    /**
+     * Sets interval (in milliseconds) to re-check queues that have parked
+     * takers. Must be set before {@link #init()}.
+     * 
+     * @param takeWaitPollIntervalMs
+     * @return
+     * @since 0.4.0
+     */
+    public QueueApi setTakeWaitPollIntervalMs(long takeWaitPollIntervalMs) {
+        this.takeWaitPollIntervalMs = takeWaitPollIntervalMs;
+        return this;
+    }
+
+    /**
+     * Number of threads that serve parked takers when messages arrive.
+     * 
+     * @return
+     * @since 0.4.0
+     */
+    public int getTakeWaitDispatcherThreads() {
+        return takeWaitDispatcherThreads;
+    }
+
+    /**
+     * Sets number of threads that serve parked takers when messages arrive.
+     * Must be set before {@link #init()}.
+     * 
+     * @param takeWaitDispatcherThreads
+     * @return
+     * @since 0.4.0
+     */
+    public QueueApi setTakeWaitDispatcherThreads(int takeWaitDispatcherThreads) {
+        this.takeWaitDispatcherThreads = takeWaitDispatcherThreads;
+        return this;
+    }
+
+    private ConcurrentLinkedQueue<TakeWaiter> takeWaiters(String normalizedQueueName) {
+        ConcurrentLinkedQueue<TakeWaiter> waiters = takeWaiters.get(normalizedQueueName);
+        if (waiters == null) {
+            ConcurrentLinkedQueue<TakeWaiter> newWaiters = new ConcurrentLinkedQueue<TakeWaiter>();
+            waiters = takeWaiters.putIfAbsent(normalizedQueueName, newWaiters);
+            if (waiters == null) {
+                waiters = newWaiters;
+            }
+        }
+        return waiters;
+    }
+
+    /**
+     * Serves parked takers of a queue, in arrival order, until the queue is
+     * empty. Takes are done on the dispatcher threads, the caller is never
+     * blocked.
+     * 
+     * @param normalizedQueueName
+     * @since 0.4.0
+     */
+    protected void wakeTakeWaiters(final String normalizedQueueName) {
+        final ConcurrentLinkedQueue<TakeWaiter> waiters = normalizedQueueName != null ? takeWaiters
+                .get(normalizedQueueName) : null;
+        if (waiters == null || waiters.isEmpty() || takeWaitDispatcher == null) {
+            return;
+        }
+        takeWaitDispatcher.execute(new Runnable() {
+            @Override
+            public void run() {
+                for (TakeWaiter waiter : waiters) {
+                    if (waiter.isDone()) {
+                        waiters.remove(waiter);
+                        continue;
+                    }
+                    if (!waiter.claim()) {
+                        continue;
+                    }
+                    QueueMessage msg = null;
+                    try {
+                        msg = take(normalizedQueueName);
+                    } catch (Exception e) {
+                        Logger.warn(e.getMessage(), e);
+                    }
+                    if (msg == null) {
+                        waiter.release();
+                        if (waiter.isExpired() && waiter.claim()) {
+                            waiters.remove(waiter);
+                            waiter.complete(null);
+                        }
+                        break;
+                    }
+                    waiters.remove(waiter);
+                    waiter.complete(msg);
+                }
+            }
+        });
+    }
+
+    /**
+     * Called after messages have been put to a queue, wakes up the queue's
+     * parked takers.
+     * 
+     * <p>
+     * Sub-classes may override this method to also notify other queue-server
+     * instances.
+     * </p>
+     * 
+     * @param normalizedQueueName
+     * @since 0.4.0
+     */
+    protected void notifyMessagesQueued(String normalizedQueueName) {
+        wakeTakeWaiters(normalizedQueueName);
+    }
+
+    /*----------------------------------------------------------------------*/
+    // Queue size snapshots
+
+    private QueueSizeTracker queueSizeTracker = new QueueSizeTracker();
+    private ScheduledExecutorService queueSizeRefresher;
+    private long queueSizeRefreshIntervalMs = 10000; // default 10 seconds
+
+    /**
+     * How often (in milliseconds) queue sizes are reconciled with the backend
+     * for {@link #getQueueSizeSnapshots()} and
+     * {@link #getQueueSizeSnapshot(String)}.
+     * 
+     * @return
+     * @since 0.4.0
+     */
+    public long getQueueSizeRefreshIntervalMs() {
+        return queueSizeRefreshIntervalMs;
+    }
+
+    /**
+     * Sets how often (in milliseconds) queue sizes are read from the backend.
+     * Only queues currently in the queue-instance cache are refreshed; a value
+     * {@code <= 0} disables the refresh. Must be set before {@link #init()}.
+     * 
+     * @param queueSizeRefreshIntervalMs
+     * @return
+     * @since 0.4.0
+     */
+    public QueueApi setQueueSizeRefreshIntervalMs(long queueSizeRefreshIntervalMs) {
+        this.queueSizeRefreshIntervalMs = queueSizeRefreshIntervalMs;
+        return this;
+    }
+
+    /**
+     * Approximate sizes of all queues: adjusted by operations done on this
+     * node and reconciled with the backend in background. Reading snapshots
+     * never hits the backend.
+     * 
+     * @return
+     * @since 0.4.0
+     */
+    public Collection<QueueSizeSnapshot> getQueueSizeSnapshots() {
+        return Collections.unmodifiableCollection(queueSizeTracker.getAll());
+    }
+
+    /**
+     * Approximate sizes of a queue, see {@link #getQueueSizeSnapshots()}.
+     * 
+     * <p>
+     * Only the first call for a queue that has not been reconciled yet reads
+     * sizes from the backend.
+     * </p>
+     * 
+     * @param queueName
+     * @return {@code null} if the queue does not exist
+     * @since 0.4.0
+     */
+    public QueueSizeSnapshot getQueueSizeSnapshot(String queueName) {
+        String normalizedQueueName = normalizeQueueName(queueName);
+        QueueSizeSnapshot result = queueSizeTracker.get(normalizedQueueName);
+        if (result == null) {
+            IQsQueue queue = getQueue(normalizedQueueName);
+            if (queue != null) {
+                reconcileQueueSize(normalizedQueueName, queue);
+                result = queueSizeTracker.get(normalizedQueueName);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Reads a queue's sizes directly from the queue instance (not recorded as
+     * {@code queueSize}/{@code ephemeralSize} latency samples).
+     */
+    private void reconcileQueueSize(String normalizedQueueName, IQsQueue queue) {
+        long timestamp = System.currentTimeMillis();
+        int queueSize = queue.queueSize();
+        int ephemeralSize = queue.ephemeralSize();
+        if (queueSize >= 0) {
+            queueSizeTracker.reconcile(normalizedQueueName, queueSize, ephemeralSize, timestamp);
+        }
+    }
+
+    private void adjustQueueSize(String queueName, long queueSizeDelta, long ephemeralSizeDelta) {
+        queueSizeTracker.adjust(normalizeQueueName(queueName), queueSizeDelta,
+                ephemeralSizeDelta);
+    }
+
+    /**
+     * Reads sizes of queues currently in the queue-instance cache from the
+     * backend and reconciles snapshots. Queues that are not cached are
+     * neither loaded nor tracked anymore.
+     * 
+     * @since 0.4.0
+     */
+    protected void refreshQueueSizes() {
+        if (cache == null) {
+            return;
+        }
+        Set<String> normalizedQueueNames = new HashSet<String>();
+        for (Map.Entry<String, IQsQueue> entry : cache.asMap().entrySet()) {
+            normalizedQueueNames.add(entry.getKey());
+            try {
+                reconcileQueueSize(entry.getKey(), entry.getValue());
+            } catch (Exception e) {
+                Logger.warn(e.getMessage(), e);
+            }
+        }
+        queueSizeTracker.retain(normalizedQueueNames);
+    }
+
+    /*----------------------------------------------------------------------*/
+    // Latency stats
+
+    private LatencyTracker latencyTracker = new LatencyTracker();
+
+    /**
+     * Length (in milliseconds) of the window latency stats are computed over.
+     * 
+     * @return
+     * @since 0.4.0
+     */
+    public long getLatencyStatsWindowMs() {
+        return latencyTracker.getWindowMs();
+    }
+
+    /**
+     * Sets length (in milliseconds) of the window latency stats are computed
+     * over. Must be set before {@link #init()}.
+     * 
+     * @param latencyStatsWindowMs
+     * @return
+     * @since 0.4.0
+     */
+    public QueueApi setLatencyStatsWindowMs(long latencyStatsWindowMs) {
+        latencyTracker.setWindowMs(latencyStatsWindowMs);
+        return this;
+    }
+
+    /**
+     * Per-queue, per-operation latency stats of the last completed window.
+     * 
+     * @return
+     * @since 0.4.0
+     */
+    public List<LatencySnapshot> getLatencyStats() {
+        return latencyTracker.getSnapshots();
+    }
+
+    private void recordLatency(String operation, String queueName, long startNanos) {
+        latencyTracker.record(operation, normalizeQueueName(queueName), startNanos);
+    }
+
     /**
      * Invalidate a queue object.
      * 
@@ -292,11 +960,52 @@ public abstract class QueueApi {
     public boolean queue(String queueName, IQueueMessage msg) {
         IQueue queue = getQueue(queueName);
         if (queue != null) {
-            return queue.queue(msg);
+            long startTime = System.nanoTime();
+            boolean result;
+            try {
+                result = queue.queue(msg);
+            } finally {
+                recordLatency(LatencyTracker.OP_QUEUE, queueName, startTime);
+            }
+            if (result) {
+                adjustQueueSize(queueName, 1, 0);
+                notifyMessagesQueued(normalizeQueueName(queueName));
+            }
+            return result;
         }
         return false;
     }
 
+    /**
+     * Puts a batch of messages to a queue specified by {@code queueName}.
+     * 
+     * @param queueName
+     * @param msgs
+     * @return outcome of each message (in the same order as {@code msgs}), or
+     *         {@code null} if the queue does not exist
+     * @since 0.4.0
+     */
+    public boolean[] queueBatch(String queueName, List<QueueMessage> msgs) {
+        IQsQueue queue = getQueue(queueName);
+        if (queue != null) {
+            long startTime = System.nanoTime();
+            boolean[] result;
+            try {
+                result = queue.queueBatch(msgs);
+            } finally {
+                recordLatency(LatencyTracker.OP_QUEUE_BATCH, queueName, startTime);
+            }
+            int numQueued = 0;
+            for (boolean queued : result) {
+                numQueued += queued ? 1 : 0;
+            }
+            adjustQueueSize(queueName, numQueued, 0);
+            notifyMessagesQueued(normalizeQueueName(queueName));
+            return result;
+        }
+        return null;
+    }
+
     /**
      * Re-queue a message.
      * 
@@ -307,7 +1016,18 @@ public abstract class QueueApi {
     public boolean requeue(String queueName, IQueueMessage msg) {
         IQueue queue = getQueue(queueName);
         if (queue != null) {
-            return queue.requeue(msg);
+            long startTime = System.nanoTime();
+            boolean result;
+            try {
+                result = queue.requeue(msg);
+            } finally {
+                recordLatency(LatencyTracker.OP_REQUEUE, queueName, startTime);
+            }
+            if (result) {
+                adjustQueueSize(queueName, 1, -1);
+                notifyMessagesQueued(normalizeQueueName(queueName));
+            }
+            return result;
         }
         return false;
     }
@@ -322,7 +1042,18 @@ public abstract class QueueApi {
     public boolean requeueSilent(String queueName, IQueueMessage msg) {
         IQueue queue = getQueue(queueName);
         if (queue != null) {
-            return queue.requeueSilent(msg);
+            long startTime = System.nanoTime();
+            boolean result;
+            try {
+                result = queue.requeueSilent(msg);
+            } finally {
+                recordLatency(LatencyTracker.OP_REQUEUE_SILENT, queueName, startTime);
+            }
+            if (result) {
+                adjustQueueSize(queueName, 1, -1);
+                notifyMessagesQueued(normalizeQueueName(queueName));
+            }
+            return result;
         }
         return false;
     }
@@ -337,12 +1068,44 @@ public abstract class QueueApi {
     public boolean finish(String queueName, IQueueMessage msg) {
         IQueue queue = getQueue(queueName);
         if (queue != null) {
-            queue.finish(msg);
+            long startTime = System.nanoTime();
+            try {
+                queue.finish(msg);
+            } finally {
+                recordLatency(LatencyTracker.OP_FINISH, queueName, startTime);
+            }
+            adjustQueueSize(queueName, 0, -1);
             return true;
         }
         return false;
     }
 
+    /**
+     * Called when finish processing a batch of messages to cleanup ephemeral
+     * storage. Messages are identified by their queue ids.
+     * 
+     * @param queueName
+     * @param queueIds
+     * @return number of messages removed from ephemeral storage, or
+     *         {@code -1} if the queue does not exist
+     * @since 0.4.0
+     */
+    public int finishBatch(String queueName, Collection<Long> queueIds) {
+        IQsQueue queue = getQueue(queueName);
+        if (queue != null) {
+            long startTime = System.nanoTime();
+            int result;
+            try {
+                result = queue.finishBatch(queueIds);
+            } finally {
+                recordLatency(LatencyTracker.OP_FINISH_BATCH, queueName, startTime);
+            }
+            adjustQueueSize(queueName, 0, -result);
+            return result;
+        }
+        return -1;
+    }
+
     /**
      * Takes a message from queue specified by {@code queueName}.
      * 
@@ -352,8 +1115,179 @@ public abstract class QueueApi {
     public QueueMessage take(String queueName) {
         IQsQueue queue = getQueue(queueName);
         if (queue != null) {
-            QueueMessage result = queue.take();
+            long startTime = System.nanoTime();
+            QueueMessage result;
+            try {
+                result = queue.take();
+            } finally {
+                recordLatency(LatencyTracker.OP_TAKE, queueName, startTime);
+            }
             if (result != null) {
+                adjustQueueSize(queueName, -1, 1);
+                check.add(queueName);
+                if (Logger.isDebugEnabled()) {
+                    Logger.debug("Schedule to check orphan messages for queue [" + queueName + "]");
+                }
+            }
+            return result;
+        }
+        return null;
+    }
+
+    /**
+     * Long-polling take: takes a message from queue specified by
+     * {@code queueName}, waiting up to {@code waitMillis} milliseconds (capped
+     * at {@link #getMaxTakeWaitMs()}) for a message to arrive if the queue is
+     * empty.
+     * 
+     * <p>
+     * This method does not block: if the queue is empty the request is parked
+     * and {@code callback} is invoked later, from another thread, when a
+     * message has been taken or the wait time has elapsed.
+     * </p>
+     * 
+     * @param queueName
+     * @param waitMillis
+     * @param callback
+     * @since 0.4.0
+     */
+    public void take(String queueName, long waitMillis, ITakeCallback callback) {
+        parkTake(queueName, waitMillis, callback);
+    }
+
+    /**
+     * See {@link #take(String, long, ITakeCallback)}.
+     * 
+     * @return the parked waiter, {@code null} if {@code callback} has already
+     *         been invoked
+     */
+    private TakeWaiter parkTake(String queueName, long waitMillis, ITakeCallback callback) {
+        QueueMessage msg = take(queueName);
+        if (msg != null || waitMillis <= 0 || takeWaitScheduler == null
+                || !queueExists(queueName)) {
+            callback.onTake(msg);
+            return null;
+        }
+
+        final String normalizedQueueName = normalizeQueueName(queueName);
+        final long waitMs = Math.min(waitMillis, maxTakeWaitMs);
+        final TakeWaiter waiter = new TakeWaiter(callback, System.currentTimeMillis() + waitMs);
+        takeWaiters(normalizedQueueName).add(waiter);
+        waiter.setTimeoutFuture(takeWaitScheduler.schedule(new Runnable() {
+            @Override
+            public void run() {
+                if (waiter.claim()) {
+                    takeWaiters(normalizedQueueName).remove(waiter);
+                    waiter.complete(null);
+                }
+            }
+        }, waitMs, TimeUnit.MILLISECONDS));
+
+        // a message may have arrived between the first take and now
+        wakeTakeWaiters(normalizedQueueName);
+        return waiter;
+    }
+
+    /**
+     * Blocking version of {@link #take(String, long, ITakeCallback)}: the
+     * calling thread waits until a message has been taken or the wait time has
+     * elapsed.
+     * 
+     * <p>
+     * If the caller stops waiting first (interrupted, or the result is late),
+     * the waiter is withdrawn; a message handed to it afterwards is requeued.
+     * </p>
+     * 
+     * @param queueName
+     * @param waitMillis
+     * @return
+     * @throws InterruptedException
+     * @since 0.4.0
+     */
+    public QueueMessage take(final String queueName, long waitMillis)
+            throws InterruptedException {
+        final AtomicReference<QueueMessage> result = new AtomicReference<QueueMessage>();
+        // 0: waiting, 1: delivered, 2: caller gave up
+        final AtomicInteger state = new AtomicInteger(0);
+        final CountDownLatch latch = new CountDownLatch(1);
+        TakeWaiter waiter = parkTake(queueName, waitMillis, new ITakeCallback() {
+            @Override
+            public void onTake(QueueMessage msg) {
+                result.set(msg);
+                if (state.compareAndSet(0, 1)) {
+                    latch.countDown();
+                } else if (msg != null) {
+                    // nobody is waiting for it anymore
+                    requeueSilent(queueName, msg);
+                }
+            }
+        });
+        boolean delivered;
+        try {
+            delivered = latch.await(Math.min(waitMillis, maxTakeWaitMs) + 1000,
+                    TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            if (withdrawTake(queueName, waiter, state)) {
+                throw e;
+            }
+            // delivered meanwhile: return the message, keep the interrupt
+            Thread.currentThread().interrupt();
+            return result.get();
+        }
+        if (!delivered && withdrawTake(queueName, waiter, state)) {
+            return null;
+        }
+        return result.get();
+    }
+
+    /**
+     * Marks a blocking take as given up and withdraws its waiter.
+     * 
+     * @return {@code false} if a message has already been delivered
+     */
+    private boolean withdrawTake(String queueName, TakeWaiter waiter, AtomicInteger state) {
+        if (!state.compareAndSet(0, 2)) {
+            return false;
+        }
+        if (waiter != null && waiter.claim()) {
+            takeWaiters(normalizeQueueName(queueName)).remove(waiter);
+            waiter.complete(null);
+        }
+        return true;
+    }
+
+    /**
+     * Max number of messages taken in one {@link #takeBatch(String, int)} call.
+     * 
+     * @since 0.4.0
+     */
+    public final static int MAX_TAKE_BATCH_SIZE = 1000;
+
+    /**
+     * Takes up to {@code maxMessages} messages from queue specified by
+     * {@code queueName}.
+     * 
+     * <p>
+     * {@code maxMessages} is capped at {@link #MAX_TAKE_BATCH_SIZE}.
+     * </p>
+     * 
+     * @param queueName
+     * @param maxMessages
+     * @return taken messages, or {@code null} if the queue does not exist
+     * @since 0.4.0
+     */
+    public List<QueueMessage> takeBatch(String queueName, int maxMessages) {
+        IQsQueue queue = getQueue(queueName);
+        if (queue != null) {
+            long startTime = System.nanoTime();
+            List<QueueMessage> result;
+            try {
+                result = queue.takeBatch(Math.min(maxMessages, MAX_TAKE_BATCH_SIZE));
+            } finally {
+                recordLatency(LatencyTracker.OP_TAKE_BATCH, queueName, startTime);
+            }
+            if (result != null && result.size() > 0) {
+                adjustQueueSize(queueName, -result.size(), result.size());
                 check.add(queueName);
                 if (Logger.isDebugEnabled()) {
                     Logger.debug("Schedule to check orphan messages for queue [" + queueName + "]");
@@ -374,7 +1308,12 @@ public abstract class QueueApi {
     public int queueSize(String queueName) {
         IQueue queue = getQueue(queueName);
         if (queue != null) {
-            return queue.queueSize();
+            long startTime = System.nanoTime();
+            try {
+                return queue.queueSize();
+            } finally {
+                recordLatency(LatencyTracker.OP_QUEUE_SIZE, queueName, startTime);
+            }
         }
         return -1;
     }
@@ -389,7 +1328,12 @@ public abstract class QueueApi {
     public int ephemeralSize(String queueName) {
         IQueue queue = getQueue(queueName);
         if (queue != null) {
-            return queue.ephemeralSize();
+            long startTime = System.nanoTime();
+            try {
+                return queue.ephemeralSize();
+            } finally {
+                recordLatency(LatencyTracker.OP_EPHEMERAL_SIZE, queueName, startTime);
+            }
         }
         return -1;
     }
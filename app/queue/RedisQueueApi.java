@@ -1,15 +1,28 @@
 package queue;
 
 import java.nio.charset.Charset;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
 
+import org.apache.commons.lang3.StringUtils;
+
+import play.Logger;
 import queue.impl.QsRedisQueue;
+import queue.internal.NotificationCoalescer;
 import redis.clients.jedis.Jedis;
 import redis.clients.jedis.JedisPool;
 import redis.clients.jedis.JedisPoolConfig;
+import redis.clients.jedis.JedisPubSub;
+import redis.clients.jedis.Pipeline;
 
 import com.github.ddth.commons.utils.SerializationUtils;
 
@@ -30,6 +43,19 @@ public class RedisQueueApi extends QueueApi {
     private boolean myOwnJedisPool = true;
     private String redisHostAndPort = "localhost:6379";
 
+    private boolean redisKeyHashTags = false;
+
+    private String takeNotificationChannel = "queue_notify";
+    private List<JedisPubSub> takeNotificationSubscribers = new CopyOnWriteArrayList<JedisPubSub>();
+    private volatile boolean takeNotificationRunning = false;
+    private NotificationCoalescer takeNotificationPublisher = new NotificationCoalescer(
+            "Redis queue notification publisher") {
+        @Override
+        protected void publish(List<String> normalizedQueueNames) {
+            publishTakeNotifications(normalizedQueueNames);
+        }
+    };
+
     public String getMetadataRedisHashName() {
         return _metadataRedisHashName;
     }
@@ -60,10 +86,120 @@ public class RedisQueueApi extends QueueApi {
         return this;
     }
 
+    /**
+     * If {@code true}, the queue name part of a queue's Redis keys is wrapped
+     * in a hash tag (e.g. <code>queue_&#123;name&#125;_h</code>), so that all
+     * keys of a queue map to the same Redis Cluster slot. Default
+     * {@code false} (keys {@code queue_name_h}, {@code queue_name_l},
+     * {@code queue_name_s}).
+     * 
+     * @return
+     * @since 0.4.0
+     */
+    public boolean isRedisKeyHashTags() {
+        return redisKeyHashTags;
+    }
+
+    /**
+     * Enables/Disables hash tags in queues' Redis keys. Changing this setting
+     * on existing data makes existing queues invisible.
+     * 
+     * @param redisKeyHashTags
+     * @return
+     * @since 0.4.0
+     */
+    public RedisQueueApi setRedisKeyHashTags(boolean redisKeyHashTags) {
+        this.redisKeyHashTags = redisKeyHashTags;
+        return this;
+    }
+
+    /**
+     * Builds name of a queue's Redis key.
+     * 
+     * @param normalizedQueueName
+     * @param suffix
+     * @return
+     * @since 0.4.0
+     */
+    protected String redisKey(String normalizedQueueName, String suffix) {
+        return redisKeyHashTags ? "queue_{" + normalizedQueueName + "}" + suffix : "queue_"
+                + normalizedQueueName + suffix;
+    }
+
+    /**
+     * Redis pub/sub channel used to notify all queue-server instances that
+     * messages have been put to a queue (message is the queue's name). Empty
+     * value disables notifications (parked takers then rely on periodic
+     * polling).
+     * 
+     * @return
+     * @since 0.4.0
+     */
+    public String getTakeNotificationChannel() {
+        return takeNotificationChannel;
+    }
+
+    /**
+     * Sets Redis pub/sub channel used to notify all queue-server instances
+     * that messages have been put to a queue.
+     * 
+     * @param takeNotificationChannel
+     * @return
+     * @since 0.4.0
+     */
+    public RedisQueueApi setTakeNotificationChannel(String takeNotificationChannel) {
+        this.takeNotificationChannel = takeNotificationChannel;
+        return this;
+    }
+
     protected JedisPool getJedisPool() {
         return jedisPool;
     }
 
+    /**
+     * Gets the pool of the Redis server that stores a queue.
+     * 
+     * @param normalizedQueueName
+     * @return
+     * @since 0.4.0
+     */
+    protected JedisPool getJedisPool(String normalizedQueueName) {
+        return jedisPool;
+    }
+
+    /**
+     * Gets pools of all Redis servers that store queues.
+     * 
+     * @return
+     * @since 0.4.0
+     */
+    protected Collection<JedisPool> getAllJedisPools() {
+        return Collections.singletonList(jedisPool);
+    }
+
+    /**
+     * Creates a pool to a Redis server.
+     * 
+     * @param hostAndPort
+     *            format {@code host:port}
+     * @return
+     * @since 0.4.0
+     */
+    protected static JedisPool createJedisPool(String hostAndPort) {
+        JedisPoolConfig poolConfig = new JedisPoolConfig();
+        poolConfig.setMaxTotal(32);
+        poolConfig.setMinIdle(1);
+        poolConfig.setMaxIdle(16);
+        poolConfig.setMaxWaitMillis(10000);
+        // poolConfig.setTestOnBorrow(true);
+        poolConfig.setTestWhileIdle(true);
+
+        String[] tokens = hostAndPort.trim().split(":");
+        String redisHost = tokens.length > 0 ? tokens[0] : "localhost";
+        int redisPort = tokens.length > 1 ? Integer.parseInt(tokens[1]) : 6379;
+        return new JedisPool(poolConfig, redisHost, redisPort);
+    }
+
     public RedisQueueApi setJedisPool(JedisPool jedisPool) {
         this.jedisPool = jedisPool;
         myOwnJedisPool = false;
@@ -72,31 +208,122 @@ public class RedisQueueApi extends QueueApi {
 
     public RedisQueueApi init() {
         if (jedisPool == null) {
-            JedisPoolConfig poolConfig = new JedisPoolConfig();
-            poolConfig.setMaxTotal(32);
-            poolConfig.setMinIdle(1);
-            poolConfig.setMaxIdle(16);
-            poolConfig.setMaxWaitMillis(10000);
-            // poolConfig.setTestOnBorrow(true);
-            poolConfig.setTestWhileIdle(true);
-
-            String[] tokens = redisHostAndPort.split(":");
-            String redisHost = tokens.length > 0 ? tokens[0] : "localhost";
-            int redisPort = tokens.length > 1 ? Integer.parseInt(tokens[1]) : 6379;
-            jedisPool = new JedisPool(poolConfig, redisHost, redisPort);
+            jedisPool = createJedisPool(redisHostAndPort);
             myOwnJedisPool = true;
         }
 
+        if (!StringUtils.isBlank(takeNotificationChannel)) {
+            takeNotificationPublisher.init();
+        }
+
         super.init();
 
+        startTakeNotificationListener();
+
         return this;
     }
 
+    /**
+     * Subscribes to the take-notification channel of each Redis server (one
+     * dedicated connection and thread per server) to wake up parked takers
+     * when messages are put to a queue by any queue-server instance.
+     */
+    private void startTakeNotificationListener() {
+        if (StringUtils.isBlank(takeNotificationChannel)) {
+            return;
+        }
+        takeNotificationRunning = true;
+        for (final JedisPool pool : getAllJedisPools()) {
+            Thread t = new Thread("Redis queue notification listener") {
+                public void run() {
+                    while (takeNotificationRunning) {
+                        JedisPubSub subscriber = new JedisPubSub() {
+                            @Override
+                            public void onMessage(String channel, String message) {
+                                wakeTakeWaiters(message);
+                            }
+                        };
+                        takeNotificationSubscribers.add(subscriber);
+                        try (Jedis jedis = pool.getResource()) {
+                            jedis.subscribe(subscriber, takeNotificationChannel);
+                        } catch (Exception e) {
+                            if (takeNotificationRunning) {
+                                Logger.warn(e.getMessage(), e);
+                                try {
+                                    Thread.sleep(1000);
+                                } catch (InterruptedException ie) {
+                                }
+                            }
+                        } finally {
+                            takeNotificationSubscribers.remove(subscriber);
+                        }
+                    }
+                }
+            };
+            t.setDaemon(true);
+            t.start();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * 
+     * <p>
+     * Also publishes the queue's name to the take-notification channel. The
+     * publish is done in background and coalesced per queue, it never adds a
+     * Redis round-trip to the caller.
+     * </p>
+     */
+    @Override
+    protected void notifyMessagesQueued(String normalizedQueueName) {
+        super.notifyMessagesQueued(normalizedQueueName);
+        takeNotificationPublisher.add(normalizedQueueName);
+    }
+
+    /**
+     * Publishes queue names to the take-notification channel, one pipeline
+     * per Redis server.
+     * 
+     * @param normalizedQueueNames
+     */
+    private void publishTakeNotifications(List<String> normalizedQueueNames) {
+        Map<JedisPool, List<String>> queueNamesByPool = new IdentityHashMap<JedisPool, List<String>>();
+        for (String normalizedQueueName : normalizedQueueNames) {
+            JedisPool pool = getJedisPool(normalizedQueueName);
+            List<String> queueNames = queueNamesByPool.get(pool);
+            if (queueNames == null) {
+                queueNames = new ArrayList<String>();
+                queueNamesByPool.put(pool, queueNames);
+            }
+            queueNames.add(normalizedQueueName);
+        }
+        for (Map.Entry<JedisPool, List<String>> entry : queueNamesByPool.entrySet()) {
+            try (Jedis jedis = entry.getKey().getResource()) {
+                Pipeline pipeline = jedis.pipelined();
+                for (String normalizedQueueName : entry.getValue()) {
+                    pipeline.publish(takeNotificationChannel, normalizedQueueName);
+                }
+                pipeline.sync();
+            } catch (Exception e) {
+                Logger.warn(e.getMessage(), e);
+            }
+        }
+    }
+
     /**
      * {@inheritDoc}
      */
     @Override
     public void destroy() {
+        takeNotificationRunning = false;
+        takeNotificationPublisher.destroy();
+        for (JedisPubSub subscriber : takeNotificationSubscribers) {
+            try {
+                subscriber.unsubscribe();
+            } catch (Exception e) {
+            }
+        }
+
         if (jedisPool != null && myOwnJedisPool) {
             try {
                 jedisPool.destroy();
@@ -117,7 +344,7 @@ public class RedisQueueApi extends QueueApi {
         }
 
         String normalizedQueueName = normalizeQueueName(queueName);
-        try (Jedis jedis = jedisPool.getResource()) {
+        try (Jedis jedis = getJedisPool(normalizedQueueName).getResource()) {
             Map<String, Object> queueMetadata = new HashMap<String, Object>();
             queueMetadata.put("queue_name", normalizedQueueName);
             queueMetadata.put("queue_timestamp_create", new Date());
@@ -133,9 +360,13 @@ public class RedisQueueApi extends QueueApi {
      */
     @Override
     protected Collection<String> getAllQueueNames() {
-        try (Jedis jedis = jedisPool.getResource()) {
-            return jedis.hkeys(_metadataRedisHashName);
+        Set<String> result = new HashSet<String>();
+        for (JedisPool pool : getAllJedisPools()) {
+            try (Jedis jedis = pool.getResource()) {
+                result.addAll(jedis.hkeys(_metadataRedisHashName));
+            }
         }
+        return result;
     }
 
     /**
@@ -152,10 +383,10 @@ public class RedisQueueApi extends QueueApi {
     @Override
     protected IQsQueue createNewQueueInstance(String normalizedQueueName) {
         QsRedisQueue redisQueue = new QsRedisQueue();
-        redisQueue.setRedisHashName("queue_" + normalizedQueueName + "_h")
-                .setRedisListName("queue_" + normalizedQueueName + "_l")
-                .setRedisSortedSetName("queue_" + normalizedQueueName + "_s")
-                .setJedisPool(jedisPool);
+        redisQueue.setRedisHashName(redisKey(normalizedQueueName, "_h"))
+                .setRedisListName(redisKey(normalizedQueueName, "_l"))
+                .setRedisSortedSetName(redisKey(normalizedQueueName, "_s"))
+                .setJedisPool(getJedisPool(normalizedQueueName));
         redisQueue.init();
         return redisQueue;
     }
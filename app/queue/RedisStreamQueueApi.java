@@ -0,0 +1,94 @@
+package queue;
+
+import java.lang.management.ManagementFactory;
+
+import play.Logger;
+import queue.impl.QsRedisStreamQueue;
+
+/**
+ * Redis Streams-implementation of {@link QueueApi} (Redis v7.0+): each queue
+ * is a stream (key {@code queue_name_x}), consumed by one consumer group
+ * shared by all queue-server instances.
+ * 
+ * <p>
+ * Queues are swept in background with both orphan message policies; with
+ * {@link #ORPHAN_MESSAGE_POLICY_REQUEUE}, {@code take} also reclaims orphan
+ * messages ({@code XCLAIM}). Each sweep removes idle consumers that have no
+ * pending entries (e.g. left behind by restarted queue-server instances).
+ * </p>
+ * 
+ * @author Thanh Nguyen <btnguyen2k@gmail.com>
+ * @since 0.4.0
+ */
+public class RedisStreamQueueApi extends RedisQueueApi {
+
+    private String consumerGroupName = "queue-server";
+    private String consumerName = ManagementFactory.getRuntimeMXBean().getName();
+
+    /**
+     * Name of the consumer group, shared by all queue-server instances.
+     * Default {@code queue-server}.
+     * 
+     * @return
+     */
+    public String getConsumerGroupName() {
+        return consumerGroupName;
+    }
+
+    public RedisStreamQueueApi setConsumerGroupName(String consumerGroupName) {
+        this.consumerGroupName = consumerGroupName;
+        return this;
+    }
+
+    /**
+     * Name of this queue-server instance within the consumer group. Default
+     * {@code pid@hostname}.
+     * 
+     * @return
+     */
+    public String getConsumerName() {
+        return consumerName;
+    }
+
+    public RedisStreamQueueApi setConsumerName(String consumerName) {
+        this.consumerName = consumerName;
+        return this;
+    }
+
+    /**
+     * {@inheritDoc}
+     * 
+     * <p>
+     * Also removes consumers idle for longer than
+     * {@link #getOrphanMessageThresholdMs()} that have no pending entries.
+     * </p>
+     */
+    @Override
+    protected int sweepOrphanMessages(IQsQueue queue, String normalizedQueueName) {
+        int result = super.sweepOrphanMessages(queue, normalizedQueueName);
+        if (queue instanceof QsRedisStreamQueue) {
+            try {
+                ((QsRedisStreamQueue) queue).deleteIdleConsumers(getOrphanMessageThresholdMs());
+            } catch (Exception e) {
+                Logger.warn(e.getMessage(), e);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected IQsQueue createNewQueueInstance(String normalizedQueueName) {
+        QsRedisStreamQueue streamQueue = new QsRedisStreamQueue();
+        boolean reclaimOnTake = getOrphanMessagePolicy() == ORPHAN_MESSAGE_POLICY_REQUEUE;
+        streamQueue.setStreamName(redisKey(normalizedQueueName, "_x"))
+                .setConsumerGroupName(consumerGroupName).setConsumerName(consumerName)
+                .setOrphanMinIdleMs(reclaimOnTake ? getOrphanMessageThresholdMs() : 0)
+                .setJedisPool(getJedisPool(normalizedQueueName));
+        streamQueue.init();
+        return streamQueue;
+    }
+
+}
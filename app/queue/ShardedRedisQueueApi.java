@@ -0,0 +1,259 @@
+package queue;
+
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.lang3.StringUtils;
+
+import play.Logger;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisPool;
+
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+
+/**
+ * Sharded Redis-implementation of {@link QueueApi}: queues are distributed
+ * across several Redis servers by consistent hashing of the normalized queue
+ * name. All keys of a queue (data, metadata, take notifications) live on the
+ * queue's shard.
+ * 
+ * <p>
+ * Each shard has its own connection pool and is health-checked ({@code PING}
+ * ) periodically; shards' health is available via {@link #getShardHealth()}.
+ * A queue is never moved to another shard: operations on a queue whose shard
+ * is down fail until the shard is back.
+ * </p>
+ * 
+ * @author Thanh Nguyen <btnguyen2k@gmail.com>
+ * @since 0.4.0
+ */
+public class ShardedRedisQueueApi extends RedisQueueApi {
+
+    private final static Charset UTF8 = Charset.forName("UTF-8");
+    private final static HashFunction HASH_FUNCTION = Hashing.murmur3_128();
+
+    private static class Shard {
+        final String hostAndPort;
+        final JedisPool jedisPool;
+        volatile boolean healthy = true;
+
+        Shard(String hostAndPort, JedisPool jedisPool) {
+            this.hostAndPort = hostAndPort;
+            this.jedisPool = jedisPool;
+        }
+    }
+
+    private String redisShards = "localhost:6379";
+    private int virtualNodesPerShard = 160;
+    private long shardHealthCheckIntervalMs = 5000;
+
+    private List<Shard> shards = new ArrayList<Shard>();
+    private NavigableMap<Long, Shard> ring = new TreeMap<Long, Shard>();
+    private ScheduledExecutorService shardHealthChecker;
+
+    /**
+     * Redis servers to shard queues across (comma-separated
+     * {@code host:port}).
+     * 
+     * @return
+     */
+    public String getRedisShards() {
+        return redisShards;
+    }
+
+    /**
+     * Sets Redis servers to shard queues across (comma-separated
+     * {@code host:port}). Shards are identified by their {@code host:port}.
+     * Queue data is never moved between shards: adding, removing or renaming
+     * a shard remaps about {@code 1/n} of the queues to other shards, and their
+     * messages (still stored on the old shard) become invisible. Migrate the
+     * data of the remapped queues before changing the shard list.
+     * 
+     * @param redisShards
+     * @return
+     */
+    public ShardedRedisQueueApi setRedisShards(String redisShards) {
+        this.redisShards = redisShards;
+        return this;
+    }
+
+    /**
+     * Number of points each shard gets on the hash ring.
+     * 
+     * @return
+     */
+    public int getVirtualNodesPerShard() {
+        return virtualNodesPerShard;
+    }
+
+    public ShardedRedisQueueApi setVirtualNodesPerShard(int virtualNodesPerShard) {
+        this.virtualNodesPerShard = virtualNodesPerShard;
+        return this;
+    }
+
+    /**
+     * How often (in milliseconds) shards are health-checked.
+     * 
+     * @return
+     */
+    public long getShardHealthCheckIntervalMs() {
+        return shardHealthCheckIntervalMs;
+    }
+
+    public ShardedRedisQueueApi setShardHealthCheckIntervalMs(long shardHealthCheckIntervalMs) {
+        this.shardHealthCheckIntervalMs = shardHealthCheckIntervalMs;
+        return this;
+    }
+
+    /**
+     * Health of all shards ({@code host:port} -> up?), as of the last check.
+     * 
+     * @return
+     */
+    public Map<String, Boolean> getShardHealth() {
+        Map<String, Boolean> result = new LinkedHashMap<String, Boolean>();
+        for (Shard shard : shards) {
+            result.put(shard.hostAndPort, shard.healthy);
+        }
+        return result;
+    }
+
+    private static long hash(String key) {
+        return HASH_FUNCTION.hashString(key, UTF8).asLong();
+    }
+
+    private Shard shardFor(String normalizedQueueName) {
+        Map.Entry<Long, Shard> entry = ring.ceilingEntry(hash(normalizedQueueName));
+        return entry != null ? entry.getValue() : ring.firstEntry().getValue();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected JedisPool getJedisPool(String normalizedQueueName) {
+        return shardFor(normalizedQueueName).jedisPool;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected Collection<JedisPool> getAllJedisPools() {
+        List<JedisPool> result = new ArrayList<JedisPool>(shards.size());
+        for (Shard shard : shards) {
+            result.add(shard.jedisPool);
+        }
+        return result;
+    }
+
+    /**
+     * {@inheritDoc}
+     * 
+     * <p>
+     * Queues on unhealthy shards are skipped.
+     * </p>
+     */
+    @Override
+    protected Collection<String> getAllQueueNames() {
+        List<String> result = new ArrayList<String>();
+        for (Shard shard : shards) {
+            if (!shard.healthy) {
+                continue;
+            }
+            try (Jedis jedis = shard.jedisPool.getResource()) {
+                result.addAll(jedis.hkeys(getMetadataRedisHashName()));
+            } catch (Exception e) {
+                Logger.warn("Cannot list queues of Redis shard [" + shard.hostAndPort + "]: "
+                        + e.getMessage());
+            }
+        }
+        return result;
+    }
+
+    private void checkShardHealth() {
+        for (Shard shard : shards) {
+            boolean healthy;
+            try (Jedis jedis = shard.jedisPool.getResource()) {
+                healthy = "PONG".equalsIgnoreCase(jedis.ping());
+            } catch (Exception e) {
+                healthy = false;
+            }
+            if (healthy != shard.healthy) {
+                if (healthy) {
+                    Logger.info("Redis shard [" + shard.hostAndPort + "] is up.");
+                } else {
+                    Logger.warn("Redis shard [" + shard.hostAndPort + "] is down!");
+                }
+                shard.healthy = healthy;
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public ShardedRedisQueueApi init() {
+        for (String hostAndPort : StringUtils.split(redisShards, ",")) {
+            hostAndPort = hostAndPort.trim();
+            if (!StringUtils.isBlank(hostAndPort)) {
+                shards.add(new Shard(hostAndPort, createJedisPool(hostAndPort)));
+            }
+        }
+        if (shards.size() == 0) {
+            throw new IllegalStateException("No Redis shard is configured!");
+        }
+        for (Shard shard : shards) {
+            for (int i = 0; i < virtualNodesPerShard; i++) {
+                ring.put(hash(shard.hostAndPort + "#" + i), shard);
+            }
+        }
+        // the default pool is not used to store queues
+        setJedisPool(shards.get(0).jedisPool);
+
+        checkShardHealth();
+        shardHealthChecker = Executors.newSingleThreadScheduledExecutor();
+        shardHealthChecker.scheduleWithFixedDelay(new Runnable() {
+            @Override
+            public void run() {
+                checkShardHealth();
+            }
+        }, shardHealthCheckIntervalMs, shardHealthCheckIntervalMs, TimeUnit.MILLISECONDS);
+
+        super.init();
+        return this;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void destroy() {
+        if (shardHealthChecker != null) {
+            shardHealthChecker.shutdownNow();
+            shardHealthChecker = null;
+        }
+
+        super.destroy();
+
+        for (Shard shard : shards) {
+            try {
+                shard.jedisPool.destroy();
+            } catch (Exception e) {
+            }
+        }
+        shards.clear();
+        ring.clear();
+    }
+}
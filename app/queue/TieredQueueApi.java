@@ -0,0 +1,341 @@
+package queue;
+
+import java.io.File;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import play.Logger;
+import queue.impl.QsLogQueue;
+import queue.impl.QsTieredQueue;
+
+/**
+ * Write-behind, two-tier implementation of {@link QueueApi}: each queue has a
+ * local memory tier (memory-mapped files journaled under
+ * {@link #getJournalDir()}) in front of a storage tier provided by
+ * {@link #getStorageQueueApi()} (e.g. a {@link MySQLQueueApi}).
+ * 
+ * <ul>
+ * <li>{@code queue} is acknowledged once the message is journaled locally;
+ * a background drainer moves messages to the storage tier in batches of
+ * {@link #getDrainBatchSize()} (one transaction each), keeping
+ * {@link #getDrainThreshold()} messages in the memory tier.</li>
+ * <li>Once the memory tier holds {@link #getMemoryTierMaxSize()} messages,
+ * {@code queue} writes to the storage tier directly.</li>
+ * <li>{@code take} is served from the storage tier first while it holds
+ * drained (older) messages, else from the memory tier; the storage tier is
+ * polled at least every {@link #getStorageTierPollIntervalMs()}.</li>
+ * </ul>
+ * 
+ * <p>
+ * Messages in a memory tier are only visible to the queue-server instance
+ * that owns the journal. See {@link QsTieredQueue}.
+ * </p>
+ * 
+ * @author Thanh Nguyen <btnguyen2k@gmail.com>
+ * @since 0.4.0
+ */
+public class TieredQueueApi extends QueueApi {
+
+    private QueueApi storageQueueApi;
+    private String journalDir = "./data/journal";
+    private int journalSegmentSize = 64 * 1024 * 1024;
+    private boolean journalFsync = true;
+    private int memoryTierMaxSize = 100000;
+    private int drainThreshold = 0;
+    private int drainBatchSize = 1000;
+    private long drainIntervalMs = 100;
+    private long storageTierPollIntervalMs = 1000;
+
+    private ConcurrentMap<String, QsTieredQueue> openedQueues = new ConcurrentHashMap<String, QsTieredQueue>();
+    private ScheduledExecutorService drainer;
+    private AtomicLong drainedMessages = new AtomicLong();
+
+    /**
+     * Backend of the storage tier; must be initialized separately.
+     * 
+     * @return
+     */
+    public QueueApi getStorageQueueApi() {
+        return storageQueueApi;
+    }
+
+    public TieredQueueApi setStorageQueueApi(QueueApi storageQueueApi) {
+        this.storageQueueApi = storageQueueApi;
+        return this;
+    }
+
+    /**
+     * Root directory of memory tiers' journal files (one sub-directory per
+     * queue). Default {@code ./data/journal}.
+     * 
+     * @return
+     */
+    public String getJournalDir() {
+        return journalDir;
+    }
+
+    public TieredQueueApi setJournalDir(String journalDir) {
+        this.journalDir = journalDir;
+        return this;
+    }
+
+    /**
+     * Size of a journal segment file, in bytes. Default 64MB.
+     * 
+     * @return
+     */
+    public int getJournalSegmentSize() {
+        return journalSegmentSize;
+    }
+
+    public TieredQueueApi setJournalSegmentSize(int journalSegmentSize) {
+        this.journalSegmentSize = journalSegmentSize;
+        return this;
+    }
+
+    /**
+     * If {@code true} (default), {@code queue} returns after the message has
+     * been forced to disk (group commit).
+     * 
+     * @return
+     */
+    public boolean isJournalFsync() {
+        return journalFsync;
+    }
+
+    public TieredQueueApi setJournalFsync(boolean journalFsync) {
+        this.journalFsync = journalFsync;
+        return this;
+    }
+
+    /**
+     * Spill threshold: once a queue's memory tier holds this many messages,
+     * {@code queue} writes to the storage tier directly. Default
+     * {@code 100000}.
+     * 
+     * @return
+     */
+    public int getMemoryTierMaxSize() {
+        return memoryTierMaxSize;
+    }
+
+    public TieredQueueApi setMemoryTierMaxSize(int memoryTierMaxSize) {
+        this.memoryTierMaxSize = memoryTierMaxSize;
+        return this;
+    }
+
+    /**
+     * When a queue's storage tier is not known to hold messages (e.g. put by
+     * other queue-server instances), {@code take} still reads it first at
+     * least this often (ms). Default {@code 1000}.
+     * 
+     * @return
+     */
+    public long getStorageTierPollIntervalMs() {
+        return storageTierPollIntervalMs;
+    }
+
+    public TieredQueueApi setStorageTierPollIntervalMs(long storageTierPollIntervalMs) {
+        this.storageTierPollIntervalMs = storageTierPollIntervalMs;
+        return this;
+    }
+
+    /**
+     * Number of messages kept in a queue's memory tier (not drained). Default
+     * {@code 0}: all messages are drained.
+     * 
+     * @return
+     */
+    public int getDrainThreshold() {
+        return drainThreshold;
+    }
+
+    public TieredQueueApi setDrainThreshold(int drainThreshold) {
+        this.drainThreshold = drainThreshold;
+        return this;
+    }
+
+    /**
+     * Max number of messages written to the storage tier in one transaction.
+     * Default {@code 1000}.
+     * 
+     * @return
+     */
+    public int getDrainBatchSize() {
+        return drainBatchSize;
+    }
+
+    public TieredQueueApi setDrainBatchSize(int drainBatchSize) {
+        this.drainBatchSize = drainBatchSize;
+        return this;
+    }
+
+    /**
+     * Delay between drain rounds, in ms. Default {@code 100}.
+     * 
+     * @return
+     */
+    public long getDrainIntervalMs() {
+        return drainIntervalMs;
+    }
+
+    public TieredQueueApi setDrainIntervalMs(long drainIntervalMs) {
+        this.drainIntervalMs = drainIntervalMs;
+        return this;
+    }
+
+    /**
+     * Total number of messages moved from memory tiers to the storage tier.
+     * 
+     * @return
+     */
+    public long getDrainedMessages() {
+        return drainedMessages.get();
+    }
+
+    /**
+     * Sizes of tiers of opened queues, see {@link QsTieredQueue#getTierSizes()}.
+     * 
+     * @return
+     */
+    public Map<String, long[]> getTierSizes() {
+        Map<String, long[]> result = new HashMap<String, long[]>();
+        for (Map.Entry<String, QsTieredQueue> entry : openedQueues.entrySet()) {
+            result.put(entry.getKey(), entry.getValue().getTierSizes());
+        }
+        return result;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public TieredQueueApi init() {
+        new File(journalDir).mkdirs();
+        super.init();
+
+        // queues with journal files left from a previous run still need draining
+        File[] dirs = new File(journalDir).listFiles();
+        if (dirs != null) {
+            for (File dir : dirs) {
+                if (dir.isDirectory() && queueExists(dir.getName())) {
+                    createNewQueueInstance(normalizeQueueName(dir.getName()));
+                }
+            }
+        }
+
+        drainer = Executors.newSingleThreadScheduledExecutor();
+        drainer.scheduleWithFixedDelay(new Runnable() {
+            @Override
+            public void run() {
+                for (Map.Entry<String, QsTieredQueue> entry : openedQueues.entrySet()) {
+                    try {
+                        int numMsgs;
+                        do {
+                            numMsgs = entry.getValue().drain(drainThreshold, drainBatchSize);
+                            drainedMessages.addAndGet(numMsgs);
+                        } while (numMsgs >= drainBatchSize);
+                    } catch (Exception e) {
+                        Logger.warn("Error while draining queue [" + entry.getKey() + "]: "
+                                + e.getMessage(), e);
+                    }
+                }
+            }
+        }, drainIntervalMs, drainIntervalMs, TimeUnit.MILLISECONDS);
+
+        return this;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void destroy() {
+        if (drainer != null) {
+            drainer.shutdown();
+            try {
+                drainer.awaitTermination(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+            }
+        }
+        super.destroy();
+        for (QsTieredQueue queue : openedQueues.values()) {
+            try {
+                queue.destroy();
+            } catch (Exception e) {
+            }
+        }
+        openedQueues.clear();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected boolean initQueueMetadata(String queueName) {
+        return storageQueueApi.initQueue(queueName);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected Collection<String> getAllQueueNames() {
+        return storageQueueApi.getAllQueueNames();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected void invalidateQueue(IQsQueue queue) {
+        // EMPTY: queues are closed by destroy()
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected IQsQueue createNewQueueInstance(String normalizedQueueName) {
+        synchronized (openedQueues) {
+            QsTieredQueue tieredQueue = openedQueues.get(normalizedQueueName);
+            if (tieredQueue == null) {
+                QsLogQueue memoryTier = new QsLogQueue();
+                memoryTier.setDirectory(new File(journalDir, normalizedQueueName))
+                        .setSegmentSize(journalSegmentSize).setFsync(journalFsync);
+                memoryTier.init();
+                IQsQueue storageTier = storageQueueApi.createNewQueueInstance(normalizedQueueName);
+                tieredQueue = new QsTieredQueue();
+                tieredQueue.setMemoryTier(memoryTier).setStorageTier(storageTier)
+                        .setMemoryTierMaxSize(memoryTierMaxSize)
+                        .setStorageTierPollIntervalMs(storageTierPollIntervalMs).init();
+                openedQueues.put(normalizedQueueName, tieredQueue);
+            }
+            return tieredQueue;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean queueExists(String queueName) {
+        return storageQueueApi.queueExists(queueName);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean initQueue(String queueName) {
+        return initQueueMetadata(queueName);
+    }
+
+}
@@ -0,0 +1,46 @@
+package queue.impl;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import play.Logger;
+
+/**
+ * Helpers to release JDBC connections used in transactions.
+ * 
+ * @author Thanh Nguyen <btnguyen2k@gmail.com>
+ * @since 0.4.0
+ */
+final class JdbcConnections {
+
+    private JdbcConnections() {
+    }
+
+    /**
+     * Rolls back the current transaction, errors are logged and ignored (the
+     * original error is the one to report).
+     * 
+     * @param conn
+     */
+    static void rollbackQuietly(Connection conn) {
+        try {
+            conn.rollback();
+        } catch (Exception e) {
+            Logger.warn("Error while rolling back transaction: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Puts a connection back to auto-commit mode before it is closed, errors
+     * (e.g. broken connection) are ignored so that closing is never skipped.
+     * 
+     * @param conn
+     */
+    static void resetAutoCommitQuietly(Connection conn) {
+        try {
+            conn.setAutoCommit(true);
+        } catch (SQLException e) {
+            // IGNORE: connection is closed right after
+        }
+    }
+}
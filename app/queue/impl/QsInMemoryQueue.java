@@ -0,0 +1,415 @@
+package queue.impl;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import queue.IQsQueue;
+import queue.internal.EphemeralIndex;
+import queue.internal.MpmcLongRing;
+import queue.internal.OffHeapStore;
+import queue.internal.QueueMessage;
+
+import com.github.ddth.queue.IQueueMessage;
+import com.github.ddth.queue.UniversalQueueMessage;
+
+/**
+ * A non-durable, in-memory queue.
+ * 
+ * <ul>
+ * <li>Messages are stored off-heap in an {@link OffHeapStore} (shared by all
+ * queues of a {@link queue.InMemoryQueueApi}), the queue itself is a
+ * lock-free {@link MpmcLongRing} of message handles.</li>
+ * <li>Taken messages are tracked by an {@link EphemeralIndex}, ordered by
+ * taken timestamp.</li>
+ * <li>{@code requeue} keeps the message's queue id and its off-heap block.</li>
+ * </ul>
+ * 
+ * @author Thanh Nguyen <btnguyen2k@gmail.com>
+ * @since 0.4.0
+ */
+public class QsInMemoryQueue implements IQsQueue {
+
+    /* block layout, after the store's header */
+    private final static int POS_QUEUE_ID = OffHeapStore.BLOCK_HEADER_SIZE;
+    private final static int POS_ORG_TIMESTAMP = POS_QUEUE_ID + 8;
+    private final static int POS_TIMESTAMP = POS_ORG_TIMESTAMP + 8;
+    private final static int POS_NUM_REQUEUES = POS_TIMESTAMP + 8;
+    private final static int POS_CONTENT_LENGTH = POS_NUM_REQUEUES + 4;
+    private final static int POS_CONTENT = POS_CONTENT_LENGTH + 4;
+
+    private OffHeapStore store;
+    private int capacity = 65536;
+
+    private MpmcLongRing ring;
+    private final EphemeralIndex ephemeral = new EphemeralIndex();
+    private final AtomicLong nextQueueId = new AtomicLong(1);
+
+    public OffHeapStore getStore() {
+        return store;
+    }
+
+    public QsInMemoryQueue setStore(OffHeapStore store) {
+        this.store = store;
+        return this;
+    }
+
+    /**
+     * Max number of messages in queue storage (rounded up to a power of 2).
+     * 
+     * @return
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public QsInMemoryQueue setCapacity(int capacity) {
+        this.capacity = capacity;
+        return this;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public QsInMemoryQueue init() {
+        ring = new MpmcLongRing(capacity);
+        return this;
+    }
+
+    /**
+     * {@inheritDoc}
+     * 
+     * <p>
+     * Frees all messages' blocks.
+     * </p>
+     */
+    @Override
+    public void destroy() {
+        long handle;
+        while ((handle = ring.poll()) != MpmcLongRing.EMPTY) {
+            store.free(handle);
+        }
+        long[] handles;
+        synchronized (ephemeral) {
+            handles = ephemeral.handles();
+            ephemeral.clear();
+        }
+        for (long h : handles) {
+            store.free(h);
+        }
+    }
+
+    /*----------------------------------------------------------------------*/
+
+    private static byte[] content(IQueueMessage msg) {
+        byte[] content = msg instanceof UniversalQueueMessage ? ((UniversalQueueMessage) msg)
+                .content() : null;
+        return content != null ? content : new byte[0];
+    }
+
+    private static long toQueueId(Object qId) {
+        if (qId instanceof Number) {
+            return ((Number) qId).longValue();
+        }
+        try {
+            return qId != null ? Long.parseLong(qId.toString()) : 0;
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * Writes a message to a new block.
+     * 
+     * @return the block's handle, or {@link OffHeapStore#NO_MEMORY}
+     */
+    private long store(long queueId, long orgTimestamp, long timestamp, int numRequeues,
+            byte[] content) {
+        long handle = store.allocate(POS_CONTENT + content.length);
+        if (handle != OffHeapStore.NO_MEMORY) {
+            ByteBuffer slab = store.slab(handle).duplicate();
+            int offset = OffHeapStore.offset(handle);
+            slab.putLong(offset + POS_QUEUE_ID, queueId);
+            slab.putLong(offset + POS_ORG_TIMESTAMP, orgTimestamp);
+            slab.putLong(offset + POS_TIMESTAMP, timestamp);
+            slab.putInt(offset + POS_NUM_REQUEUES, numRequeues);
+            slab.putInt(offset + POS_CONTENT_LENGTH, content.length);
+            slab.position(offset + POS_CONTENT);
+            slab.put(content);
+        }
+        return handle;
+    }
+
+    private QueueMessage read(long handle) {
+        ByteBuffer slab = store.slab(handle).duplicate();
+        int offset = OffHeapStore.offset(handle);
+        byte[] content = new byte[slab.getInt(offset + POS_CONTENT_LENGTH)];
+        slab.position(offset + POS_CONTENT);
+        slab.get(content);
+        return QueueMessage.newInstance(slab.getLong(offset + POS_QUEUE_ID),
+                new Date(slab.getLong(offset + POS_ORG_TIMESTAMP)),
+                new Date(slab.getLong(offset + POS_TIMESTAMP)),
+                slab.getInt(offset + POS_NUM_REQUEUES), content);
+    }
+
+    private boolean offer(long handle) {
+        if (ring.offer(handle)) {
+            return true;
+        }
+        store.free(handle);
+        return false;
+    }
+
+    /**
+     * {@inheritDoc}
+     * 
+     * <p>
+     * Returns {@code false} if the queue is full or the off-heap memory limit
+     * is reached.
+     * </p>
+     */
+    @Override
+    public boolean queue(IQueueMessage msg) {
+        long now = System.currentTimeMillis();
+        long handle = store(nextQueueId.getAndIncrement(), now, now, 0, content(msg));
+        return handle != OffHeapStore.NO_MEMORY && offer(handle);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean[] queueBatch(List<QueueMessage> msgs) {
+        boolean[] result = new boolean[msgs.size()];
+        Date now = new Date();
+        for (int i = 0; i < result.length; i++) {
+            QueueMessage msg = msgs.get(i);
+            long queueId = nextQueueId.getAndIncrement();
+            msg.queueId(queueId).qNumRequeues(0).qOriginalTimestamp(now).qTimestamp(now);
+            long handle = store(queueId, now.getTime(), now.getTime(), 0, content(msg));
+            result[i] = handle != OffHeapStore.NO_MEMORY && offer(handle);
+        }
+        return result;
+    }
+
+    /**
+     * {@inheritDoc}
+     * 
+     * <p>
+     * Returns {@code false} if the message has a queue id but is not in
+     * ephemeral storage (e.g. already finished or requeued).
+     * </p>
+     */
+    @Override
+    public boolean requeue(IQueueMessage msg) {
+        return storeRequeued(msg, msg.qNumRequeues() + 1, System.currentTimeMillis());
+    }
+
+    /**
+     * {@inheritDoc}
+     * 
+     * <p>
+     * Returns {@code false} if the message has a queue id but is not in
+     * ephemeral storage (e.g. already finished or requeued).
+     * </p>
+     */
+    @Override
+    public boolean requeueSilent(IQueueMessage msg) {
+        Date timestamp = msg.qTimestamp();
+        return storeRequeued(msg, msg.qNumRequeues(),
+                timestamp != null ? timestamp.getTime() : System.currentTimeMillis());
+    }
+
+    private boolean storeRequeued(IQueueMessage msg, int numRequeues, long timestamp) {
+        long queueId = toQueueId(msg.qId());
+        long handle = -1;
+        if (queueId != 0) {
+            synchronized (ephemeral) {
+                handle = ephemeral.remove(queueId);
+            }
+        }
+        if (handle != -1) {
+            // message taken from this queue: update its block in place
+            ByteBuffer slab = store.slab(handle);
+            int offset = OffHeapStore.offset(handle);
+            slab.putLong(offset + POS_TIMESTAMP, timestamp);
+            slab.putInt(offset + POS_NUM_REQUEUES, numRequeues);
+            if (ring.offer(handle)) {
+                return true;
+            }
+            // queue is full: the message stays in ephemeral storage
+            synchronized (ephemeral) {
+                ephemeral.put(queueId, handle, System.currentTimeMillis());
+            }
+            return false;
+        } else if (queueId != 0) {
+            // not (or no longer) taken from this queue: it may still be queued, storing it
+            // again would duplicate its queue id
+            return false;
+        } else {
+            Date orgTimestamp = msg.qOriginalTimestamp();
+            handle = store(nextQueueId.getAndIncrement(),
+                    orgTimestamp != null ? orgTimestamp.getTime() : timestamp, timestamp,
+                    numRequeues, content(msg));
+            if (handle == OffHeapStore.NO_MEMORY) {
+                return false;
+            }
+        }
+        return offer(handle);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void finish(IQueueMessage msg) {
+        long queueId = toQueueId(msg.qId());
+        long handle;
+        synchronized (ephemeral) {
+            handle = ephemeral.remove(queueId);
+        }
+        if (handle != -1) {
+            store.free(handle);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int finishBatch(Collection<Long> queueIds) {
+        if (queueIds == null || queueIds.size() == 0) {
+            return 0;
+        }
+        long[] handles = new long[queueIds.size()];
+        int n = 0;
+        synchronized (ephemeral) {
+            for (Long queueId : queueIds) {
+                long handle = queueId != null ? ephemeral.remove(queueId.longValue()) : -1;
+                if (handle != -1) {
+                    handles[n++] = handle;
+                }
+            }
+        }
+        for (int i = 0; i < n; i++) {
+            store.free(handles[i]);
+        }
+        return n;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public QueueMessage take() {
+        List<QueueMessage> msgs = takeBatch(1);
+        return msgs.size() > 0 ? msgs.get(0) : null;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<QueueMessage> takeBatch(int maxMessages) {
+        List<QueueMessage> result = new ArrayList<QueueMessage>();
+        while (result.size() < maxMessages) {
+            long handle = ring.poll();
+            if (handle == MpmcLongRing.EMPTY) {
+                break;
+            }
+            QueueMessage msg = read(handle);
+            synchronized (ephemeral) {
+                ephemeral.put(msg.queueId(), handle, System.currentTimeMillis());
+            }
+            result.add(msg);
+        }
+        return result;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Collection<IQueueMessage> getOrphanMessages(long thresholdTimestampMs) {
+        List<IQueueMessage> result = new ArrayList<IQueueMessage>();
+        synchronized (ephemeral) {
+            for (long queueId : ephemeral.olderThan(thresholdTimestampMs, Integer.MAX_VALUE)) {
+                result.add(read(ephemeral.get(queueId)));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int discardOrphanMessages(long thresholdTimestampMs, int maxMessages) {
+        long[] handles;
+        synchronized (ephemeral) {
+            long[] queueIds = ephemeral.olderThan(thresholdTimestampMs, maxMessages);
+            handles = new long[queueIds.length];
+            for (int i = 0; i < queueIds.length; i++) {
+                handles[i] = ephemeral.remove(queueIds[i]);
+            }
+        }
+        for (long handle : handles) {
+            store.free(handle);
+        }
+        return handles.length;
+    }
+
+    /**
+     * {@inheritDoc}
+     * 
+     * <p>
+     * Stops at the first message that does not fit in the queue.
+     * </p>
+     */
+    @Override
+    public int requeueOrphanMessages(long thresholdTimestampMs, int maxMessages) {
+        int result = 0;
+        synchronized (ephemeral) {
+            for (long queueId : ephemeral.olderThan(thresholdTimestampMs, maxMessages)) {
+                long handle = ephemeral.get(queueId);
+                if (!ring.offer(handle)) {
+                    break;
+                }
+                ephemeral.remove(queueId);
+                result++;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean moveFromEphemeralToQueueStorage(IQueueMessage msg) {
+        return requeueSilent(msg);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int queueSize() {
+        return ring.size();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int ephemeralSize() {
+        synchronized (ephemeral) {
+            return ephemeral.size();
+        }
+    }
+
+}
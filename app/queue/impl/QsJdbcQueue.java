@@ -1,8 +1,24 @@
 package queue.impl;
 
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
 import queue.IQsQueue;
 import queue.internal.QueueMessage;
 
+import com.github.ddth.commons.utils.DPathUtils;
 import com.github.ddth.queue.impl.UniversalJdbcQueue;
 
 /**
@@ -14,6 +30,18 @@ import com.github.ddth.queue.impl.UniversalJdbcQueue;
  */
 public class QsJdbcQueue extends UniversalJdbcQueue implements IQsQueue {
 
+    /**
+     * Constructs a {@link JdbcTemplate} from a connection.
+     * 
+     * @param conn
+     * @return
+     * @since 0.4.0
+     */
+    protected JdbcTemplate jdbcTemplate(Connection conn) {
+        DataSource ds = new SingleConnectionDataSource(conn, true);
+        return new JdbcTemplate(ds);
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -22,6 +50,261 @@ public class QsJdbcQueue extends UniversalJdbcQueue implements IQsQueue {
         return QueueMessage.newInstance(super.take());
     }
 
+    /**
+     * {@inheritDoc}
+     * 
+     * <p>
+     * Messages are inserted with a single JDBC batch update, in one
+     * transaction: either all messages are queued or none is.
+     * </p>
+     */
+    @Override
+    public boolean[] queueBatch(List<QueueMessage> msgs) {
+        boolean[] result = new boolean[msgs.size()];
+        if (msgs.size() == 0) {
+            return result;
+        }
+
+        Date now = new Date();
+        List<Object[]> batchArgs = new ArrayList<Object[]>(msgs.size());
+        for (QueueMessage msg : msgs) {
+            msg.qNumRequeues(0).qOriginalTimestamp(now).qTimestamp(now);
+            batchArgs.add(new Object[] { now, now, 0, msg.content() });
+        }
+
+        final String SQL = "INSERT INTO {0} (msg_org_timestamp, msg_timestamp, msg_num_requeues, msg_content) VALUES (?, ?, ?, ?)";
+        try (Connection conn = getDataSource().getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                JdbcTemplate jdbcTemplate = jdbcTemplate(conn);
+                int[] rows = jdbcTemplate.batchUpdate(MessageFormat.format(SQL, getTableName()),
+                        batchArgs);
+                conn.commit();
+                for (int i = 0; i < result.length && i < rows.length; i++) {
+                    result[i] = rows[i] > 0 || rows[i] == Statement.SUCCESS_NO_INFO;
+                }
+            } catch (SQLException | RuntimeException e) {
+                JdbcConnections.rollbackQuietly(conn);
+                throw e;
+            } finally {
+                JdbcConnections.resetAutoCommitQuietly(conn);
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException(e);
+        }
+        return result;
+    }
+
+    /**
+     * {@inheritDoc}
+     * 
+     * <p>
+     * Messages are claimed with one {@code SELECT ... LIMIT n FOR UPDATE},
+     * copied to ephemeral storage with a single JDBC batch insert and removed
+     * from queue storage with one {@code DELETE ... WHERE queue_id IN (...)},
+     * all in one transaction.
+     * </p>
+     */
+    @Override
+    public List<QueueMessage> takeBatch(int maxMessages) {
+        List<QueueMessage> result = new ArrayList<QueueMessage>();
+        if (maxMessages < 1) {
+            return result;
+        }
+
+        final String SQL_SELECT = "SELECT queue_id, msg_org_timestamp, msg_timestamp, msg_num_requeues, msg_content FROM {0} ORDER BY queue_id LIMIT {1} FOR UPDATE";
+        final String SQL_INSERT_EPHEMERAL = "INSERT INTO {0} (queue_id, msg_org_timestamp, msg_timestamp, msg_num_requeues, msg_content) VALUES (?, ?, ?, ?, ?)";
+        final String SQL_DELETE = "DELETE FROM {0} WHERE queue_id IN ({1})";
+        try (Connection conn = getDataSource().getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                JdbcTemplate jdbcTemplate = jdbcTemplate(conn);
+                List<Map<String, Object>> dbRows = jdbcTemplate.queryForList(MessageFormat
+                        .format(SQL_SELECT, getTableName(), String.valueOf(maxMessages)));
+                if (dbRows != null && dbRows.size() > 0) {
+                    List<Object[]> batchArgs = new ArrayList<Object[]>(dbRows.size());
+                    Object[] queueIds = new Object[dbRows.size()];
+                    for (Map<String, Object> dbRow : dbRows) {
+                        Long queueId = DPathUtils.getValue(dbRow, "queue_id", Long.class);
+                        Date orgTimestamp = DPathUtils.getValue(dbRow, "msg_org_timestamp",
+                                Date.class);
+                        Date timestamp = DPathUtils.getValue(dbRow, "msg_timestamp",
+                                Date.class);
+                        Integer numRequeues = DPathUtils.getValue(dbRow, "msg_num_requeues",
+                                Integer.class);
+                        byte[] content = (byte[]) dbRow.get("msg_content");
+                        QueueMessage msg = QueueMessage.newInstance(
+                                queueId != null ? queueId.longValue() : 0, orgTimestamp,
+                                timestamp, numRequeues != null ? numRequeues.intValue() : 0,
+                                content);
+                        queueIds[result.size()] = msg.queueId();
+                        batchArgs.add(new Object[] { msg.queueId(),
+                                msg.qOriginalTimestamp(), msg.qTimestamp(),
+                                msg.qNumRequeues(), msg.content() });
+                        result.add(msg);
+                    }
+                    jdbcTemplate.batchUpdate(
+                            MessageFormat.format(SQL_INSERT_EPHEMERAL, getTableNameEphemeral()),
+                            batchArgs);
+                    jdbcTemplate.update(MessageFormat.format(SQL_DELETE, getTableName(),
+                            placeholders(queueIds.length)), queueIds);
+                }
+                conn.commit();
+            } catch (SQLException | RuntimeException e) {
+                JdbcConnections.rollbackQuietly(conn);
+                throw e;
+            } finally {
+                JdbcConnections.resetAutoCommitQuietly(conn);
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException(e);
+        }
+        return result;
+    }
+
+    /**
+     * Max number of ids bound to one {@code IN (...)} clause.
+     * 
+     * @since 0.4.0
+     */
+    protected final static int MAX_IN_CLAUSE_SIZE = 1000;
+
+    /**
+     * {@inheritDoc}
+     * 
+     * <p>
+     * Messages are removed with one {@code DELETE ... WHERE queue_id IN (...)}
+     * statement (per {@link #MAX_IN_CLAUSE_SIZE} ids).
+     * </p>
+     */
+    @Override
+    public int finishBatch(Collection<Long> queueIds) {
+        if (queueIds == null || queueIds.size() == 0) {
+            return 0;
+        }
+
+        List<Object> ids = new ArrayList<Object>(queueIds.size());
+        for (Long queueId : queueIds) {
+            if (queueId != null) {
+                ids.add(queueId);
+            }
+        }
+
+        final String SQL_DELETE = "DELETE FROM {0} WHERE queue_id IN ({1})";
+        int result = 0;
+        try (Connection conn = getDataSource().getConnection()) {
+            conn.setAutoCommit(true);
+            JdbcTemplate jdbcTemplate = jdbcTemplate(conn);
+            for (int i = 0; i < ids.size(); i += MAX_IN_CLAUSE_SIZE) {
+                List<Object> chunk = ids.subList(i, Math.min(i + MAX_IN_CLAUSE_SIZE, ids.size()));
+                result += jdbcTemplate.update(MessageFormat.format(SQL_DELETE,
+                        getTableNameEphemeral(), placeholders(chunk.size())), chunk.toArray());
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException(e);
+        }
+        return result;
+    }
+
+    /**
+     * {@inheritDoc}
+     * 
+     * <p>
+     * Orphan ids are locked with one {@code SELECT ... LIMIT n FOR UPDATE} and
+     * removed with one {@code DELETE ... WHERE queue_id IN (...)}, in one
+     * transaction per {@link #MAX_IN_CLAUSE_SIZE} messages.
+     * </p>
+     */
+    @Override
+    public int discardOrphanMessages(long thresholdTimestampMs, int maxMessages) {
+        return recoverOrphanMessages(thresholdTimestampMs, maxMessages, false);
+    }
+
+    /**
+     * {@inheritDoc}
+     * 
+     * <p>
+     * Orphan ids are locked with one {@code SELECT ... LIMIT n FOR UPDATE},
+     * copied back to queue storage with one {@code INSERT ... SELECT} and
+     * removed from ephemeral storage with one
+     * {@code DELETE ... WHERE queue_id IN (...)}, in one transaction per
+     * {@link #MAX_IN_CLAUSE_SIZE} messages.
+     * </p>
+     */
+    @Override
+    public int requeueOrphanMessages(long thresholdTimestampMs, int maxMessages) {
+        return recoverOrphanMessages(thresholdTimestampMs, maxMessages, true);
+    }
+
+    private int recoverOrphanMessages(long thresholdTimestampMs, int maxMessages,
+            boolean requeue) {
+        int result = 0;
+        while (result < maxMessages) {
+            int limit = Math.min(maxMessages - result, MAX_IN_CLAUSE_SIZE);
+            int numMsgs = recoverOrphanMessagesChunk(thresholdTimestampMs, limit, requeue);
+            result += numMsgs;
+            if (numMsgs < limit) {
+                break;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Recovers up to {@code maxMessages} (at most {@link #MAX_IN_CLAUSE_SIZE})
+     * orphan messages in one transaction.
+     */
+    private int recoverOrphanMessagesChunk(long thresholdTimestampMs, int maxMessages,
+            boolean requeue) {
+        final String SQL_SELECT = "SELECT queue_id FROM {0} WHERE msg_timestamp < ? ORDER BY queue_id LIMIT {1} FOR UPDATE";
+        final String SQL_REQUEUE = "INSERT INTO {0} (queue_id, msg_org_timestamp, msg_timestamp, msg_num_requeues, msg_content) "
+                + "SELECT queue_id, msg_org_timestamp, msg_timestamp, msg_num_requeues, msg_content FROM {1} WHERE queue_id IN ({2})";
+        final String SQL_DELETE = "DELETE FROM {0} WHERE queue_id IN ({1})";
+        int result = 0;
+        try (Connection conn = getDataSource().getConnection()) {
+            conn.setAutoCommit(false);
+            try {
+                JdbcTemplate jdbcTemplate = jdbcTemplate(conn);
+                List<Long> queueIds = jdbcTemplate.queryForList(MessageFormat.format(SQL_SELECT,
+                        getTableNameEphemeral(), String.valueOf(maxMessages)), Long.class,
+                        new Date(thresholdTimestampMs));
+                if (queueIds != null && queueIds.size() > 0) {
+                    Object[] ids = queueIds.toArray();
+                    if (requeue) {
+                        jdbcTemplate.update(MessageFormat.format(SQL_REQUEUE, getTableName(),
+                                getTableNameEphemeral(), placeholders(ids.length)), ids);
+                    }
+                    result = jdbcTemplate.update(MessageFormat.format(SQL_DELETE,
+                            getTableNameEphemeral(), placeholders(ids.length)), ids);
+                }
+                conn.commit();
+            } catch (SQLException | RuntimeException e) {
+                JdbcConnections.rollbackQuietly(conn);
+                throw e;
+            } finally {
+                JdbcConnections.resetAutoCommitQuietly(conn);
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException(e);
+        }
+        return result;
+    }
+
+    /**
+     * Builds a list of {@code n} comma-separated SQL placeholders.
+     * 
+     * @param n
+     * @return
+     * @since 0.4.0
+     */
+    protected static String placeholders(int n) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < n; i++) {
+            sb.append(i > 0 ? ",?" : "?");
+        }
+        return sb.toString();
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -0,0 +1,838 @@
+package queue.impl;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.zip.CRC32;
+
+import queue.IQsQueue;
+import queue.internal.QueueMessage;
+
+import com.github.ddth.queue.IQueueMessage;
+import com.github.ddth.queue.UniversalQueueMessage;
+
+/**
+ * A queue stored in local, memory-mapped, append-only segment files.
+ * 
+ * <ul>
+ * <li>Files in the queue's directory: segments {@code <first-queue-id>.log}
+ * (records), one ack bitset {@code <first-queue-id>.ack} per segment (one bit
+ * per record, set when the record is finished) and {@code offsets} (read
+ * offset/position).</li>
+ * <li>Queue ids are record sequence numbers. Queue storage is the records
+ * from the read offset on; ephemeral storage is the taken records not yet
+ * finished.</li>
+ * <li>{@code queue}: append + group-commit {@code fsync} (concurrent writers
+ * share one {@code force()}); {@code take}: read offset bump;
+ * {@code finish}: bit set. {@code requeue} appends a copy (new queue id) and
+ * finishes the original record.</li>
+ * <li>Segments are deleted once all of their records are finished.</li>
+ * <li>On restart the write position is recovered by scanning the last
+ * segment (records are checksummed); taken-but-unfinished records are
+ * re-indexed as ephemeral, taken at restart time.</li>
+ * </ul>
+ * 
+ * <p>
+ * Delivery is at-least-once: offsets and ack bits are written to mapped
+ * memory and forced with the next commit, a crash may redeliver messages.
+ * </p>
+ * 
+ * @author Thanh Nguyen <btnguyen2k@gmail.com>
+ * @since 0.4.0
+ */
+public class QsLogQueue implements IQsQueue {
+
+    /**
+     * Record: length (int, of the part after the checksum), CRC32 (int), queue
+     * id (long), original timestamp (long), timestamp (long), num requeues
+     * (int), content.
+     */
+    private final static int RECORD_HEADER_SIZE = 4 + 4 + 8 + 8 + 8 + 4;
+    private final static int RECORD_FIXED_SIZE = RECORD_HEADER_SIZE - 8;
+
+    private final static String FILE_OFFSETS = "offsets";
+    private final static String FILE_LOCK = "lock";
+    private final static String SUFFIX_LOG = ".log";
+    private final static String SUFFIX_ACK = ".ack";
+
+    /* offsets file layout */
+    private final static int OFFSET_READ_OFFSET = 0;
+    private final static int OFFSET_READ_POS = 8;
+
+    private File directory;
+    private int segmentSize = 64 * 1024 * 1024;
+    private boolean fsync = true;
+
+    /**
+     * A segment: its log and ack bitset files, both mapped.
+     */
+    private static class Segment {
+        final long baseId;
+        final File logFile, ackFile;
+        final MappedByteBuffer log, acks;
+        /* position after the last record */
+        int endPos;
+        boolean sealed;
+
+        Segment(long baseId, File logFile, File ackFile, MappedByteBuffer log,
+                MappedByteBuffer acks) {
+            this.baseId = baseId;
+            this.logFile = logFile;
+            this.ackFile = ackFile;
+            this.log = log;
+            this.acks = acks;
+        }
+
+        boolean isAcked(long queueId) {
+            int bit = (int) (queueId - baseId);
+            return (acks.get(bit >>> 3) & (1 << (bit & 7))) != 0;
+        }
+
+        void setAcked(long queueId) {
+            int bit = (int) (queueId - baseId);
+            int idx = bit >>> 3;
+            acks.put(idx, (byte) (acks.get(idx) | (1 << (bit & 7))));
+        }
+    }
+
+    /**
+     * A taken, not yet finished, record.
+     */
+    private static class EphemeralEntry {
+        final long takenTimestamp;
+        final Segment segment;
+        final int pos;
+
+        EphemeralEntry(long takenTimestamp, Segment segment, int pos) {
+            this.takenTimestamp = takenTimestamp;
+            this.segment = segment;
+            this.pos = pos;
+        }
+    }
+
+    private final Object lock = new Object();
+    private final TreeMap<Long, Segment> segments = new TreeMap<Long, Segment>();
+    private final ConcurrentSkipListMap<Long, EphemeralEntry> ephemeral = new ConcurrentSkipListMap<Long, EphemeralEntry>();
+    private final Set<Segment> dirtySegments = new HashSet<Segment>();
+    private Segment writeSegment, readSegment;
+    private long nextQueueId, readOffset;
+    private int readPos;
+
+    private RandomAccessFile lockFile;
+    private FileLock fileLock;
+    private MappedByteBuffer offsets;
+    private boolean closed = false;
+
+    /* group commit */
+    private final Object commitLock = new Object();
+    private boolean committing = false;
+    private long committedQueueId = 0;
+
+    /**
+     * Directory to store the queue's files.
+     * 
+     * @return
+     */
+    public File getDirectory() {
+        return directory;
+    }
+
+    public QsLogQueue setDirectory(File directory) {
+        this.directory = directory;
+        return this;
+    }
+
+    /**
+     * Size of a segment file, in bytes (default 64MB). Also the max size of a
+     * message.
+     * 
+     * @return
+     */
+    public int getSegmentSize() {
+        return segmentSize;
+    }
+
+    public QsLogQueue setSegmentSize(int segmentSize) {
+        this.segmentSize = segmentSize;
+        return this;
+    }
+
+    /**
+     * If {@code true} (default), {@code queue}/{@code requeue} return only
+     * after their records have been forced to disk.
+     * 
+     * @return
+     */
+    public boolean isFsync() {
+        return fsync;
+    }
+
+    public QsLogQueue setFsync(boolean fsync) {
+        this.fsync = fsync;
+        return this;
+    }
+
+    /*----------------------------------------------------------------------*/
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public QsLogQueue init() {
+        try {
+            directory.mkdirs();
+            lockFile = new RandomAccessFile(new File(directory, FILE_LOCK), "rw");
+            fileLock = lockFile.getChannel().tryLock();
+            if (fileLock == null) {
+                throw new IllegalStateException("Queue directory [" + directory
+                        + "] is in use by another process");
+            }
+            offsets = map(new File(directory, FILE_OFFSETS), 16);
+            recover();
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+        return this;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void destroy() {
+        synchronized (lock) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            for (Segment segment : segments.values()) {
+                segment.log.force();
+                segment.acks.force();
+            }
+            if (offsets != null) {
+                offsets.force();
+            }
+            segments.clear();
+            ephemeral.clear();
+            try {
+                if (fileLock != null) {
+                    fileLock.release();
+                }
+                if (lockFile != null) {
+                    lockFile.close();
+                }
+            } catch (IOException e) {
+            }
+        }
+    }
+
+    private static MappedByteBuffer map(File file, long size) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            if (raf.length() < size) {
+                raf.setLength(size);
+            }
+            // the mapping stays valid after the channel is closed
+            return raf.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, raf.length());
+        }
+    }
+
+    private int ackFileSize() {
+        return segmentSize / RECORD_HEADER_SIZE / 8 + 1;
+    }
+
+    private static String segmentFileName(long baseId, String suffix) {
+        return String.format("%020d%s", baseId, suffix);
+    }
+
+    private Segment openSegment(long baseId) throws IOException {
+        File logFile = new File(directory, segmentFileName(baseId, SUFFIX_LOG));
+        File ackFile = new File(directory, segmentFileName(baseId, SUFFIX_ACK));
+        Segment segment = new Segment(baseId, logFile, ackFile, map(logFile, segmentSize), map(
+                ackFile, ackFileSize()));
+        segments.put(baseId, segment);
+        return segment;
+    }
+
+    /**
+     * Reads the record length at {@code pos}, or {@code -1} if there is no
+     * valid record there.
+     */
+    private static int validRecordLength(Segment segment, int pos, long expectedQueueId) {
+        ByteBuffer log = segment.log;
+        if (pos + RECORD_HEADER_SIZE > log.capacity()) {
+            return -1;
+        }
+        int len = log.getInt(pos);
+        if (len < RECORD_FIXED_SIZE || pos + 8 + len > log.capacity()
+                || log.getLong(pos + 8) != expectedQueueId) {
+            return -1;
+        }
+        byte[] data = new byte[len];
+        ByteBuffer dup = log.duplicate();
+        dup.position(pos + 8);
+        dup.get(data);
+        CRC32 crc = new CRC32();
+        crc.update(data);
+        return (int) crc.getValue() == log.getInt(pos + 4) ? len : -1;
+    }
+
+    private void recover() throws IOException {
+        File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                String name = file.getName();
+                if (name.endsWith(SUFFIX_LOG)) {
+                    openSegment(Long.parseLong(name.substring(0,
+                            name.length() - SUFFIX_LOG.length())));
+                }
+            }
+        }
+        if (segments.isEmpty()) {
+            openSegment(1);
+        }
+
+        // sealed segments end where the next one begins: scan records'
+        // lengths; the last segment's records are verified by checksum
+        Segment prev = null;
+        for (Segment segment : segments.values()) {
+            if (prev != null) {
+                prev.endPos = positionOf(prev, segment.baseId);
+                prev.sealed = true;
+            }
+            prev = segment;
+        }
+        writeSegment = segments.lastEntry().getValue();
+        nextQueueId = writeSegment.baseId;
+        int pos = 0;
+        while (true) {
+            int len = validRecordLength(writeSegment, pos, nextQueueId);
+            if (len < 0) {
+                break;
+            }
+            pos += 8 + len;
+            nextQueueId++;
+        }
+        writeSegment.endPos = pos;
+
+        long firstId = segments.firstKey();
+        readOffset = Math.max(firstId, Math.min(offsets.getLong(OFFSET_READ_OFFSET),
+                nextQueueId));
+        readSegment = segments.floorEntry(readOffset).getValue();
+        readPos = (int) offsets.getLong(OFFSET_READ_POS);
+        if (readOffset == readSegment.baseId || readPos < 0 || readPos > readSegment.endPos) {
+            readPos = readOffset == readSegment.baseId ? 0 : positionOf(readSegment, readOffset);
+        }
+        if (readPos >= readSegment.endPos && readSegment.sealed) {
+            readSegment = segments.higherEntry(readSegment.baseId).getValue();
+            readPos = 0;
+        }
+        saveReadOffset();
+
+        // taken records not finished yet
+        long now = System.currentTimeMillis();
+        for (Segment segment : segments.values()) {
+            if (segment.baseId >= readOffset) {
+                break;
+            }
+            int p = 0;
+            for (long id = segment.baseId; id < readOffset && p < segment.endPos; id++) {
+                if (!segment.isAcked(id)) {
+                    ephemeral.put(id, new EphemeralEntry(now, segment, p));
+                }
+                p += 8 + segment.log.getInt(p);
+            }
+        }
+        deleteFinishedSegments();
+    }
+
+    /**
+     * Walks a segment's records by length, up to record {@code queueId}.
+     */
+    private static int positionOf(Segment segment, long queueId) {
+        int pos = 0;
+        for (long id = segment.baseId; id < queueId; id++) {
+            pos += 8 + segment.log.getInt(pos);
+        }
+        return pos;
+    }
+
+    private void saveReadOffset() {
+        offsets.putLong(OFFSET_READ_OFFSET, readOffset);
+        offsets.putLong(OFFSET_READ_POS, readPos);
+    }
+
+    private void ensureOpen() {
+        if (closed) {
+            throw new IllegalStateException("Queue [" + directory + "] has been closed");
+        }
+    }
+
+    /*----------------------------------------------------------------------*/
+
+    private static byte[] content(IQueueMessage msg) {
+        byte[] content = msg instanceof UniversalQueueMessage ? ((UniversalQueueMessage) msg)
+                .content() : null;
+        return content != null ? content : new byte[0];
+    }
+
+    /**
+     * Appends a record, must be called while holding {@link #lock}.
+     * 
+     * @return queue id of the record, or {@code 0} if the message is larger
+     *         than a segment
+     */
+    private long append(long orgTimestamp, long timestamp, int numRequeues, byte[] content)
+            throws IOException {
+        int len = RECORD_FIXED_SIZE + content.length;
+        if (8 + len > segmentSize) {
+            return 0;
+        }
+        if (writeSegment.endPos + 8 + len > writeSegment.log.capacity()) {
+            // roll
+            writeSegment.log.force();
+            writeSegment.sealed = true;
+            dirtySegments.remove(writeSegment);
+            writeSegment = openSegment(nextQueueId);
+        }
+        long queueId = nextQueueId++;
+        ByteBuffer data = ByteBuffer.allocate(len);
+        data.putLong(queueId).putLong(orgTimestamp).putLong(timestamp).putInt(numRequeues)
+                .put(content);
+        CRC32 crc = new CRC32();
+        crc.update(data.array());
+
+        ByteBuffer log = writeSegment.log.duplicate();
+        log.position(writeSegment.endPos);
+        log.putInt(len).putInt((int) crc.getValue()).put(data.array());
+        writeSegment.endPos += 8 + len;
+        dirtySegments.add(writeSegment);
+        return queueId;
+    }
+
+    private QueueMessage readRecord(Segment segment, int pos) {
+        ByteBuffer log = segment.log;
+        int len = log.getInt(pos);
+        byte[] content = new byte[len - RECORD_FIXED_SIZE];
+        ByteBuffer dup = log.duplicate();
+        dup.position(pos + RECORD_HEADER_SIZE);
+        dup.get(content);
+        return QueueMessage.newInstance(log.getLong(pos + 8), new Date(log.getLong(pos + 16)),
+                new Date(log.getLong(pos + 24)), log.getInt(pos + 32), content);
+    }
+
+    /**
+     * Marks a taken record finished, must be called while holding
+     * {@link #lock}.
+     */
+    private EphemeralEntry ack(long queueId) {
+        EphemeralEntry entry = ephemeral.remove(queueId);
+        if (entry != null) {
+            entry.segment.setAcked(queueId);
+        }
+        return entry;
+    }
+
+    /**
+     * Deletes head segments all records of which have been finished, must be
+     * called while holding {@link #lock}.
+     */
+    private void deleteFinishedSegments() {
+        long ackOffset = ephemeral.isEmpty() ? readOffset : ephemeral.firstKey();
+        while (segments.size() > 1) {
+            Map.Entry<Long, Segment> head = segments.firstEntry();
+            Long nextBaseId = segments.higherKey(head.getKey());
+            if (nextBaseId == null || nextBaseId.longValue() > ackOffset
+                    || head.getValue() == readSegment) {
+                break;
+            }
+            segments.remove(head.getKey());
+            dirtySegments.remove(head.getValue());
+            // mapped buffers are released on GC; the files can be unlinked now
+            head.getValue().logFile.delete();
+            head.getValue().ackFile.delete();
+        }
+    }
+
+    /**
+     * Forces appended records (and offsets/acks) to disk. Concurrent callers
+     * are grouped: the caller that finds no commit in progress forces
+     * everything appended so far, the others wait for it.
+     * 
+     * @param queueId
+     *            last queue id the caller needs on disk
+     */
+    private void commit(long queueId) {
+        if (!fsync || queueId <= 0) {
+            return;
+        }
+        while (true) {
+            synchronized (commitLock) {
+                while (committing && committedQueueId < queueId) {
+                    try {
+                        commitLock.wait();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                }
+                if (committedQueueId >= queueId) {
+                    return;
+                }
+                committing = true;
+            }
+            long target = 0;
+            try {
+                List<Segment> toForce;
+                synchronized (lock) {
+                    ensureOpen();
+                    target = nextQueueId - 1;
+                    toForce = new ArrayList<Segment>(dirtySegments);
+                    dirtySegments.clear();
+                }
+                for (Segment segment : toForce) {
+                    segment.log.force();
+                    segment.acks.force();
+                }
+                offsets.force();
+            } finally {
+                synchronized (commitLock) {
+                    committing = false;
+                    committedQueueId = Math.max(committedQueueId, target);
+                    commitLock.notifyAll();
+                }
+            }
+        }
+    }
+
+    /*----------------------------------------------------------------------*/
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean queue(IQueueMessage msg) {
+        long now = System.currentTimeMillis();
+        long queueId;
+        synchronized (lock) {
+            ensureOpen();
+            try {
+                queueId = append(now, now, 0, content(msg));
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        }
+        commit(queueId);
+        return queueId > 0;
+    }
+
+    /**
+     * {@inheritDoc}
+     * 
+     * <p>
+     * All records are appended under one lock and committed with one
+     * {@code force()}.
+     * </p>
+     */
+    @Override
+    public boolean[] queueBatch(List<QueueMessage> msgs) {
+        boolean[] result = new boolean[msgs.size()];
+        Date now = new Date();
+        long lastQueueId = 0;
+        synchronized (lock) {
+            ensureOpen();
+            try {
+                for (int i = 0; i < result.length; i++) {
+                    QueueMessage msg = msgs.get(i);
+                    msg.qNumRequeues(0).qOriginalTimestamp(now).qTimestamp(now);
+                    long queueId = append(now.getTime(), now.getTime(), 0, content(msg));
+                    if (queueId > 0) {
+                        msg.queueId(queueId);
+                        lastQueueId = queueId;
+                        result[i] = true;
+                    }
+                }
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        }
+        commit(lastQueueId);
+        return result;
+    }
+
+    /**
+     * {@inheritDoc}
+     * 
+     * <p>
+     * The message is appended as a new record: its queue id changes.
+     * </p>
+     */
+    @Override
+    public boolean requeue(IQueueMessage msg) {
+        return storeRequeued(msg, msg.qNumRequeues() + 1, System.currentTimeMillis());
+    }
+
+    /**
+     * {@inheritDoc}
+     * 
+     * <p>
+     * The message is appended as a new record: its queue id changes.
+     * </p>
+     */
+    @Override
+    public boolean requeueSilent(IQueueMessage msg) {
+        Date timestamp = msg.qTimestamp();
+        return storeRequeued(msg, msg.qNumRequeues(),
+                timestamp != null ? timestamp.getTime() : System.currentTimeMillis());
+    }
+
+    private boolean storeRequeued(IQueueMessage msg, int numRequeues, long timestamp) {
+        Date orgTimestamp = msg.qOriginalTimestamp();
+        long queueId;
+        synchronized (lock) {
+            ensureOpen();
+            try {
+                queueId = append(orgTimestamp != null ? orgTimestamp.getTime() : timestamp,
+                        timestamp, numRequeues, content(msg));
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        }
+        if (queueId <= 0) {
+            return false;
+        }
+
+        // the original record is finished only once its copy is on disk
+        commit(queueId);
+        Long orgQueueId = toQueueId(msg.qId());
+        if (orgQueueId != null) {
+            synchronized (lock) {
+                ensureOpen();
+                if (ack(orgQueueId) != null) {
+                    deleteFinishedSegments();
+                }
+            }
+        }
+        return true;
+    }
+
+    private static Long toQueueId(Object qId) {
+        if (qId instanceof Number) {
+            return ((Number) qId).longValue();
+        }
+        try {
+            return qId != null ? Long.valueOf(qId.toString()) : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void finish(IQueueMessage msg) {
+        Long queueId = toQueueId(msg.qId());
+        if (queueId == null) {
+            return;
+        }
+        synchronized (lock) {
+            ensureOpen();
+            if (ack(queueId) != null) {
+                deleteFinishedSegments();
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int finishBatch(Collection<Long> queueIds) {
+        if (queueIds == null || queueIds.size() == 0) {
+            return 0;
+        }
+        int result = 0;
+        synchronized (lock) {
+            ensureOpen();
+            for (Long queueId : queueIds) {
+                if (queueId != null && ack(queueId) != null) {
+                    result++;
+                }
+            }
+            if (result > 0) {
+                deleteFinishedSegments();
+            }
+        }
+        return result;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public QueueMessage take() {
+        List<QueueMessage> msgs = takeBatch(1);
+        return msgs.size() > 0 ? msgs.get(0) : null;
+    }
+
+    /**
+     * {@inheritDoc}
+     * 
+     * <p>
+     * Bumps the read offset, no disk access.
+     * </p>
+     */
+    @Override
+    public List<QueueMessage> takeBatch(int maxMessages) {
+        List<QueueMessage> result = new ArrayList<QueueMessage>();
+        long now = System.currentTimeMillis();
+        synchronized (lock) {
+            ensureOpen();
+            while (result.size() < maxMessages && readOffset < nextQueueId) {
+                if (readPos >= readSegment.endPos && readSegment.sealed) {
+                    readSegment = segments.higherEntry(readSegment.baseId).getValue();
+                    readPos = 0;
+                }
+                QueueMessage msg = readRecord(readSegment, readPos);
+                ephemeral.put(readOffset, new EphemeralEntry(now, readSegment, readPos));
+                readPos += 8 + readSegment.log.getInt(readPos);
+                readOffset++;
+                result.add(msg);
+            }
+            saveReadOffset();
+        }
+        return result;
+    }
+
+    private List<Long> orphanIds(long thresholdTimestampMs, int maxMessages) {
+        List<Long> result = new ArrayList<Long>();
+        for (Map.Entry<Long, EphemeralEntry> entry : ephemeral.entrySet()) {
+            if (result.size() >= maxMessages) {
+                break;
+            }
+            if (entry.getValue().takenTimestamp < thresholdTimestampMs) {
+                result.add(entry.getKey());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Collection<IQueueMessage> getOrphanMessages(long thresholdTimestampMs) {
+        List<IQueueMessage> result = new ArrayList<IQueueMessage>();
+        synchronized (lock) {
+            ensureOpen();
+            for (Long queueId : orphanIds(thresholdTimestampMs, Integer.MAX_VALUE)) {
+                EphemeralEntry entry = ephemeral.get(queueId);
+                result.add(readRecord(entry.segment, entry.pos));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int discardOrphanMessages(long thresholdTimestampMs, int maxMessages) {
+        int result = 0;
+        synchronized (lock) {
+            ensureOpen();
+            for (Long queueId : orphanIds(thresholdTimestampMs, maxMessages)) {
+                if (ack(queueId) != null) {
+                    result++;
+                }
+            }
+            deleteFinishedSegments();
+        }
+        return result;
+    }
+
+    /**
+     * {@inheritDoc}
+     * 
+     * <p>
+     * Orphan records are appended as new records (new queue ids), committed
+     * with one {@code force()}, then finished.
+     * </p>
+     */
+    @Override
+    public int requeueOrphanMessages(long thresholdTimestampMs, int maxMessages) {
+        List<Long> requeuedIds = new ArrayList<Long>();
+        long lastQueueId = 0;
+        synchronized (lock) {
+            ensureOpen();
+            try {
+                for (Long queueId : orphanIds(thresholdTimestampMs, maxMessages)) {
+                    EphemeralEntry entry = ephemeral.get(queueId);
+                    QueueMessage msg = readRecord(entry.segment, entry.pos);
+                    long newQueueId = append(msg.qOriginalTimestamp().getTime(), msg
+                            .qTimestamp().getTime(), msg.qNumRequeues(), msg.content());
+                    if (newQueueId > 0) {
+                        lastQueueId = newQueueId;
+                        requeuedIds.add(queueId);
+                    }
+                }
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        }
+        if (requeuedIds.size() == 0) {
+            return 0;
+        }
+
+        // the original records are finished only once their copies are on disk
+        commit(lastQueueId);
+        synchronized (lock) {
+            ensureOpen();
+            for (Long queueId : requeuedIds) {
+                ack(queueId);
+            }
+            deleteFinishedSegments();
+        }
+        return requeuedIds.size();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean moveFromEphemeralToQueueStorage(IQueueMessage msg) {
+        return requeueSilent(msg);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int queueSize() {
+        synchronized (lock) {
+            return (int) (nextQueueId - readOffset);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int ephemeralSize() {
+        return ephemeral.size();
+    }
+
+}
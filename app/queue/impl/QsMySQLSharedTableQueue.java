@@ -0,0 +1,58 @@
+package queue.impl;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import queue.internal.QueueMessage;
+
+/**
+ * MySQL-specific {@link QsSharedTableJdbcQueue}.
+ * 
+ * <p>
+ * MySQL has no {@code UPDATE ... RETURNING}: messages are claimed with one
+ * {@code UPDATE ... ORDER BY queue_id LIMIT n} that stamps them with a random
+ * take token, then read back with one {@code SELECT} by that token, in one
+ * transaction.
+ * </p>
+ * 
+ * @author Thanh Nguyen <btnguyen2k@gmail.com>
+ * @since 0.4.0
+ */
+public class QsMySQLSharedTableQueue extends QsSharedTableJdbcQueue {
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<QueueMessage> takeBatch(final int maxMessages) {
+        if (maxMessages < 1) {
+            return new ArrayList<QueueMessage>();
+        }
+
+        final String SQL_CLAIM = "UPDATE {0} SET msg_status=" + STATUS_EPHEMERAL
+                + ", msg_take_timestamp=?, msg_take_token=? WHERE queue_name=? AND msg_status="
+                + STATUS_QUEUED + " ORDER BY queue_id LIMIT {1}";
+        final String SQL_SELECT = "SELECT " + COLUMNS
+                + " FROM {0} WHERE queue_name=? AND msg_take_token=? AND msg_status="
+                + STATUS_EPHEMERAL + " ORDER BY queue_id";
+        final long takeToken = ThreadLocalRandom.current().nextLong();
+        final Date now = new Date();
+        return execute(true, new Work<List<QueueMessage>>() {
+            @Override
+            public List<QueueMessage> run(JdbcTemplate jdbcTemplate) {
+                int rows = jdbcTemplate.update(sql(SQL_CLAIM, String.valueOf(maxMessages)), now,
+                        takeToken, getQueueName());
+                if (rows < 1) {
+                    return new ArrayList<QueueMessage>();
+                }
+                return toMessages(jdbcTemplate.queryForList(sql(SQL_SELECT), getQueueName(),
+                        takeToken));
+            }
+        });
+    }
+
+}
@@ -0,0 +1,63 @@
+package queue.impl;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.List;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import queue.internal.QueueMessage;
+
+/**
+ * PostgreSQL-specific {@link QsSharedTableJdbcQueue}.
+ * 
+ * <p>
+ * Messages are claimed and returned by one
+ * {@code UPDATE ... WHERE queue_id IN (SELECT ... FOR UPDATE SKIP LOCKED) RETURNING ...}
+ * statement: concurrent takers skip each other's rows instead of waiting on
+ * them. Requires PostgreSQL 9.5+ (and 11+ for the partitioned schema).
+ * </p>
+ * 
+ * @author Thanh Nguyen <btnguyen2k@gmail.com>
+ * @since 0.4.0
+ */
+public class QsPgSQLSharedTableQueue extends QsSharedTableJdbcQueue {
+
+    private final static Comparator<QueueMessage> QUEUE_ID_ORDER = new Comparator<QueueMessage>() {
+        @Override
+        public int compare(QueueMessage msg1, QueueMessage msg2) {
+            long id1 = msg1.queueId(), id2 = msg2.queueId();
+            return id1 < id2 ? -1 : (id1 == id2 ? 0 : 1);
+        }
+    };
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public List<QueueMessage> takeBatch(final int maxMessages) {
+        if (maxMessages < 1) {
+            return new ArrayList<QueueMessage>();
+        }
+
+        final String SQL_TAKE = "UPDATE {0} SET msg_status=" + STATUS_EPHEMERAL
+                + ", msg_take_timestamp=? WHERE queue_name=? AND queue_id IN (SELECT queue_id FROM {0} WHERE queue_name=? AND msg_status="
+                + STATUS_QUEUED + " ORDER BY queue_id LIMIT {1} FOR UPDATE SKIP LOCKED) RETURNING "
+                + COLUMNS;
+        final Date now = new Date();
+        return execute(false, new Work<List<QueueMessage>>() {
+            @Override
+            public List<QueueMessage> run(JdbcTemplate jdbcTemplate) {
+                List<QueueMessage> result = toMessages(jdbcTemplate.queryForList(
+                        sql(SQL_TAKE, String.valueOf(maxMessages)), now, getQueueName(),
+                        getQueueName()));
+                // RETURNING does not guarantee order
+                Collections.sort(result, QUEUE_ID_ORDER);
+                return result;
+            }
+        });
+    }
+
+}
@@ -1,8 +1,20 @@
 package queue.impl;
 
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+
 import queue.IQsQueue;
 import queue.internal.QueueMessage;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.Pipeline;
+import redis.clients.jedis.Response;
 
+import com.github.ddth.commons.utils.IdGenerator;
+import com.github.ddth.queue.IQueueMessage;
+import com.github.ddth.queue.UniversalQueueMessage;
 import com.github.ddth.queue.impl.UniversalRedisQueue;
 
 /**
@@ -14,12 +26,335 @@ import com.github.ddth.queue.impl.UniversalRedisQueue;
  */
 public class QsRedisQueue extends UniversalRedisQueue implements IQsQueue {
 
+    private final static Charset UTF8 = Charset.forName("UTF-8");
+
+    private final static IdGenerator IDGEN = IdGenerator.getInstance(IdGenerator.getMacAddr());
+
+    /**
+     * Lua script to take up to {@code ARGV[2]} messages: pop ids from the list,
+     * mark them in the sorted set with timestamp {@code ARGV[1]} and return
+     * their data from the hash.
+     */
+    private final static String SCRIPT_TAKE_BATCH = "local result = {} "
+            + "for i = 1, tonumber(ARGV[2]) do "
+            + "local qid = redis.call('lpop', KEYS[1]) "
+            + "if not qid then break end "
+            + "redis.call('zadd', KEYS[2], ARGV[1], qid) "
+            + "local data = redis.call('hget', KEYS[3], qid) "
+            + "if data then table.insert(result, data) end "
+            + "end "
+            + "return result";
+
+    /**
+     * Lua script to recover up to {@code ARGV[2]} orphan messages (score less
+     * than {@code ARGV[1]}) from the sorted set: ids are pushed back to the
+     * list if {@code ARGV[3] == "1"}, otherwise their data is removed from the
+     * hash.
+     */
+    private final static String SCRIPT_RECOVER_ORPHANS = "local qids = redis.call('zrangebyscore', KEYS[1], '-inf', '(' .. ARGV[1], 'LIMIT', 0, tonumber(ARGV[2])) "
+            + "for _, qid in ipairs(qids) do "
+            + "redis.call('zrem', KEYS[1], qid) "
+            + "if ARGV[3] == '1' then redis.call('rpush', KEYS[2], qid) "
+            + "else redis.call('hdel', KEYS[3], qid) end "
+            + "end "
+            + "return #qids";
+
+    /**
+     * Lua script to put a message: data {@code ARGV[2]} is stored in the hash
+     * and id {@code ARGV[1]} is pushed to the list.
+     */
+    private final static String SCRIPT_QUEUE = "redis.call('hset', KEYS[1], ARGV[1], ARGV[2]) "
+            + "redis.call('rpush', KEYS[2], ARGV[1]) "
+            + "return 1";
+
+    /**
+     * Lua script to re-queue a message: data {@code ARGV[2]} is stored in the
+     * hash and id {@code ARGV[1]} is moved from the sorted set to the list.
+     */
+    private final static String SCRIPT_REQUEUE = "redis.call('hset', KEYS[1], ARGV[1], ARGV[2]) "
+            + "redis.call('zrem', KEYS[3], ARGV[1]) "
+            + "redis.call('rpush', KEYS[2], ARGV[1]) "
+            + "return 1";
+
+    /**
+     * Lua script to finish a message: id {@code ARGV[1]} is removed from the
+     * hash and the sorted set.
+     */
+    private final static String SCRIPT_FINISH = "local n = redis.call('hdel', KEYS[1], ARGV[1]) "
+            + "redis.call('zrem', KEYS[2], ARGV[1]) "
+            + "return n";
+
+    private final static int SCRIPT_IDX_TAKE_BATCH = 0;
+    private final static int SCRIPT_IDX_RECOVER_ORPHANS = 1;
+    private final static int SCRIPT_IDX_QUEUE = 2;
+    private final static int SCRIPT_IDX_REQUEUE = 3;
+    private final static int SCRIPT_IDX_FINISH = 4;
+    private final RedisScripts scripts = new RedisScripts(SCRIPT_TAKE_BATCH,
+            SCRIPT_RECOVER_ORPHANS, SCRIPT_QUEUE, SCRIPT_REQUEUE, SCRIPT_FINISH);
+
+    private byte[] redisHashName, redisListName, redisSortedSetName;
+
+    private void loadScripts() {
+        try (Jedis jedis = getJedisPool().getResource()) {
+            scripts.load(jedis);
+        }
+    }
+
+    /**
+     * Calls a script with {@code EVALSHA}, see {@link RedisScripts}.
+     * 
+     * @param jedis
+     * @param scriptIdx
+     * @param keyCount
+     * @param params
+     * @return
+     * @since 0.4.0
+     */
+    protected Object evalScript(Jedis jedis, int scriptIdx, int keyCount, byte[]... params) {
+        return scripts.eval(jedis, scriptIdx, keyCount, params);
+    }
+
+    private static byte[] queueIdField(IQueueMessage msg) {
+        Object qId = msg.qId();
+        if (qId == null || (qId instanceof Number && ((Number) qId).longValue() == 0)) {
+            qId = IDGEN.generateId64();
+            msg.qId(qId);
+        }
+        return String.valueOf(qId).getBytes(UTF8);
+    }
+
+    /**
+     * {@inheritDoc}
+     * 
+     * <p>
+     * One {@code EVALSHA} round-trip.
+     * </p>
+     */
+    @Override
+    public boolean queue(IQueueMessage msg) {
+        IQueueMessage _msg = msg.clone();
+        Date now = new Date();
+        _msg.qNumRequeues(0).qOriginalTimestamp(now).qTimestamp(now);
+        byte[] field = queueIdField(_msg);
+        try (Jedis jedis = getJedisPool().getResource()) {
+            evalScript(jedis, SCRIPT_IDX_QUEUE, 2, redisHashName, redisListName, field,
+                    serialize(_msg));
+            return true;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * 
+     * <p>
+     * One {@code EVALSHA} round-trip.
+     * </p>
+     */
+    @Override
+    public boolean requeue(IQueueMessage msg) {
+        IQueueMessage _msg = msg.clone();
+        _msg.qIncNumRequeues().qTimestamp(new Date());
+        return storeRequeued(_msg);
+    }
+
+    /**
+     * {@inheritDoc}
+     * 
+     * <p>
+     * One {@code EVALSHA} round-trip.
+     * </p>
+     */
+    @Override
+    public boolean requeueSilent(IQueueMessage msg) {
+        return storeRequeued(msg.clone());
+    }
+
+    private boolean storeRequeued(IQueueMessage msg) {
+        byte[] field = queueIdField(msg);
+        try (Jedis jedis = getJedisPool().getResource()) {
+            evalScript(jedis, SCRIPT_IDX_REQUEUE, 3, redisHashName, redisListName,
+                    redisSortedSetName, field, serialize(msg));
+            return true;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * 
+     * <p>
+     * One {@code EVALSHA} round-trip.
+     * </p>
+     */
+    @Override
+    public void finish(IQueueMessage msg) {
+        Object qId = msg.qId();
+        if (qId == null) {
+            return;
+        }
+        try (Jedis jedis = getJedisPool().getResource()) {
+            evalScript(jedis, SCRIPT_IDX_FINISH, 2, redisHashName, redisSortedSetName, String
+                    .valueOf(qId).getBytes(UTF8));
+        }
+    }
+
     /**
      * {@inheritDoc}
+     * 
+     * <p>
+     * One {@code EVALSHA} round-trip, see {@link #takeBatch(int)}.
+     * </p>
      */
     @Override
     public QueueMessage take() {
-        return QueueMessage.newInstance(super.take());
+        List<QueueMessage> msgs = takeBatch(1);
+        return msgs.size() > 0 ? msgs.get(0) : null;
+    }
+
+    /**
+     * {@inheritDoc}
+     * 
+     * <p>
+     * All messages are written within one {@code MULTI/EXEC} block, sent in a
+     * single pipeline.
+     * </p>
+     */
+    @Override
+    public boolean[] queueBatch(List<QueueMessage> msgs) {
+        boolean[] result = new boolean[msgs.size()];
+        if (msgs.size() == 0) {
+            return result;
+        }
+
+        Date now = new Date();
+        try (Jedis jedis = getJedisPool().getResource()) {
+            List<Response<Long>> responses = new ArrayList<Response<Long>>(msgs.size());
+            Pipeline p = jedis.pipelined();
+            p.multi();
+            for (QueueMessage msg : msgs) {
+                if (msg.queueId() == 0) {
+                    msg.queueId(IDGEN.generateId64());
+                }
+                msg.qNumRequeues(0).qOriginalTimestamp(now).qTimestamp(now);
+                byte[] field = String.valueOf(msg.queueId()).getBytes(UTF8);
+                responses.add(p.hset(redisHashName, field, serialize(msg)));
+                p.rpush(redisListName, field);
+            }
+            p.exec();
+            p.sync();
+            for (int i = 0; i < result.length; i++) {
+                result[i] = responses.get(i).get() != null;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * {@inheritDoc}
+     * 
+     * <p>
+     * Messages are claimed atomically by a single Lua script ({@code EVALSHA}).
+     * </p>
+     */
+    @SuppressWarnings("unchecked")
+    @Override
+    public List<QueueMessage> takeBatch(int maxMessages) {
+        List<QueueMessage> result = new ArrayList<QueueMessage>();
+        if (maxMessages < 1) {
+            return result;
+        }
+
+        try (Jedis jedis = getJedisPool().getResource()) {
+            Object response = evalScript(jedis, SCRIPT_IDX_TAKE_BATCH, 3, redisListName,
+                    redisSortedSetName, redisHashName,
+                    String.valueOf(System.currentTimeMillis()).getBytes(UTF8),
+                    String.valueOf(maxMessages).getBytes(UTF8));
+            if (response instanceof List) {
+                for (byte[] data : (List<byte[]>) response) {
+                    QueueMessage msg = QueueMessage
+                            .newInstance((UniversalQueueMessage) deserialize(data));
+                    if (msg != null) {
+                        result.add(msg);
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * {@inheritDoc}
+     * 
+     * <p>
+     * Ids are removed from the hash and the sorted set within one
+     * {@code MULTI/EXEC} block, sent in a single pipeline.
+     * </p>
+     */
+    @Override
+    public int finishBatch(Collection<Long> queueIds) {
+        if (queueIds == null || queueIds.size() == 0) {
+            return 0;
+        }
+
+        List<byte[]> fields = new ArrayList<byte[]>(queueIds.size());
+        for (Long queueId : queueIds) {
+            if (queueId != null) {
+                fields.add(String.valueOf(queueId).getBytes(UTF8));
+            }
+        }
+        if (fields.size() == 0) {
+            return 0;
+        }
+
+        byte[][] _fields = fields.toArray(new byte[fields.size()][]);
+        try (Jedis jedis = getJedisPool().getResource()) {
+            Pipeline p = jedis.pipelined();
+            p.multi();
+            Response<Long> response = p.hdel(redisHashName, _fields);
+            p.zrem(redisSortedSetName, _fields);
+            p.exec();
+            p.sync();
+            Long result = response.get();
+            return result != null ? result.intValue() : 0;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * 
+     * <p>
+     * Orphan messages are removed by a single Lua script.
+     * </p>
+     */
+    @Override
+    public int discardOrphanMessages(long thresholdTimestampMs, int maxMessages) {
+        return recoverOrphanMessages(thresholdTimestampMs, maxMessages, false);
+    }
+
+    /**
+     * {@inheritDoc}
+     * 
+     * <p>
+     * Orphan messages are moved by a single Lua script.
+     * </p>
+     */
+    @Override
+    public int requeueOrphanMessages(long thresholdTimestampMs, int maxMessages) {
+        return recoverOrphanMessages(thresholdTimestampMs, maxMessages, true);
+    }
+
+    private int recoverOrphanMessages(long thresholdTimestampMs, int maxMessages,
+            boolean requeue) {
+        if (maxMessages < 1) {
+            return 0;
+        }
+        try (Jedis jedis = getJedisPool().getResource()) {
+            Object response = evalScript(jedis, SCRIPT_IDX_RECOVER_ORPHANS, 3,
+                    redisSortedSetName, redisListName, redisHashName,
+                    String.valueOf(thresholdTimestampMs).getBytes(UTF8),
+                    String.valueOf(maxMessages).getBytes(UTF8), (requeue ? "1" : "0")
+                            .getBytes(UTF8));
+            return response instanceof Number ? ((Number) response).intValue() : 0;
+        }
     }
 
     /**
@@ -28,6 +363,10 @@ public class QsRedisQueue extends UniversalRedisQueue implements IQsQueue {
     @Override
     public QsRedisQueue init() {
         super.init();
+        redisHashName = getRedisHashName().getBytes(UTF8);
+        redisListName = getRedisListName().getBytes(UTF8);
+        redisSortedSetName = getRedisSortedSetName().getBytes(UTF8);
+        loadScripts();
         return this;
     }
 
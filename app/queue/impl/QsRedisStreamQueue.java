@@ -0,0 +1,761 @@
+package queue.impl;
+
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import queue.IQsQueue;
+import queue.internal.QueueMessage;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.JedisPool;
+import redis.clients.jedis.exceptions.JedisDataException;
+
+import com.github.ddth.queue.IQueueMessage;
+import com.github.ddth.queue.UniversalQueueMessage;
+
+/**
+ * A queue backed by a Redis Stream (Redis v7.0+) and a consumer group.
+ * 
+ * <ul>
+ * <li>Queue storage: stream entries not yet delivered to the consumer group;
+ * ephemeral storage: the group's pending entries list (PEL).</li>
+ * <li>{@code queue}: {@code XADD}; {@code take}: {@code XREADGROUP};
+ * {@code finish}: {@code XACK} + {@code XDEL}; {@code requeue}: {@code XADD}
+ * of a new entry + {@code XACK}/{@code XDEL} of the old one (the message gets
+ * a new queue id).</li>
+ * <li>Orphan messages are pending entries idle for longer than the threshold.
+ * If {@link #getOrphanMinIdleMs()} is positive, {@code take} reclaims them
+ * ({@code XPENDING} + {@code XCLAIM}) before reading new entries.</li>
+ * </ul>
+ * 
+ * <p>
+ * Jedis has no stream commands, each operation is one Lua script call (see
+ * {@link RedisScripts}). {@code take} calls {@code XREADGROUP} from a script,
+ * which Redis only allows since v7.0 (earlier versions flag it
+ * {@code noscript}); {@link #init()} fails on older servers. A queue id is the entry id {@code ms-seq} packed as
+ * {@code (ms << 20) | seq}.
+ * </p>
+ * 
+ * @author Thanh Nguyen <btnguyen2k@gmail.com>
+ * @since 0.4.0
+ */
+public class QsRedisStreamQueue implements IQsQueue {
+
+    private final static Charset UTF8 = Charset.forName("UTF-8");
+
+    private final static int MIN_REDIS_MAJOR_VERSION = 7;
+    private final static Pattern REDIS_VERSION = Pattern
+            .compile("redis_version:((\\d+)[^\\r\\n]*)");
+
+    /**
+     * Lua functions shared by scripts: {@code fields} turns an entry's
+     * field/value list into a table, {@code emit} appends an entry (id,
+     * content, num requeues, original timestamp, timestamp) to a flat result
+     * list.
+     */
+    private final static String LUA_FUNCTIONS = "local function fields(f) "
+            + "local m = {} "
+            + "for i = 1, #f, 2 do m[f[i]] = f[i + 1] end "
+            + "return m "
+            + "end "
+            + "local function emit(r, id, f) "
+            + "local m = fields(f) "
+            + "table.insert(r, id) "
+            + "table.insert(r, m['c'] or '') "
+            + "table.insert(r, m['n'] or '0') "
+            + "table.insert(r, m['o'] or '0') "
+            + "table.insert(r, m['t'] or '0') "
+            + "end ";
+
+    /**
+     * Lua script to create consumer group {@code ARGV[1]} (and the stream),
+     * ignoring {@code BUSYGROUP} errors.
+     */
+    private final static String SCRIPT_CREATE_GROUP = "local ok, e = pcall(redis.call, 'xgroup', 'CREATE', KEYS[1], ARGV[1], '0', 'MKSTREAM') "
+            + "if not ok and not string.find(e.err, 'BUSYGROUP') then return redis.error_reply(e.err) end "
+            + "return 1";
+
+    /**
+     * Lua script to put messages: each quad {@code (content, num requeues,
+     * original timestamp, timestamp)} of {@code ARGV} is added as one entry.
+     * Returns ids of the new entries.
+     */
+    private final static String SCRIPT_QUEUE = "local r = {} "
+            + "for i = 1, #ARGV, 4 do "
+            + "table.insert(r, redis.call('xadd', KEYS[1], '*', 'c', ARGV[i], 'n', ARGV[i + 1], 'o', ARGV[i + 2], 't', ARGV[i + 3])) "
+            + "end "
+            + "return r";
+
+    /**
+     * Lua script to take up to {@code ARGV[3]} messages for consumer
+     * {@code ARGV[2]} of group {@code ARGV[1]}: pending entries (among the
+     * first {@code ARGV[5]}) idle for at least {@code ARGV[4]} ms (if
+     * positive) are claimed first, then new entries are read.
+     */
+    private final static String SCRIPT_TAKE_BATCH = LUA_FUNCTIONS
+            + "local r = {} "
+            + "local n = tonumber(ARGV[3]) "
+            + "local minIdle = tonumber(ARGV[4]) "
+            + "if minIdle > 0 then "
+            + "local ids = {} "
+            + "for _, e in ipairs(redis.call('xpending', KEYS[1], ARGV[1], '-', '+', tonumber(ARGV[5]))) do "
+            + "if #ids >= n then break end "
+            + "if e[3] >= minIdle then table.insert(ids, e[1]) end "
+            + "end "
+            + "if #ids > 0 then "
+            + "for _, x in ipairs(redis.call('xclaim', KEYS[1], ARGV[1], ARGV[2], minIdle, unpack(ids))) do "
+            + "if x and x[2] then emit(r, x[1], x[2]) n = n - 1 end "
+            + "end "
+            + "end "
+            + "end "
+            + "if n > 0 then "
+            + "local x = redis.call('xreadgroup', 'GROUP', ARGV[1], ARGV[2], 'COUNT', n, 'STREAMS', KEYS[1], '>') "
+            + "if x then for _, e in ipairs(x[1][2]) do emit(r, e[1], e[2]) end end "
+            + "end "
+            + "return r";
+
+    /**
+     * Lua script to re-queue a message: adds entry {@code (ARGV[3..6])} and
+     * removes entry {@code ARGV[2]} (if not empty) from the stream and the
+     * PEL of group {@code ARGV[1]}. Returns id of the new entry.
+     */
+    private final static String SCRIPT_REQUEUE = "local id = redis.call('xadd', KEYS[1], '*', 'c', ARGV[3], 'n', ARGV[4], 'o', ARGV[5], 't', ARGV[6]) "
+            + "if ARGV[2] ~= '' then "
+            + "redis.call('xack', KEYS[1], ARGV[1], ARGV[2]) "
+            + "redis.call('xdel', KEYS[1], ARGV[2]) "
+            + "end "
+            + "return id";
+
+    /**
+     * Lua script to finish messages: entries {@code ARGV[2..]} are removed
+     * from the stream and the PEL of group {@code ARGV[1]}.
+     */
+    private final static String SCRIPT_FINISH = "local n = 0 "
+            + "for i = 2, #ARGV do "
+            + "n = n + redis.call('xack', KEYS[1], ARGV[1], ARGV[i]) "
+            + "redis.call('xdel', KEYS[1], ARGV[i]) "
+            + "end "
+            + "return n";
+
+    /**
+     * Lua script to process up to {@code ARGV[3]} pending entries of group
+     * {@code ARGV[1]} idle for at least {@code ARGV[2]} ms. {@code ARGV[4]}
+     * is the action: {@code list}, {@code discard} or {@code requeue}. At most
+     * {@code ARGV[5]} pending entries are scanned, starting from entry id
+     * {@code ARGV[6]}. Returns the id to resume the scan from ({@code -} once
+     * the end of the PEL has been reached), followed by the entries
+     * ({@code list}) or the number of entries processed.
+     */
+    private final static String SCRIPT_ORPHANS = LUA_FUNCTIONS
+            + "local r = {'-'} "
+            + "local cnt = 0 "
+            + "local minIdle = tonumber(ARGV[2]) "
+            + "local max = tonumber(ARGV[3]) "
+            + "local maxScan = tonumber(ARGV[5]) "
+            + "local scanned = 0 "
+            + "local start = ARGV[6] "
+            + "local done = false "
+            + "while cnt < max and scanned < maxScan do "
+            + "local size = math.min(100, maxScan - scanned) "
+            + "local p = redis.call('xpending', KEYS[1], ARGV[1], start, '+', size) "
+            + "local last = nil "
+            + "local k = 0 "
+            + "for _, e in ipairs(p) do "
+            + "if cnt >= max then break end "
+            + "k = k + 1 "
+            + "last = e[1] "
+            + "if e[3] >= minIdle then "
+            + "local x = redis.call('xrange', KEYS[1], e[1], e[1]) "
+            + "if ARGV[4] == 'list' then "
+            + "if x[1] then emit(r, x[1][1], x[1][2]) end "
+            + "else "
+            + "if ARGV[4] == 'requeue' and x[1] then "
+            + "local m = fields(x[1][2]) "
+            + "redis.call('xadd', KEYS[1], '*', 'c', m['c'] or '', 'n', m['n'] or '0', 'o', m['o'] or '0', 't', m['t'] or '0') "
+            + "end "
+            + "redis.call('xack', KEYS[1], ARGV[1], e[1]) "
+            + "redis.call('xdel', KEYS[1], e[1]) "
+            + "end "
+            + "cnt = cnt + 1 "
+            + "end "
+            + "end "
+            + "scanned = scanned + k "
+            + "if k == #p and #p < size then done = true break end "
+            + "local ms, seq = string.match(last, '(%d+)-(%d+)') "
+            + "start = ms .. '-' .. (tonumber(seq) + 1) "
+            + "end "
+            + "if not done then r[1] = start end "
+            + "if ARGV[4] == 'list' then return r end "
+            + "return {r[1], cnt}";
+
+    /**
+     * Lua script to count entries: returns {@code (stream length - pending,
+     * pending)} for group {@code ARGV[1]}.
+     */
+    private final static String SCRIPT_SIZES = "local len = redis.call('xlen', KEYS[1]) "
+            + "local ok, p = pcall(redis.call, 'xpending', KEYS[1], ARGV[1]) "
+            + "local pending = 0 "
+            + "if ok then pending = p[1] end "
+            + "return {len - pending, pending}";
+
+    /**
+     * Lua script to remove consumers of group {@code ARGV[1]} (except
+     * {@code ARGV[3]}) that have no pending entries and have been idle for at
+     * least {@code ARGV[2]} ms. Returns number of consumers removed.
+     */
+    private final static String SCRIPT_DELETE_IDLE_CONSUMERS = LUA_FUNCTIONS
+            + "local n = 0 "
+            + "local minIdle = tonumber(ARGV[2]) "
+            + "for _, c in ipairs(redis.call('xinfo', 'CONSUMERS', KEYS[1], ARGV[1])) do "
+            + "local m = fields(c) "
+            + "if m['name'] ~= ARGV[3] and tonumber(m['pending']) == 0 and tonumber(m['idle']) >= minIdle then "
+            + "redis.call('xgroup', 'DELCONSUMER', KEYS[1], ARGV[1], m['name']) "
+            + "n = n + 1 "
+            + "end "
+            + "end "
+            + "return n";
+
+    private final static int SCRIPT_IDX_CREATE_GROUP = 0;
+    private final static int SCRIPT_IDX_QUEUE = 1;
+    private final static int SCRIPT_IDX_TAKE_BATCH = 2;
+    private final static int SCRIPT_IDX_REQUEUE = 3;
+    private final static int SCRIPT_IDX_FINISH = 4;
+    private final static int SCRIPT_IDX_ORPHANS = 5;
+    private final static int SCRIPT_IDX_SIZES = 6;
+    private final static int SCRIPT_IDX_DELETE_IDLE_CONSUMERS = 7;
+    private final RedisScripts scripts = new RedisScripts(SCRIPT_CREATE_GROUP, SCRIPT_QUEUE,
+            SCRIPT_TAKE_BATCH, SCRIPT_REQUEUE, SCRIPT_FINISH, SCRIPT_ORPHANS, SCRIPT_SIZES,
+            SCRIPT_DELETE_IDLE_CONSUMERS);
+
+    /**
+     * Number of pending entries inspected by {@code take} when looking for
+     * orphan messages to reclaim.
+     */
+    private final static int RECLAIM_SCAN_SIZE = 100;
+
+    /**
+     * Max number of orphan messages returned by
+     * {@link #getOrphanMessages(long)}.
+     */
+    private final static int MAX_ORPHAN_MESSAGES = 1000;
+
+    /**
+     * Max number of pending entries scanned by one orphan sweep call, the next
+     * call resumes from where the previous one stopped.
+     */
+    private final static int ORPHAN_SCAN_SIZE = 10000;
+
+    private JedisPool jedisPool;
+    private String streamName = "queue_x";
+    private String consumerGroupName = "queue-server";
+    private String consumerName = "queue-server";
+    private long orphanMinIdleMs = 0;
+    private volatile String orphanScanCursor = "-";
+
+    private byte[] _streamName, _consumerGroupName, _consumerName;
+
+    public JedisPool getJedisPool() {
+        return jedisPool;
+    }
+
+    public QsRedisStreamQueue setJedisPool(JedisPool jedisPool) {
+        this.jedisPool = jedisPool;
+        return this;
+    }
+
+    /**
+     * Redis key of the stream.
+     * 
+     * @return
+     */
+    public String getStreamName() {
+        return streamName;
+    }
+
+    public QsRedisStreamQueue setStreamName(String streamName) {
+        this.streamName = streamName;
+        return this;
+    }
+
+    /**
+     * Name of the consumer group, shared by all queue-server instances.
+     * 
+     * @return
+     */
+    public String getConsumerGroupName() {
+        return consumerGroupName;
+    }
+
+    public QsRedisStreamQueue setConsumerGroupName(String consumerGroupName) {
+        this.consumerGroupName = consumerGroupName;
+        return this;
+    }
+
+    /**
+     * Name of the consumer within the group, unique per queue-server instance.
+     * 
+     * @return
+     */
+    public String getConsumerName() {
+        return consumerName;
+    }
+
+    public QsRedisStreamQueue setConsumerName(String consumerName) {
+        this.consumerName = consumerName;
+        return this;
+    }
+
+    /**
+     * Pending entries idle for at least this value (ms) are reclaimed by
+     * {@code take}. {@code 0} disables reclaiming.
+     * 
+     * @return
+     */
+    public long getOrphanMinIdleMs() {
+        return orphanMinIdleMs;
+    }
+
+    public QsRedisStreamQueue setOrphanMinIdleMs(long orphanMinIdleMs) {
+        this.orphanMinIdleMs = orphanMinIdleMs;
+        return this;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public QsRedisStreamQueue init() {
+        _streamName = streamName.getBytes(UTF8);
+        _consumerGroupName = consumerGroupName.getBytes(UTF8);
+        _consumerName = consumerName.getBytes(UTF8);
+        try (Jedis jedis = jedisPool.getResource()) {
+            checkRedisVersion(jedis);
+            scripts.load(jedis);
+            createConsumerGroup(jedis);
+        }
+        return this;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void destroy() {
+        // EMPTY: the Jedis pool is owned by the caller
+    }
+
+    /**
+     * Redis v7.0+ is required: earlier versions do not allow
+     * {@code XREADGROUP} in scripts.
+     */
+    private static void checkRedisVersion(Jedis jedis) {
+        Matcher m = REDIS_VERSION.matcher(jedis.info("server"));
+        if (m.find() && Integer.parseInt(m.group(2)) < MIN_REDIS_MAJOR_VERSION) {
+            throw new IllegalStateException("Redis v" + MIN_REDIS_MAJOR_VERSION
+                    + ".0+ is required for stream queues, found v" + m.group(1) + "!");
+        }
+    }
+
+    private void createConsumerGroup(Jedis jedis) {
+        scripts.eval(jedis, SCRIPT_IDX_CREATE_GROUP, 1, _streamName, _consumerGroupName);
+    }
+
+    /**
+     * Calls a script; if the stream or the consumer group has been removed
+     * ({@code NOGROUP}), the group is created again and the call is retried
+     * once.
+     */
+    private Object evalScript(Jedis jedis, int scriptIdx, byte[]... args) {
+        byte[][] params = new byte[args.length + 1][];
+        params[0] = _streamName;
+        System.arraycopy(args, 0, params, 1, args.length);
+        try {
+            return scripts.eval(jedis, scriptIdx, 1, params);
+        } catch (JedisDataException e) {
+            if (e.getMessage() == null || !e.getMessage().contains("NOGROUP")) {
+                throw e;
+            }
+        }
+        createConsumerGroup(jedis);
+        return scripts.eval(jedis, scriptIdx, 1, params);
+    }
+
+    private static byte[] bytes(Object value) {
+        return String.valueOf(value).getBytes(UTF8);
+    }
+
+    private static long toLong(Object value) {
+        if (value instanceof Number) {
+            return ((Number) value).longValue();
+        }
+        String str = value instanceof byte[] ? new String((byte[]) value, UTF8) : String
+                .valueOf(value);
+        return Long.parseLong(str);
+    }
+
+    /**
+     * Converts a stream entry id ({@code ms-seq}) to a queue id.
+     * 
+     * @param entryId
+     * @return
+     */
+    public static long toQueueId(String entryId) {
+        int pos = entryId.indexOf('-');
+        long ms = Long.parseLong(entryId.substring(0, pos));
+        long seq = Long.parseLong(entryId.substring(pos + 1));
+        return (ms << 20) | (seq & 0xFFFFF);
+    }
+
+    /**
+     * Converts a queue id back to a stream entry id ({@code ms-seq}).
+     * 
+     * @param queueId
+     * @return
+     */
+    public static String toEntryId(long queueId) {
+        return (queueId >>> 20) + "-" + (queueId & 0xFFFFF);
+    }
+
+    private static byte[] entryId(IQueueMessage msg) {
+        Object qId = msg.qId();
+        if (qId == null) {
+            return new byte[0];
+        }
+        long queueId = toLong(qId);
+        return queueId != 0 ? toEntryId(queueId).getBytes(UTF8) : new byte[0];
+    }
+
+    private static byte[] content(IQueueMessage msg) {
+        byte[] content = msg instanceof UniversalQueueMessage ? ((UniversalQueueMessage) msg)
+                .content() : null;
+        return content != null ? content : new byte[0];
+    }
+
+    private static void addFields(List<byte[]> params, IQueueMessage msg) {
+        params.add(content(msg));
+        params.add(bytes(msg.qNumRequeues()));
+        params.add(bytes(msg.qOriginalTimestamp().getTime()));
+        params.add(bytes(msg.qTimestamp().getTime()));
+    }
+
+    /**
+     * Parses a flat list of entries, as returned by the {@code emit} Lua
+     * function.
+     */
+    private static List<QueueMessage> toMessages(Object response) {
+        List<QueueMessage> result = new ArrayList<QueueMessage>();
+        if (response instanceof List) {
+            List<?> data = (List<?>) response;
+            for (int i = 0; i + 4 < data.size(); i += 5) {
+                long queueId = toQueueId(new String((byte[]) data.get(i), UTF8));
+                byte[] content = (byte[]) data.get(i + 1);
+                int numRequeues = (int) toLong(data.get(i + 2));
+                Date orgTimestamp = new Date(toLong(data.get(i + 3)));
+                Date timestamp = new Date(toLong(data.get(i + 4)));
+                result.add(QueueMessage.newInstance(queueId, orgTimestamp, timestamp,
+                        numRequeues, content));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * {@inheritDoc}
+     * 
+     * <p>
+     * One {@code XADD}.
+     * </p>
+     */
+    @Override
+    public boolean queue(IQueueMessage msg) {
+        IQueueMessage _msg = msg.clone();
+        Date now = new Date();
+        _msg.qNumRequeues(0).qOriginalTimestamp(now).qTimestamp(now);
+        List<byte[]> params = new ArrayList<byte[]>(4);
+        addFields(params, _msg);
+        try (Jedis jedis = jedisPool.getResource()) {
+            evalScript(jedis, SCRIPT_IDX_QUEUE, params.toArray(new byte[params.size()][]));
+            return true;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * 
+     * <p>
+     * All messages are added by one Lua script call; queue ids are assigned
+     * from the new entries' ids.
+     * </p>
+     */
+    @Override
+    public boolean[] queueBatch(List<QueueMessage> msgs) {
+        boolean[] result = new boolean[msgs.size()];
+        if (msgs.size() == 0) {
+            return result;
+        }
+
+        Date now = new Date();
+        List<byte[]> params = new ArrayList<byte[]>(msgs.size() * 4);
+        for (QueueMessage msg : msgs) {
+            msg.qNumRequeues(0).qOriginalTimestamp(now).qTimestamp(now);
+            addFields(params, msg);
+        }
+        try (Jedis jedis = jedisPool.getResource()) {
+            Object response = evalScript(jedis, SCRIPT_IDX_QUEUE,
+                    params.toArray(new byte[params.size()][]));
+            if (response instanceof List) {
+                List<?> ids = (List<?>) response;
+                for (int i = 0; i < result.length && i < ids.size(); i++) {
+                    msgs.get(i).queueId(toQueueId(new String((byte[]) ids.get(i), UTF8)));
+                    result[i] = true;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * {@inheritDoc}
+     * 
+     * <p>
+     * The message is stored as a new entry: its queue id changes.
+     * </p>
+     */
+    @Override
+    public boolean requeue(IQueueMessage msg) {
+        IQueueMessage _msg = msg.clone();
+        _msg.qIncNumRequeues().qTimestamp(new Date());
+        return storeRequeued(msg, _msg);
+    }
+
+    /**
+     * {@inheritDoc}
+     * 
+     * <p>
+     * The message is stored as a new entry: its queue id changes.
+     * </p>
+     */
+    @Override
+    public boolean requeueSilent(IQueueMessage msg) {
+        return storeRequeued(msg, msg.clone());
+    }
+
+    private boolean storeRequeued(IQueueMessage orgMsg, IQueueMessage msg) {
+        List<byte[]> params = new ArrayList<byte[]>(6);
+        params.add(_consumerGroupName);
+        params.add(entryId(orgMsg));
+        addFields(params, msg);
+        try (Jedis jedis = jedisPool.getResource()) {
+            evalScript(jedis, SCRIPT_IDX_REQUEUE, params.toArray(new byte[params.size()][]));
+            return true;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void finish(IQueueMessage msg) {
+        byte[] entryId = entryId(msg);
+        if (entryId.length == 0) {
+            return;
+        }
+        try (Jedis jedis = jedisPool.getResource()) {
+            evalScript(jedis, SCRIPT_IDX_FINISH, _consumerGroupName, entryId);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * 
+     * <p>
+     * All entries are removed by one Lua script call.
+     * </p>
+     */
+    @Override
+    public int finishBatch(Collection<Long> queueIds) {
+        if (queueIds == null || queueIds.size() == 0) {
+            return 0;
+        }
+
+        List<byte[]> params = new ArrayList<byte[]>(queueIds.size() + 1);
+        params.add(_consumerGroupName);
+        for (Long queueId : queueIds) {
+            if (queueId != null && queueId.longValue() != 0) {
+                params.add(toEntryId(queueId.longValue()).getBytes(UTF8));
+            }
+        }
+        if (params.size() == 1) {
+            return 0;
+        }
+        try (Jedis jedis = jedisPool.getResource()) {
+            Object response = evalScript(jedis, SCRIPT_IDX_FINISH,
+                    params.toArray(new byte[params.size()][]));
+            return response instanceof Number ? ((Number) response).intValue() : 0;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public QueueMessage take() {
+        List<QueueMessage> msgs = takeBatch(1);
+        return msgs.size() > 0 ? msgs.get(0) : null;
+    }
+
+    /**
+     * {@inheritDoc}
+     * 
+     * <p>
+     * One Lua script call: idle pending entries are reclaimed (if
+     * {@link #getOrphanMinIdleMs()} is positive), then new entries are read.
+     * </p>
+     */
+    @Override
+    public List<QueueMessage> takeBatch(int maxMessages) {
+        if (maxMessages < 1) {
+            return new ArrayList<QueueMessage>();
+        }
+        try (Jedis jedis = jedisPool.getResource()) {
+            Object response = evalScript(jedis, SCRIPT_IDX_TAKE_BATCH, _consumerGroupName,
+                    _consumerName, bytes(maxMessages), bytes(orphanMinIdleMs),
+                    bytes(Math.max(maxMessages, RECLAIM_SCAN_SIZE)));
+            return toMessages(response);
+        }
+    }
+
+    /**
+     * Scans the PEL for orphan entries, from (and updating) the orphan scan
+     * cursor. Returns the script's response without the cursor.
+     */
+    private List<?> processOrphans(long thresholdTimestampMs, int maxMessages, String action) {
+        long minIdleMs = Math.max(0, System.currentTimeMillis() - thresholdTimestampMs);
+        Object response;
+        try (Jedis jedis = jedisPool.getResource()) {
+            response = evalScript(jedis, SCRIPT_IDX_ORPHANS, _consumerGroupName, bytes(minIdleMs),
+                    bytes(maxMessages), bytes(action), bytes(ORPHAN_SCAN_SIZE),
+                    bytes(orphanScanCursor));
+        }
+        List<?> data = (List<?>) response;
+        orphanScanCursor = new String((byte[]) data.get(0), UTF8);
+        return data.subList(1, data.size());
+    }
+
+    private int processOrphanCount(long thresholdTimestampMs, int maxMessages, String action) {
+        List<?> data = processOrphans(thresholdTimestampMs, maxMessages, action);
+        return data.size() > 0 ? (int) toLong(data.get(0)) : 0;
+    }
+
+    /**
+     * {@inheritDoc}
+     * 
+     * <p>
+     * Orphan messages are pending entries idle since before
+     * {@code thresholdTimestampMs}; at most 1000 are returned. At most 10000
+     * pending entries are scanned per call, the next call resumes the scan
+     * where this one stopped.
+     * </p>
+     */
+    @Override
+    public Collection<IQueueMessage> getOrphanMessages(long thresholdTimestampMs) {
+        return new ArrayList<IQueueMessage>(toMessages(processOrphans(thresholdTimestampMs,
+                MAX_ORPHAN_MESSAGES, "list")));
+    }
+
+    /**
+     * {@inheritDoc}
+     * 
+     * <p>
+     * One Lua script call ({@code XPENDING} + {@code XACK}/{@code XDEL}),
+     * scanning at most 10000 pending entries from where the previous call
+     * stopped.
+     * </p>
+     */
+    @Override
+    public int discardOrphanMessages(long thresholdTimestampMs, int maxMessages) {
+        if (maxMessages < 1) {
+            return 0;
+        }
+        return processOrphanCount(thresholdTimestampMs, maxMessages, "discard");
+    }
+
+    /**
+     * {@inheritDoc}
+     * 
+     * <p>
+     * One Lua script call: orphan entries are copied to new entries, then
+     * removed. Messages get new queue ids. At most 10000 pending entries are
+     * scanned, from where the previous call stopped.
+     * </p>
+     */
+    @Override
+    public int requeueOrphanMessages(long thresholdTimestampMs, int maxMessages) {
+        if (maxMessages < 1) {
+            return 0;
+        }
+        return processOrphanCount(thresholdTimestampMs, maxMessages, "requeue");
+    }
+
+    /**
+     * Removes consumers (other than this one) that have no pending entries
+     * and have been idle for at least {@code minIdleMs} ms, e.g. consumers of
+     * queue-server instances that are gone. A live consumer removed by
+     * mistake is re-created by its next {@code XREADGROUP}.
+     * 
+     * @param minIdleMs
+     * @return number of consumers removed
+     */
+    public int deleteIdleConsumers(long minIdleMs) {
+        try (Jedis jedis = jedisPool.getResource()) {
+            Object response = evalScript(jedis, SCRIPT_IDX_DELETE_IDLE_CONSUMERS,
+                    _consumerGroupName, bytes(Math.max(0, minIdleMs)), _consumerName);
+            return response instanceof Number ? ((Number) response).intValue() : 0;
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean moveFromEphemeralToQueueStorage(IQueueMessage msg) {
+        return requeueSilent(msg);
+    }
+
+    private long[] sizes() {
+        try (Jedis jedis = jedisPool.getResource()) {
+            Object response = evalScript(jedis, SCRIPT_IDX_SIZES, _consumerGroupName);
+            List<?> data = (List<?>) response;
+            return new long[] { toLong(data.get(0)), toLong(data.get(1)) };
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * 
+     * <p>
+     * Stream length minus number of pending entries.
+     * </p>
+     */
+    @Override
+    public int queueSize() {
+        return (int) sizes()[0];
+    }
+
+    /**
+     * {@inheritDoc}
+     * 
+     * <p>
+     * Number of pending entries of the consumer group.
+     * </p>
+     */
+    @Override
+    public int ephemeralSize() {
+        return (int) sizes()[1];
+    }
+
+}
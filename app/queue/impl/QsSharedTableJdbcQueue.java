@@ -0,0 +1,525 @@
+package queue.impl;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import queue.IQsQueue;
+import queue.internal.QueueMessage;
+
+import com.github.ddth.commons.utils.DPathUtils;
+import com.github.ddth.queue.IQueueMessage;
+import com.github.ddth.queue.UniversalQueueMessage;
+
+/**
+ * A JDBC queue stored in a table shared by all queues (rows keyed by
+ * {@code (queue_name, queue_id)}), see {@code dbschema/shared_schema.*.sql}.
+ * 
+ * <p>
+ * Ephemeral storage is a status column ({@link #STATUS_QUEUED}/
+ * {@link #STATUS_EPHEMERAL}) instead of a separate table: {@code take} and
+ * {@code requeue} are {@code UPDATE}s, {@code finish} a {@code DELETE}. A
+ * requeued message keeps its queue id. {@code take} is database-specific.
+ * </p>
+ * 
+ * @author Thanh Nguyen <btnguyen2k@gmail.com>
+ * @since 0.4.0
+ */
+public abstract class QsSharedTableJdbcQueue implements IQsQueue {
+
+    public final static int STATUS_QUEUED = 0;
+    public final static int STATUS_EPHEMERAL = 1;
+
+    /**
+     * Max number of ids bound to one {@code IN (...)} clause.
+     */
+    protected final static int MAX_IN_CLAUSE_SIZE = 1000;
+
+    protected final static String COLUMNS = "queue_id, msg_org_timestamp, msg_timestamp, msg_num_requeues, msg_content";
+
+    private DataSource dataSource;
+    private String tableName = "queue_messages";
+    private String queueName;
+
+    public DataSource getDataSource() {
+        return dataSource;
+    }
+
+    public QsSharedTableJdbcQueue setDataSource(DataSource dataSource) {
+        this.dataSource = dataSource;
+        return this;
+    }
+
+    /**
+     * Name of the shared table.
+     * 
+     * @return
+     */
+    public String getTableName() {
+        return tableName;
+    }
+
+    public QsSharedTableJdbcQueue setTableName(String tableName) {
+        this.tableName = tableName;
+        return this;
+    }
+
+    /**
+     * Name of the queue (value of column {@code queue_name}).
+     * 
+     * @return
+     */
+    public String getQueueName() {
+        return queueName;
+    }
+
+    public QsSharedTableJdbcQueue setQueueName(String queueName) {
+        this.queueName = queueName;
+        return this;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public QsSharedTableJdbcQueue init() {
+        return this;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void destroy() {
+        // EMPTY
+    }
+
+    /*----------------------------------------------------------------------*/
+
+    /**
+     * Constructs a {@link JdbcTemplate} from a connection.
+     * 
+     * @param conn
+     * @return
+     */
+    protected JdbcTemplate jdbcTemplate(Connection conn) {
+        DataSource ds = new SingleConnectionDataSource(conn, true);
+        return new JdbcTemplate(ds);
+    }
+
+    /**
+     * Formats a SQL statement: {@code {0}} is the table name, following
+     * placeholders are {@code args}.
+     * 
+     * @param sql
+     * @param args
+     * @return
+     */
+    protected String sql(String sql, Object... args) {
+        Object[] params = new Object[args.length + 1];
+        params[0] = tableName;
+        System.arraycopy(args, 0, params, 1, args.length);
+        return MessageFormat.format(sql, params);
+    }
+
+    /**
+     * Builds a list of {@code n} comma-separated SQL placeholders.
+     * 
+     * @param n
+     * @return
+     */
+    protected static String placeholders(int n) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < n; i++) {
+            sb.append(i > 0 ? ",?" : "?");
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Converts rows (columns {@link #COLUMNS}) to messages.
+     * 
+     * @param dbRows
+     * @return
+     */
+    protected static List<QueueMessage> toMessages(List<Map<String, Object>> dbRows) {
+        List<QueueMessage> result = new ArrayList<QueueMessage>();
+        if (dbRows != null) {
+            for (Map<String, Object> dbRow : dbRows) {
+                Long queueId = DPathUtils.getValue(dbRow, "queue_id", Long.class);
+                Date orgTimestamp = DPathUtils.getValue(dbRow, "msg_org_timestamp", Date.class);
+                Date timestamp = DPathUtils.getValue(dbRow, "msg_timestamp", Date.class);
+                Integer numRequeues = DPathUtils.getValue(dbRow, "msg_num_requeues",
+                        Integer.class);
+                byte[] content = (byte[]) dbRow.get("msg_content");
+                result.add(QueueMessage.newInstance(queueId != null ? queueId.longValue() : 0,
+                        orgTimestamp, timestamp, numRequeues != null ? numRequeues.intValue()
+                                : 0, content));
+            }
+        }
+        return result;
+    }
+
+    private static byte[] content(IQueueMessage msg) {
+        return msg instanceof UniversalQueueMessage ? ((UniversalQueueMessage) msg).content()
+                : null;
+    }
+
+    private static Long queueId(IQueueMessage msg) {
+        Object qId = msg.qId();
+        if (qId instanceof Number) {
+            return ((Number) qId).longValue();
+        }
+        try {
+            return qId != null ? Long.valueOf(qId.toString()) : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Runs a unit of work with a connection in auto-commit mode.
+     */
+    protected interface Work<T> {
+        T run(JdbcTemplate jdbcTemplate);
+    }
+
+    /**
+     * Runs a unit of work with a connection.
+     * 
+     * @param transactional
+     *            if {@code true} the work is done in one transaction
+     * @param work
+     * @return
+     */
+    protected <T> T execute(boolean transactional, Work<T> work) {
+        try (Connection conn = dataSource.getConnection()) {
+            conn.setAutoCommit(!transactional);
+            JdbcTemplate jdbcTemplate = jdbcTemplate(conn);
+            if (!transactional) {
+                return work.run(jdbcTemplate);
+            }
+            try {
+                T result = work.run(jdbcTemplate);
+                conn.commit();
+                return result;
+            } catch (SQLException | RuntimeException e) {
+                JdbcConnections.rollbackQuietly(conn);
+                throw e;
+            } finally {
+                JdbcConnections.resetAutoCommitQuietly(conn);
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /*----------------------------------------------------------------------*/
+
+    private final static String SQL_INSERT = "INSERT INTO {0} (queue_name, msg_status, msg_org_timestamp, msg_timestamp, msg_num_requeues, msg_content) VALUES (?, "
+            + STATUS_QUEUED + ", ?, ?, ?, ?)";
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean queue(IQueueMessage msg) {
+        final Date now = new Date();
+        final byte[] content = content(msg);
+        return execute(false, new Work<Boolean>() {
+            @Override
+            public Boolean run(JdbcTemplate jdbcTemplate) {
+                return jdbcTemplate.update(sql(SQL_INSERT), queueName, now, now, 0, content) > 0;
+            }
+        });
+    }
+
+    /**
+     * {@inheritDoc}
+     * 
+     * <p>
+     * One JDBC batch insert, in one transaction.
+     * </p>
+     */
+    @Override
+    public boolean[] queueBatch(List<QueueMessage> msgs) {
+        final boolean[] result = new boolean[msgs.size()];
+        if (msgs.size() == 0) {
+            return result;
+        }
+        Date now = new Date();
+        final List<Object[]> batchArgs = new ArrayList<Object[]>(msgs.size());
+        for (QueueMessage msg : msgs) {
+            msg.qNumRequeues(0).qOriginalTimestamp(now).qTimestamp(now);
+            batchArgs.add(new Object[] { queueName, now, now, 0, msg.content() });
+        }
+        return execute(true, new Work<boolean[]>() {
+            @Override
+            public boolean[] run(JdbcTemplate jdbcTemplate) {
+                int[] rows = jdbcTemplate.batchUpdate(sql(SQL_INSERT), batchArgs);
+                for (int i = 0; i < result.length && i < rows.length; i++) {
+                    result[i] = rows[i] > 0 || rows[i] == Statement.SUCCESS_NO_INFO;
+                }
+                return result;
+            }
+        });
+    }
+
+    /**
+     * {@inheritDoc}
+     * 
+     * <p>
+     * One {@code UPDATE} of the taken message (status back to queued, queue id
+     * unchanged). Returns {@code false} if the message is in the table but
+     * not taken (already requeued as an orphan).
+     * </p>
+     */
+    @Override
+    public boolean requeue(IQueueMessage msg) {
+        return storeRequeued(msg, msg.qNumRequeues() + 1, new Date());
+    }
+
+    /**
+     * {@inheritDoc}
+     * 
+     * <p>
+     * Same as {@link #requeue(IQueueMessage)}, number of requeues unchanged.
+     * </p>
+     */
+    @Override
+    public boolean requeueSilent(IQueueMessage msg) {
+        Date timestamp = msg.qTimestamp();
+        return storeRequeued(msg, msg.qNumRequeues(), timestamp != null ? timestamp
+                : new Date());
+    }
+
+    private boolean storeRequeued(final IQueueMessage msg, final int numRequeues,
+            final Date timestamp) {
+        final Long queueId = queueId(msg);
+        final String SQL_UPDATE = "UPDATE {0} SET msg_status=" + STATUS_QUEUED
+                + ", msg_take_timestamp=NULL, msg_timestamp=?, msg_num_requeues=? WHERE queue_name=? AND queue_id=? AND msg_status="
+                + STATUS_EPHEMERAL;
+        final String SQL_EXISTS = "SELECT COUNT(*) FROM {0} WHERE queue_name=? AND queue_id=?";
+        final String SQL_INSERT_REQUEUED = "INSERT INTO {0} (queue_name, msg_status, msg_org_timestamp, msg_timestamp, msg_num_requeues, msg_content) VALUES (?, "
+                + STATUS_QUEUED + ", ?, ?, ?, ?)";
+        return execute(false, new Work<Boolean>() {
+            @Override
+            public Boolean run(JdbcTemplate jdbcTemplate) {
+                if (queueId != null) {
+                    if (jdbcTemplate.update(sql(SQL_UPDATE), timestamp, numRequeues, queueName,
+                            queueId) > 0) {
+                        return true;
+                    }
+                    // already requeued (e.g. as an orphan), maybe re-taken by
+                    // another consumer: do not deliver it twice
+                    Long count = jdbcTemplate.queryForObject(sql(SQL_EXISTS), Long.class,
+                            queueName, queueId);
+                    if (count != null && count.longValue() > 0) {
+                        return false;
+                    }
+                }
+                // message is not in the table (e.g. already finished)
+                Date orgTimestamp = msg.qOriginalTimestamp();
+                return jdbcTemplate.update(sql(SQL_INSERT_REQUEUED), queueName,
+                        orgTimestamp != null ? orgTimestamp : timestamp, timestamp,
+                        numRequeues, content(msg)) > 0;
+            }
+        });
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void finish(IQueueMessage msg) {
+        Long queueId = queueId(msg);
+        if (queueId != null) {
+            finishBatch(Collections.singletonList(queueId));
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * 
+     * <p>
+     * One {@code DELETE ... WHERE queue_id IN (...)} per
+     * {@link #MAX_IN_CLAUSE_SIZE} ids.
+     * </p>
+     */
+    @Override
+    public int finishBatch(Collection<Long> queueIds) {
+        if (queueIds == null || queueIds.size() == 0) {
+            return 0;
+        }
+        final List<Object> ids = new ArrayList<Object>(queueIds.size());
+        for (Long queueId : queueIds) {
+            if (queueId != null) {
+                ids.add(queueId);
+            }
+        }
+        final String SQL_DELETE = "DELETE FROM {0} WHERE queue_name=? AND msg_status="
+                + STATUS_EPHEMERAL + " AND queue_id IN ({1})";
+        return execute(false, new Work<Integer>() {
+            @Override
+            public Integer run(JdbcTemplate jdbcTemplate) {
+                int result = 0;
+                for (int i = 0; i < ids.size(); i += MAX_IN_CLAUSE_SIZE) {
+                    List<Object> chunk = ids.subList(i, Math.min(i + MAX_IN_CLAUSE_SIZE,
+                            ids.size()));
+                    List<Object> params = new ArrayList<Object>(chunk.size() + 1);
+                    params.add(queueName);
+                    params.addAll(chunk);
+                    result += jdbcTemplate.update(sql(SQL_DELETE, placeholders(chunk.size())),
+                            params.toArray());
+                }
+                return result;
+            }
+        });
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public QueueMessage take() {
+        List<QueueMessage> msgs = takeBatch(1);
+        return msgs.size() > 0 ? msgs.get(0) : null;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Collection<IQueueMessage> getOrphanMessages(final long thresholdTimestampMs) {
+        final String SQL_SELECT = "SELECT " + COLUMNS + " FROM {0} WHERE queue_name=? AND msg_status="
+                + STATUS_EPHEMERAL + " AND msg_take_timestamp<? ORDER BY queue_id";
+        return execute(false, new Work<Collection<IQueueMessage>>() {
+            @Override
+            public Collection<IQueueMessage> run(JdbcTemplate jdbcTemplate) {
+                return new ArrayList<IQueueMessage>(toMessages(jdbcTemplate.queryForList(
+                        sql(SQL_SELECT), queueName, new Date(thresholdTimestampMs))));
+            }
+        });
+    }
+
+    /**
+     * {@inheritDoc}
+     * 
+     * <p>
+     * Orphan ids are locked with one {@code SELECT ... FOR UPDATE} and
+     * removed with one {@code DELETE}, in one transaction per
+     * {@link #MAX_IN_CLAUSE_SIZE} messages.
+     * </p>
+     */
+    @Override
+    public int discardOrphanMessages(long thresholdTimestampMs, int maxMessages) {
+        return recoverOrphanMessages(thresholdTimestampMs, maxMessages, false);
+    }
+
+    /**
+     * {@inheritDoc}
+     * 
+     * <p>
+     * Orphan ids are locked with one {@code SELECT ... FOR UPDATE} and set
+     * back to queued with one {@code UPDATE}, in one transaction per
+     * {@link #MAX_IN_CLAUSE_SIZE} messages.
+     * </p>
+     */
+    @Override
+    public int requeueOrphanMessages(long thresholdTimestampMs, int maxMessages) {
+        return recoverOrphanMessages(thresholdTimestampMs, maxMessages, true);
+    }
+
+    private int recoverOrphanMessages(long thresholdTimestampMs, int maxMessages,
+            boolean requeue) {
+        int result = 0;
+        while (result < maxMessages) {
+            int limit = Math.min(maxMessages - result, MAX_IN_CLAUSE_SIZE);
+            int numMsgs = recoverOrphanMessagesChunk(thresholdTimestampMs, limit, requeue);
+            result += numMsgs;
+            if (numMsgs < limit) {
+                break;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Recovers up to {@code limit} (at most {@link #MAX_IN_CLAUSE_SIZE})
+     * orphan messages in one transaction.
+     */
+    private int recoverOrphanMessagesChunk(final long thresholdTimestampMs, final int limit,
+            final boolean requeue) {
+        final String SQL_SELECT = "SELECT queue_id FROM {0} WHERE queue_name=? AND msg_status="
+                + STATUS_EPHEMERAL + " AND msg_take_timestamp<? ORDER BY queue_id LIMIT {1} FOR UPDATE";
+        final String SQL_REQUEUE = "UPDATE {0} SET msg_status=" + STATUS_QUEUED
+                + ", msg_take_timestamp=NULL WHERE queue_name=? AND queue_id IN ({1})";
+        final String SQL_DELETE = "DELETE FROM {0} WHERE queue_name=? AND queue_id IN ({1})";
+        return execute(true, new Work<Integer>() {
+            @Override
+            public Integer run(JdbcTemplate jdbcTemplate) {
+                List<Long> queueIds = jdbcTemplate.queryForList(
+                        sql(SQL_SELECT, String.valueOf(limit)), Long.class, queueName,
+                        new Date(thresholdTimestampMs));
+                if (queueIds == null || queueIds.size() == 0) {
+                    return 0;
+                }
+                List<Object> params = new ArrayList<Object>(queueIds.size() + 1);
+                params.add(queueName);
+                params.addAll(queueIds);
+                return jdbcTemplate.update(
+                        sql(requeue ? SQL_REQUEUE : SQL_DELETE, placeholders(queueIds.size())),
+                        params.toArray());
+            }
+        });
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean moveFromEphemeralToQueueStorage(IQueueMessage msg) {
+        return requeueSilent(msg);
+    }
+
+    private int count(final int status) {
+        final String SQL_COUNT = "SELECT COUNT(*) FROM {0} WHERE queue_name=? AND msg_status=?";
+        return execute(false, new Work<Integer>() {
+            @Override
+            public Integer run(JdbcTemplate jdbcTemplate) {
+                Long result = jdbcTemplate.queryForObject(sql(SQL_COUNT), Long.class, queueName,
+                        status);
+                return result != null ? result.intValue() : 0;
+            }
+        });
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int queueSize() {
+        return count(STATUS_QUEUED);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int ephemeralSize() {
+        return count(STATUS_EPHEMERAL);
+    }
+
+}
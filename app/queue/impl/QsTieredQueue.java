@@ -0,0 +1,501 @@
+package queue.impl;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import play.Logger;
+import queue.IQsQueue;
+import queue.internal.QueueMessage;
+
+import com.github.ddth.queue.IQueueMessage;
+
+/**
+ * A two-tier queue: a local memory tier (a {@link QsLogQueue}: memory-mapped,
+ * journaled to disk) in front of a storage tier (e.g. a {@link QsJdbcQueue}).
+ * 
+ * <ul>
+ * <li>{@code queue} appends to the memory tier (acknowledged once journaled),
+ * or writes to the storage tier directly if the memory tier holds
+ * {@link #getMemoryTierMaxSize()} messages or more.</li>
+ * <li>{@link #drain(int, int)} moves the oldest messages from the memory tier
+ * to the storage tier in batches (one {@code queueBatch} transaction each).
+ * </li>
+ * <li>{@code take} is served from the storage tier first while it is known to
+ * hold messages (drained messages are older than the memory tier's), and
+ * polls it at least every {@link #getStorageTierPollIntervalMs()} otherwise
+ * (messages put by other instances); else from the memory tier. Ordering is
+ * approximately FIFO across tiers, and drained messages are never starved by
+ * a busy memory tier.</li>
+ * <li>Queue ids of memory-tier messages are flagged with
+ * {@link #MEMORY_TIER_ID_FLAG}, so that {@code finish}/{@code requeue} are
+ * routed to the right tier.</li>
+ * <li>Orphan messages of the memory tier are always requeued: they may be
+ * drain batches interrupted by a crash. The memory tier is not swept while a
+ * drain is in flight.</li>
+ * </ul>
+ * 
+ * @author Thanh Nguyen <btnguyen2k@gmail.com>
+ * @since 0.4.0
+ */
+public class QsTieredQueue implements IQsQueue {
+
+    /**
+     * Flag bit of memory-tier queue ids.
+     */
+    public final static long MEMORY_TIER_ID_FLAG = 1L << 62;
+
+    private QsLogQueue memoryTier;
+    private IQsQueue storageTier;
+    private int memoryTierMaxSize = 100000;
+    private long storageTierPollIntervalMs = 1000;
+
+    /* set while the storage tier is known (or assumed) to hold messages */
+    private volatile boolean storageTierHasMessages = true;
+    private volatile long storageTierEmptyTimestamp = 0;
+
+    /* held by drain(), memory-tier orphan recovery skips in-flight batches */
+    private final Lock drainLock = new ReentrantLock();
+
+    /* storage tier sizes, as of the last queueSize()/ephemeralSize() call */
+    private volatile long storageQueueSize = -1, storageEphemeralSize = -1;
+
+    public QsLogQueue getMemoryTier() {
+        return memoryTier;
+    }
+
+    public QsTieredQueue setMemoryTier(QsLogQueue memoryTier) {
+        this.memoryTier = memoryTier;
+        return this;
+    }
+
+    public IQsQueue getStorageTier() {
+        return storageTier;
+    }
+
+    public QsTieredQueue setStorageTier(IQsQueue storageTier) {
+        this.storageTier = storageTier;
+        return this;
+    }
+
+    /**
+     * Messages are written to the storage tier directly once the memory tier
+     * holds this many messages.
+     * 
+     * @return
+     */
+    public int getMemoryTierMaxSize() {
+        return memoryTierMaxSize;
+    }
+
+    public QsTieredQueue setMemoryTierMaxSize(int memoryTierMaxSize) {
+        this.memoryTierMaxSize = memoryTierMaxSize;
+        return this;
+    }
+
+    /**
+     * When the storage tier is not known to hold messages, {@code take} still
+     * reads it first at least this often (ms).
+     * 
+     * @return
+     */
+    public long getStorageTierPollIntervalMs() {
+        return storageTierPollIntervalMs;
+    }
+
+    public QsTieredQueue setStorageTierPollIntervalMs(long storageTierPollIntervalMs) {
+        this.storageTierPollIntervalMs = storageTierPollIntervalMs;
+        return this;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public QsTieredQueue init() {
+        return this;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void destroy() {
+        try {
+            memoryTier.destroy();
+        } finally {
+            storageTier.destroy();
+        }
+    }
+
+    /**
+     * Sizes of the tiers: memory tier's queue & ephemeral sizes (live),
+     * storage tier's queue & ephemeral sizes (as of the last
+     * {@link #queueSize()}/{@link #ephemeralSize()} call, {@code -1} if
+     * unknown).
+     * 
+     * @return
+     */
+    public long[] getTierSizes() {
+        return new long[] { memoryTier.queueSize(), memoryTier.ephemeralSize(),
+                storageQueueSize, storageEphemeralSize };
+    }
+
+    /*----------------------------------------------------------------------*/
+
+    private static boolean isMemoryTierId(long queueId) {
+        return (queueId & MEMORY_TIER_ID_FLAG) != 0;
+    }
+
+    private static long queueId(IQueueMessage msg) {
+        Object qId = msg.qId();
+        if (qId instanceof Number) {
+            return ((Number) qId).longValue();
+        }
+        try {
+            return qId != null ? Long.parseLong(qId.toString()) : 0;
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * Copies a memory-tier message with its tier-local queue id.
+     */
+    private static IQueueMessage toMemoryTier(IQueueMessage msg, long queueId) {
+        IQueueMessage _msg = msg.clone();
+        _msg.qId(queueId & ~MEMORY_TIER_ID_FLAG);
+        return _msg;
+    }
+
+    private static QueueMessage fromMemoryTier(QueueMessage msg) {
+        if (msg != null) {
+            msg.queueId(msg.queueId() | MEMORY_TIER_ID_FLAG);
+        }
+        return msg;
+    }
+
+    private boolean isMemoryTierFull(int numMessages) {
+        return memoryTier.queueSize() + numMessages > memoryTierMaxSize;
+    }
+
+    private boolean isStorageTierFirst() {
+        long sinceEmpty = System.currentTimeMillis() - storageTierEmptyTimestamp;
+        return storageTierHasMessages || sinceEmpty >= storageTierPollIntervalMs;
+    }
+
+    private void storageTierQueued(boolean queued) {
+        if (queued) {
+            storageTierHasMessages = true;
+        }
+    }
+
+    private List<QueueMessage> takeFromStorageTier(int maxMessages) {
+        List<QueueMessage> result = storageTier.takeBatch(maxMessages);
+        if (result.size() < maxMessages) {
+            storageTierHasMessages = false;
+            storageTierEmptyTimestamp = System.currentTimeMillis();
+        }
+        return result;
+    }
+
+    private List<QueueMessage> takeFromMemoryTier(int maxMessages) {
+        List<QueueMessage> result = memoryTier.takeBatch(maxMessages);
+        for (QueueMessage msg : result) {
+            fromMemoryTier(msg);
+        }
+        return result;
+    }
+
+    /**
+     * Moves up to {@code maxMessages} messages from the memory tier to the
+     * storage tier, leaving at least {@code keepMessages} messages in the
+     * memory tier.
+     * 
+     * @param keepMessages
+     * @param maxMessages
+     * @return number of messages moved
+     */
+    public int drain(int keepMessages, int maxMessages) {
+        int numMessages = Math.min(maxMessages, memoryTier.queueSize() - keepMessages);
+        if (numMessages < 1) {
+            return 0;
+        }
+        drainLock.lock();
+        try {
+            return doDrain(numMessages);
+        } finally {
+            drainLock.unlock();
+        }
+    }
+
+    private int doDrain(int numMessages) {
+        List<QueueMessage> msgs = memoryTier.takeBatch(numMessages);
+        if (msgs.size() == 0) {
+            return 0;
+        }
+        boolean[] result = new boolean[msgs.size()];
+        try {
+            // storage tier assigns its own queue ids
+            List<QueueMessage> copies = new ArrayList<QueueMessage>(msgs.size());
+            for (QueueMessage msg : msgs) {
+                copies.add(QueueMessage.newInstance(0, msg.qOriginalTimestamp(),
+                        msg.qTimestamp(), msg.qNumRequeues(), msg.content()));
+            }
+            result = storageTier.queueBatch(copies);
+        } catch (Exception e) {
+            Logger.warn("Error while draining messages to storage tier: " + e.getMessage(), e);
+        }
+        List<Long> drained = new ArrayList<Long>(msgs.size());
+        for (int i = 0; i < msgs.size(); i++) {
+            if (i < result.length && result[i]) {
+                drained.add(msgs.get(i).queueId());
+            } else {
+                memoryTier.requeueSilent(msgs.get(i));
+            }
+        }
+        memoryTier.finishBatch(drained);
+        storageTierQueued(drained.size() > 0);
+        return drained.size();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean queue(IQueueMessage msg) {
+        if (isMemoryTierFull(1)) {
+            boolean result = storageTier.queue(msg);
+            storageTierQueued(result);
+            return result;
+        }
+        return memoryTier.queue(msg);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean[] queueBatch(List<QueueMessage> msgs) {
+        if (isMemoryTierFull(msgs.size())) {
+            boolean[] result = storageTier.queueBatch(msgs);
+            storageTierQueued(result.length > 0);
+            return result;
+        }
+        boolean[] result = memoryTier.queueBatch(msgs);
+        for (QueueMessage msg : msgs) {
+            fromMemoryTier(msg);
+        }
+        return result;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean requeue(IQueueMessage msg) {
+        long queueId = queueId(msg);
+        if (isMemoryTierId(queueId)) {
+            return memoryTier.requeue(toMemoryTier(msg, queueId));
+        }
+        boolean result = storageTier.requeue(msg);
+        storageTierQueued(result);
+        return result;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean requeueSilent(IQueueMessage msg) {
+        long queueId = queueId(msg);
+        if (isMemoryTierId(queueId)) {
+            return memoryTier.requeueSilent(toMemoryTier(msg, queueId));
+        }
+        boolean result = storageTier.requeueSilent(msg);
+        storageTierQueued(result);
+        return result;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void finish(IQueueMessage msg) {
+        long queueId = queueId(msg);
+        if (isMemoryTierId(queueId)) {
+            memoryTier.finish(toMemoryTier(msg, queueId));
+        } else {
+            storageTier.finish(msg);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int finishBatch(Collection<Long> queueIds) {
+        if (queueIds == null || queueIds.size() == 0) {
+            return 0;
+        }
+        List<Long> memoryTierIds = new ArrayList<Long>();
+        List<Long> storageTierIds = new ArrayList<Long>();
+        for (Long queueId : queueIds) {
+            if (queueId != null) {
+                if (isMemoryTierId(queueId)) {
+                    memoryTierIds.add(queueId & ~MEMORY_TIER_ID_FLAG);
+                } else {
+                    storageTierIds.add(queueId);
+                }
+            }
+        }
+        return (memoryTierIds.size() > 0 ? memoryTier.finishBatch(memoryTierIds) : 0)
+                + (storageTierIds.size() > 0 ? storageTier.finishBatch(storageTierIds) : 0);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public QueueMessage take() {
+        List<QueueMessage> result = takeBatch(1);
+        return result.size() > 0 ? result.get(0) : null;
+    }
+
+    /**
+     * {@inheritDoc}
+     * 
+     * <p>
+     * Storage tier first if it is known to hold messages (or is due for a
+     * poll), then memory tier, then storage tier.
+     * </p>
+     */
+    @Override
+    public List<QueueMessage> takeBatch(int maxMessages) {
+        List<QueueMessage> result = new ArrayList<QueueMessage>();
+        if (maxMessages < 1) {
+            return result;
+        }
+        boolean storageTierFirst = isStorageTierFirst();
+        if (storageTierFirst) {
+            result.addAll(takeFromStorageTier(maxMessages));
+        }
+        if (result.size() < maxMessages) {
+            result.addAll(takeFromMemoryTier(maxMessages - result.size()));
+        }
+        if (!storageTierFirst && result.size() < maxMessages) {
+            result.addAll(takeFromStorageTier(maxMessages - result.size()));
+        }
+        return result;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public Collection<IQueueMessage> getOrphanMessages(long thresholdTimestampMs) {
+        List<IQueueMessage> result = new ArrayList<IQueueMessage>();
+        if (drainLock.tryLock()) {
+            try {
+                for (IQueueMessage msg : memoryTier.getOrphanMessages(thresholdTimestampMs)) {
+                    result.add(fromMemoryTier((QueueMessage) msg));
+                }
+            } finally {
+                drainLock.unlock();
+            }
+        }
+        Collection<IQueueMessage> storageOrphans = storageTier
+                .getOrphanMessages(thresholdTimestampMs);
+        if (storageOrphans != null) {
+            result.addAll(storageOrphans);
+        }
+        return result;
+    }
+
+    /**
+     * {@inheritDoc}
+     * 
+     * <p>
+     * Orphan messages of the memory tier are requeued.
+     * </p>
+     */
+    @Override
+    public int discardOrphanMessages(long thresholdTimestampMs, int maxMessages) {
+        int result = requeueMemoryTierOrphanMessages(thresholdTimestampMs, maxMessages);
+        if (result < maxMessages) {
+            result += storageTier.discardOrphanMessages(thresholdTimestampMs, maxMessages
+                    - result);
+        }
+        return result;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public int requeueOrphanMessages(long thresholdTimestampMs, int maxMessages) {
+        int result = requeueMemoryTierOrphanMessages(thresholdTimestampMs, maxMessages);
+        if (result < maxMessages) {
+            int numMsgs = storageTier.requeueOrphanMessages(thresholdTimestampMs, maxMessages
+                    - result);
+            storageTierQueued(numMsgs > 0);
+            result += numMsgs;
+        }
+        return result;
+    }
+
+    /**
+     * Requeues orphan messages of the memory tier, unless a drain is in flight:
+     * its batch sits in the memory tier's ephemeral storage while being written
+     * to the storage tier and must not be requeued (it would be duplicated).
+     */
+    private int requeueMemoryTierOrphanMessages(long thresholdTimestampMs, int maxMessages) {
+        if (!drainLock.tryLock()) {
+            return 0;
+        }
+        try {
+            return memoryTier.requeueOrphanMessages(thresholdTimestampMs, maxMessages);
+        } finally {
+            drainLock.unlock();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean moveFromEphemeralToQueueStorage(IQueueMessage msg) {
+        return requeueSilent(msg);
+    }
+
+    /**
+     * {@inheritDoc}
+     * 
+     * <p>
+     * Sum of both tiers.
+     * </p>
+     */
+    @Override
+    public int queueSize() {
+        int size = storageTier.queueSize();
+        storageQueueSize = size;
+        return memoryTier.queueSize() + size;
+    }
+
+    /**
+     * {@inheritDoc}
+     * 
+     * <p>
+     * Sum of both tiers.
+     * </p>
+     */
+    @Override
+    public int ephemeralSize() {
+        int size = storageTier.ephemeralSize();
+        storageEphemeralSize = size;
+        return memoryTier.ephemeralSize() + size;
+    }
+
+}
@@ -0,0 +1,66 @@
+package queue.impl;
+
+import java.nio.charset.Charset;
+
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.exceptions.JedisDataException;
+
+/**
+ * A set of Lua scripts, registered with {@code SCRIPT LOAD} and called with
+ * {@code EVALSHA}.
+ * 
+ * @author Thanh Nguyen <btnguyen2k@gmail.com>
+ * @since 0.4.0
+ */
+public class RedisScripts {
+
+    private final static Charset UTF8 = Charset.forName("UTF-8");
+
+    private final String[] scripts;
+
+    /* SHA1 digests of the scripts, as returned by SCRIPT LOAD */
+    private final byte[][] scriptShas;
+
+    public RedisScripts(String... scripts) {
+        this.scripts = scripts;
+        this.scriptShas = new byte[scripts.length][];
+    }
+
+    /**
+     * Loads all scripts to a Redis server.
+     * 
+     * @param jedis
+     */
+    public void load(Jedis jedis) {
+        for (int i = 0; i < scripts.length; i++) {
+            scriptShas[i] = jedis.scriptLoad(scripts[i].getBytes(UTF8));
+        }
+    }
+
+    /**
+     * Calls a script with {@code EVALSHA}. If Redis no longer has the script
+     * (e.g. restarted or {@code SCRIPT FLUSH}), it is loaded again and the
+     * call is retried once.
+     * 
+     * @param jedis
+     * @param scriptIdx
+     * @param keyCount
+     * @param params
+     * @return
+     */
+    public Object eval(Jedis jedis, int scriptIdx, int keyCount, byte[]... params) {
+        byte[] sha = scriptShas[scriptIdx];
+        if (sha != null) {
+            try {
+                return jedis.evalsha(sha, keyCount, params);
+            } catch (JedisDataException e) {
+                if (e.getMessage() == null || !e.getMessage().startsWith("NOSCRIPT")) {
+                    throw e;
+                }
+            }
+        }
+        sha = jedis.scriptLoad(scripts[scriptIdx].getBytes(UTF8));
+        scriptShas[scriptIdx] = sha;
+        return jedis.evalsha(sha, keyCount, params);
+    }
+}
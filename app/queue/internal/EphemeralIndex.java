@@ -0,0 +1,206 @@
+package queue.internal;
+
+import java.util.Arrays;
+
+/**
+ * Index of taken messages: {@code queue id -> (handle, taken timestamp)},
+ * kept in primitive arrays (no boxing, no per-entry objects) and ordered by
+ * taken timestamp (entries are linked in insertion order, timestamps are
+ * assigned in increasing order by the caller).
+ * 
+ * <p>
+ * Not thread-safe.
+ * </p>
+ * 
+ * @author Thanh Nguyen <btnguyen2k@gmail.com>
+ * @since 0.4.0
+ */
+public class EphemeralIndex {
+
+    private final static int NIL = -1;
+
+    /* hash table: bucket -> first slot, chained by next[] */
+    private int[] buckets;
+    private int[] chain;
+
+    /* slots */
+    private long[] queueIds, handles, timestamps;
+    private int[] prev, next;
+    private int head = NIL, tail = NIL;
+    private int freeSlot = NIL, numUsedSlots = 0;
+    private int size = 0;
+
+    public EphemeralIndex() {
+        this(1024);
+    }
+
+    public EphemeralIndex(int initialCapacity) {
+        int capacity = Integer.highestOneBit(Math.max(16, initialCapacity) - 1) << 1;
+        buckets = new int[capacity];
+        Arrays.fill(buckets, NIL);
+        chain = new int[capacity];
+        queueIds = new long[capacity];
+        handles = new long[capacity];
+        timestamps = new long[capacity];
+        prev = new int[capacity];
+        next = new int[capacity];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private int bucket(long queueId) {
+        long h = queueId * 0x9E3779B97F4A7C15L;
+        return (int) (h >>> 32) & (buckets.length - 1);
+    }
+
+    private void grow() {
+        int capacity = queueIds.length * 2;
+        chain = Arrays.copyOf(chain, capacity);
+        queueIds = Arrays.copyOf(queueIds, capacity);
+        handles = Arrays.copyOf(handles, capacity);
+        timestamps = Arrays.copyOf(timestamps, capacity);
+        prev = Arrays.copyOf(prev, capacity);
+        next = Arrays.copyOf(next, capacity);
+        buckets = new int[capacity];
+        Arrays.fill(buckets, NIL);
+        for (int slot = head; slot != NIL; slot = next[slot]) {
+            int b = bucket(queueIds[slot]);
+            chain[slot] = buckets[b];
+            buckets[b] = slot;
+        }
+    }
+
+    /**
+     * Adds an entry (the queue id must not be in the index).
+     * 
+     * @param queueId
+     * @param handle
+     * @param timestamp
+     */
+    public void put(long queueId, long handle, long timestamp) {
+        int slot;
+        if (freeSlot != NIL) {
+            slot = freeSlot;
+            freeSlot = next[slot];
+        } else {
+            if (numUsedSlots == queueIds.length) {
+                grow();
+            }
+            slot = numUsedSlots++;
+        }
+        queueIds[slot] = queueId;
+        handles[slot] = handle;
+        timestamps[slot] = timestamp;
+        int b = bucket(queueId);
+        chain[slot] = buckets[b];
+        buckets[b] = slot;
+        prev[slot] = tail;
+        next[slot] = NIL;
+        if (tail != NIL) {
+            next[tail] = slot;
+        } else {
+            head = slot;
+        }
+        tail = slot;
+        size++;
+    }
+
+    private int find(long queueId) {
+        for (int slot = buckets[bucket(queueId)]; slot != NIL; slot = chain[slot]) {
+            if (queueIds[slot] == queueId) {
+                return slot;
+            }
+        }
+        return NIL;
+    }
+
+    /**
+     * Gets an entry's handle.
+     * 
+     * @param queueId
+     * @return the entry's handle, or {@code -1} if not found
+     */
+    public long get(long queueId) {
+        int slot = find(queueId);
+        return slot != NIL ? handles[slot] : -1;
+    }
+
+    /**
+     * Removes an entry.
+     * 
+     * @param queueId
+     * @return the entry's handle, or {@code -1} if not found
+     */
+    public long remove(long queueId) {
+        int b = bucket(queueId);
+        int before = NIL;
+        for (int slot = buckets[b]; slot != NIL; before = slot, slot = chain[slot]) {
+            if (queueIds[slot] == queueId) {
+                if (before == NIL) {
+                    buckets[b] = chain[slot];
+                } else {
+                    chain[before] = chain[slot];
+                }
+                if (prev[slot] != NIL) {
+                    next[prev[slot]] = next[slot];
+                } else {
+                    head = next[slot];
+                }
+                if (next[slot] != NIL) {
+                    prev[next[slot]] = prev[slot];
+                } else {
+                    tail = prev[slot];
+                }
+                next[slot] = freeSlot;
+                freeSlot = slot;
+                size--;
+                return handles[slot];
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Gets queue ids of up to {@code max} oldest entries taken before
+     * {@code thresholdTimestamp}.
+     * 
+     * @param thresholdTimestamp
+     * @param max
+     * @return
+     */
+    public long[] olderThan(long thresholdTimestamp, int max) {
+        long[] result = new long[Math.max(0, Math.min(max, size))];
+        int n = 0;
+        for (int slot = head; slot != NIL && n < result.length
+                && timestamps[slot] < thresholdTimestamp; slot = next[slot]) {
+            result[n++] = queueIds[slot];
+        }
+        return n < result.length ? Arrays.copyOf(result, n) : result;
+    }
+
+    /**
+     * Removes all entries.
+     */
+    public void clear() {
+        Arrays.fill(buckets, NIL);
+        head = tail = freeSlot = NIL;
+        numUsedSlots = 0;
+        size = 0;
+    }
+
+    /**
+     * Gets handles of all entries.
+     * 
+     * @return
+     */
+    public long[] handles() {
+        long[] result = new long[size];
+        int n = 0;
+        for (int slot = head; slot != NIL; slot = next[slot]) {
+            result[n++] = handles[slot];
+        }
+        return result;
+    }
+}
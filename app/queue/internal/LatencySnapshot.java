@@ -0,0 +1,69 @@
+package queue.internal;
+
+/**
+ * Latency stats of one operation on one queue, over the last stats window.
+ * Latency values are in microseconds.
+ * 
+ * @author Thanh Nguyen <btnguyen2k@gmail.com>
+ * @since 0.4.0
+ */
+public class LatencySnapshot {
+
+    private final String operation, queueName;
+    private final long count, p50, p99, p999, max;
+    private final double throughput;
+
+    public LatencySnapshot(String operation, String queueName, long count, double throughput,
+            long p50, long p99, long p999, long max) {
+        this.operation = operation;
+        this.queueName = queueName;
+        this.count = count;
+        this.throughput = throughput;
+        this.p50 = p50;
+        this.p99 = p99;
+        this.p999 = p999;
+        this.max = max;
+    }
+
+    public String getOperation() {
+        return operation;
+    }
+
+    public String getQueueName() {
+        return queueName;
+    }
+
+    /**
+     * Number of operations in the window.
+     * 
+     * @return
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Operations per second over the window.
+     * 
+     * @return
+     */
+    public double getThroughput() {
+        return throughput;
+    }
+
+    public long getP50() {
+        return p50;
+    }
+
+    public long getP99() {
+        return p99;
+    }
+
+    public long getP999() {
+        return p999;
+    }
+
+    public long getMax() {
+        return max;
+    }
+}
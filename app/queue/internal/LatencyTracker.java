@@ -0,0 +1,166 @@
+package queue.internal;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+/**
+ * Records latencies of queue operations, keyed by operation and normalized
+ * queue name, into HdrHistogram {@link Recorder}s.
+ * 
+ * <p>
+ * Recording is wait-free. Every stats window, the interval histograms are
+ * swapped out and summarized into {@link LatencySnapshot}s, which are what
+ * readers get: reading stats never touches the recorders.
+ * </p>
+ * 
+ * @author Thanh Nguyen <btnguyen2k@gmail.com>
+ * @since 0.4.0
+ */
+public class LatencyTracker {
+
+    public final static String OP_QUEUE = "queue";
+    public final static String OP_QUEUE_BATCH = "queueBatch";
+    public final static String OP_REQUEUE = "requeue";
+    public final static String OP_REQUEUE_SILENT = "requeueSilent";
+    public final static String OP_FINISH = "finish";
+    public final static String OP_FINISH_BATCH = "finishBatch";
+    public final static String OP_TAKE = "take";
+    public final static String OP_TAKE_BATCH = "takeBatch";
+    public final static String OP_QUEUE_SIZE = "queueSize";
+    public final static String OP_EPHEMERAL_SIZE = "ephemeralSize";
+
+    private final static int SIGNIFICANT_DIGITS = 2;
+
+    private static class Entry {
+        final String operation, queueName;
+        final Recorder recorder = new Recorder(SIGNIFICANT_DIGITS);
+        Histogram recycled;
+
+        Entry(String operation, String queueName) {
+            this.operation = operation;
+            this.queueName = queueName;
+        }
+    }
+
+    private ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<String, Entry>();
+    private volatile List<LatencySnapshot> snapshots = Collections.emptyList();
+    private long windowMs = 10000;
+    private long lastRotateTimestamp = System.currentTimeMillis();
+    private ScheduledExecutorService scheduler;
+
+    public long getWindowMs() {
+        return windowMs;
+    }
+
+    public LatencyTracker setWindowMs(long windowMs) {
+        this.windowMs = windowMs;
+        return this;
+    }
+
+    public LatencyTracker init() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable r) {
+                Thread t = new Thread(r, "Queue latency stats");
+                t.setDaemon(true);
+                return t;
+            }
+        });
+        scheduler.scheduleAtFixedRate(new Runnable() {
+            @Override
+            public void run() {
+                rotate();
+            }
+        }, windowMs, windowMs, TimeUnit.MILLISECONDS);
+        return this;
+    }
+
+    public void destroy() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    /**
+     * Records latency of an operation started at {@code startNanos} (value of
+     * {@link System#nanoTime()}).
+     * 
+     * @param operation
+     * @param normalizedQueueName
+     * @param startNanos
+     */
+    public void record(String operation, String normalizedQueueName, long startNanos) {
+        long latencyMicros = (System.nanoTime() - startNanos) / 1000;
+        String key = operation + "|" + normalizedQueueName;
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            Entry newEntry = new Entry(operation, normalizedQueueName);
+            entry = entries.putIfAbsent(key, newEntry);
+            if (entry == null) {
+                entry = newEntry;
+            }
+        }
+        try {
+            entry.recorder.recordValue(latencyMicros < 0 ? 0 : latencyMicros);
+        } catch (ArrayIndexOutOfBoundsException e) {
+            // value out of trackable range, ignore
+        }
+    }
+
+    /**
+     * Summarizes the current window and starts a new one. Entries with no
+     * activity in the window are dropped (so that evicted/deleted queues do
+     * not accumulate).
+     */
+    synchronized void rotate() {
+        long now = System.currentTimeMillis();
+        double seconds = Math.max(1, now - lastRotateTimestamp) / 1000.0;
+        lastRotateTimestamp = now;
+
+        List<LatencySnapshot> result = new ArrayList<LatencySnapshot>();
+        for (Map.Entry<String, Entry> e : entries.entrySet()) {
+            Entry entry = e.getValue();
+            Histogram h = entry.recycled != null ? entry.recorder
+                    .getIntervalHistogram(entry.recycled) : entry.recorder.getIntervalHistogram();
+            entry.recycled = h;
+            long count = h.getTotalCount();
+            if (count == 0) {
+                entries.remove(e.getKey(), entry);
+                continue;
+            }
+            result.add(new LatencySnapshot(entry.operation, entry.queueName, count, count
+                    / seconds, h.getValueAtPercentile(50.0), h.getValueAtPercentile(99.0), h
+                    .getValueAtPercentile(99.9), h.getMaxValue()));
+        }
+        Collections.sort(result, new Comparator<LatencySnapshot>() {
+            @Override
+            public int compare(LatencySnapshot a, LatencySnapshot b) {
+                int c = a.getQueueName().compareTo(b.getQueueName());
+                return c != 0 ? c : a.getOperation().compareTo(b.getOperation());
+            }
+        });
+        snapshots = Collections.unmodifiableList(result);
+    }
+
+    /**
+     * Latency stats of the last completed window.
+     * 
+     * @return
+     */
+    public List<LatencySnapshot> getSnapshots() {
+        return snapshots;
+    }
+}
@@ -0,0 +1,99 @@
+package queue.internal;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bounded, lock-free, multi-producer multi-consumer ring of {@code long}s
+ * (D. Vyukov's bounded MPMC queue): each slot carries a sequence number that
+ * tells producers/consumers whether it is free or filled for their turn.
+ * 
+ * @author Thanh Nguyen <btnguyen2k@gmail.com>
+ * @since 0.4.0
+ */
+public class MpmcLongRing {
+
+    /**
+     * Returned by {@link #poll()} when the ring is empty.
+     */
+    public final static long EMPTY = Long.MIN_VALUE;
+
+    private final int mask;
+    private final AtomicLongArray sequences;
+    private final AtomicLongArray values;
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong tail = new AtomicLong();
+
+    /**
+     * @param capacity
+     *            rounded up to a power of 2
+     */
+    public MpmcLongRing(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity) - 1) << 1;
+        mask = size - 1;
+        sequences = new AtomicLongArray(size);
+        values = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    public int capacity() {
+        return mask + 1;
+    }
+
+    /**
+     * Adds a value.
+     * 
+     * @param value
+     * @return {@code false} if the ring is full
+     */
+    public boolean offer(long value) {
+        while (true) {
+            long pos = tail.get();
+            int idx = (int) (pos & mask);
+            long diff = sequences.get(idx) - pos;
+            if (diff == 0) {
+                if (tail.compareAndSet(pos, pos + 1)) {
+                    values.lazySet(idx, value);
+                    sequences.set(idx, pos + 1);
+                    return true;
+                }
+            } else if (diff < 0) {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Removes the oldest value.
+     * 
+     * @return {@link #EMPTY} if the ring is empty
+     */
+    public long poll() {
+        while (true) {
+            long pos = head.get();
+            int idx = (int) (pos & mask);
+            long diff = sequences.get(idx) - (pos + 1);
+            if (diff == 0) {
+                if (head.compareAndSet(pos, pos + 1)) {
+                    long value = values.get(idx);
+                    sequences.set(idx, pos + mask + 1);
+                    return value;
+                }
+            } else if (diff < 0) {
+                return EMPTY;
+            }
+        }
+    }
+
+    /**
+     * Approximate number of values in the ring.
+     * 
+     * @return
+     */
+    public int size() {
+        long size = tail.get() - head.get();
+        return (int) Math.max(0, Math.min(size, capacity()));
+    }
+}
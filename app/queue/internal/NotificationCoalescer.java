@@ -0,0 +1,103 @@
+package queue.internal;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import play.Logger;
+
+/**
+ * Publishes "messages queued" notifications to other queue-server instances
+ * from a background thread.
+ * 
+ * <p>
+ * {@link #add(String)} only marks a queue as pending and never blocks the
+ * caller. The publisher thread drains all pending queue names and publishes
+ * them in one {@link #publish(List)} call. Notifications for a queue that is
+ * already pending are coalesced, so a busy queue costs one backend
+ * round-trip per publish round, not one per message.
+ * </p>
+ * 
+ * @author Thanh Nguyen <btnguyen2k@gmail.com>
+ * @since 0.4.0
+ */
+public abstract class NotificationCoalescer {
+
+    private final String name;
+    private final Set<String> pending = Collections
+            .newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+    private final Semaphore signal = new Semaphore(0);
+    private volatile boolean running = false;
+    private Thread thread;
+
+    public NotificationCoalescer(String name) {
+        this.name = name;
+    }
+
+    public NotificationCoalescer init() {
+        running = true;
+        thread = new Thread(name) {
+            public void run() {
+                while (running) {
+                    try {
+                        signal.tryAcquire(1000, TimeUnit.MILLISECONDS);
+                        signal.drainPermits();
+                        flush();
+                    } catch (InterruptedException e) {
+                        // stopped
+                    } catch (Exception e) {
+                        Logger.warn(e.getMessage(), e);
+                    }
+                }
+            }
+        };
+        thread.setDaemon(true);
+        thread.start();
+        return this;
+    }
+
+    public void destroy() {
+        running = false;
+        if (thread != null) {
+            thread.interrupt();
+        }
+    }
+
+    /**
+     * Marks a queue as having new messages.
+     * 
+     * @param normalizedQueueName
+     */
+    public void add(String normalizedQueueName) {
+        if (running && pending.add(normalizedQueueName)) {
+            signal.release();
+        }
+    }
+
+    private void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        List<String> queueNames = new ArrayList<String>();
+        for (Iterator<String> it = pending.iterator(); it.hasNext();) {
+            queueNames.add(it.next());
+            it.remove();
+        }
+        if (queueNames.size() > 0) {
+            publish(queueNames);
+        }
+    }
+
+    /**
+     * Publishes notifications for a batch of queues. Called from the
+     * publisher thread only.
+     * 
+     * @param normalizedQueueNames
+     */
+    protected abstract void publish(List<String> normalizedQueueNames);
+}
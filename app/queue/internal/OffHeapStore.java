@@ -0,0 +1,226 @@
+package queue.internal;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Allocates blocks of off-heap (direct) memory, carved from large slabs so
+ * that stored data costs no GC heap.
+ * 
+ * <ul>
+ * <li>Blocks are sized in power-of-2 classes (64 bytes to the slab size),
+ * freed blocks are kept in a free list per class and reused.</li>
+ * <li>Blocks larger than a slab get a dedicated slab, released when the
+ * block is freed.</li>
+ * <li>A block is identified by a handle {@code (slab index << 32) | offset};
+ * the first byte of a block is reserved (size class).</li>
+ * </ul>
+ * 
+ * @author Thanh Nguyen <btnguyen2k@gmail.com>
+ * @since 0.4.0
+ */
+public class OffHeapStore {
+
+    /**
+     * Returned by {@link #allocate(int)} when the memory limit is reached.
+     */
+    public final static long NO_MEMORY = -1;
+
+    /**
+     * Number of reserved bytes at the start of a block.
+     */
+    public final static int BLOCK_HEADER_SIZE = 1;
+
+    private final static int MIN_BLOCK_SIZE_SHIFT = 6;
+    private final static byte CLASS_DEDICATED = (byte) 0xFF;
+
+    /**
+     * A stack of primitive {@code long}s.
+     */
+    private static class LongStack {
+        private long[] values = new long[64];
+        private int size = 0;
+
+        synchronized void push(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        synchronized long pop() {
+            return size > 0 ? values[--size] : NO_MEMORY;
+        }
+
+        synchronized void clear() {
+            size = 0;
+        }
+    }
+
+    private final int slabSize;
+    private final long maxSize;
+    private final LongStack[] freeLists;
+    private final LongStack freeSlabIndexes = new LongStack();
+    private final AtomicLong reservedBytes = new AtomicLong();
+
+    private volatile ByteBuffer[] slabs = new ByteBuffer[16];
+    private int numSlabs = 0;
+    private ByteBuffer currentSlab;
+    private int currentSlabIndex = -1;
+    private int currentSlabPos;
+
+    /**
+     * @param slabSize
+     *            size of a slab, in bytes
+     * @param maxSize
+     *            max off-heap memory, in bytes ({@code 0}: unlimited)
+     */
+    public OffHeapStore(int slabSize, long maxSize) {
+        this.slabSize = Integer.highestOneBit(Math.max(slabSize, 1 << MIN_BLOCK_SIZE_SHIFT));
+        this.maxSize = maxSize;
+        int numClasses = Integer.numberOfTrailingZeros(this.slabSize) - MIN_BLOCK_SIZE_SHIFT
+                + 1;
+        freeLists = new LongStack[numClasses];
+        for (int i = 0; i < numClasses; i++) {
+            freeLists[i] = new LongStack();
+        }
+    }
+
+    /**
+     * Off-heap memory reserved by slabs, in bytes.
+     * 
+     * @return
+     */
+    public long getReservedBytes() {
+        return reservedBytes.get();
+    }
+
+    private static int sizeClass(int size) {
+        int blockSize = Integer.highestOneBit(Math.max(size, 1 << MIN_BLOCK_SIZE_SHIFT) - 1) << 1;
+        return Integer.numberOfTrailingZeros(blockSize) - MIN_BLOCK_SIZE_SHIFT;
+    }
+
+    private boolean reserve(long bytes) {
+        while (true) {
+            long current = reservedBytes.get();
+            if (maxSize > 0 && current + bytes > maxSize) {
+                return false;
+            }
+            if (reservedBytes.compareAndSet(current, current + bytes)) {
+                return true;
+            }
+        }
+    }
+
+    /* must be called while holding the lock */
+    private int addSlab(ByteBuffer slab) {
+        long freeIndex = freeSlabIndexes.pop();
+        int index = freeIndex != NO_MEMORY ? (int) freeIndex : numSlabs++;
+        ByteBuffer[] _slabs = slabs;
+        if (index >= _slabs.length) {
+            _slabs = Arrays.copyOf(_slabs, _slabs.length * 2);
+        }
+        _slabs[index] = slab;
+        slabs = _slabs;
+        return index;
+    }
+
+    /**
+     * Allocates a block of at least {@code size} bytes (including
+     * {@link #BLOCK_HEADER_SIZE}).
+     * 
+     * @param size
+     * @return the block's handle, or {@link #NO_MEMORY}
+     */
+    public long allocate(int size) {
+        if (size > slabSize) {
+            if (!reserve(size)) {
+                return NO_MEMORY;
+            }
+            ByteBuffer slab = ByteBuffer.allocateDirect(size);
+            slab.put(0, CLASS_DEDICATED);
+            synchronized (this) {
+                return handle(addSlab(slab), 0);
+            }
+        }
+
+        int sizeClass = sizeClass(size);
+        long handle = freeLists[sizeClass].pop();
+        if (handle != NO_MEMORY) {
+            return handle;
+        }
+        int blockSize = 1 << (sizeClass + MIN_BLOCK_SIZE_SHIFT);
+        synchronized (this) {
+            if (currentSlab == null || currentSlabPos + blockSize > slabSize) {
+                if (!reserve(slabSize)) {
+                    return NO_MEMORY;
+                }
+                currentSlab = ByteBuffer.allocateDirect(slabSize);
+                currentSlabIndex = addSlab(currentSlab);
+                currentSlabPos = 0;
+            }
+            handle = handle(currentSlabIndex, currentSlabPos);
+            currentSlab.put(currentSlabPos, (byte) sizeClass);
+            currentSlabPos += blockSize;
+            return handle;
+        }
+    }
+
+    /**
+     * Frees a block.
+     * 
+     * @param handle
+     */
+    public void free(long handle) {
+        ByteBuffer slab = slab(handle);
+        byte sizeClass = slab.get(offset(handle));
+        if (sizeClass == CLASS_DEDICATED) {
+            synchronized (this) {
+                slabs[(int) (handle >>> 32)] = null;
+                freeSlabIndexes.push(handle >>> 32);
+            }
+            reservedBytes.addAndGet(-slab.capacity());
+        } else {
+            freeLists[sizeClass].push(handle);
+        }
+    }
+
+    /**
+     * Releases all slabs.
+     */
+    public synchronized void destroy() {
+        for (LongStack freeList : freeLists) {
+            freeList.clear();
+        }
+        freeSlabIndexes.clear();
+        slabs = new ByteBuffer[16];
+        numSlabs = 0;
+        currentSlab = null;
+        reservedBytes.set(0);
+    }
+
+    private static long handle(int slabIndex, int offset) {
+        return ((long) slabIndex << 32) | offset;
+    }
+
+    /**
+     * Gets the slab containing a block.
+     * 
+     * @param handle
+     * @return
+     */
+    public ByteBuffer slab(long handle) {
+        return slabs[(int) (handle >>> 32)];
+    }
+
+    /**
+     * Gets a block's offset within its slab.
+     * 
+     * @param handle
+     * @return
+     */
+    public static int offset(long handle) {
+        return (int) handle;
+    }
+}
@@ -1,5 +1,6 @@
 package queue.internal;
 
+import java.nio.ByteBuffer;
 import java.util.Date;
 
 import com.github.btnguyen2k.queueserver.thrift.TQueueMessage;
@@ -19,13 +20,36 @@ public class QueueMessage extends UniversalQueueMessage {
             return null;
         }
         QueueMessage msg = newInstance();
-        msg.content(_queueMsg.getMsgContent()).qId(_queueMsg.getQueueId())
+        msg.content(toBytes(_queueMsg.bufferForMsgContent())).qId(_queueMsg.getQueueId())
                 .qNumRequeues(_queueMsg.getMsgNumRequeues())
                 .qOriginalTimestamp(new Date(_queueMsg.getMsgOrgTimestamp()))
                 .qTimestamp(new Date(_queueMsg.getMsgTimestamp()));
         return msg;
     }
 
+    /**
+     * Framed transports hand binary fields out as slices of the frame buffer:
+     * the slice's content is copied only if it does not span a whole array.
+     * Unlike {@link TQueueMessage#getMsgContent()}, the Thrift struct is left
+     * untouched.
+     * 
+     * @param buffer
+     * @return
+     * @since 0.4.0
+     */
+    public static byte[] toBytes(ByteBuffer buffer) {
+        if (buffer == null) {
+            return null;
+        }
+        if (buffer.hasArray() && buffer.arrayOffset() == 0 && buffer.position() == 0
+                && buffer.remaining() == buffer.array().length) {
+            return buffer.array();
+        }
+        byte[] result = new byte[buffer.remaining()];
+        buffer.duplicate().get(result);
+        return result;
+    }
+
     public static QueueMessage newInstance(long queueId, Date orgTimestamp, Date timestamp,
             int numRequeues, byte[] content) {
         Date now = new Date();
@@ -0,0 +1,53 @@
+package queue.internal;
+
+/**
+ * Sizes of a queue, as of {@link #getTimestamp()}.
+ * 
+ * @author Thanh Nguyen <btnguyen2k@gmail.com>
+ * @since 0.4.0
+ */
+public class QueueSizeSnapshot {
+
+    private final String queueName;
+    private final long queueSize, ephemeralSize, timestamp;
+
+    public QueueSizeSnapshot(String queueName, long queueSize, long ephemeralSize,
+            long timestamp) {
+        this.queueName = queueName;
+        this.queueSize = queueSize;
+        this.ephemeralSize = ephemeralSize;
+        this.timestamp = timestamp;
+    }
+
+    public String getQueueName() {
+        return queueName;
+    }
+
+    public long getQueueSize() {
+        return queueSize;
+    }
+
+    public long getEphemeralSize() {
+        return ephemeralSize;
+    }
+
+    /**
+     * When the sizes were last reconciled with the backend (UNIX timestamp in
+     * ms). Sizes may have been adjusted by local operations since then.
+     * 
+     * @return
+     */
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    /**
+     * Number of milliseconds since sizes were last reconciled with the
+     * backend.
+     * 
+     * @return
+     */
+    public long getStalenessMs() {
+        return Math.max(0, System.currentTimeMillis() - timestamp);
+    }
+}
@@ -0,0 +1,110 @@
+package queue.internal;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Keeps approximate sizes of queues in memory: sizes are adjusted by queue
+ * operations done on this node, and periodically reconciled with the backend
+ * (which also catches operations done by other nodes).
+ * 
+ * @author Thanh Nguyen <btnguyen2k@gmail.com>
+ * @since 0.4.0
+ */
+public class QueueSizeTracker {
+
+    private static class Entry {
+        final AtomicLong queueSize = new AtomicLong();
+        final AtomicLong ephemeralSize = new AtomicLong();
+        volatile long reconcileTimestamp;
+    }
+
+    private ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<String, Entry>();
+
+    /**
+     * Adjusts sizes of a queue. Queues that have not been reconciled yet are
+     * ignored.
+     * 
+     * @param normalizedQueueName
+     * @param queueSizeDelta
+     * @param ephemeralSizeDelta
+     */
+    public void adjust(String normalizedQueueName, long queueSizeDelta, long ephemeralSizeDelta) {
+        Entry entry = entries.get(normalizedQueueName);
+        if (entry != null) {
+            if (queueSizeDelta != 0) {
+                entry.queueSize.addAndGet(queueSizeDelta);
+            }
+            if (ephemeralSizeDelta != 0) {
+                entry.ephemeralSize.addAndGet(ephemeralSizeDelta);
+            }
+        }
+    }
+
+    /**
+     * Sets sizes of a queue to values just read from the backend.
+     * 
+     * @param normalizedQueueName
+     * @param queueSize
+     * @param ephemeralSize
+     * @param timestamp
+     *            when the values were read
+     */
+    public void reconcile(String normalizedQueueName, long queueSize, long ephemeralSize,
+            long timestamp) {
+        Entry entry = entries.get(normalizedQueueName);
+        if (entry == null) {
+            Entry newEntry = new Entry();
+            entry = entries.putIfAbsent(normalizedQueueName, newEntry);
+            if (entry == null) {
+                entry = newEntry;
+            }
+        }
+        entry.queueSize.set(queueSize);
+        entry.ephemeralSize.set(ephemeralSize);
+        entry.reconcileTimestamp = timestamp;
+    }
+
+    /**
+     * Stops tracking queues not in {@code normalizedQueueNames}.
+     * 
+     * @param normalizedQueueNames
+     */
+    public void retain(Collection<String> normalizedQueueNames) {
+        entries.keySet().retainAll(normalizedQueueNames);
+    }
+
+    private static QueueSizeSnapshot toSnapshot(String normalizedQueueName, Entry entry) {
+        return new QueueSizeSnapshot(normalizedQueueName, Math.max(0, entry.queueSize.get()),
+                Math.max(0, entry.ephemeralSize.get()), entry.reconcileTimestamp);
+    }
+
+    /**
+     * Gets current sizes of a queue.
+     * 
+     * @param normalizedQueueName
+     * @return {@code null} if the queue is not tracked (yet)
+     */
+    public QueueSizeSnapshot get(String normalizedQueueName) {
+        Entry entry = entries.get(normalizedQueueName);
+        return entry != null ? toSnapshot(normalizedQueueName, entry) : null;
+    }
+
+    /**
+     * Gets current sizes of all tracked queues.
+     * 
+     * @return
+     */
+    public List<QueueSizeSnapshot> getAll() {
+        List<QueueSizeSnapshot> result = new ArrayList<QueueSizeSnapshot>(entries.size());
+        for (Map.Entry<String, Entry> e : entries.entrySet()) {
+            result.add(toSnapshot(e.getKey(), e.getValue()));
+        }
+        return result;
+    }
+}
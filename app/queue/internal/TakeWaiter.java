@@ -0,0 +1,78 @@
+package queue.internal;
+
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import queue.ITakeCallback;
+
+/**
+ * A parked long-polling take request.
+ * 
+ * <p>
+ * A waiter must be claimed (see {@link #claim()}) before a take is attempted
+ * on its behalf, so that a waiter is served (or timed out) exactly once.
+ * </p>
+ * 
+ * @author Thanh Nguyen <btnguyen2k@gmail.com>
+ * @since 0.4.0
+ */
+public class TakeWaiter {
+
+    private final ITakeCallback callback;
+    private final long deadline;
+    private final AtomicBoolean claimed = new AtomicBoolean(false);
+    private volatile boolean done = false;
+    private volatile ScheduledFuture<?> timeoutFuture;
+
+    public TakeWaiter(ITakeCallback callback, long deadline) {
+        this.callback = callback;
+        this.deadline = deadline;
+    }
+
+    public long getDeadline() {
+        return deadline;
+    }
+
+    public TakeWaiter setTimeoutFuture(ScheduledFuture<?> timeoutFuture) {
+        this.timeoutFuture = timeoutFuture;
+        return this;
+    }
+
+    public boolean isDone() {
+        return done;
+    }
+
+    public boolean isExpired() {
+        return System.currentTimeMillis() >= deadline;
+    }
+
+    /**
+     * Claims the waiter for a take attempt.
+     * 
+     * @return {@code false} if the waiter has already been claimed
+     */
+    public boolean claim() {
+        return !done && claimed.compareAndSet(false, true);
+    }
+
+    /**
+     * Releases a claimed waiter, when the take attempt found no message.
+     */
+    public void release() {
+        claimed.set(false);
+    }
+
+    /**
+     * Completes a claimed waiter.
+     * 
+     * @param msg
+     */
+    public void complete(QueueMessage msg) {
+        done = true;
+        ScheduledFuture<?> future = timeoutFuture;
+        if (future != null) {
+            future.cancel(false);
+        }
+        callback.onTake(msg);
+    }
+}
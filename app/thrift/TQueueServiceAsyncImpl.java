@@ -0,0 +1,374 @@
+package thrift;
+
+import globals.Registry;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.thrift.TException;
+import org.apache.thrift.async.AsyncMethodCallback;
+
+import play.Logger;
+import queue.ITakeCallback;
+import queue.QueueApi;
+import queue.internal.QueueMessage;
+
+import com.github.btnguyen2k.queueserver.thrift.TQueueMessage;
+import com.github.btnguyen2k.queueserver.thrift.TQueueResponse;
+import com.github.btnguyen2k.queueserver.thrift.TQueueService;
+
+/**
+ * Asynchronous Queue Thrift Service implementation.
+ * 
+ * <p>
+ * Backend calls are delegated to a {@link TQueueService.Iface} and run on a
+ * bounded I/O executor, so that Thrift worker threads are released as soon as
+ * a request has been dispatched. When the I/O executor is saturated, calls are
+ * rejected and fail fast with a "server busy" error, so that blocking backend
+ * calls never run on Thrift's selector threads. Long-polling takes are
+ * parked in the queue API and hold no thread while waiting.
+ * </p>
+ * 
+ * @author Thanh Nguyen <btnguyen2k@gmail.com>
+ * @since 0.4.0
+ */
+@SuppressWarnings({ "rawtypes", "unchecked" })
+public class TQueueServiceAsyncImpl implements TQueueService.AsyncIface {
+
+    private final TQueueService.Iface delegate;
+    private int numIoThreads = 32;
+    private int ioQueueSize = 1024;
+    private ThreadPoolExecutor ioExecutor;
+
+    public TQueueServiceAsyncImpl(TQueueService.Iface delegate) {
+        this.delegate = delegate;
+    }
+
+    public int getNumIoThreads() {
+        return numIoThreads;
+    }
+
+    public TQueueServiceAsyncImpl setNumIoThreads(int numIoThreads) {
+        this.numIoThreads = numIoThreads;
+        return this;
+    }
+
+    public int getIoQueueSize() {
+        return ioQueueSize;
+    }
+
+    public TQueueServiceAsyncImpl setIoQueueSize(int ioQueueSize) {
+        this.ioQueueSize = ioQueueSize;
+        return this;
+    }
+
+    public TQueueServiceAsyncImpl init() {
+        final AtomicInteger threadCounter = new AtomicInteger();
+        ThreadFactory threadFactory = new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable r) {
+                Thread t = new Thread(r, "Thrift I/O " + threadCounter.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            }
+        };
+        ioExecutor = new ThreadPoolExecutor(numIoThreads, numIoThreads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<Runnable>(ioQueueSize), threadFactory,
+                new ThreadPoolExecutor.AbortPolicy());
+        return this;
+    }
+
+    public void destroy() {
+        if (ioExecutor != null) {
+            ioExecutor.shutdown();
+            try {
+                ioExecutor.awaitTermination(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+            }
+            ioExecutor = null;
+        }
+    }
+
+    /**
+     * Runs a task on the I/O executor. If the I/O executor is saturated, the
+     * result handler is completed with a "server busy" error right away.
+     * 
+     * @param resultHandler
+     * @param task
+     */
+    private void execute(AsyncMethodCallback resultHandler, Runnable task) {
+        try {
+            ioExecutor.execute(task);
+        } catch (RejectedExecutionException e) {
+            Logger.warn("Server busy: I/O executor is saturated, request rejected.");
+            resultHandler.onError(new RejectedExecutionException("Server busy, try again later."));
+        }
+    }
+
+    /**
+     * Runs a backend call on the I/O executor, and completes the result
+     * handler from there.
+     * 
+     * @param resultHandler
+     * @param call
+     */
+    private void submit(final AsyncMethodCallback resultHandler, final Callable<?> call) {
+        execute(resultHandler, new Runnable() {
+            @Override
+            public void run() {
+                Object result;
+                try {
+                    result = call.call();
+                } catch (Exception e) {
+                    Logger.error("Exception [" + e.getClass() + "]: " + e.getMessage(), e);
+                    resultHandler.onError(e);
+                    return;
+                }
+                resultHandler.onComplete(result);
+            }
+        });
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void ping(AsyncMethodCallback resultHandler) throws TException {
+        submit(resultHandler, new Callable<Void>() {
+            @Override
+            public Void call() throws Exception {
+                delegate.ping();
+                return null;
+            }
+        });
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void ping2(AsyncMethodCallback resultHandler) throws TException {
+        submit(resultHandler, new Callable<Boolean>() {
+            @Override
+            public Boolean call() throws Exception {
+                return delegate.ping2();
+            }
+        });
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void queueExists(final String _secret, final String _queueName,
+            AsyncMethodCallback resultHandler) throws TException {
+        submit(resultHandler, new Callable<Object>() {
+            @Override
+            public Object call() throws Exception {
+                return delegate.queueExists(_secret, _queueName);
+            }
+        });
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void initQueue(final String _secret, final String _queueName,
+            AsyncMethodCallback resultHandler) throws TException {
+        submit(resultHandler, new Callable<Object>() {
+            @Override
+            public Object call() throws Exception {
+                return delegate.initQueue(_secret, _queueName);
+            }
+        });
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void queue(final String _secret, final String _queueName,
+            final TQueueMessage _message, AsyncMethodCallback resultHandler) throws TException {
+        submit(resultHandler, new Callable<Object>() {
+            @Override
+            public Object call() throws Exception {
+                return delegate.queue(_secret, _queueName, _message);
+            }
+        });
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void queueBatch(final String _secret, final String _queueName,
+            final List<TQueueMessage> _messages, AsyncMethodCallback resultHandler)
+            throws TException {
+        submit(resultHandler, new Callable<Object>() {
+            @Override
+            public Object call() throws Exception {
+                return delegate.queueBatch(_secret, _queueName, _messages);
+            }
+        });
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void requeue(final String _secret, final String _queueName,
+            final TQueueMessage _message, AsyncMethodCallback resultHandler) throws TException {
+        submit(resultHandler, new Callable<Object>() {
+            @Override
+            public Object call() throws Exception {
+                return delegate.requeue(_secret, _queueName, _message);
+            }
+        });
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void requeueSilent(final String _secret, final String _queueName,
+            final TQueueMessage _message, AsyncMethodCallback resultHandler) throws TException {
+        submit(resultHandler, new Callable<Object>() {
+            @Override
+            public Object call() throws Exception {
+                return delegate.requeueSilent(_secret, _queueName, _message);
+            }
+        });
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void finish(final String _secret, final String _queueName,
+            final TQueueMessage _message, AsyncMethodCallback resultHandler) throws TException {
+        submit(resultHandler, new Callable<Object>() {
+            @Override
+            public Object call() throws Exception {
+                return delegate.finish(_secret, _queueName, _message);
+            }
+        });
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void finishBatch(final String _secret, final String _queueName,
+            final List<Long> _queueIds, AsyncMethodCallback resultHandler) throws TException {
+        submit(resultHandler, new Callable<Object>() {
+            @Override
+            public Object call() throws Exception {
+                return delegate.finishBatch(_secret, _queueName, _queueIds);
+            }
+        });
+    }
+
+    /**
+     * {@inheritDoc}
+     * 
+     * <p>
+     * If {@code _waitMillis > 0}, the take is parked in the queue API (see
+     * {@link QueueApi#take(String, long, ITakeCallback)}) and the result
+     * handler is completed when a message is taken or the wait time elapses.
+     * </p>
+     */
+    @Override
+    public void take(final String _secret, final String _queueName, final long _waitMillis,
+            final AsyncMethodCallback resultHandler) throws TException {
+        if (_waitMillis <= 0) {
+            submit(resultHandler, new Callable<Object>() {
+                @Override
+                public Object call() throws Exception {
+                    return delegate.take(_secret, _queueName, 0);
+                }
+            });
+            return;
+        }
+
+        execute(resultHandler, new Runnable() {
+            @Override
+            public void run() {
+                QueueApi queueApi = Registry.getQueueApi();
+                try {
+                    if (!queueApi.isValidQueueName(_queueName)) {
+                        resultHandler.onComplete(TQueueServiceImpl.doResponse(400,
+                                "Invalid queue name [" + _queueName + "]!", false, null));
+                        return;
+                    }
+                    if (!queueApi.authorize(_secret, _queueName)) {
+                        resultHandler.onComplete(TQueueServiceImpl.doResponse(403,
+                                "Unauthorized!", false, null));
+                        return;
+                    }
+                    queueApi.take(_queueName, _waitMillis, new ITakeCallback() {
+                        @Override
+                        public void onTake(QueueMessage msg) {
+                            TQueueResponse response = TQueueServiceImpl.doResponse(200, "",
+                                    msg != null, msg);
+                            resultHandler.onComplete(response);
+                        }
+                    });
+                } catch (Exception e) {
+                    final String logMsg = "Exception [" + e.getClass() + "]: " + e.getMessage();
+                    Logger.error(logMsg, e);
+                    resultHandler.onComplete(TQueueServiceImpl.doResponse(500, logMsg, false,
+                            null));
+                }
+            }
+        });
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void takeBatch(final String _secret, final String _queueName,
+            final int _maxMessages, AsyncMethodCallback resultHandler) throws TException {
+        submit(resultHandler, new Callable<Object>() {
+            @Override
+            public Object call() throws Exception {
+                return delegate.takeBatch(_secret, _queueName, _maxMessages);
+            }
+        });
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void queueSize(final String _secret, final String _queueName, final boolean _cached,
+            AsyncMethodCallback resultHandler) throws TException {
+        submit(resultHandler, new Callable<Object>() {
+            @Override
+            public Object call() throws Exception {
+                return delegate.queueSize(_secret, _queueName, _cached);
+            }
+        });
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void ephemeralSize(final String _secret, final String _queueName, final boolean _cached,
+            AsyncMethodCallback resultHandler) throws TException {
+        submit(resultHandler, new Callable<Object>() {
+            @Override
+            public Object call() throws Exception {
+                return delegate.ephemeralSize(_secret, _queueName, _cached);
+            }
+        });
+    }
+}
@@ -2,12 +2,17 @@ package thrift;
 
 import globals.Registry;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import org.apache.thrift.TException;
 
 import play.Logger;
 import queue.QueueApi;
 import queue.internal.QueueMessage;
+import queue.internal.QueueSizeSnapshot;
 
+import com.github.btnguyen2k.queueserver.thrift.TQueueBatchResponse;
 import com.github.btnguyen2k.queueserver.thrift.TQueueMessage;
 import com.github.btnguyen2k.queueserver.thrift.TQueueResponse;
 import com.github.btnguyen2k.queueserver.thrift.TQueueService;
@@ -113,6 +118,47 @@ public class TQueueServiceImpl implements TQueueService.Iface {
         }
     }
 
+    /**
+     * {@inheritDoc}
+     * 
+     * @since 0.4.0
+     */
+    @Override
+    public TQueueBatchResponse queueBatch(String _secret, String _queueName,
+            List<TQueueMessage> _messages) throws TException {
+        QueueApi queueApi = Registry.getQueueApi();
+        try {
+            if (!queueApi.isValidQueueName(_queueName) || _messages == null) {
+                return doBatchResponse(400, "Invalid input!", false, null, null);
+            }
+            if (!queueApi.authorize(_secret, _queueName)) {
+                return doBatchResponse(403, "Unauthorized!", false, null, null);
+            }
+            List<QueueMessage> messages = new ArrayList<QueueMessage>(_messages.size());
+            for (TQueueMessage _message : _messages) {
+                if (_message == null) {
+                    return doBatchResponse(400, "Invalid input!", false, null, null);
+                }
+                messages.add(QueueMessage.newInstance(_message));
+            }
+            boolean[] result = queueApi.queueBatch(_queueName, messages);
+            if (result == null) {
+                return doBatchResponse(404, "Queue [" + _queueName + "] does not exist!", false,
+                        null, null);
+            }
+            int numQueued = 0;
+            for (boolean r : result) {
+                numQueued += r ? 1 : 0;
+            }
+            return doBatchResponse(200, String.valueOf(numQueued), numQueued == result.length,
+                    result, null);
+        } catch (Exception e) {
+            final String logMsg = "Exception [" + e.getClass() + "]: " + e.getMessage();
+            Logger.error(logMsg, e);
+            return doBatchResponse(500, logMsg, false, null, null);
+        }
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -187,9 +233,44 @@ public class TQueueServiceImpl implements TQueueService.Iface {
 
     /**
      * {@inheritDoc}
+     * 
+     * @since 0.4.0
      */
     @Override
-    public TQueueResponse take(String _secret, String _queueName) throws TException {
+    public TQueueResponse finishBatch(String _secret, String _queueName, List<Long> _queueIds)
+            throws TException {
+        QueueApi queueApi = Registry.getQueueApi();
+        try {
+            if (!queueApi.isValidQueueName(_queueName) || _queueIds == null) {
+                return doResponse(400, "Invalid input!", false, null);
+            }
+            if (!queueApi.authorize(_secret, _queueName)) {
+                return doResponse(403, "Unauthorized!", false, null);
+            }
+            int result = queueApi.finishBatch(_queueName, _queueIds);
+            if (result < 0) {
+                return doResponse(404, "Queue [" + _queueName + "] does not exist!", false, null);
+            }
+            return doResponse(200, String.valueOf(result), true, null);
+        } catch (Exception e) {
+            final String logMsg = "Exception [" + e.getClass() + "]: " + e.getMessage();
+            Logger.error(logMsg, e);
+            return doResponse(500, logMsg, false, null);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * 
+     * <p>
+     * This synchronous service never long-polls: {@code _waitMillis} is
+     * ignored, so that a worker thread is never blocked waiting for messages.
+     * Long-polling is served by {@link TQueueServiceAsyncImpl}.
+     * </p>
+     */
+    @Override
+    public TQueueResponse take(String _secret, String _queueName, long _waitMillis)
+            throws TException {
         QueueApi queueApi = Registry.getQueueApi();
         try {
             if (!queueApi.isValidQueueName(_queueName)) {
@@ -209,9 +290,40 @@ public class TQueueServiceImpl implements TQueueService.Iface {
 
     /**
      * {@inheritDoc}
+     * 
+     * @since 0.4.0
      */
     @Override
-    public TQueueSizeResponse queueSize(String _secret, String _queueName) throws TException {
+    public TQueueBatchResponse takeBatch(String _secret, String _queueName, int _maxMessages)
+            throws TException {
+        QueueApi queueApi = Registry.getQueueApi();
+        try {
+            if (!queueApi.isValidQueueName(_queueName) || _maxMessages < 1) {
+                return doBatchResponse(400, "Invalid input!", false, null, null);
+            }
+            if (!queueApi.authorize(_secret, _queueName)) {
+                return doBatchResponse(403, "Unauthorized!", false, null, null);
+            }
+            List<QueueMessage> result = queueApi.takeBatch(_queueName, _maxMessages);
+            if (result == null) {
+                return doBatchResponse(404, "Queue [" + _queueName + "] does not exist!", false,
+                        null, null);
+            }
+            return doBatchResponse(200, String.valueOf(result.size()), result.size() > 0, null,
+                    result);
+        } catch (Exception e) {
+            final String logMsg = "Exception [" + e.getClass() + "]: " + e.getMessage();
+            Logger.error(logMsg, e);
+            return doBatchResponse(500, logMsg, false, null, null);
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public TQueueSizeResponse queueSize(String _secret, String _queueName, boolean _cached)
+            throws TException {
         QueueApi queueApi = Registry.getQueueApi();
         try {
             if (!queueApi.isValidQueueName(_queueName)) {
@@ -220,6 +332,11 @@ public class TQueueServiceImpl implements TQueueService.Iface {
             if (!queueApi.authorize(_secret, _queueName)) {
                 return doSizeResponse(403, "Unauthorized!", -1);
             }
+            if (_cached) {
+                QueueSizeSnapshot snapshot = queueApi.getQueueSizeSnapshot(_queueName);
+                return snapshot != null ? doSizeResponse(200, "", snapshot.getQueueSize(),
+                        snapshot.getStalenessMs()) : doSizeResponse(200, "", -1);
+            }
             int result = queueApi.queueSize(_queueName);
             return doSizeResponse(200, "", result);
         } catch (Exception e) {
@@ -233,7 +350,8 @@ public class TQueueServiceImpl implements TQueueService.Iface {
      * {@inheritDoc}
      */
     @Override
-    public TQueueSizeResponse ephemeralSize(String _secret, String _queueName) throws TException {
+    public TQueueSizeResponse ephemeralSize(String _secret, String _queueName, boolean _cached)
+            throws TException {
         QueueApi queueApi = Registry.getQueueApi();
         try {
             if (!queueApi.isValidQueueName(_queueName)) {
@@ -242,6 +360,11 @@ public class TQueueServiceImpl implements TQueueService.Iface {
             if (!queueApi.authorize(_secret, _queueName)) {
                 return doSizeResponse(403, "Unauthorized!", -1);
             }
+            if (_cached) {
+                QueueSizeSnapshot snapshot = queueApi.getQueueSizeSnapshot(_queueName);
+                return snapshot != null ? doSizeResponse(200, "", snapshot.getEphemeralSize(),
+                        snapshot.getStalenessMs()) : doSizeResponse(200, "", -1);
+            }
             int result = queueApi.ephemeralSize(_queueName);
             return doSizeResponse(200, "", result);
         } catch (Exception e) {
@@ -251,8 +374,7 @@ public class TQueueServiceImpl implements TQueueService.Iface {
         }
     }
 
-    private static TQueueResponse doResponse(int status, String message, boolean result,
-            QueueMessage queueMessage) {
+    public static TQueueMessage toTQueueMessage(QueueMessage queueMessage) {
         TQueueMessage msg = queueMessage != null ? new TQueueMessage() : null;
         if (msg != null) {
             msg.setQueueId(queueMessage.queueId());
@@ -263,13 +385,46 @@ public class TQueueServiceImpl implements TQueueService.Iface {
             msg.setMsgTimestamp(queueMessage.qTimestamp() != null ? queueMessage.qTimestamp()
                     .getTime() : 0);
         }
+        return msg;
+    }
+
+    static TQueueResponse doResponse(int status, String message, boolean result,
+            QueueMessage queueMessage) {
+        TQueueMessage msg = toTQueueMessage(queueMessage);
         TQueueResponse response = new TQueueResponse(status, message, result, msg);
         Registry.updateCounters(status);
         return response;
     }
 
+    private static TQueueBatchResponse doBatchResponse(int status, String message,
+            boolean result, boolean[] results, List<QueueMessage> queueMessages) {
+        TQueueBatchResponse response = new TQueueBatchResponse();
+        response.setStatus(status).setMessage(message).setResult(result);
+        if (results != null) {
+            List<Boolean> _results = new ArrayList<Boolean>(results.length);
+            for (boolean r : results) {
+                _results.add(r);
+            }
+            response.setResults(_results);
+        }
+        if (queueMessages != null) {
+            List<TQueueMessage> msgs = new ArrayList<TQueueMessage>(queueMessages.size());
+            for (QueueMessage queueMessage : queueMessages) {
+                msgs.add(toTQueueMessage(queueMessage));
+            }
+            response.setQueueMessages(msgs);
+        }
+        Registry.updateCounters(status);
+        return response;
+    }
+
     private static TQueueSizeResponse doSizeResponse(int status, String message, long size) {
-        TQueueSizeResponse response = new TQueueSizeResponse(status, message, size);
+        return doSizeResponse(status, message, size, 0);
+    }
+
+    private static TQueueSizeResponse doSizeResponse(int status, String message, long size,
+            long stalenessMs) {
+        TQueueSizeResponse response = new TQueueSizeResponse(status, message, size, stalenessMs);
         Registry.updateCounters(status);
         return response;
     }
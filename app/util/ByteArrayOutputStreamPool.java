@@ -0,0 +1,73 @@
+package util;
+
+import java.io.ByteArrayOutputStream;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * A bounded pool of reusable {@link ByteArrayOutputStream}s.
+ * 
+ * <p>
+ * Streams that have grown beyond {@code maxRetainedSize} bytes are not
+ * returned to the pool, so that one large payload does not pin a large buffer
+ * forever.
+ * </p>
+ * 
+ * @author Thanh Nguyen <btnguyen2k@gmail.com>
+ * @since 0.4.0
+ */
+public class ByteArrayOutputStreamPool {
+
+    /**
+     * A {@link ByteArrayOutputStream} that exposes its capacity.
+     */
+    public static class PooledByteArrayOutputStream extends ByteArrayOutputStream {
+        public PooledByteArrayOutputStream(int initialSize) {
+            super(initialSize);
+        }
+
+        public int capacity() {
+            return buf.length;
+        }
+    }
+
+    private final BlockingQueue<PooledByteArrayOutputStream> pool;
+    private final int initialSize, maxRetainedSize;
+
+    /**
+     * @param poolSize
+     *            max number of idle streams kept in the pool
+     * @param initialSize
+     *            initial capacity of a new stream
+     * @param maxRetainedSize
+     *            streams larger than this are discarded on release
+     */
+    public ByteArrayOutputStreamPool(int poolSize, int initialSize, int maxRetainedSize) {
+        this.pool = new ArrayBlockingQueue<PooledByteArrayOutputStream>(poolSize);
+        this.initialSize = initialSize;
+        this.maxRetainedSize = maxRetainedSize;
+    }
+
+    /**
+     * Borrows an empty stream from the pool, a new one is created if the pool
+     * is empty.
+     * 
+     * @return
+     */
+    public PooledByteArrayOutputStream borrow() {
+        PooledByteArrayOutputStream out = pool.poll();
+        return out != null ? out : new PooledByteArrayOutputStream(initialSize);
+    }
+
+    /**
+     * Returns a stream to the pool.
+     * 
+     * @param out
+     */
+    public void release(PooledByteArrayOutputStream out) {
+        if (out != null && out.capacity() <= maxRetainedSize) {
+            out.reset();
+            pool.offer(out);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package util;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free counter striped over several cells (indexed by thread id) to
+ * reduce contention between threads updating it concurrently. Java 7
+ * replacement for {@code java.util.concurrent.atomic.LongAdder}.
+ * 
+ * @author Thanh Nguyen <btnguyen2k@gmail.com>
+ * @since 0.4.0
+ */
+public class StripedCounter {
+
+    /* 8 longs = 64 bytes: keep each cell on its own cache line */
+    private final static int PADDING = 8;
+    private final static int NUM_STRIPES;
+    static {
+        int n = 1;
+        while (n < Runtime.getRuntime().availableProcessors() * 2) {
+            n <<= 1;
+        }
+        NUM_STRIPES = n;
+    }
+
+    private final AtomicLongArray cells = new AtomicLongArray(NUM_STRIPES * PADDING);
+
+    private static int index() {
+        return (int) (Thread.currentThread().getId() & (NUM_STRIPES - 1)) * PADDING;
+    }
+
+    public void add(long value) {
+        cells.addAndGet(index(), value);
+    }
+
+    public void increment() {
+        add(1);
+    }
+
+    public void decrement() {
+        add(-1);
+    }
+
+    /**
+     * Current value. Not an atomic snapshot if there are concurrent updates.
+     * 
+     * @return
+     */
+    public long sum() {
+        long result = 0;
+        for (int i = 0; i < NUM_STRIPES; i++) {
+            result += cells.get(i * PADDING);
+        }
+        return result;
+    }
+
+    /**
+     * Gets current value and resets the counter to zero. Updates made
+     * concurrently are never lost: they are counted either in this or in the
+     * next call.
+     * 
+     * @return
+     */
+    public long sumThenReset() {
+        long result = 0;
+        for (int i = 0; i < NUM_STRIPES; i++) {
+            result += cells.getAndSet(i * PADDING, 0);
+        }
+        return result;
+    }
+}
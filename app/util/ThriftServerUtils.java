@@ -5,6 +5,7 @@ import java.util.concurrent.TimeUnit;
 import org.apache.thrift.TProcessorFactory;
 import org.apache.thrift.protocol.TProtocolFactory;
 import org.apache.thrift.server.THsHaServer;
+import org.apache.thrift.server.TServer;
 import org.apache.thrift.server.TNonblockingServer;
 import org.apache.thrift.server.TThreadPoolServer;
 import org.apache.thrift.server.TThreadedSelectorServer;
@@ -34,6 +35,94 @@ public class ThriftServerUtils {
         DEFAULT_NUM_WORKER_THREADS = Math.max(4, Runtime.getRuntime().availableProcessors());
     }
 
+    /**
+     * {@link TThreadPoolServer} ties a worker thread to each connection, its
+     * default max worker threads is sized for concurrent connections rather
+     * than CPU cores.
+     * 
+     * @since 0.4.0
+     */
+    public final static int DEFAULT_MAX_WORKER_THREADS_THREADPOOL = 256;
+
+    /**
+     * Default number of accepted connections queued per selector thread
+     * ({@link TThreadedSelectorServer}).
+     * 
+     * @since 0.4.0
+     */
+    public final static int DEFAULT_ACCEPT_QUEUE_SIZE_PER_THREAD = 100000;
+
+    /**
+     * Server types, see {@link #createServer(String, TProcessorFactory, TProtocolFactory, int, int, int, long, int, int, int)}.
+     * 
+     * @since 0.4.0
+     */
+    public final static String SERVER_TYPE_THREADPOOL = "threadpool";
+    public final static String SERVER_TYPE_NONBLOCKING = "nonblocking";
+    public final static String SERVER_TYPE_HSHA = "hsha";
+    public final static String SERVER_TYPE_THREADED_SELECTOR = "threadedselector";
+    public final static String DEFAULT_SERVER_TYPE = SERVER_TYPE_THREADED_SELECTOR;
+
+    /**
+     * Checks if a server type processes requests on non-blocking servers'
+     * frame buffers, i.e. supports asynchronous processors.
+     * 
+     * @param serverType
+     * @return
+     * @since 0.4.0
+     */
+    public static boolean isNonblockingServerType(String serverType) {
+        return !SERVER_TYPE_THREADPOOL.equalsIgnoreCase(serverType);
+    }
+
+    /**
+     * Creates a Thrift server of type {@code serverType}, parameters not used
+     * by the server type are ignored; supply {@code <=0} values to let the
+     * method choose defaults.
+     * 
+     * @param serverType
+     *            one of {@link #SERVER_TYPE_THREADPOOL},
+     *            {@link #SERVER_TYPE_NONBLOCKING}, {@link #SERVER_TYPE_HSHA}
+     *            or {@link #SERVER_TYPE_THREADED_SELECTOR}
+     * @param processorFactory
+     * @param protocolFactory
+     * @param port
+     * @param clientTimeoutMillisecs
+     * @param maxFrameSize
+     * @param maxReadBufferSize
+     * @param numSelectorThreads
+     * @param numWorkerThreads
+     * @param acceptQueueSizePerThread
+     * @return
+     * @throws TTransportException
+     * @since 0.4.0
+     */
+    public static TServer createServer(String serverType, TProcessorFactory processorFactory,
+            TProtocolFactory protocolFactory, int port, int clientTimeoutMillisecs,
+            int maxFrameSize, long maxReadBufferSize, int numSelectorThreads,
+            int numWorkerThreads, int acceptQueueSizePerThread) throws TTransportException {
+        if (SERVER_TYPE_THREADPOOL.equalsIgnoreCase(serverType)) {
+            return createThreadPoolServer(processorFactory, protocolFactory, port,
+                    clientTimeoutMillisecs, maxFrameSize,
+                    numWorkerThreads > 0 ? numWorkerThreads
+                            : DEFAULT_MAX_WORKER_THREADS_THREADPOOL);
+        }
+        if (SERVER_TYPE_NONBLOCKING.equalsIgnoreCase(serverType)) {
+            return createNonBlockingServer(processorFactory, protocolFactory, port,
+                    clientTimeoutMillisecs, maxFrameSize, maxReadBufferSize);
+        }
+        if (SERVER_TYPE_HSHA.equalsIgnoreCase(serverType)) {
+            return createHaHsServer(processorFactory, protocolFactory, port,
+                    clientTimeoutMillisecs, maxFrameSize, maxReadBufferSize, numWorkerThreads);
+        }
+        if (SERVER_TYPE_THREADED_SELECTOR.equalsIgnoreCase(serverType)) {
+            return createThreadedSelectorServer(processorFactory, protocolFactory, port,
+                    clientTimeoutMillisecs, maxFrameSize, maxReadBufferSize,
+                    numSelectorThreads, numWorkerThreads, acceptQueueSizePerThread);
+        }
+        throw new IllegalArgumentException("Invalid Thrift server type [" + serverType + "]!");
+    }
+
     /**
      * Creates a {@link TThreadPoolServer} server.
      * 
@@ -233,6 +322,45 @@ public class ThriftServerUtils {
             TProcessorFactory processorFactory, TProtocolFactory protocolFactory, int port,
             int clientTimeoutMillisecs, int maxFrameSize, long maxReadBufferSize,
             int numSelectorThreads, int numWorkerThreads) throws TTransportException {
+        return createThreadedSelectorServer(processorFactory, protocolFactory, port,
+                clientTimeoutMillisecs, maxFrameSize, maxReadBufferSize, numSelectorThreads,
+                numWorkerThreads, 0);
+    }
+
+    /**
+     * Creates a {@link TThreadedSelectorServer} server.
+     * 
+     * <p>
+     * Same as
+     * {@link #createThreadedSelectorServer(TProcessorFactory, TProtocolFactory, int, int, int, long, int, int)}
+     * , with a configurable accept queue.
+     * </p>
+     * 
+     * @param processorFactory
+     * @param protocolFactory
+     * @param port
+     * @param clientTimeoutMillisecs
+     * @param maxFrameSize
+     * @param maxReadBufferSize
+     * @param numSelectorThreads
+     * @param numWorkerThreads
+     * @param acceptQueueSizePerThread
+     *            number of accepted connections queued per selector thread,
+     *            supply {@code <=0} value to let the method choose a default
+     *            {@code acceptQueueSizePerThread} value (which is
+     *            {@code 100000})
+     * @return
+     * @throws TTransportException
+     * @since 0.4.0
+     */
+    public static TThreadedSelectorServer createThreadedSelectorServer(
+            TProcessorFactory processorFactory, TProtocolFactory protocolFactory, int port,
+            int clientTimeoutMillisecs, int maxFrameSize, long maxReadBufferSize,
+            int numSelectorThreads, int numWorkerThreads, int acceptQueueSizePerThread)
+            throws TTransportException {
+        if (acceptQueueSizePerThread <= 0) {
+            acceptQueueSizePerThread = DEFAULT_ACCEPT_QUEUE_SIZE_PER_THREAD;
+        }
         if (clientTimeoutMillisecs <= 0) {
             clientTimeoutMillisecs = DEFAULT_CLIENT_TIMEOUT_MS;
         }
@@ -255,7 +383,8 @@ public class ThriftServerUtils {
         TThreadedSelectorServer.Args args = new TThreadedSelectorServer.Args(transport)
                 .processorFactory(processorFactory).protocolFactory(protocolFactory)
                 .transportFactory(transportFactory).workerThreads(numWorkerThreads)
-                .acceptPolicy(AcceptPolicy.FAIR_ACCEPT).acceptQueueSizePerThread(100000)
+                .acceptPolicy(AcceptPolicy.FAIR_ACCEPT)
+                .acceptQueueSizePerThread(acceptQueueSizePerThread)
                 .selectorThreads(numSelectorThreads);
         args.maxReadBufferBytes = maxReadBufferSize;
         TThreadedSelectorServer server = new TThreadedSelectorServer(args);
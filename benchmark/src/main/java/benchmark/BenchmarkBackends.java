@@ -0,0 +1,167 @@
+package benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.sql.SQLException;
+
+import org.apache.commons.dbcp2.BasicDataSource;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import queue.InMemoryQueueApi;
+import queue.JdbcQueueApi;
+import queue.LogQueueApi;
+import queue.MySQLQueueApi;
+import queue.PgSQLQueueApi;
+import queue.QueueApi;
+import queue.RedisQueueApi;
+import redis.embedded.RedisServer;
+
+/**
+ * Creates {@link QueueApi} instances backed by embedded stand-ins: H2 (in
+ * MySQL/PostgreSQL compatibility mode) for the JDBC backends and an embedded
+ * Redis server for the Redis backend. The local log backend runs in a
+ * temporary directory, the in-memory backend needs no stand-in.
+ * 
+ * @author Thanh Nguyen <btnguyen2k@gmail.com>
+ * @since 0.4.0
+ */
+public class BenchmarkBackends {
+
+    public final static String BACKEND_MYSQL = "mysql";
+    public final static String BACKEND_PGSQL = "pgsql";
+    public final static String BACKEND_REDIS = "redis";
+    public final static String BACKEND_LOG = "log";
+    public final static String BACKEND_INMEM = "inmem";
+
+    private final static long ORPHAN_MESSAGE_THRESHOLD_MS = 3600000;
+
+    private QueueApi queueApi;
+    private BasicDataSource dataSource;
+    private RedisServer redisServer;
+    private File dataDir;
+
+    public QueueApi getQueueApi() {
+        return queueApi;
+    }
+
+    /**
+     * Starts the stand-in for {@code backend} and creates the queue
+     * {@code queueName}.
+     * 
+     * @param backend
+     * @param queueName
+     * @return
+     * @throws Exception
+     */
+    public BenchmarkBackends start(String backend, String queueName) throws Exception {
+        if (BACKEND_MYSQL.equals(backend)) {
+            dataSource = createH2DataSource("MySQL");
+            queueApi = initJdbcQueueApi(new MySQLQueueApi(), dataSource, queueName);
+        } else if (BACKEND_PGSQL.equals(backend)) {
+            dataSource = createH2DataSource("PostgreSQL");
+            PgSQLQueueApi pgsqlQueueApi = new PgSQLQueueApi();
+            // H2 has no LISTEN/NOTIFY
+            pgsqlQueueApi.setTakeNotificationChannel("");
+            queueApi = initJdbcQueueApi(pgsqlQueueApi, dataSource, queueName);
+        } else if (BACKEND_REDIS.equals(backend)) {
+            int port = freePort();
+            redisServer = new RedisServer(port);
+            redisServer.start();
+            RedisQueueApi redisQueueApi = new RedisQueueApi();
+            redisQueueApi.setMetadataRedisHashName("queue_metadata").setRedisHostAndPort(
+                    "localhost:" + port);
+            redisQueueApi.setOrphanMessageThresholdMs(ORPHAN_MESSAGE_THRESHOLD_MS);
+            queueApi = redisQueueApi.init();
+            queueApi.initQueue(queueName);
+        } else if (BACKEND_LOG.equals(backend)) {
+            dataDir = File.createTempFile("queue-server-benchmark", "");
+            dataDir.delete();
+            LogQueueApi logQueueApi = new LogQueueApi();
+            logQueueApi.setDataDir(dataDir.getAbsolutePath());
+            logQueueApi.setOrphanMessageThresholdMs(ORPHAN_MESSAGE_THRESHOLD_MS);
+            queueApi = logQueueApi.init();
+            queueApi.initQueue(queueName);
+        } else if (BACKEND_INMEM.equals(backend)) {
+            InMemoryQueueApi inmemQueueApi = new InMemoryQueueApi();
+            inmemQueueApi.setOrphanMessageThresholdMs(ORPHAN_MESSAGE_THRESHOLD_MS);
+            queueApi = inmemQueueApi.init();
+            queueApi.initQueue(queueName);
+        } else {
+            throw new IllegalArgumentException("Unknown backend [" + backend + "]!");
+        }
+        return this;
+    }
+
+    public void stop() throws Exception {
+        if (queueApi != null) {
+            queueApi.destroy();
+            queueApi = null;
+        }
+        if (dataSource != null) {
+            dataSource.close();
+            dataSource = null;
+        }
+        if (redisServer != null) {
+            redisServer.stop();
+            redisServer = null;
+        }
+        if (dataDir != null) {
+            deleteRecursively(dataDir);
+            dataDir = null;
+        }
+    }
+
+    private static void deleteRecursively(File file) {
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                deleteRecursively(child);
+            }
+        }
+        file.delete();
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private static BasicDataSource createH2DataSource(String mode) {
+        BasicDataSource ds = new BasicDataSource();
+        ds.setDriverClassName("org.h2.Driver");
+        ds.setUrl("jdbc:h2:mem:" + mode.toLowerCase() + System.nanoTime() + ";MODE=" + mode
+                + ";DB_CLOSE_DELAY=-1");
+        ds.setMaxTotal(32);
+        return ds;
+    }
+
+    /*
+     * Queue tables are created up-front with DDL that H2 understands in all
+     * compatibility modes, QueueApi.initQueue() then only registers the
+     * queue's metadata.
+     */
+    private static QueueApi initJdbcQueueApi(JdbcQueueApi jdbcQueueApi, BasicDataSource ds,
+            String queueName) throws SQLException {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(ds);
+        jdbcTemplate.execute("CREATE TABLE queue_metadata (queue_name VARCHAR(64) NOT NULL,"
+                + "queue_timestamp_create TIMESTAMP NOT NULL, queue_settings TEXT,"
+                + "PRIMARY KEY (queue_name))");
+        jdbcTemplate.execute("CREATE TABLE queue_" + queueName
+                + " (queue_id BIGINT AUTO_INCREMENT, msg_org_timestamp TIMESTAMP NOT NULL,"
+                + "msg_timestamp TIMESTAMP NOT NULL, msg_num_requeues INT NOT NULL DEFAULT 0,"
+                + "msg_content BLOB, PRIMARY KEY (queue_id))");
+        jdbcTemplate.execute("CREATE TABLE queue_" + queueName
+                + "_ephemeral (queue_id BIGINT, msg_org_timestamp TIMESTAMP NOT NULL,"
+                + "msg_timestamp TIMESTAMP NOT NULL, msg_num_requeues INT NOT NULL DEFAULT 0,"
+                + "msg_content BLOB, PRIMARY KEY (queue_id))");
+
+        jdbcQueueApi.setDataSource(ds);
+        jdbcQueueApi.setTableMetadata("queue_metadata");
+        jdbcQueueApi.setOrphanMessageThresholdMs(ORPHAN_MESSAGE_THRESHOLD_MS);
+        jdbcQueueApi.init();
+        jdbcQueueApi.initQueue(queueName);
+        return jdbcQueueApi;
+    }
+}
@@ -0,0 +1,76 @@
+package benchmark;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import queue.QueueApi;
+import queue.internal.QueueMessage;
+
+/**
+ * Throughput & latency of {@link QueueApi} operations, per backend.
+ * 
+ * <p>
+ * {@code queueTakeFinish} runs a full message round-trip (queue, take then
+ * finish), the cost of take+finish is the difference with {@code queue}.
+ * </p>
+ * 
+ * @author Thanh Nguyen <btnguyen2k@gmail.com>
+ * @since 0.4.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class QueueApiBenchmark {
+
+    private final static String QUEUE_NAME = "benchmark";
+
+    @Param({ BenchmarkBackends.BACKEND_MYSQL, BenchmarkBackends.BACKEND_PGSQL,
+            BenchmarkBackends.BACKEND_REDIS, BenchmarkBackends.BACKEND_LOG,
+            BenchmarkBackends.BACKEND_INMEM })
+    public String backend;
+
+    @Param({ "128", "4096" })
+    public int messageSize;
+
+    private BenchmarkBackends backends;
+    private QueueApi queueApi;
+    private byte[] content;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        backends = new BenchmarkBackends().start(backend, QUEUE_NAME);
+        queueApi = backends.getQueueApi();
+        content = new byte[messageSize];
+        new Random(messageSize).nextBytes(content);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        backends.stop();
+    }
+
+    @Benchmark
+    public boolean queue() {
+        QueueMessage msg = QueueMessage.newInstance(0, null, null, 0, content);
+        return queueApi.queue(QUEUE_NAME, msg);
+    }
+
+    @Benchmark
+    public boolean queueTakeFinish() {
+        QueueMessage msg = QueueMessage.newInstance(0, null, null, 0, content);
+        queueApi.queue(QUEUE_NAME, msg);
+        QueueMessage taken = queueApi.take(QUEUE_NAME);
+        return taken != null && queueApi.finish(QUEUE_NAME, taken);
+    }
+}
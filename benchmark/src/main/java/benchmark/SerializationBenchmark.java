@@ -0,0 +1,98 @@
+package benchmark;
+
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.thrift.TDeserializer;
+import org.apache.thrift.TException;
+import org.apache.thrift.TSerializer;
+import org.apache.thrift.protocol.TCompactProtocol;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import queue.internal.QueueMessage;
+import thrift.TQueueServiceImpl;
+import util.QueueServerUtils;
+
+import com.github.btnguyen2k.queueserver.thrift.TQueueMessage;
+import com.github.ddth.commons.utils.SerializationUtils;
+
+/**
+ * Cost of converting messages on the Thrift and REST paths:
+ * {@link TQueueMessage} &lt;-&gt; {@link QueueMessage} (plus compact-protocol
+ * encoding) and {@link QueueMessage} &lt;-&gt; base64 JSON.
+ * 
+ * @author Thanh Nguyen <btnguyen2k@gmail.com>
+ * @since 0.4.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class SerializationBenchmark {
+
+    @Param({ "128", "4096", "65536" })
+    public int messageSize;
+
+    private QueueMessage queueMessage;
+    private TQueueMessage tQueueMessage;
+    private byte[] thriftBytes;
+    private String json;
+    private TSerializer serializer;
+    private TDeserializer deserializer;
+
+    @Setup(Level.Trial)
+    public void setup() throws TException {
+        byte[] content = new byte[messageSize];
+        new Random(messageSize).nextBytes(content);
+        queueMessage = QueueMessage.newInstance(1, null, null, 0, content);
+        tQueueMessage = TQueueServiceImpl.toTQueueMessage(queueMessage);
+        serializer = new TSerializer(new TCompactProtocol.Factory());
+        deserializer = new TDeserializer(new TCompactProtocol.Factory());
+        thriftBytes = serializer.serialize(tQueueMessage);
+        json = SerializationUtils.toJsonString(QueueServerUtils
+                .queueMessageToResponseParams(queueMessage));
+    }
+
+    @Benchmark
+    public TQueueMessage thriftToTQueueMessage() {
+        return TQueueServiceImpl.toTQueueMessage(queueMessage);
+    }
+
+    @Benchmark
+    public QueueMessage thriftFromTQueueMessage() {
+        return QueueMessage.newInstance(tQueueMessage);
+    }
+
+    @Benchmark
+    public byte[] thriftEncode() throws TException {
+        return serializer.serialize(TQueueServiceImpl.toTQueueMessage(queueMessage));
+    }
+
+    @Benchmark
+    public QueueMessage thriftDecode() throws TException {
+        TQueueMessage msg = new TQueueMessage();
+        deserializer.deserialize(msg, thriftBytes);
+        return QueueMessage.newInstance(msg);
+    }
+
+    @Benchmark
+    public String jsonEncode() {
+        return SerializationUtils.toJsonString(QueueServerUtils
+                .queueMessageToResponseParams(queueMessage));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Benchmark
+    public QueueMessage jsonDecode() {
+        Map<String, Object> params = SerializationUtils.fromJsonString(json, Map.class);
+        return QueueServerUtils.queueMessageFromRequestParams(params);
+    }
+}
@@ -0,0 +1,203 @@
+package benchmark;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.HdrHistogram.Histogram;
+import org.apache.thrift.protocol.TBinaryProtocol;
+import org.apache.thrift.protocol.TCompactProtocol;
+import org.apache.thrift.transport.TFramedTransport;
+import org.apache.thrift.transport.TSocket;
+import org.apache.thrift.transport.TTransport;
+
+import com.github.btnguyen2k.queueserver.thrift.TQueueMessage;
+import com.github.btnguyen2k.queueserver.thrift.TQueueResponse;
+import com.github.btnguyen2k.queueserver.thrift.TQueueService;
+
+/**
+ * Load-test harness for the Thrift API server: {@code threads} clients, each
+ * on its own connection, loop {@code queue} + {@code take} + {@code finish}
+ * against a running server and the harness reports throughput and latency
+ * percentiles per operation.
+ * 
+ * <p>
+ * Run it once per Thrift server mode (see {@code -Dthrift.serverType}) to
+ * compare modes on a given machine:
+ * </p>
+ * 
+ * <pre>
+ * play "queue-server-benchmark/run-main benchmark.ThriftLoadTest port=9090 mode=hsha threads=64 seconds=30 size=1024"
+ * </pre>
+ * 
+ * <p>
+ * Arguments ({@code key=value}): {@code host} (default {@code localhost}),
+ * {@code port} ({@code 9090}), {@code mode} (label printed in the report),
+ * {@code threads} ({@code 16}), {@code warmup} (seconds, {@code 5}),
+ * {@code seconds} ({@code 30}), {@code size} (message size in bytes,
+ * {@code 1024}), {@code queue} ({@code loadtest}), {@code secret}
+ * ({@code s3cr3t}), {@code protocol} ({@code compact} or {@code binary}).
+ * </p>
+ * 
+ * @author Thanh Nguyen <btnguyen2k@gmail.com>
+ * @since 0.4.0
+ */
+public class ThriftLoadTest {
+
+    private final static String[] OPERATIONS = { "queue", "take", "finish" };
+
+    private static Map<String, String> parseArgs(String[] args) {
+        Map<String, String> result = new HashMap<String, String>();
+        result.put("host", "localhost");
+        result.put("port", "9090");
+        result.put("mode", "");
+        result.put("threads", "16");
+        result.put("warmup", "5");
+        result.put("seconds", "30");
+        result.put("size", "1024");
+        result.put("queue", "loadtest");
+        result.put("secret", "s3cr3t");
+        result.put("protocol", "compact");
+        for (String arg : args) {
+            int i = arg.indexOf('=');
+            if (i > 0) {
+                result.put(arg.substring(0, i).trim(), arg.substring(i + 1).trim());
+            }
+        }
+        return result;
+    }
+
+    private static TQueueService.Client connect(String host, int port, boolean binary)
+            throws Exception {
+        TTransport transport = new TFramedTransport(new TSocket(host, port));
+        transport.open();
+        return new TQueueService.Client(binary ? new TBinaryProtocol(transport)
+                : new TCompactProtocol(transport));
+    }
+
+    private static class Worker extends Thread {
+        private final TQueueService.Client client;
+        private final String secret, queueName;
+        private final byte[] content;
+        private final long measureStart, measureEnd;
+        private final CountDownLatch done;
+        private final AtomicLong errors;
+        private final Histogram[] histograms = new Histogram[OPERATIONS.length];
+
+        Worker(TQueueService.Client client, String secret, String queueName, byte[] content,
+                long measureStart, long measureEnd, CountDownLatch done, AtomicLong errors) {
+            this.client = client;
+            this.secret = secret;
+            this.queueName = queueName;
+            this.content = content;
+            this.measureStart = measureStart;
+            this.measureEnd = measureEnd;
+            this.done = done;
+            this.errors = errors;
+            for (int i = 0; i < histograms.length; i++) {
+                histograms[i] = new Histogram(3);
+            }
+        }
+
+        private void record(int op, long startNanos) {
+            long now = System.currentTimeMillis();
+            if (now >= measureStart && now < measureEnd) {
+                histograms[op].recordValue((System.nanoTime() - startNanos) / 1000);
+            }
+        }
+
+        @Override
+        public void run() {
+            try {
+                TQueueMessage msg = new TQueueMessage();
+                msg.setMsgContent(content);
+                while (System.currentTimeMillis() < measureEnd) {
+                    try {
+                        long t = System.nanoTime();
+                        client.queue(secret, queueName, msg);
+                        record(0, t);
+
+                        t = System.nanoTime();
+                        TQueueResponse response = client.take(secret, queueName, 0);
+                        record(1, t);
+
+                        if (response.getQueueMessage() != null) {
+                            t = System.nanoTime();
+                            client.finish(secret, queueName, response.getQueueMessage());
+                            record(2, t);
+                        }
+                    } catch (Exception e) {
+                        errors.incrementAndGet();
+                    }
+                }
+            } finally {
+                client.getInputProtocol().getTransport().close();
+                done.countDown();
+            }
+        }
+    }
+
+    public static void main(String[] _args) throws Exception {
+        Map<String, String> args = parseArgs(_args);
+        String host = args.get("host");
+        int port = Integer.parseInt(args.get("port"));
+        int numThreads = Integer.parseInt(args.get("threads"));
+        long warmupMs = Long.parseLong(args.get("warmup")) * 1000;
+        long durationMs = Long.parseLong(args.get("seconds")) * 1000;
+        String queueName = args.get("queue");
+        String secret = args.get("secret");
+        boolean binary = "binary".equalsIgnoreCase(args.get("protocol"));
+        byte[] content = new byte[Integer.parseInt(args.get("size"))];
+        new Random(content.length).nextBytes(content);
+
+        TQueueService.Client admin = connect(host, port, binary);
+        TQueueResponse initResponse = admin.initQueue(secret, queueName);
+        admin.getInputProtocol().getTransport().close();
+        if (initResponse.getStatus() != 200) {
+            System.err.println("Cannot init queue [" + queueName + "]: "
+                    + initResponse.getMessage());
+            return;
+        }
+
+        List<TQueueService.Client> clients = new ArrayList<TQueueService.Client>(numThreads);
+        for (int i = 0; i < numThreads; i++) {
+            clients.add(connect(host, port, binary));
+        }
+        long measureStart = System.currentTimeMillis() + warmupMs;
+        long measureEnd = measureStart + durationMs;
+        CountDownLatch done = new CountDownLatch(numThreads);
+        AtomicLong errors = new AtomicLong();
+        List<Worker> workers = new ArrayList<Worker>(numThreads);
+        for (TQueueService.Client client : clients) {
+            Worker worker = new Worker(client, secret, queueName, content, measureStart,
+                    measureEnd, done, errors);
+            workers.add(worker);
+            worker.start();
+        }
+        done.await(warmupMs + durationMs + 60000, TimeUnit.MILLISECONDS);
+
+        System.out.println(String.format("Thrift load test: server [%s:%d] mode [%s], "
+                + "protocol [%s], %d threads, %d-byte messages, %d s (after %d s warm-up), "
+                + "%d errors", host, port, args.get("mode"), binary ? "binary" : "compact",
+                numThreads, content.length, durationMs / 1000,
+                warmupMs / 1000, errors.get()));
+        System.out.println(String.format("%-8s %12s %10s %10s %10s %10s %10s", "op", "ops/s",
+                "mean(us)", "p50(us)", "p99(us)", "p99.9(us)", "max(us)"));
+        for (int op = 0; op < OPERATIONS.length; op++) {
+            Histogram total = new Histogram(3);
+            for (Worker worker : workers) {
+                total.add(worker.histograms[op]);
+            }
+            System.out.println(String.format("%-8s %12.1f %10.1f %10d %10d %10d %10d",
+                    OPERATIONS[op], total.getTotalCount() * 1000.0 / durationMs,
+                    total.getMean(), total.getValueAtPercentile(50.0),
+                    total.getValueAtPercentile(99.0), total.getValueAtPercentile(99.9),
+                    total.getMaxValue()));
+        }
+    }
+}
@@ -0,0 +1,19 @@
+-- Shared-table mode (sharedTable=true): all queues in one table, hash-partitioned by queue name.
+DROP TABLE IF EXISTS queue_messages;
+CREATE TABLE queue_messages (
+    queue_name                  VARCHAR(64)         NOT NULL            COMMENT "Queue's (normalized) name",
+    queue_id                    BIGINT              NOT NULL AUTO_INCREMENT,
+        PRIMARY KEY (queue_name, queue_id),
+        INDEX (queue_id),
+    msg_status                  TINYINT             NOT NULL DEFAULT 0  COMMENT "0: queued, 1: ephemeral (taken, not finished yet)",
+    msg_take_timestamp          DATETIME            NULL                COMMENT "When message was taken",
+    msg_take_token              BIGINT              NULL                COMMENT "Token of the take operation that claimed the message",
+    msg_org_timestamp           DATETIME            NOT NULL            COMMENT "Message's original timestamp, when requeued original timestamp unchanged",
+    msg_timestamp               DATETIME            NOT NULL            COMMENT "Message's queue timestamp",
+    msg_num_requeues            INT                 NOT NULL DEFAULT 0  COMMENT "How many times message has been requeued",
+    msg_content                 LONGBLOB,
+        INDEX (queue_name, msg_status, queue_id),
+        INDEX (queue_name, msg_status, msg_take_timestamp),
+        INDEX (queue_name, msg_take_token)
+) ENGINE=InnoDB DEFAULT CHARACTER SET utf8 COLLATE utf8_unicode_ci
+PARTITION BY KEY (queue_name) PARTITIONS 32;
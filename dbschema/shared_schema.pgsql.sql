@@ -0,0 +1,24 @@
+-- Shared-table mode (sharedTable=true): all queues in one table, hash-partitioned by queue name.
+-- Requires PostgreSQL 11+.
+DROP TABLE IF EXISTS queue_messages;
+CREATE TABLE queue_messages (
+    queue_name                  VARCHAR(64)         NOT NULL,
+    queue_id                    BIGSERIAL,
+    msg_status                  SMALLINT            NOT NULL DEFAULT 0,
+    msg_take_timestamp          TIMESTAMP,
+    msg_org_timestamp           TIMESTAMP           NOT NULL,
+    msg_timestamp               TIMESTAMP           NOT NULL,
+    msg_num_requeues            INT                 NOT NULL DEFAULT 0,
+    msg_content                 BYTEA,
+    PRIMARY KEY (queue_name, queue_id)
+) PARTITION BY HASH (queue_name);
+CREATE TABLE queue_messages_p0 PARTITION OF queue_messages FOR VALUES WITH (MODULUS 8, REMAINDER 0);
+CREATE TABLE queue_messages_p1 PARTITION OF queue_messages FOR VALUES WITH (MODULUS 8, REMAINDER 1);
+CREATE TABLE queue_messages_p2 PARTITION OF queue_messages FOR VALUES WITH (MODULUS 8, REMAINDER 2);
+CREATE TABLE queue_messages_p3 PARTITION OF queue_messages FOR VALUES WITH (MODULUS 8, REMAINDER 3);
+CREATE TABLE queue_messages_p4 PARTITION OF queue_messages FOR VALUES WITH (MODULUS 8, REMAINDER 4);
+CREATE TABLE queue_messages_p5 PARTITION OF queue_messages FOR VALUES WITH (MODULUS 8, REMAINDER 5);
+CREATE TABLE queue_messages_p6 PARTITION OF queue_messages FOR VALUES WITH (MODULUS 8, REMAINDER 6);
+CREATE TABLE queue_messages_p7 PARTITION OF queue_messages FOR VALUES WITH (MODULUS 8, REMAINDER 7);
+CREATE INDEX queue_messages_status_id ON queue_messages(queue_name, msg_status, queue_id);
+CREATE INDEX queue_messages_status_take_timestamp ON queue_messages(queue_name, msg_status, msg_take_timestamp);
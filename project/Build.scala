@@ -20,6 +20,7 @@ object ApplicationBuild extends Build {
         "org.slf4j"                  %  "log4j-over-slf4j"       % "1.7.12",
         "org.apache.thrift"          %  "libthrift"              % "0.9.2",
         "com.google.guava"           %  "guava"                  % "18.0",
+        "org.hdrhistogram"           %  "HdrHistogram"           % "2.1.8",
         "mysql"                      %  "mysql-connector-java"   % "5.1.35",
         "org.postgresql"             %  "postgresql"             % "9.4-1201-jdbc41",
         
@@ -54,4 +55,25 @@ object ApplicationBuild extends Build {
         // Force compilation in targetted java version
         javacOptions in Compile ++= Seq("-source", _javaVersion, "-target", _javaVersion)
     )
+    
+    val _jmhVersion = "1.11.3"
+    
+    /*
+     * JMH benchmarks, run with:
+     * sbt "queue-server-benchmark/run -i 5 -wi 3 -f 1"
+     */
+    val benchmark = Project(appName + "-benchmark", file("benchmark")).dependsOn(main).settings(
+        libraryDependencies ++= Seq(
+            "org.openjdk.jmh"        %  "jmh-core"                 % _jmhVersion,
+            "org.openjdk.jmh"        %  "jmh-generator-annprocess" % _jmhVersion,
+            "com.h2database"         %  "h2"                       % "1.4.191",
+            "com.github.kstyrc"      %  "embedded-redis"           % "0.6"
+        ),
+        
+        javacOptions in Compile ++= Seq("-source", _javaVersion, "-target", _javaVersion),
+        
+        // JMH forks benchmark JVMs with the current classpath
+        fork in run := true,
+        mainClass in (Compile, run) := Some("org.openjdk.jmh.Main")
+    )
 }
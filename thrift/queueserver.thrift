@@ -23,7 +23,16 @@ struct TQueueResponse {
 struct TQueueSizeResponse {
     1: i32 status,
     2: string message,
-    3: i64 size
+    3: i64 size,
+    4: i64 stalenessMs = 0
+}
+
+struct TQueueBatchResponse {
+    1: i32 status,
+    2: string message,
+    3: bool result,
+    4: list<bool> results,
+    5: list<TQueueMessage> queueMessages
 }
 
 service TQueueService {
@@ -65,6 +74,16 @@ service TQueueService {
      */
     TQueueResponse queue(1: string _secret, 2: string _queueName, 3: TQueueMessage _message),
     
+    /**
+     * Puts a batch of messages to a queue.
+     *
+     * @param _secret
+     * @param _queueName
+     * @param _messages
+     * @return {@code status == 200} if successful, {@code status == 404} if queue does not exist; {@code status == 500} means "exception/error on server"; {@code results} holds outcome of each message, in order
+     */
+    TQueueBatchResponse queueBatch(1: string _secret, 2: string _queueName, 3: list<TQueueMessage> _messages),
+    
     /**
      * Re-queues a message.
      *
@@ -95,30 +114,53 @@ service TQueueService {
      */
     TQueueResponse finish(1: string _secret, 2: string _queueName, 3: TQueueMessage _message),
     
+    /**
+     * Called when finish processing a batch of messages to cleanup ephemeral storage. Messages are identified by their queue ids.
+     *
+     * @param _secret
+     * @param _queueName
+     * @param _queueIds
+     * @return {@code status == 200} if successful (number of finished messages is in {@code message}), {@code status == 404} if queue does not exist; {@code status == 500} means "exception/error on server"
+     */
+    TQueueResponse finishBatch(1: string _secret, 2: string _queueName, 3: list<i64> _queueIds),
+    
     /**
      * Takes a message from a queue.
      *
      * @param _secret
      * @param _queueName
+     * @param _waitMillis if queue is empty, wait up to this number of milliseconds for a message to arrive (long-polling), {@code 0} means "do not wait"
      * @return {@code status == 200} if successful, {@code status == 404} if queue does not exist; {@code status == 500} means "exception/error on server"
      */
-    TQueueResponse take(1: string _secret, 2: string _queueName),
+    TQueueResponse take(1: string _secret, 2: string _queueName, 3: i64 _waitMillis = 0),
+    
+    /**
+     * Takes up to {@code _maxMessages} messages from a queue.
+     *
+     * @param _secret
+     * @param _queueName
+     * @param _maxMessages
+     * @return {@code status == 200} if successful, {@code status == 404} if queue does not exist; {@code status == 500} means "exception/error on server"; taken messages are in {@code queueMessages}
+     */
+    TQueueBatchResponse takeBatch(1: string _secret, 2: string _queueName, 3: i32 _maxMessages),
     
     /**
      * Gets number of items currently in a queue.
      *
      * @param _secret
      * @param _queueName
+     * @param _cached if {@code true}, return the server's cached approximate size instead of reading it from the backend; {@code stalenessMs} tells how long ago the cached size was last reconciled with the backend
      * @return {@code status == 200} if successful, {@code status == 404} if queue does not exist; {@code status == 500} means "exception/error on server"
      */
-    TQueueSizeResponse queueSize(1: string _secret, 2: string _queueName),
+    TQueueSizeResponse queueSize(1: string _secret, 2: string _queueName, 3: bool _cached = false),
     
     /**
      * Gets number of items currently in a queue's ephemeral storage.
      *
      * @param _secret
      * @param _queueName
+     * @param _cached if {@code true}, return the server's cached approximate size instead of reading it from the backend; {@code stalenessMs} tells how long ago the cached size was last reconciled with the backend
      * @return {@code status == 200} if successful, {@code status == 404} if queue does not exist; {@code status == 500} means "exception/error on server"
      */
-    TQueueSizeResponse ephemeralSize(1: string _secret, 2: string _queueName),
+    TQueueSizeResponse ephemeralSize(1: string _secret, 2: string _queueName, 3: bool _cached = false),
 }